@@ -0,0 +1,328 @@
+import ie.ucd.datastructures.bench.MapOps;
+import ie.ucd.datastructures.bench.PriorityQueueOps;
+import ie.ucd.datastructures.bench.SortOps;
+import ie.ucd.datastructures.bench.SortedMapOps;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Exposes the data structures of this project to the JMH benchmarks in
+ * ie.ucd.datastructures.bench, which cannot import default-package classes.
+ * The benchmarks call the factories below reflectively, once per trial.
+ */
+public class BenchmarkAdapters {
+
+    /**
+     * Creates an empty map of the named implementation.
+     *
+     * @param impl the simple class name of a Map implementation
+     * @return the map, wrapped as MapOps
+     * @throws IllegalArgumentException if no such implementation exists
+     */
+    public static MapOps<Object, Object> map(String impl) throws IllegalArgumentException {
+        switch (impl) {
+            case "ChainHashMap":
+                return new MapAdapter<>(new ChainHashMap<>());
+            case "ProbeHashMap":
+                return new MapAdapter<>(new ProbeHashMap<>());
+            case "ConcurrentChainHashMap":
+                return new MapAdapter<>(new ConcurrentChainHashMap<>());
+            case "UnsortedTableMap":
+                return new MapAdapter<>(new UnsortedTableMap<>());
+            case "TreeMap":
+                return new MapAdapter<>(new TreeMap<>());
+            case "AVLTreeMap":
+                return new MapAdapter<>(new AVLTreeMap<>());
+            case "ArrayAVLTreeMap":
+                return new MapAdapter<>(new ArrayAVLTreeMap<>());
+            case "RedBlackTreeMap":
+                return new MapAdapter<>(new RedBlackTreeMap<>());
+            case "BTreeMap":
+                return new MapAdapter<>(new BTreeMap<>());
+            case "SplayTreeMap":
+                return new MapAdapter<>(new SplayTreeMap<>());
+            case "ConcurrentSplayTreeMap":
+                return new MapAdapter<>(new ConcurrentSplayTreeMap<>());
+            case "SkipList":
+                return new MapAdapter<>(new SkipList<>());
+            case "ConcurrentSkipList":
+                return new MapAdapter<>(new ConcurrentSkipList<>());
+            case "PersistentAVLTreeMap":
+                return new MapAdapter<>(new PersistentAVLTreeMap<>());
+            default:
+                throw new IllegalArgumentException("Unknown map implementation: " + impl);
+        }
+    }
+
+    /**
+     * Creates an empty sorted map of the named implementation.
+     *
+     * @param impl the simple class name of a SortedMap implementation
+     * @return the map, wrapped as SortedMapOps
+     * @throws IllegalArgumentException if no such implementation exists
+     */
+    public static SortedMapOps<Object, Object> sortedMap(String impl) throws IllegalArgumentException {
+        switch (impl) {
+            case "TreeMap":
+                return new SortedMapAdapter<>(TreeMap::new);
+            case "AVLTreeMap":
+                return new SortedMapAdapter<>(AVLTreeMap::new);
+            case "ArrayAVLTreeMap":
+                return new SortedMapAdapter<>(ArrayAVLTreeMap::new);
+            case "RedBlackTreeMap":
+                return new SortedMapAdapter<>(RedBlackTreeMap::new);
+            case "BTreeMap":
+                return new SortedMapAdapter<>(BTreeMap::new);
+            case "SplayTreeMap":
+                return new SortedMapAdapter<>(SplayTreeMap::new);
+            case "ConcurrentSplayTreeMap":
+                return new SortedMapAdapter<>(ConcurrentSplayTreeMap::new);
+            case "SkipList":
+                return new SortedMapAdapter<>(SkipList::new);
+            case "ConcurrentSkipList":
+                return new SortedMapAdapter<>(ConcurrentSkipList::new);
+            case "PersistentAVLTreeMap":
+                return new SortedMapAdapter<>(PersistentAVLTreeMap::new);
+            default:
+                throw new IllegalArgumentException("Unknown sorted map implementation: " + impl);
+        }
+    }
+
+    /**
+     * Creates an empty priority queue of the named implementation.
+     *
+     * @param impl the simple class name of a PriorityQueue implementation, with
+     *             the arity appended for a heap of other than the default arity,
+     *             or Upheap or Heapify appended to fix how insertAll adds a batch;
+     *             SynchronizedHeapPriorityQueue is a HeapPriorityQueue whose every
+     *             operation holds one lock, the usual way to share a sequential queue
+     * @return the priority queue, wrapped as PriorityQueueOps
+     * @throws IllegalArgumentException if no such implementation exists
+     */
+    public static PriorityQueueOps<Object, Object> priorityQueue(String impl) throws IllegalArgumentException {
+        switch (impl) {
+            case "HeapPriorityQueue":
+                return new PriorityQueueAdapter<>(new HeapPriorityQueue<>());
+            case "HeapPriorityQueue2":
+                return new PriorityQueueAdapter<>(new HeapPriorityQueue<>(new DefaultComparator<>(), 2));
+            case "HeapPriorityQueue8":
+                return new PriorityQueueAdapter<>(new HeapPriorityQueue<>(new DefaultComparator<>(), 8));
+            case "HeapPriorityQueueUpheap":
+                return new PriorityQueueAdapter<>(new HeapPriorityQueue<>() {
+                    @Override
+                    protected boolean prefersHeapify(int n, int m) {
+                        return false;
+                    }
+                });
+            case "HeapPriorityQueueHeapify":
+                return new PriorityQueueAdapter<>(new HeapPriorityQueue<>() {
+                    @Override
+                    protected boolean prefersHeapify(int n, int m) {
+                        return true;
+                    }
+                });
+            case "HeapAdaptablePriorityQueue":
+                return new PriorityQueueAdapter<>(new HeapAdaptablePriorityQueue<>());
+            case "LongHeapPriorityQueue":
+                return new LongPriorityQueueAdapter<>(new LongHeapPriorityQueue<>());
+            case "SynchronizedHeapPriorityQueue":
+                return new SynchronizedPriorityQueueAdapter<>(new HeapPriorityQueue<>());
+            case "ConcurrentMultiQueue":
+                return new PriorityQueueAdapter<>(new ConcurrentMultiQueue<>());
+            default:
+                throw new IllegalArgumentException("Unknown priority queue implementation: " + impl);
+        }
+    }
+
+    /**
+     * Returns the named sorting algorithm of Sorter.
+     *
+     * @param impl the name of a public sorting method of Sorter, or ArraysSort
+     *             for java.util.Arrays.sort as a baseline
+     * @return the algorithm, as SortOps
+     * @throws IllegalArgumentException if no such algorithm exists
+     */
+    public static SortOps sorter(String impl) throws IllegalArgumentException {
+        switch (impl) {
+            case "insertionSort":
+                return Sorter::insertionSort;
+            case "quickSort":
+                return Sorter::quickSort;
+            case "radixSort":
+                return Sorter::radixSort;
+            case "parallelMergeSort":
+                return Sorter::parallelMergeSort;
+            case "xSort":
+                return Sorter::xSort;
+            case "ArraysSort":
+                return Arrays::sort;
+            default:
+                throw new IllegalArgumentException("Unknown sorting algorithm: " + impl);
+        }
+    }
+
+    // ---------------- nested MapAdapter class ----------------
+    private static class MapAdapter<K, V> implements MapOps<K, V> {
+        private final Map<K, V> map;
+
+        MapAdapter(Map<K, V> map) {
+            this.map = map;
+        }
+
+        public V get(K key) {
+            return map.get(key);
+        }
+
+        public V put(K key, V value) {
+            return map.put(key, value);
+        }
+
+        public V remove(K key) {
+            return map.remove(key);
+        }
+
+        public int size() {
+            return map.size();
+        }
+
+        public long iterate() {
+            long hash = 0;
+            for (Entry<K, V> e : map.entrySet())
+                hash += System.identityHashCode(e.getValue());
+            return hash;
+        }
+    } // ----------- end of nested MapAdapter class -----------
+
+    // ---------------- nested SortedMapAdapter class ----------------
+    private static class SortedMapAdapter<K, V> extends MapAdapter<K, V> implements SortedMapOps<K, V> {
+        private final SortedMap<K, V> sorted;
+        private final Supplier<SortedMap<K, V>> factory;
+
+        SortedMapAdapter(Supplier<SortedMap<K, V>> factory) {
+            this(factory.get(), factory);
+        }
+
+        private SortedMapAdapter(SortedMap<K, V> sorted, Supplier<SortedMap<K, V>> factory) {
+            super(sorted);
+            this.sorted = sorted;
+            this.factory = factory;
+        }
+
+        public K ceilingKey(K key) {
+            Entry<K, V> e = sorted.ceilingEntry(key);
+            return e == null ? null : e.getKey();
+        }
+
+        public K floorKey(K key) {
+            Entry<K, V> e = sorted.floorEntry(key);
+            return e == null ? null : e.getKey();
+        }
+
+        public long scan(K fromKey, K toKey) {
+            long hash = 0;
+            for (Entry<K, V> e : sorted.subMap(fromKey, toKey))
+                hash += System.identityHashCode(e.getValue());
+            return hash;
+        }
+
+        public long scanDescending(K fromKey, K toKey) {
+            long hash = 0;
+            for (Entry<K, V> e : sorted.subMap(fromKey, true, toKey, false).descendingMap().entrySet())
+                hash += System.identityHashCode(e.getValue());
+            return hash;
+        }
+
+        public SortedMapOps<K, V> newEmpty() {
+            return new SortedMapAdapter<>(factory);
+        }
+    } // ----------- end of nested SortedMapAdapter class -----------
+
+    // ---------------- nested PriorityQueueAdapter class ----------------
+    private static class PriorityQueueAdapter<K, V> implements PriorityQueueOps<K, V> {
+        private final PriorityQueue<K, V> queue;
+
+        PriorityQueueAdapter(PriorityQueue<K, V> queue) {
+            this.queue = queue;
+        }
+
+        public void insert(K key, V value) {
+            queue.insert(key, value);
+        }
+
+        public void insertAll(K[] keys, V[] values) {
+            if (queue instanceof HeapPriorityQueue) {
+                ((HeapPriorityQueue<K, V>) queue).insertAll(keys, values);
+            } else {
+                for (int i = 0; i < keys.length; i++) {
+                    queue.insert(keys[i], values[i]);
+                }
+            }
+        }
+
+        public K removeMin() {
+            Entry<K, V> min = queue.removeMin();
+            return min == null ? null : min.getKey();
+        }
+
+        public int size() {
+            return queue.size();
+        }
+    } // ----------- end of nested PriorityQueueAdapter class -----------
+
+    // ---------------- nested SynchronizedPriorityQueueAdapter class ----------------
+    private static class SynchronizedPriorityQueueAdapter<K, V> extends PriorityQueueAdapter<K, V> {
+
+        SynchronizedPriorityQueueAdapter(PriorityQueue<K, V> queue) {
+            super(queue);
+        }
+
+        public synchronized void insert(K key, V value) {
+            super.insert(key, value);
+        }
+
+        public synchronized void insertAll(K[] keys, V[] values) {
+            super.insertAll(keys, values);
+        }
+
+        public synchronized K removeMin() {
+            return super.removeMin();
+        }
+
+        public synchronized int size() {
+            return super.size();
+        }
+    } // ----------- end of nested SynchronizedPriorityQueueAdapter class -----------
+
+    // ---------------- nested LongPriorityQueueAdapter class ----------------
+    /*
+     * Uses the primitive methods of LongHeapPriorityQueue. Integer keys are
+     * widened and other keys are ordered by their hash code; the benchmarks
+     * store each key as its own value, so removeMin reports the value.
+     */
+    private static class LongPriorityQueueAdapter<K> implements PriorityQueueOps<K, K> {
+        private final LongHeapPriorityQueue<K> queue;
+
+        LongPriorityQueueAdapter(LongHeapPriorityQueue<K> queue) {
+            this.queue = queue;
+        }
+
+        public void insert(K key, K value) {
+            queue.insert(key instanceof Number ? ((Number) key).longValue() : key.hashCode(), value);
+        }
+
+        public void insertAll(K[] keys, K[] values) {
+            for (int i = 0; i < keys.length; i++) {
+                insert(keys[i], values[i]);
+            }
+        }
+
+        public K removeMin() {
+            return queue.removeMinValue();
+        }
+
+        public int size() {
+            return queue.size();
+        }
+    } // ----------- end of nested LongPriorityQueueAdapter class -----------
+}
@@ -0,0 +1,30 @@
+package ie.ucd.datastructures.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Entry point of benchmarks.jar. Hands the command line to JMH's own main
+ * (for example <code>MapBenchmark.get -p impl=TreeMap,AVLTreeMap -p size=100000</code>,
+ * or <code>-l</code> and <code>-h</code> to list benchmarks and options)
+ * and always attaches the GC profiler, which reports allocation rate per
+ * operation (gc.alloc.rate.norm) alongside the timings.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ArrayList<String> command = new ArrayList<>(Arrays.asList(args));
+        boolean gcProfiled = false;
+        for (int i = 0; i + 1 < args.length; i++) {
+            gcProfiled |= args[i].equals("-prof") && args[i + 1].startsWith("gc");
+        }
+        if (!gcProfiled) {
+            command.add(0, "-prof");
+            command.add(1, "gc");
+        }
+        org.openjdk.jmh.Main.main(command.toArray(new String[0]));
+    }
+}
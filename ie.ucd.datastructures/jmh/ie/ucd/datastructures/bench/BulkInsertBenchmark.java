@@ -0,0 +1,106 @@
+package ie.ucd.datastructures.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * insertAll of a batch of <code>batch</code> entries into a priority queue
+ * already holding <code>size</code> entries.
+ * <p>
+ * HeapPriorityQueueUpheap always adds the batch by one upheap per entry and
+ * HeapPriorityQueueHeapify always by bottom-up construction, so comparing
+ * them over the batch sizes shows the crossover point; HeapPriorityQueue
+ * chooses between the two. The queue keys are random; the batch keys are
+ * random (RANDOM) or decreasing and smaller than every queued key
+ * (DESCENDING), which makes every upheap climb to the root.
+ * <p>
+ * Every call needs a queue the batch has not been added to yet, and a small
+ * batch takes only microseconds, too little to time a setup per call
+ * accurately. Each iteration therefore builds a pool of POOL queues, given
+ * room for the batch so that growing their arrays is not timed, and then
+ * times POOL calls in one shot, one per queue; the score is the time per
+ * call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = BulkInsertBenchmark.POOL)
+@Measurement(iterations = 10, batchSize = BulkInsertBenchmark.POOL)
+@OperationsPerInvocation(BulkInsertBenchmark.POOL)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    /** The number of queues built per iteration, and of calls timed together. */
+    static final int POOL = 128;
+
+    public enum BatchOrder { RANDOM, DESCENDING }
+
+    @Param({"HeapPriorityQueueUpheap", "HeapPriorityQueueHeapify", "HeapPriorityQueue"})
+    String impl;
+
+    @Param({"0", "100000"})
+    int size;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    int batch;
+
+    @Param({"RANDOM", "DESCENDING"})
+    BatchOrder order;
+
+    private Object[] queued;             // the queue keys, then batch fillers smaller than any key
+    private Object[] batchKeys;
+    private final ArrayList<PriorityQueueOps<Object, Object>> queues = new ArrayList<>();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUpKeys() {
+        Random rnd = new Random(20280);
+        queued = new Object[size + batch];
+        for (int i = 0; i < size; i++) {
+            queued[i] = rnd.nextInt(Integer.MAX_VALUE);
+        }
+        for (int i = 0; i < batch; i++) {
+            queued[size + i] = Integer.MIN_VALUE + i;
+        }
+        batchKeys = new Object[batch];
+        for (int i = 0; i < batch; i++) {
+            batchKeys[i] = (order == BatchOrder.RANDOM ? rnd.nextInt(Integer.MAX_VALUE) : -1 - i);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpQueues() {
+        queues.clear();
+        for (int q = 0; q < POOL; q++) {
+            PriorityQueueOps<Object, Object> queue = Targets.priorityQueue(impl);
+            queue.insertAll(queued, queued);
+            for (int i = 0; i < batch; i++) {
+                queue.removeMin();           // the fillers leave room for the batch
+            }
+            queues.add(queue);
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public int insertAll() {
+        PriorityQueueOps<Object, Object> queue = queues.get(next++);
+        queue.insertAll(batchKeys, batchKeys);
+        return queue.size();
+    }
+}
@@ -0,0 +1,100 @@
+package ie.ucd.datastructures.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * get and put from several threads on one shared, thread-safe map.
+ * <p>
+ * The map is filled as in MapBenchmark. get runs on four threads that only
+ * read; the readWrite group runs three reading threads against one thread
+ * that overwrites existing keys, so the size stays constant. Each thread
+ * walks its own stream of keys drawn according to <code>distribution</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentMapBenchmark {
+    private static final int STREAM_LENGTH = 1 << 16;
+
+    @Param({"ConcurrentChainHashMap", "ConcurrentSkipList", "ConcurrentSplayTreeMap", "PersistentAVLTreeMap"})
+    String impl;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    KeyDistribution distribution;
+
+    private MapOps<Object, Object> map;
+    private Object[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(20280);
+        keys = KeyType.INTEGER.distinctKeys(size, rnd);
+        map = Targets.map(impl);
+        for (int i : KeyDistribution.shuffledIndices(size, rnd)) {
+            map.put(keys[i], keys[i]);
+        }
+        if (map.size() != size) {
+            throw new IllegalStateException(impl + " holds " + map.size() + " entries, expected " + size);
+        }
+    }
+
+    /** The key stream of one thread. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int[] stream;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(ConcurrentMapBenchmark b) {
+            stream = b.distribution.stream(b.size, STREAM_LENGTH, new Random(Thread.currentThread().getId()));
+        }
+
+        Object nextKey(Object[] keys) {
+            return keys[stream[next++ & (STREAM_LENGTH - 1)]];
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object get(Cursor c) {
+        return map.get(c.nextKey(keys));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Object readWriteGet(Cursor c) {
+        return map.get(c.nextKey(keys));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public Object readWritePut(Cursor c) {
+        Object key = c.nextKey(keys);
+        return map.put(key, key);
+    }
+}
@@ -0,0 +1,108 @@
+package ie.ucd.datastructures.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of insert/removeMin from 1, 4, 16 and 64 threads sharing one
+ * thread-safe priority queue.
+ * <p>
+ * The queue is pre-filled with <code>size</code> entries; each operation
+ * inserts a key drawn according to <code>distribution</code> from the
+ * thread's own stream and removes a minimum, so the queue size stays
+ * constant. SynchronizedHeapPriorityQueue, a HeapPriorityQueue behind a
+ * single lock, is the baseline. The scores are in operations per
+ * microsecond summed over all threads, so a flat score across thread counts
+ * means the threads are serialized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentPriorityQueueBenchmark {
+    private static final int STREAM_LENGTH = 1 << 16;
+
+    @Param({"SynchronizedHeapPriorityQueue", "ConcurrentMultiQueue"})
+    String impl;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"UNIFORM", "SEQUENTIAL"})
+    KeyDistribution distribution;
+
+    private PriorityQueueOps<Object, Object> queue;
+    private Object[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(20280);
+        keys = KeyType.INTEGER.distinctKeys(size, rnd);
+        queue = Targets.priorityQueue(impl);
+        for (int i : KeyDistribution.shuffledIndices(size, rnd)) {
+            queue.insert(keys[i], keys[i]);
+        }
+    }
+
+    /** The key stream of one thread. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int[] stream;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(ConcurrentPriorityQueueBenchmark b) {
+            stream = b.distribution.stream(b.size, STREAM_LENGTH, new Random(Thread.currentThread().getId()));
+        }
+
+        Object nextKey(Object[] keys) {
+            return keys[stream[next++ & (STREAM_LENGTH - 1)]];
+        }
+    }
+
+    private Object insertRemoveMin(Cursor c) {
+        Object key = c.nextKey(keys);
+        queue.insert(key, key);
+        return queue.removeMin();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object threads1(Cursor c) {
+        return insertRemoveMin(c);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object threads4(Cursor c) {
+        return insertRemoveMin(c);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object threads16(Cursor c) {
+        return insertRemoveMin(c);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Object threads64(Cursor c) {
+        return insertRemoveMin(c);
+    }
+}
@@ -0,0 +1,72 @@
+package ie.ucd.datastructures.bench;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The order in which a benchmark accesses the keys of a structure of a given
+ * size, expressed as a stream of indices into the sorted key array.
+ */
+public enum KeyDistribution {
+    /** Every key is equally likely. */
+    UNIFORM {
+        @Override
+        int[] stream(int size, int length, Random rnd) {
+            int[] stream = new int[length];
+            for (int i = 0; i < length; i++) {
+                stream[i] = rnd.nextInt(size);
+            }
+            return stream;
+        }
+    },
+    /** Key popularity follows Zipf's law with exponent 0.99, as in YCSB; hot keys are scattered. */
+    ZIPFIAN {
+        @Override
+        int[] stream(int size, int length, Random rnd) {
+            double[] cdf = new double[size];
+            double sum = 0;
+            for (int rank = 0; rank < size; rank++) {
+                sum += 1 / Math.pow(rank + 1, 0.99);
+                cdf[rank] = sum;
+            }
+            int[] keyOfRank = shuffledIndices(size, rnd);
+            int[] stream = new int[length];
+            for (int i = 0; i < length; i++) {
+                int rank = Arrays.binarySearch(cdf, rnd.nextDouble() * sum);
+                stream[i] = keyOfRank[Math.min(rank < 0 ? -(rank + 1) : rank, size - 1)];
+            }
+            return stream;
+        }
+    },
+    /** Keys are visited in ascending order, wrapping around at the end. */
+    SEQUENTIAL {
+        @Override
+        int[] stream(int size, int length, Random rnd) {
+            int[] stream = new int[length];
+            for (int i = 0; i < length; i++) {
+                stream[i] = i % size;
+            }
+            return stream;
+        }
+    };
+
+    /**
+     * Returns a stream of the given length of indices in [0, size).
+     */
+    abstract int[] stream(int size, int length, Random rnd);
+
+    /** Returns a random permutation of 0..n-1. */
+    static int[] shuffledIndices(int n, Random rnd) {
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int tmp = indices[i];
+            indices[i] = indices[j];
+            indices[j] = tmp;
+        }
+        return indices;
+    }
+}
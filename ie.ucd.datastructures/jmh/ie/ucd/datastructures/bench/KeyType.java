@@ -0,0 +1,44 @@
+package ie.ucd.datastructures.bench;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The type of the keys stored in the structures under test.
+ */
+public enum KeyType {
+    INTEGER {
+        @Override
+        Object randomKey(Random rnd) {
+            return rnd.nextInt();
+        }
+    },
+    STRING {
+        @Override
+        Object randomKey(Random rnd) {
+            return Long.toString(rnd.nextLong() >>> 1, 36);
+        }
+    };
+
+    abstract Object randomKey(Random rnd);
+
+    /**
+     * Returns n distinct random keys in ascending order, so that index order
+     * and key order coincide.
+     */
+    Object[] distinctKeys(int n, Random rnd) {
+        Set<Object> seen = new HashSet<>(2 * n);
+        Object[] keys = new Object[n];
+        int i = 0;
+        while (i < n) {
+            Object key = randomKey(rnd);
+            if (seen.add(key)) {
+                keys[i++] = key;
+            }
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+}
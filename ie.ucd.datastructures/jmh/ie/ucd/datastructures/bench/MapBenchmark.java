@@ -0,0 +1,96 @@
+package ie.ucd.datastructures.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * get/put/remove/iterate on every Map and SortedMap implementation.
+ * <p>
+ * The map is filled with <code>size</code> distinct keys, inserted in random
+ * order, and the measured operations then walk a pre-computed stream of keys
+ * drawn according to <code>distribution</code>. put overwrites existing keys
+ * and removeAndPut re-inserts what it removed, so the size stays constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark {
+    private static final int STREAM_LENGTH = 1 << 16;
+
+    @Param({"ChainHashMap", "ProbeHashMap", "ConcurrentChainHashMap", "UnsortedTableMap",
+            "TreeMap", "AVLTreeMap", "ArrayAVLTreeMap", "RedBlackTreeMap", "SplayTreeMap",
+            "ConcurrentSplayTreeMap", "BTreeMap", "SkipList", "ConcurrentSkipList", "PersistentAVLTreeMap"})
+    String impl;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"UNIFORM", "ZIPFIAN", "SEQUENTIAL"})
+    KeyDistribution distribution;
+
+    @Param({"INTEGER", "STRING"})
+    KeyType keyType;
+
+    private MapOps<Object, Object> map;
+    private Object[] keys;
+    private int[] stream;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(20280);
+        keys = keyType.distinctKeys(size, rnd);
+        stream = distribution.stream(size, STREAM_LENGTH, rnd);
+        map = Targets.map(impl);
+        for (int i : KeyDistribution.shuffledIndices(size, rnd)) {
+            map.put(keys[i], keys[i]);
+        }
+        if (map.size() != size) {
+            throw new IllegalStateException(impl + " holds " + map.size() + " entries, expected " + size);
+        }
+    }
+
+    private Object nextKey() {
+        return keys[stream[cursor++ & (STREAM_LENGTH - 1)]];
+    }
+
+    @Benchmark
+    public Object get() {
+        return map.get(nextKey());
+    }
+
+    @Benchmark
+    public Object put() {
+        Object key = nextKey();
+        return map.put(key, key);
+    }
+
+    @Benchmark
+    public Object removeAndPut() {
+        Object key = nextKey();
+        Object value = map.remove(key);
+        map.put(key, key);
+        return value;
+    }
+
+    @Benchmark
+    public long iterate() {
+        return map.iterate();
+    }
+}
@@ -0,0 +1,27 @@
+package ie.ucd.datastructures.bench;
+
+/**
+ * The map operations measured by the benchmarks.
+ * <p>
+ * The data structures under test live in the default package, which classes
+ * in a named package (as JMH requires benchmarks to be) cannot refer to. The
+ * default-package BenchmarkAdapters class wraps each implementation behind
+ * this interface instead.
+ */
+public interface MapOps<K, V> {
+
+    V get(K key);
+
+    V put(K key, V value);
+
+    V remove(K key);
+
+    int size();
+
+    /**
+     * Visits every entry of the map.
+     *
+     * @return a value derived from all the visited entries, to be consumed by a Blackhole
+     */
+    long iterate();
+}
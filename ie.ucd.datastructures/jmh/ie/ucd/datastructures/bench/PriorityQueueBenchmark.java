@@ -0,0 +1,74 @@
+package ie.ucd.datastructures.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * insert/removeMin on every PriorityQueue implementation.
+ * <p>
+ * The queue is pre-filled with <code>size</code> entries; each measured
+ * operation inserts a key drawn according to <code>distribution</code> and
+ * removes the minimum, so the queue size stays constant. HeapPriorityQueue
+ * has the default arity of 4, and HeapPriorityQueue2 and HeapPriorityQueue8
+ * have arity 2 and 8. LongHeapPriorityQueue orders STRING keys by hash code.
+ * ConcurrentMultiQueue shows the single-threaded cost of its locks and
+ * random shard choice; ConcurrentPriorityQueueBenchmark measures it shared.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriorityQueueBenchmark {
+    private static final int STREAM_LENGTH = 1 << 16;
+
+    @Param({"HeapPriorityQueue2", "HeapPriorityQueue", "HeapPriorityQueue8", "HeapAdaptablePriorityQueue",
+            "LongHeapPriorityQueue", "ConcurrentMultiQueue"})
+    String impl;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"UNIFORM", "ZIPFIAN", "SEQUENTIAL"})
+    KeyDistribution distribution;
+
+    @Param({"INTEGER", "STRING"})
+    KeyType keyType;
+
+    private PriorityQueueOps<Object, Object> queue;
+    private Object[] keys;
+    private int[] stream;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(20280);
+        keys = keyType.distinctKeys(size, rnd);
+        stream = distribution.stream(size, STREAM_LENGTH, rnd);
+        queue = Targets.priorityQueue(impl);
+        for (int i : KeyDistribution.shuffledIndices(size, rnd)) {
+            queue.insert(keys[i], keys[i]);
+        }
+    }
+
+    @Benchmark
+    public Object insertRemoveMin() {
+        Object key = keys[stream[cursor++ & (STREAM_LENGTH - 1)]];
+        queue.insert(key, key);
+        return queue.removeMin();
+    }
+}
@@ -0,0 +1,25 @@
+package ie.ucd.datastructures.bench;
+
+/**
+ * The priority queue operations measured by the benchmarks. See MapOps for
+ * why the implementations are reached through an interface.
+ */
+public interface PriorityQueueOps<K, V> {
+
+    void insert(K key, V value);
+
+    /**
+     * Inserts the respective pairs of the two arrays, in bulk where the
+     * implementation supports it.
+     */
+    void insertAll(K[] keys, V[] values);
+
+    /**
+     * Removes an entry with minimal key.
+     *
+     * @return the key of the removed entry (or null if empty)
+     */
+    K removeMin();
+
+    int size();
+}
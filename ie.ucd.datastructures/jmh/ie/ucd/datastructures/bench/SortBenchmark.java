@@ -0,0 +1,86 @@
+package ie.ucd.datastructures.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting an int array with each algorithm of Sorter, against Arrays.sort.
+ * <p>
+ * Every operation copies an unsorted input into a work array and sorts it;
+ * the copy costs the same for every algorithm. Small sizes cycle through
+ * several inputs, so that the branch predictor cannot learn the comparisons
+ * of a single one and flatter the comparison sorts. The input is random
+ * (RANDOM), has only 16 distinct values (FEW_DISTINCT), or is already sorted
+ * but for 1% of its elements (NEARLY_SORTED).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+
+    /** The kind of input to sort. */
+    public enum Order {
+        RANDOM, FEW_DISTINCT, NEARLY_SORTED
+    }
+
+    @Param({"quickSort", "radixSort", "parallelMergeSort", "xSort", "ArraysSort"})
+    String impl;
+
+    @Param({"100", "1000", "10000", "100000", "1000000", "10000000"})
+    int size;
+
+    @Param({"RANDOM", "FEW_DISTINCT", "NEARLY_SORTED"})
+    Order order;
+
+    private static final int INPUT_ELEMENTS = 1 << 16;
+
+    private SortOps sorter;
+    private int[][] inputs;
+    private int next;
+    private int[] work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(20010);
+        sorter = Targets.sorter(impl);
+        inputs = new int[Math.max(1, INPUT_ELEMENTS / size)][];
+        for (int j = 0; j < inputs.length; j++) {
+            int[] data = new int[size];
+            for (int i = 0; i < size; i++) {
+                data[i] = (order == Order.FEW_DISTINCT ? rnd.nextInt(16) : rnd.nextInt());
+            }
+            if (order == Order.NEARLY_SORTED) {
+                Arrays.sort(data);
+                for (int i = 0; i < size / 100; i++) {
+                    data[rnd.nextInt(size)] = rnd.nextInt();
+                }
+            }
+            inputs[j] = data;
+        }
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(inputs[next++ % inputs.length], 0, work, 0, size);
+        sorter.sort(work);
+        return work;
+    }
+}
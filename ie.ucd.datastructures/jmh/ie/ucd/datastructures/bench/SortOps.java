@@ -0,0 +1,10 @@
+package ie.ucd.datastructures.bench;
+
+/**
+ * A sorting algorithm measured by the benchmarks. See MapOps for why the
+ * implementations are reached through an interface.
+ */
+public interface SortOps {
+
+    void sort(int[] array);
+}
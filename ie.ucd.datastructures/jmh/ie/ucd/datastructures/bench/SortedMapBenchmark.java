@@ -0,0 +1,123 @@
+package ie.ucd.datastructures.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ceiling/floor latency and build footprint of the SortedMap implementations.
+ * <p>
+ * 2 * <code>size</code> distinct keys are drawn and every other one is stored,
+ * so the probes (the keys in between) are never in the map and each search
+ * runs all the way down to a leaf. scan visits the SCAN_LENGTH entries
+ * following a probe through subMap, and scanDescending visits the same
+ * entries in reverse through a descendingMap view. build inserts <code>size</code> keys into
+ * an empty map; its gc.alloc.rate.norm divided by <code>size</code> is the
+ * number of bytes allocated per entry, including garbage left by growing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortedMapBenchmark {
+    private static final int STREAM_LENGTH = 1 << 16;
+    private static final int SCAN_LENGTH = 100;
+
+    @Param({"TreeMap", "AVLTreeMap", "ArrayAVLTreeMap", "RedBlackTreeMap", "SplayTreeMap",
+            "ConcurrentSplayTreeMap", "BTreeMap", "SkipList", "ConcurrentSkipList", "PersistentAVLTreeMap"})
+    String impl;
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"UNIFORM", "ZIPFIAN", "SEQUENTIAL"})
+    KeyDistribution distribution;
+
+    @Param({"INTEGER", "STRING"})
+    KeyType keyType;
+
+    private SortedMapOps<Object, Object> map;
+    private Object[] stored;
+    private Object[] probes;
+    private int[] insertOrder;
+    private int[] stream;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(20280);
+        Object[] keys = keyType.distinctKeys(2 * size, rnd);
+        stored = new Object[size];
+        probes = new Object[size];
+        for (int i = 0; i < size; i++) {
+            stored[i] = keys[2 * i];
+            probes[i] = keys[2 * i + 1];
+        }
+        stream = distribution.stream(size, STREAM_LENGTH, rnd);
+        insertOrder = KeyDistribution.shuffledIndices(size, rnd);
+        map = fill(Targets.sortedMap(impl));
+        if (map.size() != size) {
+            throw new IllegalStateException(impl + " holds " + map.size() + " entries, expected " + size);
+        }
+    }
+
+    private SortedMapOps<Object, Object> fill(SortedMapOps<Object, Object> target) {
+        for (int i : insertOrder) {
+            target.put(stored[i], stored[i]);
+        }
+        return target;
+    }
+
+    private Object nextProbe() {
+        return probes[nextIndex()];
+    }
+
+    private int nextIndex() {
+        return stream[cursor++ & (STREAM_LENGTH - 1)];
+    }
+
+    @Benchmark
+    public Object ceiling() {
+        return map.ceilingKey(nextProbe());
+    }
+
+    @Benchmark
+    public Object floor() {
+        return map.floorKey(nextProbe());
+    }
+
+    @Benchmark
+    public long scan() {
+        int i = nextIndex();
+        return map.scan(probes[i], probes[Math.min(i + SCAN_LENGTH, size - 1)]);
+    }
+
+    @Benchmark
+    public long scanDescending() {
+        int i = nextIndex();
+        return map.scanDescending(probes[i], probes[Math.min(i + SCAN_LENGTH, size - 1)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public Object build() {
+        return fill(map.newEmpty());
+    }
+}
@@ -0,0 +1,38 @@
+package ie.ucd.datastructures.bench;
+
+/**
+ * The sorted map operations measured by the benchmarks, in addition to those
+ * of MapOps.
+ */
+public interface SortedMapOps<K, V> extends MapOps<K, V> {
+
+    /**
+     * Returns the least key greater than or equal to the given key (or null).
+     */
+    K ceilingKey(K key);
+
+    /**
+     * Returns the greatest key less than or equal to the given key (or null).
+     */
+    K floorKey(K key);
+
+    /**
+     * Visits every entry with a key in [fromKey, toKey).
+     *
+     * @return a value derived from all the visited entries, to be consumed by a Blackhole
+     */
+    long scan(K fromKey, K toKey);
+
+    /**
+     * Visits every entry with a key in [fromKey, toKey), in decreasing key order.
+     *
+     * @return a value derived from all the visited entries, to be consumed by a Blackhole
+     */
+    long scanDescending(K fromKey, K toKey);
+
+    /**
+     * Returns a new, empty map of the same implementation, without going
+     * through reflection again.
+     */
+    SortedMapOps<K, V> newEmpty();
+}
@@ -0,0 +1,43 @@
+package ie.ucd.datastructures.bench;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Looks up the default-package BenchmarkAdapters factory reflectively. The
+ * reflective call happens once per trial set-up, never in a measured loop.
+ */
+final class Targets {
+    private static final String ADAPTERS = "BenchmarkAdapters";
+
+    private Targets() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> MapOps<K, V> map(String impl) {
+        return (MapOps<K, V>) create("map", impl);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> SortedMapOps<K, V> sortedMap(String impl) {
+        return (SortedMapOps<K, V>) create("sortedMap", impl);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PriorityQueueOps<K, V> priorityQueue(String impl) {
+        return (PriorityQueueOps<K, V>) create("priorityQueue", impl);
+    }
+
+    static SortOps sorter(String impl) {
+        return (SortOps) create("sorter", impl);
+    }
+
+    private static Object create(String factory, String impl) {
+        try {
+            return Class.forName(ADAPTERS).getMethod(factory, String.class).invoke(null, impl);
+        } catch (InvocationTargetException e) {
+            throw new IllegalArgumentException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot reach " + ADAPTERS + "." + factory, e);
+        }
+    }
+}
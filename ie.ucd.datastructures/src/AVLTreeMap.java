@@ -62,10 +62,10 @@ public class AVLTreeMap<K, V> extends TreeMap<K, V> {
 
 
     /**
-     * Returns the height of the given tree position.
+     * Returns the height of the given tree position (0 for a missing child).
      */
     protected int height(Position<Entry<K, V>> p) {
-		return tree.getAux(p);
+		return p == null ? 0 : tree.getAux(p);
     }
 
     /**
@@ -142,25 +142,35 @@ public class AVLTreeMap<K, V> extends TreeMap<K, V> {
      */
     @Override
     protected void rebalanceDelete(Position<Entry<K, V>> p) {
-    	if (!isRoot(p)) {
-    		rebalance(parent(p));
+    	if (p != null) { //p is the parent of the removed node
+    		rebalance(p);
     	}
     }
 	
 
+    /**
+     * Overrides the TreeMap rebalancing hook that is called after a bulk build.
+     * The tree is already balanced; only the heights need to be computed,
+     * children before parents.
+     */
+    @Override
+    protected void rebalanceBuild() {
+        for (Position<Entry<K, V>> p : tree.postorder()) {
+            recomputeHeight(p);
+        }
+    }
+
     /**
      * Ensure that current tree structure is valid AVL (for debug use only).
      */
     private boolean sanityCheck() {
         for (Position<Entry<K, V>> p : tree.positions()) {
-            if (isInternal(p)) {
-                if (p.getElement() == null)
-                    System.out.println("VIOLATION: Internal node has null entry");
-                else if (height(p) != 1 + Math.max(height(left(p)), height(right(p)))) {
-                    System.out.println("VIOLATION: AVL unbalanced node with key " + p.getElement().getKey());
-                    dump();
-                    return false;
-                }
+            if (p.getElement() == null)
+                System.out.println("VIOLATION: Node has null entry");
+            else if (height(p) != 1 + Math.max(height(left(p)), height(right(p))) || !isBalanced(p)) {
+                System.out.println("VIOLATION: AVL unbalanced node with key " + p.getElement().getKey());
+                dump();
+                return false;
             }
         }
         return true;
@@ -62,30 +62,140 @@ public abstract class AbstractBinaryTree<E> extends AbstractTree<E>
     }
 
     /**
-     * Adds positions of the subtree rooted at Position p to the given
-     * snapshot using an inorder traversal
+     * Returns an iterable collection of positions of the tree, reported in inorder.
+     * The positions are produced on demand by following parent links, so no
+     * working space is needed and reporting the first k positions takes
+     * O(h + k) time for a tree of height h.
      *
-     * @param p        Position serving as the root of a subtree
-     * @param snapshot a list to which results are appended
+     * @return iterable collection of the tree's positions reported in inorder
      */
-    private void inorderSubtree(Position<E> p, List<Position<E>> snapshot) {
-        if (left(p) != null)
-            inorderSubtree(left(p), snapshot);
-        snapshot.add(p);
-        if (right(p) != null)
-            inorderSubtree(right(p), snapshot);
+    public Iterable<Position<E>> inorder() {
+        return new Traversal(InorderIterator::new);
     }
 
     /**
-     * Returns an iterable collection of positions of the tree, reported in inorder.
+     * Returns an iterable collection of positions of the tree, reported in
+     * preorder, produced on demand by following parent links.
      *
-     * @return iterable collection of the tree's positions reported in inorder
+     * @return iterable collection of the tree's positions in preorder
      */
-    public Iterable<Position<E>> inorder() {
-        List<Position<E>> snapshot = new ArrayList<>();
-        if (!isEmpty())
-            inorderSubtree(root(), snapshot);   // fill the snapshot recursively
-        return snapshot;
+    @Override
+    public Iterable<Position<E>> preorder() {
+        return new Traversal(PreorderIterator::new);
+    }
+
+    /**
+     * Returns an iterable collection of positions of the tree, reported in
+     * postorder, produced on demand by following parent links.
+     *
+     * @return iterable collection of the tree's positions in postorder
+     */
+    @Override
+    public Iterable<Position<E>> postorder() {
+        return new Traversal(PostorderIterator::new);
+    }
+
+    /**
+     * Returns the position visited after p in an inorder traversal (or null if
+     * p is the last): the leftmost position of p's right subtree if there is
+     * one, else the first ancestor having p in its left subtree.
+     */
+    protected Position<E> inorderSuccessor(Position<E> p) {
+        if (right(p) != null) {
+            p = right(p);
+            while (left(p) != null)
+                p = left(p);
+            return p;
+        }
+        Position<E> parent = parent(p);
+        while (parent != null && p == right(parent)) {
+            p = parent;
+            parent = parent(p);
+        }
+        return parent;
+    }
+
+    /**
+     * Returns the position visited before p in an inorder traversal (or null if
+     * p is the first), symmetrically to inorderSuccessor.
+     */
+    protected Position<E> inorderPredecessor(Position<E> p) {
+        if (left(p) != null) {
+            p = left(p);
+            while (right(p) != null)
+                p = right(p);
+            return p;
+        }
+        Position<E> parent = parent(p);
+        while (parent != null && p == left(parent)) {
+            p = parent;
+            parent = parent(p);
+        }
+        return parent;
+    }
+
+    /* Returns the first position of p's subtree in postorder: its deepest leftmost leaf. */
+    private Position<E> postorderFirst(Position<E> p) {
+        while (true) {
+            if (left(p) != null)
+                p = left(p);
+            else if (right(p) != null)
+                p = right(p);
+            else
+                return p;
+        }
+    }
+
+    private class InorderIterator extends TraversalIterator {
+        InorderIterator() {
+            Position<E> p = root();
+            if (p != null)
+                while (left(p) != null)
+                    p = left(p);
+            next = p;
+        }
+
+        @Override
+        protected Position<E> advance(Position<E> p) {
+            return inorderSuccessor(p);
+        }
+    }
+
+    private class PreorderIterator extends TraversalIterator {
+        PreorderIterator() {
+            next = root();
+        }
+
+        @Override
+        protected Position<E> advance(Position<E> p) {
+            if (left(p) != null)
+                return left(p);
+            if (right(p) != null)
+                return right(p);
+            // climb until p is a left child whose parent has a right subtree still to visit
+            Position<E> parent = parent(p);
+            while (parent != null && (p == right(parent) || right(parent) == null)) {
+                p = parent;
+                parent = parent(p);
+            }
+            return (parent == null ? null : right(parent));
+        }
+    }
+
+    private class PostorderIterator extends TraversalIterator {
+        PostorderIterator() {
+            next = (root() == null ? null : postorderFirst(root()));
+        }
+
+        @Override
+        protected Position<E> advance(Position<E> p) {
+            Position<E> parent = parent(p);
+            if (parent == null)
+                return null;
+            if (p == right(parent) || right(parent) == null)
+                return parent;               // both subtrees of the parent are done
+            return postorderFirst(right(parent));
+        }
     }
 
     /**
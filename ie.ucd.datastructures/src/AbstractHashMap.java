@@ -1,3 +1,4 @@
+import java.util.ArrayList;
 import java.util.Random;
 
 /**
@@ -7,12 +8,19 @@ import java.util.Random;
  * The base class provides the following means of support:
  * 1) Support for calculating hash values with MAD compression
  * 2) Support for resizing table when load factor reaches 1/2
+ * 3) Optional incremental resizing, where the old table is drained a few
+ *    buckets at a time by subsequent get/put/remove calls instead of being
+ *    rehashed all at once
  * <p>
  * Subclass is responsible for providing abstract methods:
  * createTable(), bucketGet(h,k), bucketPut(h,k,v),
  * bucketRemove(h,k), and entrySet()
  * and for accurately maintaining the protected member, n,
  * to reflect changes within bucketPut and bucketRemove.
+ * <p>
+ * Subclasses supporting incremental resizing must also override
+ * supportsIncrementalResize() to return true, along with detachTable(),
+ * transferBucket(j) and releaseDetachedTable().
  */
 public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
     protected int n = 0;                 // number of entries in the dictionary
@@ -20,6 +28,11 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
     private int prime;                   // prime factor
     private long scale, shift;           // the shift and scaling factors
 
+    // incremental resizing state
+    private int rehashStep = 0;          // buckets migrated per operation (0 = stop-the-world resize)
+    private int oldCapacity = 0;         // length of the table being drained
+    private int rehashIndex = -1;        // next bucket of the old table to migrate (-1 = not rehashing)
+
     /**
      * Creates a hash table with the given capacity and prime factor.
      */
@@ -66,6 +79,8 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
      */
     @Override
     public V get(K key) {
+        if (isRehashing())
+            rehashKey(key);
         return bucketGet(hashValue(key), key);
     }
 
@@ -78,6 +93,8 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
      */
     @Override
     public V remove(K key) {
+        if (isRehashing())
+            rehashKey(key);
         return bucketRemove(hashValue(key), key);
     }
 
@@ -93,26 +110,133 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
      */
     @Override
     public V put(K key, V value) {
+        if (isRehashing())
+            rehashKey(key);
         V answer = bucketPut(hashValue(key), key, value);
-        if (n > capacity / 2)              // keep load factor <= 0.5
-            resize(2 * capacity - 1);        // (or find a nearby prime)
+        if (n > capacity / 2) {            // keep load factor <= 0.5
+            if (rehashStep > 0)
+                startRehash(2 * capacity - 1);
+            else
+                resize(2 * capacity - 1);    // (or find a nearby prime)
+        }
         return answer;
     }
 
+    /**
+     * Enables incremental resizing. Instead of rehashing every entry inside the
+     * put that crosses the load factor, the old table is kept alive and each
+     * subsequent get, put or remove migrates up to <code>step</code> non-empty
+     * buckets into the new table.
+     *
+     * @param step number of non-empty buckets migrated per operation
+     * @throws IllegalArgumentException      if step is not positive
+     * @throws UnsupportedOperationException if the subclass does not support incremental resizing
+     */
+    public void enableIncrementalResize(int step) throws IllegalArgumentException, UnsupportedOperationException {
+        if (!supportsIncrementalResize())
+            throw new UnsupportedOperationException("incremental resize not supported by " + getClass().getSimpleName());
+        if (step <= 0)
+            throw new IllegalArgumentException("Rehash step must be positive");
+        rehashStep = step;
+    }
+
+    /**
+     * Disables incremental resizing, completing any migration in progress.
+     */
+    public void disableIncrementalResize() {
+        finishRehash();
+        rehashStep = 0;
+    }
+
+    /**
+     * Tests whether an incremental resize is in progress.
+     *
+     * @return true if entries are still being migrated out of an old table
+     */
+    public boolean isRehashing() {
+        return rehashIndex >= 0;
+    }
+
     // private utilities
 
     /**
      * Hash function applying MAD method to default hash code.
      */
-    private int hashValue(K key) {
-    	return (int) (( Math.abs(key.hashCode() * scale + shift) % prime ) % capacity);
+    protected int hashValue(K key) {
+        return hashValue(key, capacity);
+    }
+
+    /**
+     * Hash function applying MAD method to default hash code, compressed to a
+     * table of the given length.
+     */
+    private int hashValue(K key, int cap) {
+    	return (int) (( Math.abs(key.hashCode() * scale + shift) % prime ) % cap);
+    }
+
+    /**
+     * Starts an incremental resize: the current table is detached and drained
+     * by later operations into a new, empty table of the given capacity.
+     */
+    private void startRehash(int newCap) {
+        finishRehash();                      // only one old table at a time
+        detachTable();
+        oldCapacity = capacity;
+        capacity = newCap;
+        createTable();
+        rehashIndex = 0;
+    }
+
+    /**
+     * Performs one migration step, then moves the old bucket of the given key
+     * so that the operation on that key only needs to consult the new table.
+     */
+    private void rehashKey(K key) {
+        migrate(rehashStep);
+        if (isRehashing())
+            transferBucket(hashValue(key, oldCapacity));
+    }
+
+    /**
+     * Migrates up to the given number of non-empty buckets from the old table.
+     * As in Redis, at most ten times as many empty buckets are visited, so a
+     * sparse old table cannot turn one step into a full scan.
+     */
+    private void migrate(int buckets) {
+        int emptyVisits = 10 * buckets;
+        while (buckets > 0 && rehashIndex < oldCapacity) {
+            if (transferBucket(rehashIndex++))
+                buckets--;
+            else if (--emptyVisits == 0)
+                break;
+        }
+        if (rehashIndex == oldCapacity) {
+            releaseDetachedTable();
+            oldCapacity = 0;
+            rehashIndex = -1;
+        }
+    }
+
+    /**
+     * Migrates every remaining bucket of the old table, if any.
+     */
+    private void finishRehash() {
+        while (isRehashing())
+            migrate(oldCapacity);
     }
 
     /**
      * Updates the size of the hash table and rehashes all entries.
      */
     private void resize(int newCap) {
-    	// TODO
+        ArrayList<Entry<K, V>> buffer = new ArrayList<>(n);
+        for (Entry<K, V> e : entrySet())
+            buffer.add(e);
+        capacity = newCap;
+        createTable();                       // based on updated capacity
+        n = 0;                               // will be recomputed while reinserting entries
+        for (Entry<K, V> e : buffer)
+            put(e.getKey(), e.getValue());
     }
 
     // protected abstract methods to be implemented by subclasses
@@ -152,4 +276,44 @@ public abstract class AbstractHashMap<K, V> extends AbstractMap<K, V> {
      * @return previous value associated with k (or null, if no such entry)
      */
     protected abstract V bucketRemove(int h, K k);
+
+    // protected hooks for incremental resizing
+
+    /**
+     * Tests whether the subclass implements the hooks below, so that
+     * enableIncrementalResize can be accepted.
+     *
+     * @return true if incremental resizing is supported
+     */
+    protected boolean supportsIncrementalResize() {
+        return false;
+    }
+
+    /**
+     * Keeps the current table aside as the old table, so that a subsequent
+     * createTable() call does not discard its entries.
+     *
+     * @throws UnsupportedOperationException if incremental resizing is not supported
+     */
+    protected void detachTable() {
+        throw new UnsupportedOperationException("incremental resize not supported");
+    }
+
+    /**
+     * Moves every entry of bucket j of the old table into the current table,
+     * without changing n. Moving an already empty bucket does nothing.
+     *
+     * @param j the index of a bucket of the old table
+     * @return true if at least one entry was moved
+     */
+    protected boolean transferBucket(int j) {
+        throw new UnsupportedOperationException("incremental resize not supported");
+    }
+
+    /**
+     * Discards the (now empty) old table.
+     */
+    protected void releaseDetachedTable() {
+        throw new UnsupportedOperationException("incremental resize not supported");
+    }
 }
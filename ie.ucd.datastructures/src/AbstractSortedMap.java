@@ -1,4 +1,6 @@
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * An abstract base class to ease the implementation of the SortedMap interface.
@@ -31,6 +33,11 @@ public abstract class AbstractSortedMap<K, V> extends AbstractMap<K, V> implemen
 		this(new DefaultComparator<K>()); // default comparator uses natural ordering
 	}
 
+	/** Returns the comparator defining the ordering of keys in the map. */
+	protected Comparator<K> comparator() {
+		return comp;
+	}
+
 	/** Method for comparing two entries according to key */
 	protected int compare(Entry<K, V> a, Entry<K, V> b) {
 		return comp.compare(a.getKey(), b.getKey());
@@ -59,4 +66,78 @@ public abstract class AbstractSortedMap<K, V> extends AbstractMap<K, V> implemen
 			throw new IllegalArgumentException("Incompatible key");
 		}
 	}
+
+	// navigable views, see SortedMapView
+	@Override
+	public SortedMap<K, V> descendingMap() {
+		return new SortedMapView<>(this).descendingMap();
+	}
+
+	@Override
+	public SortedMap<K, V> headMap(K toKey, boolean inclusive) throws IllegalArgumentException {
+		return new SortedMapView<>(this).headMap(toKey, inclusive);
+	}
+
+	@Override
+	public SortedMap<K, V> tailMap(K fromKey, boolean inclusive) throws IllegalArgumentException {
+		return new SortedMapView<>(this).tailMap(fromKey, inclusive);
+	}
+
+	@Override
+	public SortedMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive)
+			throws IllegalArgumentException {
+		return new SortedMapView<>(this).subMap(fromKey, fromInclusive, toKey, toInclusive);
+	}
+
+	/**
+	 * Returns an iterator over the entries of the map in increasing key order
+	 * starting at key (or in decreasing order, if descending, starting at key),
+	 * where key itself is included only if inclusive. A null key starts the
+	 * iteration at the first (or last) entry. The views returned by
+	 * descendingMap, headMap, tailMap and subMap iterate through this method.
+	 * <p>
+	 * This version performs one higherEntry or lowerEntry search per step;
+	 * subclasses that can walk from one entry to the next should override it.
+	 *
+	 * @param key        the key to start from, or null to start at an end
+	 * @param inclusive  whether an entry with the given key is reported
+	 * @param descending whether to iterate in decreasing key order
+	 * @return iterator over the entries from the starting key onwards
+	 */
+	protected Iterator<Entry<K, V>> iteratorFrom(K key, boolean inclusive, boolean descending) {
+		Entry<K, V> first;
+		if (key == null) {
+			first = (descending ? lastEntry() : firstEntry());
+		} else if (descending) {
+			first = (inclusive ? floorEntry(key) : lowerEntry(key));
+		} else {
+			first = (inclusive ? ceilingEntry(key) : higherEntry(key));
+		}
+		return new SearchIterator(first, descending);
+	}
+
+	// ---------------- nested SearchIterator class ----------------
+	/* Finds each following entry by searching the map for the neighbour of the last key reported. */
+	private class SearchIterator implements Iterator<Entry<K, V>> {
+		private Entry<K, V> next;
+		private final boolean descending;
+
+		SearchIterator(Entry<K, V> first, boolean descending) {
+			next = first;
+			this.descending = descending;
+		}
+
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		public Entry<K, V> next() {
+			if (next == null) {
+				throw new NoSuchElementException("No more entries");
+			}
+			Entry<K, V> answer = next;
+			next = (descending ? lowerEntry(answer.getKey()) : higherEntry(answer.getKey()));
+			return answer;
+		}
+	} // ----------- end of nested SearchIterator class -----------
 }
@@ -1,6 +1,7 @@
-import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
 
 /**
  * An abstract base class providing some functionality of the Tree interface.
@@ -12,6 +13,13 @@ import java.util.List;
  */
 public abstract class AbstractTree<E> implements Tree<E> {
 
+    /**
+     * The number of structural modifications (insertions, removals and
+     * rotations) made to the tree; subclasses that mutate the tree should
+     * increment it so that traversals in progress fail fast.
+     */
+    protected int modCount = 0;
+
     /**
      * Returns true if Position p has one or more children.
      *
@@ -165,81 +173,173 @@ public abstract class AbstractTree<E> implements Tree<E> {
         return preorder();
     }
 
-    /**
-     * Adds positions of the subtree rooted at Position p to the given
-     * snapshot using a preorder traversal
-     *
-     * @param p        Position serving as the root of a subtree
-     * @param snapshot a list to which results are appended
-     */
-    private void preorderSubtree(Position<E> p, List<Position<E>> snapshot) {
-      snapshot.add(p); //preorder, add before looking at the children
-      
-      for (Position<E> child : children(p)) {
-    	  preorderSubtree(child, snapshot);
-      }
-    }
-
     /**
      * Returns an iterable collection of positions of the tree, reported in preorder.
+     * The positions are produced on demand, so stopping early costs only the
+     * positions visited, plus O(h) working space for a tree of height h.
      *
      * @return iterable collection of the tree's positions in preorder
      */
     public Iterable<Position<E>> preorder() {
-    	List<Position<E>> snapshot = new ArrayList<>();
-    	
-    	if (size() != 0) {
-    		preorderSubtree(root(), snapshot);
-    	}
-    	return snapshot;
-    }
-
-    /**
-     * Adds positions of the subtree rooted at Position p to the given
-     * snapshot using a postorder traversal
-     *
-     * @param p        Position serving as the root of a subtree
-     * @param snapshot a list to which results are appended
-     */
-    private void postorderSubtree(Position<E> p, List<Position<E>> snapshot) {
-        for (Position<E> child : children(p)) {
-      	  postorderSubtree(child, snapshot);
-        }
-        
-        snapshot.add(p); //postorder, add after looking at the children
+        return new Traversal(PreorderIterator::new);
     }
 
     /**
      * Returns an iterable collection of positions of the tree, reported in postorder.
+     * The positions are produced on demand, using O(h) working space for a tree
+     * of height h.
      *
      * @return iterable collection of the tree's positions in postorder
      */
     public Iterable<Position<E>> postorder() {
-    	List<Position<E>> snapshot = new ArrayList<>();
-    	
-    	if (size() != 0) {
-    		postorderSubtree(root(), snapshot);
-    	}
-    	return snapshot;
+        return new Traversal(PostorderIterator::new);
     }
 
     /**
-     * Returns an iterable collection of positions of the tree in breadth-first order.
+     * Returns an iterable collection of the tree's positions in breadth-first order.
+     * The positions are produced on demand; the queue holds at most one level
+     * of the tree and its successor.
      *
      * @return iterable collection of the tree's positions in breadth-first order
      */
     public Iterable<Position<E>> breadthfirst() {
-      LinkedQueue<Position<E>> queue = new LinkedQueue<Position<E>>(); 
-      List<Position<E>> snapshot = new ArrayList<>();
-      queue.enqueue(root());
-      while (!queue.isEmpty()) {
-    	  Position<E> position = queue.dequeue();
-    	  snapshot.add(position);
-    	  for (Position<E> child : children(position)) {
-    		  queue.enqueue(child);
-    	  }
-      }
-      return snapshot;
+        return new Traversal(BreadthFirstIterator::new);
+    }
+
+    //---------------- nested Traversal class ----------------
+    /**
+     * A lazy iterable over the positions of the tree. Each call to iterator()
+     * starts a fresh traversal; toString lists the positions like a List would.
+     */
+    protected class Traversal implements Iterable<Position<E>> {
+        private final Supplier<Iterator<Position<E>>> factory;
+
+        public Traversal(Supplier<Iterator<Position<E>>> factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public Iterator<Position<E>> iterator() {
+            return factory.get();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            for (Position<E> p : this) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(p);
+            }
+            return sb.append("]").toString();
+        }
+    }
+
+    //---------------- nested TraversalIterator class ----------------
+    /**
+     * Base class of the traversal iterators. A subclass sets the first position
+     * in its constructor and computes each following one in advance. The
+     * iterator fails fast if the tree is structurally modified (as recorded by
+     * modCount) while it is in use.
+     */
+    protected abstract class TraversalIterator implements Iterator<Position<E>> {
+        private final int expectedModCount = modCount;
+        protected Position<E> next;
+
+        /** Returns the position that follows p in the traversal (or null if p is the last). */
+        protected abstract Position<E> advance(Position<E> p);
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Position<E> next() throws NoSuchElementException, ConcurrentModificationException {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == null) {
+                throw new NoSuchElementException("No more positions");
+            }
+            Position<E> p = next;
+            next = advance(p);
+            return p;
+        }
+    }
+
+    /* Keeps, for every position on the current root-to-node path, an iterator of its remaining children. */
+    private class PreorderIterator extends TraversalIterator {
+        private final LinkedStack<Iterator<Position<E>>> pending = new LinkedStack<>();
+
+        PreorderIterator() {
+            next = root();
+        }
+
+        @Override
+        protected Position<E> advance(Position<E> p) {
+            pending.push(children(p).iterator());
+            while (!pending.isEmpty()) {
+                if (pending.top().hasNext()) {
+                    return pending.top().next();
+                }
+                pending.pop(); // every child of this position has been reported
+            }
+            return null;
+        }
+    }
+
+    /* Keeps the current root-to-node path together with an iterator of each node's remaining children. */
+    private class PostorderIterator extends TraversalIterator {
+        private final LinkedStack<Position<E>> path = new LinkedStack<>();
+        private final LinkedStack<Iterator<Position<E>>> pending = new LinkedStack<>();
+
+        PostorderIterator() {
+            if (root() != null) {
+                next = descend(root());
+            }
+        }
+
+        /* Pushes the path from p down to the first position of its subtree in postorder. */
+        private Position<E> descend(Position<E> p) {
+            while (true) {
+                Iterator<Position<E>> children = children(p).iterator();
+                path.push(p);
+                pending.push(children);
+                if (!children.hasNext()) {
+                    return p;
+                }
+                p = children.next();
+            }
+        }
+
+        @Override
+        protected Position<E> advance(Position<E> p) {
+            path.pop(); // p itself has now been reported
+            pending.pop();
+            if (path.isEmpty()) {
+                return null;
+            }
+            Iterator<Position<E>> siblings = pending.top();
+            return siblings.hasNext() ? descend(siblings.next()) : path.top();
+        }
+    }
+
+    private class BreadthFirstIterator extends TraversalIterator {
+        private final LinkedQueue<Position<E>> queue = new LinkedQueue<>();
+
+        BreadthFirstIterator() {
+            next = root();
+        }
+
+        @Override
+        protected Position<E> advance(Position<E> p) {
+            for (Position<E> child : children(p)) {
+                queue.enqueue(child);
+            }
+            return queue.isEmpty() ? null : queue.dequeue();
+        }
     }
 
     //---------------- nested ElementIterator class ----------------
@@ -0,0 +1,29 @@
+/**
+ * Interface for the adaptable priority queue ADT, whose entries can be
+ * removed, or have their key or value replaced, after they were inserted.
+ */
+public interface AdaptablePriorityQueue<K,V> extends PriorityQueue<K,V> {
+
+  /**
+   * Removes the given entry from the priority queue.
+   * @param entry  an entry of this priority queue
+   * @throws IllegalArgumentException if the entry is not in this queue
+   */
+  void remove(Entry<K,V> entry) throws IllegalArgumentException;
+
+  /**
+   * Replaces the key of an entry.
+   * @param entry  an entry of this priority queue
+   * @param key    the new key
+   * @throws IllegalArgumentException if the entry is not in this queue, or the key is unacceptable
+   */
+  void replaceKey(Entry<K,V> entry, K key) throws IllegalArgumentException;
+
+  /**
+   * Replaces the value of an entry.
+   * @param entry  an entry of this priority queue
+   * @param value  the new value
+   * @throws IllegalArgumentException if the entry is not in this queue
+   */
+  void replaceValue(Entry<K,V> entry, V value) throws IllegalArgumentException;
+}
@@ -0,0 +1,548 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An implementation of a sorted map using an AVL tree whose nodes are stored
+ * in parallel arrays rather than as linked objects.
+ * <p>
+ * A node is an int index: keys[i], values[i], left[i], right[i] and height[i]
+ * describe node i, and index 0 stands for the missing (null) child, so no
+ * sentinel leaves are ever allocated. Slots of removed nodes are chained
+ * through the left array into a free list and reused by later insertions.
+ * Nodes keep no parent index; updates record the search path in a small
+ * array instead and rebalance on the way back up.
+ * <p>
+ * Compared with AVLTreeMap, which allocates a node object, an entry object
+ * and two sentinel leaves per key, each entry here costs two references, two
+ * ints and a byte in arrays that are only reallocated when they fill up.
+ * Entries returned by the navigation methods and iterators are snapshots.
+ */
+public class ArrayAVLTreeMap<K, V> extends AbstractSortedMap<K, V> {
+
+    private static final int NIL = 0;
+    private static final int DEFAULT_CAPACITY = 16;
+    // an AVL tree of height h has at least fib(h+2)-1 nodes, so 2^31 nodes fit within height 46
+    private static final int MAX_HEIGHT = 48;
+
+    private Object[] keys;
+    private Object[] values;
+    private int[] left;
+    private int[] right;
+    private byte[] height;               // height[NIL] stays 0
+
+    private int root = NIL;
+    private int size = 0;
+    private int freeList = NIL;          // head of the chain of reusable slots
+    private int used = 1;                // slots [1, used) have been handed out at least once
+    private int modCount = 0;
+    private final int[] path = new int[MAX_HEIGHT];
+
+    /**
+     * Constructs an empty map using the natural ordering of keys.
+     */
+    public ArrayAVLTreeMap() {
+        this(new DefaultComparator<K>(), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty map using the given comparator to order keys.
+     *
+     * @param comp comparator defining the order of keys in the map
+     */
+    public ArrayAVLTreeMap(Comparator<K> comp) {
+        this(comp, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty map with room for the given number of entries before
+     * the arrays have to grow.
+     *
+     * @param comp comparator defining the order of keys in the map
+     * @param cap  initial number of entries
+     * @throws IllegalArgumentException if cap is negative
+     */
+    public ArrayAVLTreeMap(Comparator<K> comp, int cap) throws IllegalArgumentException {
+        super(comp);
+        if (cap < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + cap);
+        }
+        allocate(cap + 1);
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public V get(K key) throws IllegalArgumentException {
+        checkKey(key);
+        int i = search(key);
+        return i == NIL ? null : value(i);
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaced the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        int depth = 0;
+        int i = root;
+        int c = 0;
+        while (i != NIL) {
+            c = compare(key, key(i));
+            if (c == 0) {
+                V old = value(i);
+                values[i] = value;
+                return old;
+            }
+            path[depth++] = i;
+            i = (c < 0 ? left[i] : right[i]);
+        }
+
+        int node = allocateNode(key, value);
+        if (depth == 0) {
+            root = node;
+        } else if (c < 0) {
+            left[path[depth - 1]] = node;
+        } else {
+            right[path[depth - 1]] = node;
+        }
+        size++;
+        modCount++;
+        rebalancePath(depth, true);
+        return null;
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     */
+    @Override
+    public V remove(K key) throws IllegalArgumentException {
+        checkKey(key);
+        int depth = 0;
+        int i = root;
+        while (i != NIL) {
+            int c = compare(key, key(i));
+            if (c == 0) {
+                break;
+            }
+            path[depth++] = i;
+            i = (c < 0 ? left[i] : right[i]);
+        }
+        if (i == NIL) {
+            return null;
+        }
+        V old = value(i);
+
+        if (left[i] != NIL && right[i] != NIL) {
+            // move the successor's entry into i, then unlink the successor instead
+            path[depth++] = i;
+            int s = right[i];
+            while (left[s] != NIL) {
+                path[depth++] = s;
+                s = left[s];
+            }
+            keys[i] = keys[s];
+            values[i] = values[s];
+            i = s;
+        }
+
+        int child = (left[i] != NIL ? left[i] : right[i]);
+        replaceChild(depth, i, child);
+        freeNode(i);
+        size--;
+        modCount++;
+        rebalancePath(depth, false);
+        return old;
+    }
+
+    // additional behaviors of the SortedMap interface
+
+    /**
+     * Returns the entry having the least key (or null if map is empty).
+     *
+     * @return entry with least key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> firstEntry() {
+        int i = root;
+        if (i == NIL) {
+            return null;
+        }
+        while (left[i] != NIL) {
+            i = left[i];
+        }
+        return entry(i);
+    }
+
+    /**
+     * Returns the entry having the greatest key (or null if map is empty).
+     *
+     * @return entry with greatest key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> lastEntry() {
+        int i = root;
+        if (i == NIL) {
+            return null;
+        }
+        while (right[i] != NIL) {
+            i = right[i];
+        }
+        return entry(i);
+    }
+
+    /**
+     * Returns the entry with least key greater than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with least key greater than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return entry(ceiling(key, true));
+    }
+
+    /**
+     * Returns the entry with greatest key less than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with greatest key less than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return entry(floor(key, true));
+    }
+
+    /**
+     * Returns the entry with greatest key strictly less than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with greatest key strictly less than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return entry(floor(key, false));
+    }
+
+    /**
+     * Returns the entry with least key strictly greater than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with least key strictly greater than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return entry(ceiling(key, false));
+    }
+
+    /**
+     * Returns an iterable containing all entries with keys in the range from
+     * <code>fromKey</code> inclusive to <code>toKey</code> exclusive.
+     *
+     * @return iterable with keys in desired range
+     * @throws IllegalArgumentException if <code>fromKey</code> or
+     *                                  <code>toKey</code> is not compatible with
+     *                                  the map
+     */
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+        checkKey(fromKey);
+        checkKey(toKey);
+        return () -> new EntryIterator(fromKey, toKey);
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+        return () -> new EntryIterator(null, null);
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(");
+        for (Entry<K, V> e : entrySet()) {
+            sb.append(e).append(", ");
+        }
+        return sb.append(")").toString();
+    }
+
+    // ---------------- nested EntryIterator class ----------------
+    /**
+     * In-order iterator keeping the pending ancestors on an explicit stack.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private final int[] stack = new int[MAX_HEIGHT];
+        private int top = 0;
+        private final K toKey;           // exclusive upper bound, or null if unbounded
+        private final int expectedModCount = modCount;
+
+        EntryIterator(K fromKey, K toKey) {
+            this.toKey = toKey;
+            // push the path to the least key >= fromKey, keeping only nodes still to visit
+            int i = root;
+            while (i != NIL) {
+                if (fromKey == null || compare(key(i), fromKey) >= 0) {
+                    stack[top++] = i;
+                    i = left[i];
+                } else {
+                    i = right[i];
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            return top > 0 && (toKey == null || compare(key(stack[top - 1]), toKey) < 0);
+        }
+
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more entries");
+            }
+            int i = stack[--top];
+            for (int j = right[i]; j != NIL; j = left[j]) {
+                stack[top++] = j;
+            }
+            return entry(i);
+        }
+    } // ----------- end of nested EntryIterator class -----------
+
+    // private utilities
+
+    @SuppressWarnings({"unchecked"})
+    private K key(int i) {
+        return (K) keys[i];
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private V value(int i) {
+        return (V) values[i];
+    }
+
+    private Entry<K, V> entry(int i) {
+        return i == NIL ? null : new MapEntry<>(key(i), value(i));
+    }
+
+    /** Returns the node holding key, or NIL. */
+    private int search(K key) {
+        int i = root;
+        while (i != NIL) {
+            int c = compare(key, key(i));
+            if (c == 0) {
+                return i;
+            }
+            i = (c < 0 ? left[i] : right[i]);
+        }
+        return NIL;
+    }
+
+    /** Returns the node with least key greater than (or equal to, if inclusive) key, or NIL. */
+    private int ceiling(K key, boolean inclusive) {
+        int best = NIL;
+        int i = root;
+        while (i != NIL) {
+            int c = compare(key, key(i));
+            if (c == 0 && inclusive) {
+                return i;
+            }
+            if (c < 0) {
+                best = i;
+                i = left[i];
+            } else {
+                i = right[i];
+            }
+        }
+        return best;
+    }
+
+    /** Returns the node with greatest key less than (or equal to, if inclusive) key, or NIL. */
+    private int floor(K key, boolean inclusive) {
+        int best = NIL;
+        int i = root;
+        while (i != NIL) {
+            int c = compare(key, key(i));
+            if (c == 0 && inclusive) {
+                return i;
+            }
+            if (c > 0) {
+                best = i;
+                i = right[i];
+            } else {
+                i = left[i];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Walks back up the recorded path from path[depth-1] to the root, updating
+     * heights and restoring balance. An insertion stops once a subtree's height
+     * is unchanged; a removal may have to continue up to the root.
+     */
+    private void rebalancePath(int depth, boolean insertion) {
+        for (int d = depth - 1; d >= 0; d--) {
+            int i = path[d];
+            int oldHeight = height[i];
+            int top = rebalance(i);
+            if (top != i) {
+                replaceChild(d, i, top);
+            }
+            if (height[top] == oldHeight) {
+                return;          // heights above are unaffected
+            }
+            if (insertion && top != i) {
+                return;          // a rotation after insertion restores the old height
+            }
+        }
+    }
+
+    /** Replaces the child link to node i of path[depth-1] (or the root) by child. */
+    private void replaceChild(int depth, int i, int child) {
+        if (depth == 0) {
+            root = child;
+        } else {
+            int parent = path[depth - 1];
+            if (left[parent] == i) {
+                left[parent] = child;
+            } else {
+                right[parent] = child;
+            }
+        }
+    }
+
+    /** Restores the AVL property at node i and returns the root of its subtree. */
+    private int rebalance(int i) {
+        int balance = height[left[i]] - height[right[i]];
+        if (balance > 1) {
+            if (height[left[left[i]]] < height[right[left[i]]]) {
+                left[i] = rotateLeft(left[i]);
+            }
+            return rotateRight(i);
+        }
+        if (balance < -1) {
+            if (height[right[right[i]]] < height[left[right[i]]]) {
+                right[i] = rotateRight(right[i]);
+            }
+            return rotateLeft(i);
+        }
+        updateHeight(i);
+        return i;
+    }
+
+    private int rotateRight(int i) {
+        int l = left[i];
+        left[i] = right[l];
+        right[l] = i;
+        updateHeight(i);
+        updateHeight(l);
+        return l;
+    }
+
+    private int rotateLeft(int i) {
+        int r = right[i];
+        right[i] = left[r];
+        left[r] = i;
+        updateHeight(i);
+        updateHeight(r);
+        return r;
+    }
+
+    private void updateHeight(int i) {
+        height[i] = (byte) (1 + Math.max(height[left[i]], height[right[i]]));
+    }
+
+    /** Takes a slot from the free list (or the unused tail) and initializes it as a leaf. */
+    private int allocateNode(K key, V value) {
+        int i;
+        if (freeList != NIL) {
+            i = freeList;
+            freeList = left[i];
+        } else {
+            if (used == keys.length) {
+                allocate(2 * keys.length);
+            }
+            i = used++;
+        }
+        keys[i] = key;
+        values[i] = value;
+        left[i] = NIL;
+        right[i] = NIL;
+        height[i] = 1;
+        return i;
+    }
+
+    /** Returns slot i to the free list, dropping its references. */
+    private void freeNode(int i) {
+        keys[i] = null;
+        values[i] = null;
+        right[i] = NIL;
+        height[i] = 0;
+        left[i] = freeList;
+        freeList = i;
+    }
+
+    /** Grows (or creates) the parallel arrays to the given number of slots. */
+    private void allocate(int cap) {
+        cap = Math.max(cap, 2);
+        if (keys == null) {
+            keys = new Object[cap];
+            values = new Object[cap];
+            left = new int[cap];
+            right = new int[cap];
+            height = new byte[cap];
+        } else {
+            keys = Arrays.copyOf(keys, cap);
+            values = Arrays.copyOf(values, cap);
+            left = Arrays.copyOf(left, cap);
+            right = Arrays.copyOf(right, cap);
+            height = Arrays.copyOf(height, cap);
+        }
+    }
+}
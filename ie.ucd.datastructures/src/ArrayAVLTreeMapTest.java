@@ -0,0 +1,102 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArrayAVLTreeMapTest {
+
+	@Test
+	void testPutGetRemove() {
+		ArrayAVLTreeMap<Integer, String> m = new ArrayAVLTreeMap<>();
+		assertNull(m.put(14, "fourteen"));
+		assertNull(m.put(7, "seven"));
+		assertEquals("seven", m.put(7, "sept"));
+		assertEquals(2, m.size());
+		assertEquals("sept", m.get(7));
+		assertEquals("fourteen", m.remove(14));
+		assertNull(m.get(14));
+		assertNull(m.remove(14));
+		assertEquals(1, m.size());
+	}
+
+	@Test
+	void testSequentialInsertStaysOrdered() {
+		ArrayAVLTreeMap<Integer, Integer> m = new ArrayAVLTreeMap<>();
+		for (int i = 0; i < 10000; i++) {
+			m.put(i, i);
+		}
+		for (int i = 0; i < 10000; i += 2) {
+			m.remove(i);
+		}
+		int expected = 1;
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			assertEquals(expected, e.getKey());
+			expected += 2;
+		}
+		assertEquals(5000, m.size());
+		assertEquals(1, m.firstEntry().getKey());
+		assertEquals(9999, m.lastEntry().getKey());
+	}
+
+	@Test
+	void testSubMap() {
+		ArrayAVLTreeMap<Integer, Integer> m = new ArrayAVLTreeMap<>();
+		for (int i = 10; i <= 100; i += 10) {
+			m.put(i, i);
+		}
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : m.subMap(25, 70)) {
+			keys.add(e.getKey());
+		}
+		assertEquals(List.of(30, 40, 50, 60), keys);
+	}
+
+	@Test
+	void testIteratorIsFailFast() {
+		ArrayAVLTreeMap<Integer, Integer> m = new ArrayAVLTreeMap<>();
+		m.put(1, 1);
+		m.put(2, 2);
+		Iterator<Entry<Integer, Integer>> it = m.entrySet().iterator();
+		it.next();
+		m.put(3, 3);
+		assertThrows(ConcurrentModificationException.class, it::next);
+	}
+
+	@Test
+	void testAgainstTreeMap() {
+		ArrayAVLTreeMap<Integer, Integer> m = new ArrayAVLTreeMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rnd = new Random(7);
+		for (int i = 0; i < 50000; i++) {
+			int k = rnd.nextInt(2000);
+			if (rnd.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), m.remove(k));
+			} else {
+				assertEquals(expected.put(k, i), m.put(k, i));
+			}
+			int probe = rnd.nextInt(2020) - 10;
+			assertEquals(expected.ceilingKey(probe), key(m.ceilingEntry(probe)));
+			assertEquals(expected.floorKey(probe), key(m.floorEntry(probe)));
+			assertEquals(expected.lowerKey(probe), key(m.lowerEntry(probe)));
+			assertEquals(expected.higherKey(probe), key(m.higherEntry(probe)));
+		}
+		assertEquals(expected.size(), m.size());
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			assertEquals(expected.get(e.getKey()), e.getValue());
+			keys.add(e.getKey());
+		}
+		assertEquals(new ArrayList<>(expected.keySet()), keys);
+	}
+
+	private static Integer key(Entry<Integer, Integer> e) {
+		return e == null ? null : e.getKey();
+	}
+}
@@ -0,0 +1,767 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An implementation of a sorted map using a B+ tree.
+ * <p>
+ * Each node holds up to <code>order - 1</code> keys in a contiguous array, so
+ * a search touches about log_order(n) nodes rather than log2(n). Entries are
+ * kept only in the leaves; internal nodes hold separator keys, where
+ * keys[i] is no greater than any key of children[i+1] and greater than every
+ * key of children[i]. The leaves are doubly linked in key order, so range
+ * queries and iteration walk the leaf level without revisiting the internal
+ * nodes.
+ * <p>
+ * Every node but the root is kept at least half full: leaves split when they
+ * overflow and borrow from or merge with a sibling when they underflow.
+ * bulkLoad builds the tree bottom-up from sorted input in O(n) time. Entries
+ * returned by the navigation methods and iterators are snapshots.
+ */
+public class BTreeMap<K, V> extends AbstractSortedMap<K, V> {
+
+    // ---------------- nested Node classes ----------------
+    private abstract static class Node {
+        final Object[] keys;
+        int count;                       // number of keys in use
+
+        Node(int capacity) {
+            keys = new Object[capacity];
+        }
+
+        abstract boolean isLeaf();
+    }
+
+    private static class LeafNode extends Node {
+        final Object[] values;
+        LeafNode prev, next;             // neighbouring leaves in key order
+
+        LeafNode(int order) {
+            super(order);                // order - 1 entries, plus one while splitting
+            values = new Object[order];
+        }
+
+        boolean isLeaf() {
+            return true;
+        }
+    }
+
+    private static class InternalNode extends Node {
+        final Node[] children;           // count + 1 of them in use
+
+        InternalNode(int order) {
+            super(order);
+            children = new Node[order + 1];
+        }
+
+        boolean isLeaf() {
+            return false;
+        }
+    } // ----------- end of nested Node classes -----------
+
+    private static final int DEFAULT_ORDER = 64;
+
+    private final int order;             // maximum number of children of an internal node
+    private final int minLeafKeys;
+    private final int minInternalKeys;
+    private Node root;
+    private int size = 0;
+    private int modCount = 0;
+
+    // results passed up by the recursive updates
+    private Object splitKey;
+    private V oldValue;
+    private boolean found;
+
+    /**
+     * Constructs an empty map using the natural ordering of keys.
+     */
+    public BTreeMap() {
+        this(new DefaultComparator<K>(), DEFAULT_ORDER);
+    }
+
+    /**
+     * Constructs an empty map using the given comparator to order keys.
+     *
+     * @param comp comparator defining the order of keys in the map
+     */
+    public BTreeMap(Comparator<K> comp) {
+        this(comp, DEFAULT_ORDER);
+    }
+
+    /**
+     * Constructs an empty map using the given comparator and fan-out.
+     *
+     * @param comp  comparator defining the order of keys in the map
+     * @param order maximum number of children of a node (at least 3)
+     * @throws IllegalArgumentException if order is less than 3
+     */
+    public BTreeMap(Comparator<K> comp, int order) throws IllegalArgumentException {
+        super(comp);
+        if (order < 3) {
+            throw new IllegalArgumentException("Order must be at least 3");
+        }
+        this.order = order;
+        minLeafKeys = order / 2;
+        minInternalKeys = (order - 1) / 2;
+        root = new LeafNode(order);
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public V get(K key) throws IllegalArgumentException {
+        checkKey(key);
+        LeafNode leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return i >= 0 ? (V) leaf.values[i] : null;
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaced the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        oldValue = null;
+        Node sibling = insert(root, key, value);
+        if (sibling != null) { // the root was split: grow the tree by one level
+            InternalNode newRoot = new InternalNode(order);
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = sibling;
+            newRoot.count = 1;
+            root = newRoot;
+        }
+        splitKey = null;
+        V answer = oldValue;
+        oldValue = null;
+        return answer;
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     */
+    @Override
+    public V remove(K key) throws IllegalArgumentException {
+        checkKey(key);
+        found = false;
+        oldValue = null;
+        delete(root, key);
+        if (!root.isLeaf() && root.count == 0) { // the root lost its last separator: shrink the tree
+            root = ((InternalNode) root).children[0];
+        }
+        V answer = oldValue;
+        oldValue = null;
+        return answer;
+    }
+
+    /**
+     * Replaces the (empty) contents of the map by the given entries, building
+     * the tree bottom-up in O(n) time. Leaves are packed full, so the tree is
+     * as shallow as possible.
+     *
+     * @param sorted entries in strictly increasing key order
+     * @throws IllegalStateException    if the map is not empty
+     * @throws IllegalArgumentException if the keys are not strictly increasing
+     */
+    public void bulkLoad(Iterable<? extends Entry<K, V>> sorted) throws IllegalStateException, IllegalArgumentException {
+        if (!isEmpty()) {
+            throw new IllegalStateException("bulkLoad requires an empty map");
+        }
+        ArrayList<Entry<K, V>> entries = new ArrayList<>();
+        K previous = null;
+        for (Entry<K, V> e : sorted) {
+            checkKey(e.getKey());
+            if (previous != null && compare(previous, e.getKey()) >= 0) {
+                throw new IllegalArgumentException("Keys are not in strictly increasing order");
+            }
+            previous = e.getKey();
+            entries.add(e);
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        // build the leaf level, spreading the entries evenly over as few leaves as possible
+        int n = entries.size();
+        int leaves = (n + order - 2) / (order - 1);
+        ArrayList<Node> level = new ArrayList<>(leaves);
+        ArrayList<Object> lowKeys = new ArrayList<>(leaves);   // least key under each node
+        LeafNode last = null;
+        int next = 0;
+        for (int j = 0; j < leaves; j++) {
+            LeafNode leaf = new LeafNode(order);
+            int end = (int) ((long) n * (j + 1) / leaves);
+            for (; next < end; next++) {
+                leaf.keys[leaf.count] = entries.get(next).getKey();
+                leaf.values[leaf.count++] = entries.get(next).getValue();
+            }
+            leaf.prev = last;
+            if (last != null) {
+                last.next = leaf;
+            }
+            last = leaf;
+            level.add(leaf);
+            lowKeys.add(leaf.keys[0]);
+        }
+
+        // build the internal levels in the same way until a single node remains
+        while (level.size() > 1) {
+            int m = level.size();
+            int parents = (m + order - 1) / order;
+            ArrayList<Node> upper = new ArrayList<>(parents);
+            ArrayList<Object> upperLowKeys = new ArrayList<>(parents);
+            int child = 0;
+            for (int j = 0; j < parents; j++) {
+                InternalNode node = new InternalNode(order);
+                int end = (int) ((long) m * (j + 1) / parents);
+                upperLowKeys.add(lowKeys.get(child));
+                node.children[0] = level.get(child++);
+                for (; child < end; child++) {
+                    node.keys[node.count++] = lowKeys.get(child);
+                    node.children[node.count] = level.get(child);
+                }
+                upper.add(node);
+            }
+            level = upper;
+            lowKeys = upperLowKeys;
+        }
+        root = level.get(0);
+        size = n;
+        modCount++;
+    }
+
+    // additional behaviors of the SortedMap interface
+
+    /**
+     * Returns the entry having the least key (or null if map is empty).
+     *
+     * @return entry with least key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> firstEntry() {
+        LeafNode leaf = firstLeaf();
+        return entry(leaf, 0);
+    }
+
+    /**
+     * Returns the entry having the greatest key (or null if map is empty).
+     *
+     * @return entry with greatest key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> lastEntry() {
+        LeafNode leaf = lastLeaf();
+        return entry(leaf, leaf.count - 1);
+    }
+
+    /**
+     * Returns the entry with least key greater than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with least key greater than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        LeafNode leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return entryAtOrAfter(leaf, i >= 0 ? i : -(i + 1));
+    }
+
+    /**
+     * Returns the entry with greatest key less than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with greatest key less than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        LeafNode leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return entryAtOrBefore(leaf, i >= 0 ? i : -(i + 1) - 1);
+    }
+
+    /**
+     * Returns the entry with greatest key strictly less than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with greatest key strictly less than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        LeafNode leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return entryAtOrBefore(leaf, (i >= 0 ? i : -(i + 1)) - 1);
+    }
+
+    /**
+     * Returns the entry with least key strictly greater than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with least key strictly greater than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        LeafNode leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return entryAtOrAfter(leaf, i >= 0 ? i + 1 : -(i + 1));
+    }
+
+    /**
+     * Returns an iterable containing all entries with keys in the range from
+     * <code>fromKey</code> inclusive to <code>toKey</code> exclusive. After a
+     * single descent to <code>fromKey</code>, the entries are produced lazily by
+     * following the leaf links.
+     *
+     * @return iterable with keys in desired range
+     * @throws IllegalArgumentException if <code>fromKey</code> or
+     *                                  <code>toKey</code> is not compatible with
+     *                                  the map
+     */
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+        checkKey(fromKey);
+        checkKey(toKey);
+        return () -> {
+            LeafNode leaf = findLeaf(fromKey);
+            int i = search(leaf, fromKey);
+            return new EntryIterator(leaf, i >= 0 ? i : -(i + 1), toKey, false);
+        };
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+        return () -> new EntryIterator(firstLeaf(), 0, null, false);
+    }
+
+    /**
+     * Descends once to the starting key and then follows the leaf links, in
+     * either direction.
+     */
+    @Override
+    protected Iterator<Entry<K, V>> iteratorFrom(K key, boolean inclusive, boolean descending) {
+        if (key == null) {
+            if (descending) {
+                LeafNode leaf = lastLeaf();
+                return new EntryIterator(leaf, leaf.count - 1, null, true);
+            }
+            return new EntryIterator(firstLeaf(), 0, null, false);
+        }
+        checkKey(key);
+        LeafNode leaf = findLeaf(key);
+        int i = search(leaf, key);
+        int start;
+        if (i >= 0) { // key is present at index i
+            start = (inclusive ? i : descending ? i - 1 : i + 1);
+        } else { // key belongs between indices -(i + 1) - 1 and -(i + 1)
+            start = (descending ? -(i + 1) - 1 : -(i + 1));
+        }
+        return new EntryIterator(leaf, start, null, descending);
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(");
+        for (Entry<K, V> e : entrySet()) {
+            sb.append(e).append(", ");
+        }
+        return sb.append(")").toString();
+    }
+
+    // ---------------- nested EntryIterator class ----------------
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private LeafNode leaf;
+        private int index;
+        private final K toKey;           // exclusive upper bound, or null if unbounded
+        private final boolean descending;
+        private final int expectedModCount = modCount;
+
+        EntryIterator(LeafNode leaf, int index, K toKey, boolean descending) {
+            this.leaf = leaf;
+            this.index = index;
+            this.toKey = toKey;
+            this.descending = descending;
+            skipExhaustedLeaves();
+        }
+
+        private void skipExhaustedLeaves() {
+            if (descending) {
+                while (leaf != null && index < 0) {
+                    leaf = leaf.prev;
+                    index = (leaf == null ? -1 : leaf.count - 1);
+                }
+            } else {
+                while (leaf != null && index >= leaf.count) {
+                    leaf = leaf.next;
+                    index = 0;
+                }
+            }
+        }
+
+        @SuppressWarnings({"unchecked"})
+        public boolean hasNext() {
+            if (modCount != expectedModCount) {      // the leaf's slots may have moved or been cleared
+                throw new ConcurrentModificationException();
+            }
+            return leaf != null && (toKey == null || compare((K) leaf.keys[index], toKey) < 0);
+        }
+
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more entries");
+            }
+            Entry<K, V> answer = entry(leaf, descending ? index-- : index++);
+            skipExhaustedLeaves();
+            return answer;
+        }
+    } // ----------- end of nested EntryIterator class -----------
+
+    // private utilities
+
+    /**
+     * Binary search for key among the keys of node n. Returns its index if
+     * found, and -(insertion point) - 1 otherwise.
+     */
+    @SuppressWarnings({"unchecked"})
+    private int search(Node n, K key) {
+        int low = 0;
+        int high = n.count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = compare((K) n.keys[mid], key);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /** Returns the index of the child of internal node n whose subtree may hold key. */
+    private int childIndex(InternalNode n, K key) {
+        int i = search(n, key);
+        return i >= 0 ? i + 1 : -(i + 1);
+    }
+
+    /** Returns the leaf whose key range covers key. */
+    private LeafNode findLeaf(K key) {
+        Node n = root;
+        while (!n.isLeaf()) {
+            InternalNode internal = (InternalNode) n;
+            n = internal.children[childIndex(internal, key)];
+        }
+        return (LeafNode) n;
+    }
+
+    private LeafNode firstLeaf() {
+        Node n = root;
+        while (!n.isLeaf()) {
+            n = ((InternalNode) n).children[0];
+        }
+        return (LeafNode) n;
+    }
+
+    private LeafNode lastLeaf() {
+        Node n = root;
+        while (!n.isLeaf()) {
+            n = ((InternalNode) n).children[n.count];
+        }
+        return (LeafNode) n;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private Entry<K, V> entry(LeafNode leaf, int i) {
+        if (leaf == null || i < 0 || i >= leaf.count) {
+            return null;
+        }
+        return new MapEntry<>((K) leaf.keys[i], (V) leaf.values[i]);
+    }
+
+    /** Returns the entry at position i of leaf, or the first one of a following leaf. */
+    private Entry<K, V> entryAtOrAfter(LeafNode leaf, int i) {
+        while (leaf != null && i >= leaf.count) {
+            leaf = leaf.next;
+            i = 0;
+        }
+        return entry(leaf, i);
+    }
+
+    /** Returns the entry at position i of leaf, or the last one of a preceding leaf. */
+    private Entry<K, V> entryAtOrBefore(LeafNode leaf, int i) {
+        while (leaf != null && i < 0) {
+            leaf = leaf.prev;
+            i = (leaf == null ? -1 : leaf.count - 1);
+        }
+        return entry(leaf, i);
+    }
+
+    /**
+     * Inserts key into the subtree rooted at n. If n overflows it is split,
+     * and the new right sibling is returned with its least key in splitKey;
+     * otherwise returns null. A replaced value is left in oldValue.
+     */
+    @SuppressWarnings({"unchecked"})
+    private Node insert(Node n, K key, V value) {
+        if (n.isLeaf()) {
+            LeafNode leaf = (LeafNode) n;
+            int i = search(leaf, key);
+            if (i >= 0) {
+                oldValue = (V) leaf.values[i];
+                leaf.values[i] = value;
+                return null;
+            }
+            i = -(i + 1);
+            System.arraycopy(leaf.keys, i, leaf.keys, i + 1, leaf.count - i);
+            System.arraycopy(leaf.values, i, leaf.values, i + 1, leaf.count - i);
+            leaf.keys[i] = key;
+            leaf.values[i] = value;
+            leaf.count++;
+            size++;
+            modCount++;
+            return leaf.count < order ? null : splitLeaf(leaf);
+        }
+
+        InternalNode internal = (InternalNode) n;
+        int i = childIndex(internal, key);
+        Node sibling = insert(internal.children[i], key, value);
+        if (sibling == null) {
+            return null;
+        }
+        // the child was split: add the separator and the new child right after it
+        System.arraycopy(internal.keys, i, internal.keys, i + 1, internal.count - i);
+        System.arraycopy(internal.children, i + 1, internal.children, i + 2, internal.count - i);
+        internal.keys[i] = splitKey;
+        internal.children[i + 1] = sibling;
+        internal.count++;
+        return internal.count < order ? null : splitInternal(internal);
+    }
+
+    /** Moves the upper half of an overfull leaf into a new right sibling. */
+    private Node splitLeaf(LeafNode leaf) {
+        LeafNode right = new LeafNode(order);
+        int keep = leaf.count / 2;
+        right.count = leaf.count - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, right.count);
+        System.arraycopy(leaf.values, keep, right.values, 0, right.count);
+        clear(leaf.keys, keep, leaf.count);
+        clear(leaf.values, keep, leaf.count);
+        leaf.count = keep;
+
+        right.next = leaf.next;
+        right.prev = leaf;
+        if (leaf.next != null) {
+            leaf.next.prev = right;
+        }
+        leaf.next = right;
+        splitKey = right.keys[0];
+        return right;
+    }
+
+    /** Moves the upper half of an overfull internal node into a new right sibling, promoting the middle key. */
+    private Node splitInternal(InternalNode node) {
+        InternalNode right = new InternalNode(order);
+        int keep = node.count / 2;
+        splitKey = node.keys[keep];
+        right.count = node.count - keep - 1;
+        System.arraycopy(node.keys, keep + 1, right.keys, 0, right.count);
+        System.arraycopy(node.children, keep + 1, right.children, 0, right.count + 1);
+        clear(node.keys, keep, node.count);
+        clear(node.children, keep + 1, node.count + 1);
+        node.count = keep;
+        return right;
+    }
+
+    /**
+     * Removes key from the subtree rooted at n, restoring the minimum
+     * occupancy of any child that underflows. Sets found and oldValue.
+     */
+    @SuppressWarnings({"unchecked"})
+    private void delete(Node n, K key) {
+        if (n.isLeaf()) {
+            LeafNode leaf = (LeafNode) n;
+            int i = search(leaf, key);
+            if (i < 0) {
+                return;
+            }
+            found = true;
+            oldValue = (V) leaf.values[i];
+            System.arraycopy(leaf.keys, i + 1, leaf.keys, i, leaf.count - i - 1);
+            System.arraycopy(leaf.values, i + 1, leaf.values, i, leaf.count - i - 1);
+            leaf.count--;
+            leaf.keys[leaf.count] = null;
+            leaf.values[leaf.count] = null;
+            size--;
+            modCount++;
+            return;
+        }
+
+        InternalNode internal = (InternalNode) n;
+        int i = childIndex(internal, key);
+        Node child = internal.children[i];
+        delete(child, key);
+        if (found && child.count < (child.isLeaf() ? minLeafKeys : minInternalKeys)) {
+            fixUnderflow(internal, i);
+        }
+    }
+
+    /** Refills children[i] of parent from a sibling, or merges it with one. */
+    private void fixUnderflow(InternalNode parent, int i) {
+        Node child = parent.children[i];
+        Node left = (i > 0 ? parent.children[i - 1] : null);
+        Node right = (i < parent.count ? parent.children[i + 1] : null);
+        int min = (child.isLeaf() ? minLeafKeys : minInternalKeys);
+
+        if (left != null && left.count > min) {
+            borrowFromLeft(parent, i);
+        } else if (right != null && right.count > min) {
+            borrowFromRight(parent, i);
+        } else if (left != null) {
+            merge(parent, i - 1);
+        } else {
+            merge(parent, i);
+        }
+    }
+
+    /** Moves the last key of children[i-1] into children[i]. */
+    private void borrowFromLeft(InternalNode parent, int i) {
+        Node child = parent.children[i];
+        Node left = parent.children[i - 1];
+        System.arraycopy(child.keys, 0, child.keys, 1, child.count);
+        if (child.isLeaf()) {
+            LeafNode c = (LeafNode) child;
+            LeafNode l = (LeafNode) left;
+            System.arraycopy(c.values, 0, c.values, 1, c.count);
+            c.keys[0] = l.keys[l.count - 1];
+            c.values[0] = l.values[l.count - 1];
+            l.keys[l.count - 1] = null;
+            l.values[l.count - 1] = null;
+            parent.keys[i - 1] = c.keys[0];
+        } else {
+            InternalNode c = (InternalNode) child;
+            InternalNode l = (InternalNode) left;
+            System.arraycopy(c.children, 0, c.children, 1, c.count + 1);
+            c.keys[0] = parent.keys[i - 1];
+            c.children[0] = l.children[l.count];
+            parent.keys[i - 1] = l.keys[l.count - 1];
+            l.keys[l.count - 1] = null;
+            l.children[l.count] = null;
+        }
+        child.count++;
+        left.count--;
+    }
+
+    /** Moves the first key of children[i+1] into children[i]. */
+    private void borrowFromRight(InternalNode parent, int i) {
+        Node child = parent.children[i];
+        Node right = parent.children[i + 1];
+        if (child.isLeaf()) {
+            LeafNode c = (LeafNode) child;
+            LeafNode r = (LeafNode) right;
+            c.keys[c.count] = r.keys[0];
+            c.values[c.count] = r.values[0];
+            System.arraycopy(r.values, 1, r.values, 0, r.count - 1);
+            r.values[r.count - 1] = null;
+            System.arraycopy(r.keys, 1, r.keys, 0, r.count - 1);
+            r.keys[r.count - 1] = null;
+            parent.keys[i] = r.keys[0];
+        } else {
+            InternalNode c = (InternalNode) child;
+            InternalNode r = (InternalNode) right;
+            c.keys[c.count] = parent.keys[i];
+            c.children[c.count + 1] = r.children[0];
+            parent.keys[i] = r.keys[0];
+            System.arraycopy(r.keys, 1, r.keys, 0, r.count - 1);
+            r.keys[r.count - 1] = null;
+            System.arraycopy(r.children, 1, r.children, 0, r.count);
+            r.children[r.count] = null;
+        }
+        child.count++;
+        right.count--;
+    }
+
+    /** Merges children[i+1] of parent into children[i] and drops separator keys[i]. */
+    private void merge(InternalNode parent, int i) {
+        Node left = parent.children[i];
+        Node right = parent.children[i + 1];
+        if (left.isLeaf()) {
+            LeafNode l = (LeafNode) left;
+            LeafNode r = (LeafNode) right;
+            System.arraycopy(r.keys, 0, l.keys, l.count, r.count);
+            System.arraycopy(r.values, 0, l.values, l.count, r.count);
+            l.count += r.count;
+            l.next = r.next;
+            if (r.next != null) {
+                r.next.prev = l;
+            }
+        } else {
+            InternalNode l = (InternalNode) left;
+            InternalNode r = (InternalNode) right;
+            l.keys[l.count] = parent.keys[i];      // the separator comes down between the two halves
+            System.arraycopy(r.keys, 0, l.keys, l.count + 1, r.count);
+            System.arraycopy(r.children, 0, l.children, l.count + 1, r.count + 1);
+            l.count += r.count + 1;
+        }
+        System.arraycopy(parent.keys, i + 1, parent.keys, i, parent.count - i - 1);
+        System.arraycopy(parent.children, i + 2, parent.children, i + 1, parent.count - i - 1);
+        parent.count--;
+        parent.keys[parent.count] = null;
+        parent.children[parent.count + 1] = null;
+    }
+
+    /** Drops references in a[from, to) so that removed entries can be collected. */
+    private static void clear(Object[] a, int from, int to) {
+        for (int i = from; i < to; i++) {
+            a[i] = null;
+        }
+    }
+}
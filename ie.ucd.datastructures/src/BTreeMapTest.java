@@ -0,0 +1,140 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BTreeMapTest {
+
+	@Test
+	void testPutGetRemove() {
+		BTreeMap<Integer, String> m = new BTreeMap<>();
+		assertNull(m.firstEntry());
+		assertNull(m.put(2, "two"));
+		assertNull(m.put(1, "one"));
+		assertEquals("one", m.put(1, "uno"));
+		assertEquals(2, m.size());
+		assertEquals("uno", m.get(1));
+		assertEquals("two", m.remove(2));
+		assertNull(m.get(2));
+		assertNull(m.remove(2));
+		assertEquals(1, m.size());
+	}
+
+	@Test
+	void testSubMapAcrossLeaves() {
+		BTreeMap<Integer, Integer> m = new BTreeMap<>(new DefaultComparator<>(), 4);
+		for (int i = 0; i < 1000; i++) {
+			m.put(i, i);
+		}
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : m.subMap(100, 200)) {
+			keys.add(e.getKey());
+		}
+		assertEquals(100, keys.size());
+		assertEquals(100, keys.get(0));
+		assertEquals(199, keys.get(99));
+	}
+
+	@Test
+	void testIteratorDetectsRemoval() {
+		BTreeMap<Integer, Integer> m = new BTreeMap<>();
+		for (int i = 1; i <= 3; i++) {
+			m.put(i, i);
+		}
+		java.util.Iterator<Entry<Integer, Integer>> it = m.subMap(0, 10).iterator();
+		it.next();
+		it.next();
+		m.remove(3);                     // clears the slot the bounded iterator compares next
+		assertThrows(java.util.ConcurrentModificationException.class, it::hasNext);
+		assertThrows(java.util.ConcurrentModificationException.class, it::next);
+	}
+
+	@Test
+	void testBulkLoad() {
+		for (int n : new int[] {0, 1, 2, 3, 7, 64, 1000}) {
+			BTreeMap<Integer, Integer> m = new BTreeMap<>(new DefaultComparator<>(), 4);
+			List<Entry<Integer, Integer>> sorted = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				sorted.add(new AbstractMap.MapEntry<>(2 * i, i));
+			}
+			m.bulkLoad(sorted);
+			assertEquals(n, m.size());
+			for (int i = 0; i < n; i++) {
+				assertEquals(i, m.get(2 * i));
+				assertNull(m.get(2 * i + 1));
+			}
+			// the bulk-loaded tree must remain valid under further updates
+			for (int i = 0; i < n; i++) {
+				m.put(2 * i + 1, i);
+			}
+			for (int i = 0; i < 2 * n; i += 3) {
+				m.remove(i);
+			}
+			checkOrdered(m, 2 * n - (2 * n + 2) / 3);
+		}
+	}
+
+	@Test
+	void testBulkLoadRejectsUnsortedInput() {
+		BTreeMap<Integer, Integer> m = new BTreeMap<>();
+		List<Entry<Integer, Integer>> unsorted = List.of(new AbstractMap.MapEntry<>(2, 2), new AbstractMap.MapEntry<>(1, 1));
+		assertThrows(IllegalArgumentException.class, () -> m.bulkLoad(unsorted));
+		m.put(1, 1);
+		assertThrows(IllegalStateException.class, () -> m.bulkLoad(new ArrayList<>()));
+	}
+
+	@Test
+	void testAgainstTreeMap() {
+		for (int order : new int[] {3, 4, 5, 64}) {
+			BTreeMap<Integer, Integer> m = new BTreeMap<>(new DefaultComparator<>(), order);
+			java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+			Random rnd = new Random(order);
+			for (int i = 0; i < 30000; i++) {
+				int k = rnd.nextInt(1000);
+				if (rnd.nextInt(5) < 2) {
+					assertEquals(expected.remove(k), m.remove(k));
+				} else {
+					assertEquals(expected.put(k, i), m.put(k, i));
+				}
+				int probe = rnd.nextInt(1020) - 10;
+				assertEquals(expected.ceilingKey(probe), key(m.ceilingEntry(probe)));
+				assertEquals(expected.floorKey(probe), key(m.floorEntry(probe)));
+				assertEquals(expected.lowerKey(probe), key(m.lowerEntry(probe)));
+				assertEquals(expected.higherKey(probe), key(m.higherEntry(probe)));
+			}
+			assertEquals(expected.size(), m.size());
+			assertEquals(expected.firstKey(), key(m.firstEntry()));
+			assertEquals(expected.lastKey(), key(m.lastEntry()));
+			List<Integer> keys = new ArrayList<>();
+			for (Entry<Integer, Integer> e : m.entrySet()) {
+				assertEquals(expected.get(e.getKey()), e.getValue());
+				keys.add(e.getKey());
+			}
+			assertEquals(new ArrayList<>(expected.keySet()), keys);
+		}
+	}
+
+	private static void checkOrdered(BTreeMap<Integer, Integer> m, int expectedSize) {
+		int count = 0;
+		Integer previous = null;
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			if (previous != null) {
+				assertEquals(-1, Integer.signum(previous.compareTo(e.getKey())));
+			}
+			assertEquals(e.getValue(), m.get(e.getKey()));
+			previous = e.getKey();
+			count++;
+		}
+		assertEquals(expectedSize, count);
+		assertEquals(expectedSize, m.size());
+	}
+
+	private static Integer key(Entry<Integer, Integer> e) {
+		return e == null ? null : e.getKey();
+	}
+}
@@ -7,6 +7,8 @@ import java.util.ArrayList;
 public class ChainHashMap<K, V> extends AbstractHashMap<K, V> {
     // a fixed capacity array of UnsortedTableMap that serve as buckets
     private UnsortedTableMap<K, V>[] table; // initialized within createTable
+    // the table being drained during an incremental resize (null otherwise)
+    private UnsortedTableMap<K, V>[] oldTable;
 
     /**
      * Creates a hash table with capacity 11 and prime factor 109345121.
@@ -89,12 +91,12 @@ public class ChainHashMap<K, V> extends AbstractHashMap<K, V> {
     	UnsortedTableMap<K, V> entry = table[h];
          
     	if (entry == null) {
-    		entry = new UnsortedTableMap<K, V>(); 
+    		entry = table[h] = new UnsortedTableMap<K, V>(); 
     	}
     	
     	int sizeOld = entry.size(); 
     	V toReturn = entry.put(k, v); 
-    	n = n + (sizeOld-entry.size());
+    	n = n + (entry.size()-sizeOld);
     	return toReturn; 
 
     }
@@ -119,6 +121,53 @@ public class ChainHashMap<K, V> extends AbstractHashMap<K, V> {
     	return toReturn; 
     }
 
+    /**
+     * Incremental resizing is supported: a key's entries all live in one
+     * bucket, which can be moved to the new table as a whole.
+     */
+    @Override
+    protected boolean supportsIncrementalResize() {
+    	return true;
+    }
+
+    /**
+     * Keeps the current table aside as the old table of an incremental resize.
+     */
+    @Override
+    protected void detachTable() {
+    	oldTable = table;
+    }
+
+    /**
+     * Moves every entry of bucket j of the old table into the current table.
+     *
+     * @param j the index of a bucket of the old table
+     * @return true if at least one entry was moved
+     */
+    @Override
+    protected boolean transferBucket(int j) {
+    	UnsortedTableMap<K, V> bucket = oldTable[j];
+    	if (bucket == null) { return false; }
+
+    	oldTable[j] = null;
+    	for (Entry<K, V> e : bucket.entrySet()) {
+    		int h = hashValue(e.getKey());
+    		if (table[h] == null) {
+    			table[h] = new UnsortedTableMap<K, V>();
+    		}
+    		table[h].put(e.getKey(), e.getValue()); // keys are distinct, n is unchanged
+    	}
+    	return !bucket.isEmpty();
+    }
+
+    /**
+     * Discards the drained old table.
+     */
+    @Override
+    protected void releaseDetachedTable() {
+    	oldTable = null;
+    }
+
     /**
      * Returns an iterable collection of all key-value entries of the map.
      *
@@ -126,13 +175,21 @@ public class ChainHashMap<K, V> extends AbstractHashMap<K, V> {
      */
     @Override
     public Iterable<Entry<K, V>> entrySet() {
-    	ArrayList<Entry<K,V>> iterable = new ArrayList<>();
+    	ArrayList<Entry<K,V>> iterable = new ArrayList<>(n);
     	for (int h=0; h < capacity; h++)
     		if (table[h] != null)
     			for (Entry<K,V> insertion : table[h].entrySet()) {
     				iterable.add(insertion);
     			}
 
+    	//entries not yet migrated by an incremental resize
+    	if (oldTable != null)
+    		for (int h=0; h < oldTable.length; h++)
+    			if (oldTable[h] != null)
+    				for (Entry<K,V> insertion : oldTable[h].entrySet()) {
+    					iterable.add(insertion);
+    				}
+
     	return iterable;
     }
 
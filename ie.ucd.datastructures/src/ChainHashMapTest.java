@@ -0,0 +1,63 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChainHashMapTest {
+
+	@Test
+	void testPutGetRemove() {
+		ChainHashMap<Integer, String> m = new ChainHashMap<>();
+		assertNull(m.put(1, "One"));
+		assertNull(m.put(10, "Ten"));
+		assertEquals("One", m.put(1, "Uno"));
+		assertEquals(2, m.size());
+		assertEquals("Uno", m.get(1));
+		assertEquals("Ten", m.remove(10));
+		assertNull(m.get(10));
+		assertEquals(1, m.size());
+	}
+
+	@Test
+	void testResize() {
+		ChainHashMap<Integer, Integer> m = new ChainHashMap<>();
+		for (int i = 0; i < 1000; i++) {
+			m.put(i, i);
+		}
+		assertEquals(1000, m.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, m.get(i));
+		}
+	}
+
+	@Test
+	void testIncrementalResize() {
+		ChainHashMap<Integer, Integer> m = new ChainHashMap<>();
+		m.enableIncrementalResize(1);
+		boolean sawRehash = false;
+		for (int i = 0; i < 1000; i++) {
+			m.put(i, i);
+			sawRehash |= m.isRehashing();
+		}
+		assertTrue(sawRehash);
+
+		int count = 0;
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			assertEquals(e.getKey(), e.getValue());
+			count++;
+		}
+		assertEquals(1000, count);
+
+		for (int i = 0; i < 1000; i += 2) {
+			assertEquals(i, m.remove(i));
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i % 2 == 0 ? null : i, m.get(i));
+		}
+		m.disableIncrementalResize();
+		assertFalse(m.isRehashing());
+		assertEquals(500, m.size());
+	}
+}
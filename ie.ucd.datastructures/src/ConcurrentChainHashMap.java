@@ -0,0 +1,311 @@
+import java.util.ArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe map implementation using hash tables with separate chaining,
+ * partitioned into independently locked stripes.
+ * <p>
+ * Each key is routed by the high bits of its hash to one stripe, which owns
+ * its own bucket table, its own StampedLock and its own resizing. Writers
+ * only lock the stripe they modify, so threads working on different stripes
+ * never contend. Readers first try an optimistic, lock-free read of the
+ * stripe and only fall back to the read lock if a writer intervened.
+ * <p>
+ * The size is kept in a LongAdder, so concurrent updates of the count do not
+ * contend on a single field. entrySet() returns a snapshot that is consistent
+ * per stripe, but not across stripes.
+ */
+public class ConcurrentChainHashMap<K, V> extends AbstractMap<K, V> {
+
+    // ---------------- nested Node class ----------------
+    /**
+     * A chain node. key and hash are final so that a reader racing with the
+     * writer that published the node never observes them uninitialized.
+     */
+    private static class Node<K, V> {
+        final K key;
+        final int hash;
+        V value;
+        Node<K, V> next;
+
+        Node(K key, int hash, V value, Node<K, V> next) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    } // ----------- end of nested Node class -----------
+
+    // ---------------- nested Stripe class ----------------
+    /**
+     * An independently locked hash table holding the keys of one stripe.
+     */
+    private static class Stripe<K, V> {
+        final StampedLock lock = new StampedLock();
+        Node<K, V>[] table;              // length is a power of two
+        int count = 0;                   // number of entries in this stripe
+
+        Stripe(int cap) {
+            table = newTable(cap);
+        }
+
+        /** Returns the node holding key k in the given table, or null. */
+        static <K, V> Node<K, V> find(Node<K, V>[] table, int h, K k) {
+            for (Node<K, V> e = table[h & (table.length - 1)]; e != null; e = e.next) {
+                if (e.hash == h && k.equals(e.key)) {
+                    return e;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Doubles the table. Nodes are copied rather than relinked, so an
+         * optimistic reader still walking the old table sees intact chains.
+         */
+        void resize() {
+            Node<K, V>[] newTable = newTable(2 * table.length);
+            int mask = newTable.length - 1;
+            for (Node<K, V> head : table) {
+                for (Node<K, V> e = head; e != null; e = e.next) {
+                    int j = e.hash & mask;
+                    newTable[j] = new Node<>(e.key, e.hash, e.value, newTable[j]);
+                }
+            }
+            table = newTable;
+        }
+
+        @SuppressWarnings({"unchecked"})
+        static <K, V> Node<K, V>[] newTable(int cap) {
+            return (Node<K, V>[]) new Node<?, ?>[cap];
+        }
+    } // ----------- end of nested Stripe class -----------
+
+    private static final int DEFAULT_STRIPES = 16;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Stripe<K, V>[] stripes;
+    private final int stripeShift;       // hash bits not used to select a stripe
+    private final LongAdder n = new LongAdder();
+
+    /**
+     * Creates a map with 16 stripes of 16 buckets each.
+     */
+    public ConcurrentChainHashMap() {
+        this(DEFAULT_STRIPES * DEFAULT_CAPACITY, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a map with the given number of stripes, rounded up to a power of two.
+     *
+     * @param concurrencyLevel the expected number of concurrently writing threads
+     */
+    public ConcurrentChainHashMap(int concurrencyLevel) {
+        this(concurrencyLevel * DEFAULT_CAPACITY, concurrencyLevel);
+    }
+
+    /**
+     * Creates a map with the given total initial capacity spread over the given
+     * number of stripes, both rounded up to powers of two.
+     *
+     * @param cap              the initial number of buckets over all stripes
+     * @param concurrencyLevel the expected number of concurrently writing threads
+     * @throws IllegalArgumentException if either argument is not positive
+     */
+    @SuppressWarnings({"unchecked"})
+    public ConcurrentChainHashMap(int cap, int concurrencyLevel) throws IllegalArgumentException {
+        if (cap <= 0 || concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Capacity and concurrency level must be positive");
+        }
+        int numStripes = powerOfTwo(Math.min(concurrencyLevel, 1 << 16));
+        stripeShift = 32 - Integer.numberOfTrailingZeros(numStripes);
+        stripes = (Stripe<K, V>[]) new Stripe<?, ?>[numStripes];
+        int stripeCap = powerOfTwo(Math.max(2, (cap + numStripes - 1) / numStripes));
+        for (int i = 0; i < numStripes; i++) {
+            stripes[i] = new Stripe<>(stripeCap);
+        }
+    }
+
+    // public methods
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+        return n.intValue();
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public V get(K key) {
+        int h = hash(key);
+        Stripe<K, V> stripe = stripeFor(h);
+        StampedLock lock = stripe.lock;
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Node<K, V> e = Stripe.find(stripe.table, h, key);
+            V value = (e == null ? null : e.value);
+            if (lock.validate(stamp)) {
+                return value;            // no writer touched the stripe meanwhile
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            Node<K, V> e = Stripe.find(stripe.table, h, key);
+            return e == null ? null : e.value;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with
+     * the key was already in the map, this replaced the previous value
+     * with the new one and returns the old value. Otherwise, a new
+     * entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such entry)
+     */
+    @Override
+    public V put(K key, V value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * Associates the given value with the given key only if the key is not
+     * already in the map. The check and the insertion happen atomically.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the value already associated with the key (or null, if the value was added)
+     */
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns
+     * its associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no such entry exists
+     */
+    @Override
+    public V remove(K key) {
+        int h = hash(key);
+        Stripe<K, V> stripe = stripeFor(h);
+        long stamp = stripe.lock.writeLock();
+        try {
+            Node<K, V>[] table = stripe.table;
+            int j = h & (table.length - 1);
+            Node<K, V> prev = null;
+            for (Node<K, V> e = table[j]; e != null; prev = e, e = e.next) {
+                if (e.hash == h && key.equals(e.key)) {
+                    if (prev == null) {
+                        table[j] = e.next;
+                    } else {
+                        prev.next = e.next;
+                    }
+                    stripe.count--;
+                    n.decrement();
+                    return e.value;
+                }
+            }
+            return null;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     * Each stripe is copied under its read lock, so the result reflects a
+     * consistent state of every stripe but not of the map as a whole.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+        ArrayList<Entry<K, V>> buffer = new ArrayList<>(size());
+        for (Stripe<K, V> stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                for (Node<K, V> head : stripe.table) {
+                    for (Node<K, V> e = head; e != null; e = e.next) {
+                        buffer.add(new MapEntry<>(e.key, e.value));
+                    }
+                }
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return buffer;
+    }
+
+    public String toString() {
+        return entrySet().toString();
+    }
+
+    // private utilities
+
+    /**
+     * Shared implementation of put and putIfAbsent under the stripe's write lock.
+     */
+    private V put(K key, V value, boolean onlyIfAbsent) {
+        int h = hash(key);
+        Stripe<K, V> stripe = stripeFor(h);
+        long stamp = stripe.lock.writeLock();
+        try {
+            Node<K, V> e = Stripe.find(stripe.table, h, key);
+            if (e != null) {
+                V old = e.value;
+                if (!onlyIfAbsent) {
+                    e.value = value;
+                }
+                return old;
+            }
+            Node<K, V>[] table = stripe.table;
+            int j = h & (table.length - 1);
+            table[j] = new Node<>(key, h, value, table[j]);
+            n.increment();
+            if (++stripe.count > table.length * 3 / 4) {   // chains tolerate a load factor of 3/4
+                stripe.resize();
+            }
+            return null;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Scrambles the key's hash code so that both its high bits (which select
+     * the stripe) and its low bits (which select the bucket) are well mixed.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Returns the stripe responsible for the given hash. */
+    private Stripe<K, V> stripeFor(int h) {
+        return stripes.length == 1 ? stripes[0] : stripes[h >>> stripeShift];
+    }
+
+    /** Returns the smallest power of two greater than or equal to x. */
+    private static int powerOfTwo(int x) {
+        return x <= 1 ? 1 : Integer.highestOneBit(x - 1) << 1;
+    }
+}
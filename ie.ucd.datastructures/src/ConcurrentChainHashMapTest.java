@@ -0,0 +1,49 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConcurrentChainHashMapTest {
+
+	@Test
+	void testPutGetRemove() {
+		ConcurrentChainHashMap<Integer, String> m = new ConcurrentChainHashMap<>();
+		assertNull(m.put(1, "One"));
+		assertEquals("One", m.put(1, "Uno"));
+		assertEquals("Uno", m.putIfAbsent(1, "Eins"));
+		assertNull(m.putIfAbsent(2, "Two"));
+		assertEquals("Uno", m.get(1));
+		assertEquals("Two", m.remove(2));
+		assertNull(m.get(2));
+		assertEquals(1, m.size());
+	}
+
+	@Test
+	void testConcurrentPut() throws InterruptedException {
+		ConcurrentChainHashMap<Integer, Integer> m = new ConcurrentChainHashMap<>(4);
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			int offset = t * 10000;
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 10000; i++) {
+					m.put(offset + i, i);
+					m.get(offset + i / 2);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(80000, m.size());
+		for (int i = 0; i < 80000; i++) {
+			assertEquals(i % 10000, m.get(i));
+		}
+		int count = 0;
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			count++;
+		}
+		assertEquals(80000, count);
+	}
+}
@@ -0,0 +1,252 @@
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe, relaxed priority queue, built as a MultiQueue: an array of
+ * sequential HeapPriorityQueues (shards), each guarded by its own lock.
+ * <p>
+ * insert adds the entry to a shard chosen at random, skipping shards whose
+ * lock is held by another thread. removeMin picks two shards at random and
+ * removes the minimum of the one whose minimal key is smaller. Each shard
+ * publishes its minimal key in a volatile field, so the two candidates are
+ * compared without taking any lock, and only the chosen shard is locked.
+ * With twice as many shards as threads, threads rarely meet on a lock.
+ * <p>
+ * The price is that removeMin is relaxed: it returns an entry whose key is
+ * close to, but not always, the minimum of the whole queue. The rank of the
+ * removed key among all keys is on average proportional to the number of
+ * shards, and no entry is ever lost or removed twice. removeMin returns null
+ * only after finding every shard empty. A queue with a single shard is an
+ * exact, lock-based priority queue. min scans every shard and is exact when
+ * no other thread is updating the queue.
+ */
+public class ConcurrentMultiQueue<K, V> extends AbstractPriorityQueue<K, V> {
+
+    /** The number of shards created per available processor by default. */
+    public static final int DEFAULT_SHARDS_PER_PROCESSOR = 2;
+
+    // ---------------- nested Shard class ----------------
+    /**
+     * A sequential heap, the lock guarding it, and its minimal key.
+     */
+    private static class Shard<K, V> {
+        final ReentrantLock lock = new ReentrantLock();
+        final HeapPriorityQueue<K, V> heap;
+        volatile K top;                  // minimal key of the heap, or null if empty; written under lock
+
+        Shard(Comparator<K> comp) {
+            heap = new HeapPriorityQueue<>(comp);
+        }
+
+        /** Publishes the minimal key after the heap changed. Call with the lock held. */
+        void publish() {
+            top = (heap.isEmpty() ? null : heap.keys[0]);
+        }
+    } // ----------- end of nested Shard class -----------
+
+    private final Shard<K, V>[] shards;
+    private final Comparator<K> comparator;
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Creates an empty priority queue using natural ordering of keys, with
+     * DEFAULT_SHARDS_PER_PROCESSOR shards per available processor.
+     */
+    public ConcurrentMultiQueue() {
+        this(new DefaultComparator<K>());
+    }
+
+    /**
+     * Creates an empty priority queue using the given comparator to order
+     * keys, with DEFAULT_SHARDS_PER_PROCESSOR shards per available processor.
+     *
+     * @param comp comparator defining the order of keys in the priority queue
+     */
+    public ConcurrentMultiQueue(Comparator<K> comp) {
+        this(comp, DEFAULT_SHARDS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an empty priority queue using the given comparator to order
+     * keys, with the given number of shards. More shards mean less contention
+     * but a larger rank error of removeMin.
+     *
+     * @param comp   comparator defining the order of keys in the priority queue
+     * @param shards the number of independently locked heaps
+     * @throws IllegalArgumentException if shards is not positive
+     */
+    @SuppressWarnings({"unchecked"})
+    public ConcurrentMultiQueue(Comparator<K> comp, int shards) throws IllegalArgumentException {
+        super(comp);
+        if (shards < 1) {
+            throw new IllegalArgumentException("Number of shards must be positive");
+        }
+        comparator = comp;
+        this.shards = (Shard<K, V>[]) new Shard<?, ?>[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard<>(comp);
+        }
+    }
+
+    /**
+     * Returns the number of items in the priority queue. Under concurrent
+     * updates the result is only an estimate.
+     *
+     * @return number of items
+     */
+    @Override
+    public int size() {
+        return size.intValue();
+    }
+
+    /**
+     * Inserts a key-value pair into a random shard and returns the entry created.
+     *
+     * @param key   the key of the new entry
+     * @param value the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if the key is unacceptable for this queue
+     */
+    @Override
+    public Entry<K, V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int attempt = 0; ; attempt++) {
+            Shard<K, V> s = shards[rnd.nextInt(shards.length)];
+            if (acquire(s, attempt)) {
+                try {
+                    Entry<K, V> newest = s.heap.insert(key, value);
+                    s.publish();
+                    size.increment();
+                    return newest;
+                } finally {
+                    s.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns (but does not remove) an entry with minimal key, found by
+     * scanning the minimal keys of all shards.
+     *
+     * @return entry having a minimal key (or null if empty)
+     */
+    @Override
+    public Entry<K, V> min() {
+        while (true) {
+            Shard<K, V> s = scan();
+            if (s == null) {
+                return null;
+            }
+            s.lock.lock();
+            try {
+                Entry<K, V> answer = s.heap.min();
+                if (answer != null) {
+                    return answer;
+                }
+            } finally {
+                s.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes and returns an entry with a key close to minimal: the minimum
+     * of the better of two randomly chosen shards.
+     *
+     * @return the removed entry (or null if empty)
+     */
+    @Override
+    public Entry<K, V> removeMin() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int attempt = 0; ; attempt++) {
+            Shard<K, V> s = better(shards[rnd.nextInt(shards.length)], shards[rnd.nextInt(shards.length)]);
+            if (s == null) {                 // both candidates were empty, so look at every shard
+                s = scan();
+                if (s == null) {
+                    return null;
+                }
+            }
+            if (acquire(s, attempt)) {
+                try {
+                    if (!s.heap.isEmpty()) {
+                        Entry<K, V> answer = s.heap.removeMin();
+                        s.publish();
+                        size.decrement();
+                        return answer;
+                    }
+                } finally {
+                    s.lock.unlock();
+                }
+            }
+        }
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (Shard<K, V> s : shards) {
+            s.lock.lock();
+            try {
+                sb.append(s.heap.toString());
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Locks the shard. The first attempts only try the lock, so that a thread
+     * moves on to another shard rather than wait; once it has failed as often
+     * as there are shards, it waits.
+     */
+    private boolean acquire(Shard<K, V> s, int attempt) {
+        if (attempt < shards.length) {
+            return s.lock.tryLock();
+        }
+        s.lock.lock();
+        return true;
+    }
+
+    /** Returns the shard of smaller minimal key, or null if both are empty. */
+    private Shard<K, V> better(Shard<K, V> a, Shard<K, V> b) {
+        K ka = a.top;
+        K kb = b.top;
+        if (ka == null) {
+            return (kb == null ? null : b);
+        }
+        return (kb == null || comparator.compare(ka, kb) <= 0 ? a : b);
+    }
+
+    /** Returns the shard of smallest minimal key, or null if every shard is empty. */
+    private Shard<K, V> scan() {
+        Shard<K, V> best = null;
+        K min = null;
+        for (Shard<K, V> s : shards) {
+            K k = s.top;
+            if (k != null && (min == null || comparator.compare(k, min) < 0)) {
+                best = s;
+                min = k;
+            }
+        }
+        return best;
+    }
+
+    /** Used for testing: checks the heap property of every shard and its published key. */
+    boolean sanityCheck() {
+        for (Shard<K, V> s : shards) {
+            s.lock.lock();
+            try {
+                if (!s.heap.sanityCheck() || s.top != (s.heap.isEmpty() ? null : s.heap.keys[0])) {
+                    return false;
+                }
+            } finally {
+                s.lock.unlock();
+            }
+        }
+        return true;
+    }
+}
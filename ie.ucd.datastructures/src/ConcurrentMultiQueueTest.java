@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentMultiQueueTest {
+
+	@Test
+	void testSingleShardIsExact() {
+		ConcurrentMultiQueue<Integer, Integer> pq = new ConcurrentMultiQueue<>(new DefaultComparator<>(), 1);
+		java.util.PriorityQueue<Integer> expected = new java.util.PriorityQueue<>();
+		Random rnd = new Random(20);
+		for (int i = 0; i < 20000; i++) {
+			if (rnd.nextInt(3) == 0) {
+				Integer min = expected.poll();
+				Entry<Integer, Integer> e = pq.removeMin();
+				assertEquals(min, e == null ? null : e.getKey());
+			} else {
+				int k = rnd.nextInt(1000);
+				expected.add(k);
+				pq.insert(k, k);
+			}
+			assertEquals(expected.peek(), pq.min() == null ? null : pq.min().getKey());
+		}
+		assertTrue(pq.sanityCheck());
+		assertThrows(IllegalArgumentException.class, () -> new ConcurrentMultiQueue<Integer, Integer>(new DefaultComparator<>(), 0));
+	}
+
+	@Test
+	void testRelaxedRemoveMin() {
+		int shards = 8;
+		ConcurrentMultiQueue<Integer, Integer> pq = new ConcurrentMultiQueue<>(new DefaultComparator<>(), shards);
+		List<Integer> remaining = new ArrayList<>();
+		Random rnd = new Random(20);
+		for (int i = 0; i < 4000; i++) {
+			int k = rnd.nextInt(100000);
+			pq.insert(k, i);
+			remaining.add(k);
+		}
+		Collections.sort(remaining);
+		assertEquals(remaining.get(0), pq.min().getKey());
+		assertTrue(pq.sanityCheck());
+		long totalRank = 0;
+		while (!remaining.isEmpty()) {
+			int k = pq.removeMin().getKey();
+			int rank = Collections.binarySearch(remaining, k);
+			assertTrue(rank >= 0);
+			while (rank > 0 && remaining.get(rank - 1) == k) {
+				rank--;                      // the rank of the first of equal keys
+			}
+			totalRank += rank;
+			remaining.remove(rank);
+		}
+		assertTrue(totalRank / 4000 < 4 * shards, "mean rank error " + totalRank / 4000);
+		assertNull(pq.removeMin());
+		assertNull(pq.min());
+		assertEquals(0, pq.size());
+	}
+
+	@Test
+	void testConcurrentProducersAndConsumers() throws InterruptedException {
+		ConcurrentMultiQueue<Integer, Integer> pq = new ConcurrentMultiQueue<>(new DefaultComparator<>(), 8);
+		int perProducer = 20000;
+		int producers = 4;
+		int total = producers * perProducer;
+		AtomicIntegerArray seen = new AtomicIntegerArray(total);
+		AtomicInteger removed = new AtomicInteger();
+		Thread[] threads = new Thread[2 * producers];
+		for (int t = 0; t < producers; t++) {
+			int offset = t * perProducer;
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < perProducer; i++) {
+					pq.insert(offset + i, offset + i);
+				}
+			});
+			threads[producers + t] = new Thread(() -> {
+				while (removed.get() < total) {
+					Entry<Integer, Integer> e = pq.removeMin();
+					if (e != null) {
+						seen.incrementAndGet(e.getValue());
+						removed.incrementAndGet();
+					}
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (int i = 0; i < total; i++) {
+			assertEquals(1, seen.get(i), "value " + i);
+		}
+		assertEquals(0, pq.size());
+		assertTrue(pq.sanityCheck());
+	}
+}
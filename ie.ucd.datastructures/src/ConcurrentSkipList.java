@@ -0,0 +1,510 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe, lock-free implementation of a sorted map using a skip list.
+ * <p>
+ * The structure follows the lock-free skip list of Herlihy and Shavit: every
+ * forward pointer is an AtomicMarkableReference, and a node is removed by
+ * first marking its own forward pointers (logical deletion) and then
+ * unlinking it with compare-and-set on its predecessors (physical deletion),
+ * which any later search also helps to do. In addition, a node's value is
+ * claimed by a compare-and-set to null before it is marked, so put and remove
+ * on the same key agree on which one took effect.
+ * <p>
+ * get and the navigation methods never write and never block. Entries
+ * returned by the navigation methods and iterators are immutable snapshots;
+ * iteration is weakly consistent.
+ */
+public class ConcurrentSkipList<K, V> extends AbstractSortedMap<K, V> {
+
+    // ---------------- nested Node class ----------------
+    private static class Node<K, V> {
+        final K key;                     // null only for the head sentinel
+        volatile Object value;           // null once the node has been claimed by a remove
+        final AtomicMarkableReference<Node<K, V>>[] next;
+
+        @SuppressWarnings({"unchecked"})
+        Node(K key, Object value, int level) {
+            this.key = key;
+            this.value = value;
+            next = (AtomicMarkableReference<Node<K, V>>[]) new AtomicMarkableReference<?>[level + 1];
+            for (int l = 0; l <= level; l++) {
+                next[l] = new AtomicMarkableReference<>(null, false);
+            }
+        }
+
+        int level() {
+            return next.length - 1;
+        }
+    } // ----------- end of nested Node class -----------
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Object> VALUE =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Object.class, "value");
+
+    private static final int MAX_LEVEL = 32;
+
+    private final Node<K, V> head = new Node<>(null, null, MAX_LEVEL - 1);
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Constructs an empty map using the natural ordering of keys.
+     */
+    public ConcurrentSkipList() {
+        super();
+    }
+
+    /**
+     * Constructs an empty map using the given comparator to order keys.
+     *
+     * @param comp comparator defining the order of keys in the map
+     */
+    public ConcurrentSkipList(Comparator<K> comp) {
+        super(comp);
+    }
+
+    /**
+     * Returns the number of entries in the map. Under concurrent updates the
+     * result is only an estimate.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+        return size.intValue();
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public V get(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Node<K, V> node = lastBefore(key, false).next[0].getReference();
+        while (node != null) {
+            int c = compare(node.key, key);
+            if (c > 0) {
+                return null;
+            }
+            if (c == 0) {
+                return (V) node.value;   // null if concurrently removed
+            }
+            node = node.next[0].getReference();    // skip nodes inserted meanwhile
+        }
+        return null;
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaced the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     *                                  or the value is null
+     */
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public V put(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int topLevel = randomLevel();
+        Node<K, V>[] preds = newNodeArray();
+        Node<K, V>[] succs = newNodeArray();
+
+        while (true) {
+            if (find(key, preds, succs)) {
+                Node<K, V> node = succs[0];
+                Object old = node.value;
+                if (old != null && VALUE.compareAndSet(node, old, value)) {
+                    return (V) old;
+                }
+                if (old == null) {       // node is being removed: finish its removal, then retry
+                    mark(node);
+                    find(key, preds, succs);
+                }
+                continue;
+            }
+
+            Node<K, V> node = new Node<>(key, value, topLevel);
+            for (int l = 0; l <= topLevel; l++) {
+                node.next[l].set(succs[l], false);
+            }
+            if (!preds[0].next[0].compareAndSet(succs[0], node, false, false)) {
+                continue;                // the bottom level changed, search again
+            }
+            size.increment();
+
+            // the node is now in the map; link the upper levels as far as possible
+            for (int l = 1; l <= topLevel; l++) {
+                while (true) {
+                    Node<K, V> succ = succs[l];
+                    boolean[] marked = {false};
+                    Node<K, V> current = node.next[l].get(marked);
+                    if (marked[0]) {
+                        return null;     // already being removed, stop linking it
+                    }
+                    if (current != succ && !node.next[l].compareAndSet(current, succ, false, false)) {
+                        continue;
+                    }
+                    if (preds[l].next[l].compareAndSet(succ, node, false, false)) {
+                        break;
+                    }
+                    find(key, preds, succs);
+                    if (succs[0] != node) {
+                        return null;     // removed while we were linking it
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     */
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public V remove(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Node<K, V>[] preds = newNodeArray();
+        Node<K, V>[] succs = newNodeArray();
+        if (!find(key, preds, succs)) {
+            return null;
+        }
+        Node<K, V> node = succs[0];
+
+        // claim the value: exactly one remove wins, and a put can no longer update it
+        Object old;
+        do {
+            old = node.value;
+            if (old == null) {
+                return null;             // another thread removed it first
+            }
+        } while (!VALUE.compareAndSet(node, old, null));
+        size.decrement();
+
+        mark(node);                      // logical deletion
+        find(key, preds, succs);         // physical deletion
+        return (V) old;
+    }
+
+    // additional behaviors of the SortedMap interface
+
+    /**
+     * Returns the entry having the least key (or null if map is empty).
+     *
+     * @return entry with least key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> firstEntry() {
+        return firstLive(head.next[0].getReference());
+    }
+
+    /**
+     * Returns the entry having the greatest key (or null if map is empty).
+     *
+     * @return entry with greatest key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> lastEntry() {
+        return lastLive(null, true);
+    }
+
+    /**
+     * Returns the entry with least key greater than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with least key greater than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return firstLiveFrom(lastBefore(key, false).next[0].getReference(), key, true);
+    }
+
+    /**
+     * Returns the entry with greatest key less than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with greatest key less than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return lastLive(key, true);
+    }
+
+    /**
+     * Returns the entry with greatest key strictly less than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with greatest key strictly less than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return lastLive(key, false);
+    }
+
+    /**
+     * Returns the entry with least key strictly greater than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with least key strictly greater than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return firstLiveFrom(lastBefore(key, true).next[0].getReference(), key, false);
+    }
+
+    /**
+     * Returns an iterable containing all entries with keys in the range from
+     * <code>fromKey</code> inclusive to <code>toKey</code> exclusive. Entries are
+     * produced lazily by walking the bottom level.
+     *
+     * @return iterable with keys in desired range
+     * @throws IllegalArgumentException if <code>fromKey</code> or
+     *                                  <code>toKey</code> is not compatible with
+     *                                  the map
+     */
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+        checkKey(fromKey);
+        checkKey(toKey);
+        return () -> new EntryIterator(lastBefore(fromKey, false).next[0].getReference(), fromKey, toKey);
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+        return () -> new EntryIterator(head.next[0].getReference(), null, null);
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(");
+        for (Entry<K, V> e : entrySet()) {
+            sb.append(e).append(", ");
+        }
+        return sb.append(")").toString();
+    }
+
+    // ---------------- nested EntryIterator class ----------------
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private Node<K, V> current;
+        private Entry<K, V> next;
+        private final K toKey;           // exclusive upper bound, or null if unbounded
+
+        EntryIterator(Node<K, V> first, K fromKey, K toKey) {
+            this.toKey = toKey;
+            current = first;
+            // a node linked in before the search finished may precede fromKey
+            while (fromKey != null && current != null && compare(current.key, fromKey) < 0) {
+                current = current.next[0].getReference();
+            }
+            advance();
+        }
+
+        // moves next to the snapshot of the first live node at or after current
+        @SuppressWarnings({"unchecked"})
+        private void advance() {
+            next = null;
+            while (current != null && next == null) {
+                if (toKey != null && compare(current.key, toKey) >= 0) {
+                    current = null;
+                    return;
+                }
+                Object value = current.value;
+                if (value != null) {
+                    next = new MapEntry<>(current.key, (V) value);
+                }
+                current = current.next[0].getReference();
+            }
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException("No more entries");
+            }
+            Entry<K, V> answer = next;
+            advance();
+            return answer;
+        }
+    } // ----------- end of nested EntryIterator class -----------
+
+    // private utilities
+
+    @SuppressWarnings({"unchecked"})
+    private Node<K, V>[] newNodeArray() {
+        return (Node<K, V>[]) new Node<?, ?>[MAX_LEVEL];
+    }
+
+    /**
+     * Marks every forward pointer of a node whose value has been claimed,
+     * from the top level down. Idempotent, so any thread that finds the
+     * value claimed can complete the logical deletion instead of waiting.
+     */
+    private static <K, V> void mark(Node<K, V> node) {
+        boolean[] marked = {false};
+        for (int l = node.level(); l >= 0; l--) {
+            Node<K, V> succ = node.next[l].get(marked);
+            while (!marked[0]) {
+                node.next[l].attemptMark(succ, true);
+                succ = node.next[l].get(marked);
+            }
+        }
+    }
+
+    /** Returns a random level: level l is reached with probability 1/2^l. */
+    private static int randomLevel() {
+        int bits = ThreadLocalRandom.current().nextInt();
+        return Math.min(Integer.numberOfTrailingZeros(bits), MAX_LEVEL - 1);
+    }
+
+    /**
+     * Finds the predecessor and successor of key at every level, physically
+     * unlinking any marked node met on the way. Returns true if the bottom
+     * level successor holds the key.
+     */
+    private boolean find(K key, Node<K, V>[] preds, Node<K, V>[] succs) {
+        boolean[] marked = {false};
+        retry:
+        while (true) {
+            Node<K, V> pred = head;
+            for (int l = MAX_LEVEL - 1; l >= 0; l--) {
+                Node<K, V> current = pred.next[l].getReference();
+                while (current != null) {
+                    Node<K, V> succ = current.next[l].get(marked);
+                    while (marked[0]) {  // current is logically deleted: snip it out
+                        if (!pred.next[l].compareAndSet(current, succ, false, false)) {
+                            continue retry;
+                        }
+                        current = succ;
+                        if (current == null) {
+                            break;
+                        }
+                        succ = current.next[l].get(marked);
+                    }
+                    if (current == null || compare(current.key, key) >= 0) {
+                        break;
+                    }
+                    pred = current;
+                    current = succ;
+                }
+                preds[l] = pred;
+                succs[l] = current;
+            }
+            return succs[0] != null && compare(succs[0].key, key) == 0;
+        }
+    }
+
+    /**
+     * Returns the last node whose key is less than (or, if inclusive, at most)
+     * key, without modifying the list; marked nodes are stepped over.
+     */
+    private Node<K, V> lastBefore(K key, boolean inclusive) {
+        boolean[] marked = {false};
+        Node<K, V> pred = head;
+        for (int l = MAX_LEVEL - 1; l >= 0; l--) {
+            Node<K, V> current = pred.next[l].getReference();
+            while (current != null) {
+                Node<K, V> succ = current.next[l].get(marked);
+                int c = (key == null ? -1 : compare(current.key, key));
+                if (c > 0 || (c == 0 && !inclusive)) {
+                    break;
+                }
+                if (!marked[0]) {
+                    pred = current;
+                }
+                current = succ;
+            }
+        }
+        return pred;
+    }
+
+    /**
+     * Returns a snapshot of the first live node at or after node, with a key
+     * above the given bound (at or above it if inclusive), or null.
+     */
+    private Entry<K, V> firstLiveFrom(Node<K, V> node, K bound, boolean inclusive) {
+        while (node != null) {
+            int c = compare(node.key, bound);
+            if (c > 0 || (c == 0 && inclusive)) {
+                break;
+            }
+            node = node.next[0].getReference();
+        }
+        return firstLive(node);
+    }
+
+    /** Returns a snapshot of the first live node at or after node, or null. */
+    @SuppressWarnings({"unchecked"})
+    private Entry<K, V> firstLive(Node<K, V> node) {
+        while (node != null) {
+            Object value = node.value;
+            if (value != null) {
+                return new MapEntry<>(node.key, (V) value);
+            }
+            node = node.next[0].getReference();
+        }
+        return null;
+    }
+
+    /**
+     * Returns a snapshot of the live node with the greatest key less than (or, if
+     * inclusive, at most) key, or null. A null key means no upper bound.
+     */
+    @SuppressWarnings({"unchecked"})
+    private Entry<K, V> lastLive(K key, boolean inclusive) {
+        while (true) {
+            Node<K, V> node = lastBefore(key, inclusive);
+            if (node == head) {
+                return null;
+            }
+            Object value = node.value;
+            if (value != null) {
+                return new MapEntry<>(node.key, (V) value);
+            }
+            key = node.key;              // removed meanwhile: look strictly below it
+            inclusive = false;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe sorted map built on a splay tree whose searches restructure the
+ * tree only now and then, so that readers can share it.
+ * <p>
+ * A plain splay tree rotates on every get, which turns every read into a
+ * write. Here get first walks the tree under an optimistic, lock-free read of
+ * a StampedLock, without rotating anything. Only if the key was found deeper
+ * than a depth threshold, and a coin flip with the splay probability comes up,
+ * does the reader take the write lock and semi-splay the node towards the
+ * root. Keys that are looked up often therefore settle near the root, where
+ * later lookups of them run lock-free, and most lookups of cold keys never
+ * lock at all.
+ * <p>
+ * The stamp is validated at every step of an optimistic walk, so a reader
+ * racing with a rotation gives up as soon as a writer intervenes rather than
+ * following a stale link; it then searches again under the read lock. The
+ * other queries run under the read lock, which readers share, and updates
+ * take the write lock. entrySet() and the views are weakly consistent: each
+ * step of an iteration is a separate search, so they never throw a
+ * ConcurrentModificationException.
+ */
+public class ConcurrentSplayTreeMap<K, V> extends AbstractSortedMap<K, V> {
+
+    /** Default depth up to which a search never restructures the tree. */
+    public static final int DEFAULT_DEPTH_THRESHOLD = 8;
+    /** Default probability that a search reaching a deeper node restructures the tree. */
+    public static final double DEFAULT_SPLAY_PROBABILITY = 0.125;
+
+    // returned by find for a key lying deep enough to be splayed
+    private static final Entry<?, ?> TOO_DEEP = new MapEntry<>(null, null);
+
+    private final StampedLock lock = new StampedLock();
+    private final SplayTreeMap<K, V> map;
+    private final double splayProbability;
+    private final int depthThreshold;
+
+    /** Constructs an empty map using the natural ordering of keys and the default policy. */
+    public ConcurrentSplayTreeMap() {
+        this(new DefaultComparator<K>());
+    }
+
+    /**
+     * Constructs an empty map using the given comparator to order keys and the default policy.
+     *
+     * @param comp comparator defining the order of keys in the map
+     */
+    public ConcurrentSplayTreeMap(Comparator<K> comp) {
+        this(comp, DEFAULT_SPLAY_PROBABILITY, DEFAULT_DEPTH_THRESHOLD);
+    }
+
+    /**
+     * Constructs an empty map whose lookups restructure the tree only when they
+     * find a key deeper than depthThreshold, and then only with probability
+     * splayProbability.
+     *
+     * @param comp             comparator defining the order of keys in the map
+     * @param splayProbability the probability that a lookup of a deep key restructures the tree
+     * @param depthThreshold   the greatest depth at which a lookup never restructures the tree
+     * @throws IllegalArgumentException if splayProbability is not in [0, 1] or depthThreshold is negative
+     */
+    public ConcurrentSplayTreeMap(Comparator<K> comp, double splayProbability, int depthThreshold)
+            throws IllegalArgumentException {
+        super(comp);
+        if (!(splayProbability >= 0.0 && splayProbability <= 1.0)) {
+            throw new IllegalArgumentException("Splay probability must be in [0, 1]");
+        }
+        // the underlying map splays whenever the node is still deep once the write lock is held
+        map = new SplayTreeMap<>(comp, 1.0, depthThreshold, true);
+        this.splayProbability = splayProbability;
+        this.depthThreshold = depthThreshold;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int n = map.size();
+        if (lock.validate(stamp)) {
+            return n;
+        }
+        stamp = lock.readLock();
+        try {
+            return map.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such
+     * entry exists. The tree is restructured only if the key lies deep and the
+     * splay probability allows it.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public V get(K key) throws IllegalArgumentException {
+        checkKey(key);
+        boolean maySplay = splayProbability >= 1.0
+                || (splayProbability > 0.0 && ThreadLocalRandom.current().nextDouble() < splayProbability);
+        int maxDepth = (maySplay ? depthThreshold : Integer.MAX_VALUE);
+        Entry<K, V> e = null;
+
+        long stamp = lock.tryOptimisticRead();
+        boolean valid = false;
+        if (stamp != 0) {
+            try {
+                e = find(key, maxDepth, stamp);
+                valid = lock.validate(stamp);
+            } catch (RuntimeException ex) {
+                // a stale link led to a node being removed; search again under the lock
+            }
+        }
+        if (!valid) {
+            stamp = lock.readLock();
+            try {
+                e = find(key, maxDepth, stamp);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        if (e != TOO_DEEP) {
+            return (e == null ? null : e.getValue());
+        }
+        stamp = lock.writeLock();
+        try {
+            return map.get(key);     // splays the node if it is still deep
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Walks down the tree to the key without restructuring it. Returns the
+     * entry with the key, TOO_DEEP if that entry lies deeper than maxDepth, or
+     * null if the key is absent. The walk stops early, returning a meaningless
+     * result, as soon as the stamp is no longer valid.
+     */
+    @SuppressWarnings("unchecked")
+    private Entry<K, V> find(K key, int maxDepth, long stamp) {
+        Position<Entry<K, V>> p = map.root();
+        for (int depth = 0; p != null && lock.validate(stamp); depth++) {
+            Entry<K, V> e = p.getElement();
+            int c = compare(key, e);
+            if (c == 0) {
+                return (depth > maxDepth ? (Entry<K, V>) TOO_DEEP : e);
+            }
+            p = (c < 0 ? map.left(p) : map.right(p));
+        }
+        return null;
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with the key
+     * was already in the map, this replaced the previous value with the new one
+     * and returns the old value. Otherwise, a new entry is added and null is
+     * returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such entry)
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        long stamp = lock.writeLock();
+        try {
+            return map.put(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no such entry exists
+     */
+    @Override
+    public V remove(K key) throws IllegalArgumentException {
+        checkKey(key);
+        long stamp = lock.writeLock();
+        try {
+            return map.remove(key);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map, in
+     * increasing key order. The iteration is weakly consistent: each entry is
+     * found by a separate search for the key following the previous one.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+        return () -> iteratorFrom(null, true, false);
+    }
+
+    // navigation does not restructure a splay tree, so readers can share it
+    @Override
+    public Entry<K, V> firstEntry() {
+        long stamp = lock.readLock();
+        try {
+            return map.firstEntry();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Entry<K, V> lastEntry() {
+        long stamp = lock.readLock();
+        try {
+            return map.lastEntry();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        long stamp = lock.readLock();
+        try {
+            return map.ceilingEntry(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        long stamp = lock.readLock();
+        try {
+            return map.floorEntry(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        long stamp = lock.readLock();
+        try {
+            return map.lowerEntry(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        long stamp = lock.readLock();
+        try {
+            return map.higherEntry(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+        return subMap(fromKey, true, toKey, false).entrySet();
+    }
+
+    /** Returns the depth of the node holding the key, or -1 if it is absent (for testing). */
+    int depth(K key) {
+        long stamp = lock.readLock();
+        try {
+            Position<Entry<K, V>> p = map.root();
+            for (int depth = 0; p != null; depth++) {
+                int c = compare(key, p.getElement());
+                if (c == 0) {
+                    return depth;
+                }
+                p = (c < 0 ? map.left(p) : map.right(p));
+            }
+            return -1;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public String toString() {
+        long stamp = lock.readLock();
+        try {
+            return map.toString();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
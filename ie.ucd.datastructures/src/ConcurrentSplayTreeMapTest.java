@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentSplayTreeMapTest {
+
+	@Test
+	void testPutGetRemove() {
+		ConcurrentSplayTreeMap<Integer, String> m = new ConcurrentSplayTreeMap<>();
+		assertNull(m.put(2, "Two"));
+		assertNull(m.put(1, "One"));
+		assertEquals("One", m.put(1, "Uno"));
+		assertEquals("Uno", m.get(1));
+		assertEquals("Two", m.remove(2));
+		assertNull(m.get(2));
+		assertEquals(1, m.size());
+		assertEquals(1, m.firstEntry().getKey());
+	}
+
+	@Test
+	void testInvalidPolicy() {
+		for (double p : new double[] {-1.0, 2.0, Double.NaN}) {
+			assertThrows(IllegalArgumentException.class, () -> new ConcurrentSplayTreeMap<Integer, Integer>(new DefaultComparator<>(), p, 3));
+		}
+		assertThrows(IllegalArgumentException.class, () -> new ConcurrentSplayTreeMap<Integer, Integer>(new DefaultComparator<>(), 0.5, -1));
+	}
+
+	@Test
+	void testHotKeysSettleAboveThreshold() {
+		ConcurrentSplayTreeMap<Integer, Integer> m = new ConcurrentSplayTreeMap<>(new DefaultComparator<>(), 1.0, 3);
+		for (int k = 1; k <= 1000; k++) {
+			m.put(k, k);
+		}
+		assertEquals(999, m.depth(1));
+		for (int i = 0; i < 20; i++) {
+			assertEquals(1, m.get(1));
+		}
+		int depth = m.depth(1);
+		assertTrue(depth <= 3, "depth " + depth);
+		// once the key is shallow, lookups leave the tree alone
+		assertEquals(1, m.get(1));
+		assertEquals(depth, m.depth(1));
+
+		ConcurrentSplayTreeMap<Integer, Integer> never = new ConcurrentSplayTreeMap<>(new DefaultComparator<>(), 0.0, 0);
+		for (int k = 1; k <= 100; k++) {
+			never.put(k, k);
+		}
+		assertEquals(1, never.get(1));
+		assertEquals(99, never.depth(1));
+	}
+
+	@Test
+	void testConcurrentReadersAndWriter() throws InterruptedException {
+		ConcurrentSplayTreeMap<Integer, Integer> m = new ConcurrentSplayTreeMap<>(new DefaultComparator<>(), 0.5, 2);
+		for (int k = 0; k < 2000; k += 2) {
+			m.put(k, k);                     // even keys stay put, odd keys come and go
+		}
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread[] readers = new Thread[4];
+		for (int t = 0; t < readers.length; t++) {
+			int seed = t;
+			readers[t] = new Thread(() -> {
+				Random rnd = new Random(seed);
+				try {
+					while (!done.get()) {
+						// skewed lookups: most of them hit a few hot keys
+						int k = 2 * (rnd.nextInt(4) == 0 ? rnd.nextInt(1000) : rnd.nextInt(10));
+						assertEquals(k, m.get(k));
+						Integer odd = m.get(k + 1);
+						assertTrue(odd == null || odd == k + 1);
+					}
+				} catch (Throwable ex) {
+					failure.set(ex);
+				}
+			});
+			readers[t].start();
+		}
+		Random rnd = new Random(16);
+		for (int i = 0; i < 50000; i++) {
+			int k = 2 * rnd.nextInt(1000) + 1;
+			if (rnd.nextBoolean()) {
+				m.put(k, k);
+			} else {
+				m.remove(k);
+			}
+		}
+		done.set(true);
+		for (Thread reader : readers) {
+			reader.join();
+		}
+		assertNull(failure.get());
+		Integer previous = null;
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			assertTrue(previous == null || previous < e.getKey());
+			previous = e.getKey();
+		}
+	}
+}
@@ -0,0 +1,194 @@
+/**
+ * A Count-Min sketch, which estimates how often each key occurs in a stream
+ * using a fixed amount of memory, however many distinct keys the stream has.
+ * <p>
+ * The sketch is a table of <code>depth</code> rows of <code>width</code>
+ * counters. Adding a key increments one counter in every row, chosen by a
+ * hash of the key; the estimate of a key is the smallest of its counters.
+ * Estimates never fall below the true count, and with width = e/epsilon and
+ * depth = ln(1/delta) an estimate exceeds the true count by more than
+ * epsilon times the total count with probability at most delta. The table
+ * takes 8 &middot; width &middot; depth bytes.
+ * <p>
+ * Keys are given by a 64-bit hash, from which the counter of each row is
+ * derived by double hashing, so adding or querying a key costs one hash
+ * computation and <code>depth</code> memory accesses. Sketches of the same
+ * dimensions can be merged, for example to combine the sketches of several
+ * threads.
+ */
+public class CountMinSketch {
+
+    private final int width;          // a power of two
+    private final int depth;
+    private final long[] counters;    // row i occupies counters[i*width, (i+1)*width)
+    private long total = 0;
+
+    /**
+     * Creates a sketch whose estimates exceed the true counts by at most
+     * epsilon times the total count, except with probability delta.
+     *
+     * @param epsilon the error relative to the total count, in (0, 1)
+     * @param delta   the probability of a larger error, in (0, 1)
+     * @throws IllegalArgumentException if epsilon or delta is not in (0, 1)
+     */
+    public CountMinSketch(double epsilon, double delta) throws IllegalArgumentException {
+        this(widthFor(epsilon), depthFor(delta));
+    }
+
+    /**
+     * Creates a sketch with the given dimensions.
+     *
+     * @param width the number of counters in a row, rounded up to a power of two
+     * @param depth the number of rows
+     * @throws IllegalArgumentException if the dimensions are not positive, or too large
+     */
+    public CountMinSketch(int width, int depth) throws IllegalArgumentException {
+        if (width < 1 || width > 1 << 30 || depth < 1 || (long) depth * Integer.highestOneBit(2 * width - 1) > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Invalid sketch dimensions " + width + " x " + depth);
+        }
+        this.width = Integer.highestOneBit(2 * width - 1);
+        this.depth = depth;
+        counters = new long[this.width * depth];
+    }
+
+    private static int widthFor(double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("epsilon must be in (0, 1)");
+        }
+        return (int) Math.min(1 << 30, Math.ceil(Math.E / epsilon));
+    }
+
+    private static int depthFor(double delta) {
+        if (!(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("delta must be in (0, 1)");
+        }
+        return (int) Math.ceil(Math.log(1 / delta));
+    }
+
+    /**
+     * Returns the number of counters in a row.
+     *
+     * @return width of the sketch
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return depth of the sketch
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Returns the sum of the counts added to the sketch.
+     *
+     * @return total count
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Returns the amount by which an estimate may exceed the true count,
+     * except with probability e<sup>-depth</sup>.
+     *
+     * @return the error bound of the estimates, e/width times the total count
+     */
+    public long errorBound() {
+        return (long) Math.ceil(Math.E / width * total);
+    }
+
+    /**
+     * Adds one occurrence of a key.
+     *
+     * @param key the key, hashed by its hashCode
+     */
+    public void add(Object key) {
+        addHash(hash(key.hashCode()), 1);
+    }
+
+    /**
+     * Adds occurrences of the key with the given hash.
+     *
+     * @param hash  a 64-bit hash of the key
+     * @param count the number of occurrences to add
+     * @return the estimated count of the key, including the added occurrences
+     * @throws IllegalArgumentException if count is negative
+     */
+    public long addHash(long hash, long count) throws IllegalArgumentException {
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative count");
+        }
+        total += count;
+        hash = mix(hash);
+        int h1 = (int) hash, h2 = (int) (hash >>> 32) | 1;
+        long answer = Long.MAX_VALUE;
+        for (int i = 0, base = 0; i < depth; i++, base += width) {
+            int j = base + ((h1 + i * h2) & (width - 1));
+            counters[j] += count;
+            answer = Math.min(answer, counters[j]);
+        }
+        return answer;
+    }
+
+    /**
+     * Returns an upper bound on the number of occurrences of a key.
+     *
+     * @param key the key, hashed by its hashCode
+     * @return the estimated count of the key
+     */
+    public long estimate(Object key) {
+        return estimateHash(hash(key.hashCode()));
+    }
+
+    /**
+     * Returns an upper bound on the number of occurrences of the key with the given hash.
+     *
+     * @param hash a 64-bit hash of the key
+     * @return the estimated count of the key
+     */
+    public long estimateHash(long hash) {
+        hash = mix(hash);
+        int h1 = (int) hash, h2 = (int) (hash >>> 32) | 1;
+        long answer = Long.MAX_VALUE;
+        for (int i = 0, base = 0; i < depth; i++, base += width) {
+            answer = Math.min(answer, counters[base + ((h1 + i * h2) & (width - 1))]);
+        }
+        return answer;
+    }
+
+    /**
+     * Adds the counts of another sketch to this one, so that it estimates
+     * the counts of both streams together.
+     *
+     * @param other a sketch of the same width and depth
+     * @throws IllegalArgumentException if the dimensions of the sketches differ
+     */
+    public void merge(CountMinSketch other) throws IllegalArgumentException {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Sketches of different dimensions");
+        }
+        for (int j = 0; j < counters.length; j++) {
+            counters[j] += other.counters[j];
+        }
+        total += other.total;
+    }
+
+    /** Spreads a 32-bit hash code over 64 bits. */
+    private static long hash(int h) {
+        return h * 0x9E3779B97F4A7C15L;
+    }
+
+    /** The finalizer of MurmurHash3, so that every bit of the hash affects every bit of the result. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,60 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+	@Test
+	void testEstimatesWithinBounds() {
+		Random rnd = new Random(25);
+		CountMinSketch sketch = new CountMinSketch(0.001, 0.01);
+		assertEquals(4096, sketch.width());                 // e/0.001 rounded up to a power of two
+		assertEquals(5, sketch.depth());
+		HashMap<Integer, Long> counts = new HashMap<>();
+		for (int i = 0; i < 200000; i++) {
+			int key = (int) Math.min(100000, Math.abs(rnd.nextGaussian()) * 2000);
+			counts.merge(key, 1L, Long::sum);
+			sketch.add(key);
+		}
+		assertEquals(200000, sketch.total());
+		int exceeded = 0;
+		for (int key : counts.keySet()) {
+			long estimate = sketch.estimate(key);
+			assertTrue(estimate >= counts.get(key));
+			if (estimate > counts.get(key) + sketch.errorBound()) {
+				exceeded++;
+			}
+		}
+		assertTrue(exceeded <= counts.size() / 100, exceeded + " estimates beyond the error bound");
+		assertEquals(0, new CountMinSketch(64, 3).estimateHash(42L));
+	}
+
+	@Test
+	void testMerge() {
+		CountMinSketch a = new CountMinSketch(100, 4);
+		CountMinSketch b = new CountMinSketch(128, 4);
+		for (long h = 0; h < 1000; h++) {
+			a.addHash(h, h % 10);
+			b.addHash(h + 500, 1);
+		}
+		a.merge(b);
+		assertEquals(4500 + 1000, a.total());
+		for (long h = 500; h < 1000; h++) {
+			assertTrue(a.estimateHash(h) >= h % 10 + 1);
+		}
+		assertThrows(IllegalArgumentException.class, () -> a.merge(new CountMinSketch(128, 5)));
+	}
+
+	@Test
+	void testInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 0.1));
+		assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0.1, 1));
+		assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 3));
+		assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(16, 3).addHash(1L, -1));
+	}
+}
@@ -0,0 +1,179 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A priority queue with primitive double keys, using an array-based d-ary heap
+ * over a flat double array of keys and a parallel array of values.
+ * <p>
+ * The primitive insert, minKey, minValue and removeMinValue methods never box
+ * the key and allocate nothing once the arrays are large enough, which suits
+ * event queues keyed by simulated time or by cost. The PriorityQueue methods
+ * taking and returning Double keys are also supported; they box the key and
+ * create an entry. NaN is not a valid key. The heap is organized as in
+ * HeapPriorityQueue.
+ */
+public class DoubleHeapPriorityQueue<V> extends AbstractPriorityQueue<Double, V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] keys;                 // the keys of the heap, in level order
+    private V[] values;                  // values[j] is associated with keys[j]
+    private int size = 0;
+    private final int arity;
+    private final int shift;             // log2 of the arity
+
+    /**
+     * Creates an empty priority queue of arity HeapPriorityQueue.DEFAULT_ARITY.
+     */
+    public DoubleHeapPriorityQueue() {
+        this(HeapPriorityQueue.DEFAULT_ARITY);
+    }
+
+    /**
+     * Creates an empty priority queue whose heap nodes have the given number of children.
+     *
+     * @param arity the number of children of a node, a power of two
+     * @throws IllegalArgumentException if the arity is not a power of two greater than 1
+     */
+    public DoubleHeapPriorityQueue(int arity) throws IllegalArgumentException {
+        if (arity < 2 || Integer.bitCount(arity) != 1) {
+            throw new IllegalArgumentException("Arity must be a power of two greater than 1");
+        }
+        this.arity = arity;
+        this.shift = Integer.numberOfTrailingZeros(arity);
+        keys = new double[DEFAULT_CAPACITY];
+        values = newArray(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns the number of items in the priority queue.
+     *
+     * @return number of items
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Inserts a key-value pair, without allocating unless the arrays must grow.
+     *
+     * @param key   the key of the new entry
+     * @param value the associated value of the new entry
+     * @throws IllegalArgumentException if the key is NaN
+     */
+    public void insert(double key, V value) throws IllegalArgumentException {
+        if (key != key) {
+            throw new IllegalArgumentException("Incompatible key");
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * size);
+            values = Arrays.copyOf(values, 2 * size);
+        }
+        int j = size++;
+        while (j > 0) {
+            int parent = (j - 1) >> shift;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[j] = keys[parent];          // move the parent down into the hole
+            values[j] = values[parent];
+            j = parent;
+        }
+        keys[j] = key;
+        values[j] = value;
+    }
+
+    /**
+     * Returns a minimal key.
+     *
+     * @return a minimal key
+     * @throws NoSuchElementException if the priority queue is empty
+     */
+    public double minKey() throws NoSuchElementException {
+        if (size == 0) {
+            throw new NoSuchElementException("Priority queue is empty");
+        }
+        return keys[0];
+    }
+
+    /**
+     * Returns the value of an entry with minimal key.
+     *
+     * @return the value of an entry with minimal key (or null if empty)
+     */
+    public V minValue() {
+        return (size == 0 ? null : values[0]);
+    }
+
+    /**
+     * Removes an entry with minimal key and returns its value. Call minKey
+     * first to learn its key.
+     *
+     * @return the value of the removed entry (or null if empty)
+     */
+    public V removeMinValue() {
+        if (size == 0) {
+            return null;
+        }
+        V answer = values[0];
+        size--;
+        double key = keys[size];               // the last entry sinks from the root
+        V value = values[size];
+        values[size] = null;                 // let the garbage collector reclaim the old slot
+        int j = 0;
+        int lastInternal = (size - 2) >> shift;
+        while (j <= lastInternal) {
+            int first = (j << shift) + 1;
+            int end = Math.min(first + arity, size);
+            int smallestChild = first;
+            for (int c = first + 1; c < end; c++) {
+                if (keys[c] < keys[smallestChild]) {
+                    smallestChild = c;
+                }
+            }
+            if (keys[smallestChild] >= key) {
+                break;
+            }
+            keys[j] = keys[smallestChild];   // move the child up into the hole
+            values[j] = values[smallestChild];
+            j = smallestChild;
+        }
+        if (size > 0) {
+            keys[j] = key;
+            values[j] = value;
+        }
+        return answer;
+    }
+
+    // methods of the PriorityQueue interface, which box the keys
+    @Override
+    public Entry<Double, V> insert(Double key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        insert(key.doubleValue(), value);
+        return new PQEntry<>(key, value);
+    }
+
+    @Override
+    public Entry<Double, V> min() {
+        return (size == 0 ? null : new PQEntry<>(keys[0], values[0]));
+    }
+
+    @Override
+    public Entry<Double, V> removeMin() {
+        if (size == 0) {
+            return null;
+        }
+        double key = keys[0];
+        return new PQEntry<>(key, removeMinValue());
+    }
+
+    public String toString() {
+        return Arrays.toString(Arrays.copyOf(keys, size));
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private static <T> T[] newArray(int capacity) {
+        return (T[]) new Object[capacity];
+    }
+}
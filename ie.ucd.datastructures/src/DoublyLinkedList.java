@@ -1,3 +1,4 @@
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -203,10 +204,7 @@ public class DoublyLinkedList<E> implements List<E>, Iterable<E> {
 		if (this.isEmpty()) {
 			return null; 
 		}
-		Node<E> temp = getHead(); 
-		header.setNext(getHead().getNext());
-		size--;
-		return temp.getElement();
+		return remove(getHead());
 	}
 
 	/**
@@ -217,10 +215,83 @@ public class DoublyLinkedList<E> implements List<E>, Iterable<E> {
 		if (this.isEmpty()) {
 			return null; 
 		}
-		Node<E> temp = getTail(); 
-		trailer.setPrev(getTail().getPrev());
-		size--; 
-		return temp.getElement(); 
+		return remove(getTail());
+	}
+
+	/**
+	 * Sorts the list by the natural ordering of its elements.
+	 */
+	public void sort() {
+		sort(new DefaultComparator<E>());
+	}
+
+	/**
+	 * Sorts the list with a bottom-up merge sort, in O(n log n) time and
+	 * constant extra space. Each pass merges neighbouring runs of width 1, 2,
+	 * 4, ... nodes by relinking their next references, and the prev
+	 * references are restored in one final walk, so no element is copied and
+	 * no node is allocated. The sort is stable.
+	 *
+	 * @param comp   the comparator defining the order of the elements
+	 */
+	public void sort(Comparator<E> comp) {
+		if (size < 2) {
+			return;
+		}
+		trailer.getPrev().setNext(null);       // sort a null-terminated chain hanging off the header
+		Node<E> tail = null;
+		for (long width = 1; width < size; width *= 2) {
+			tail = header;
+			Node<E> rest = header.getNext();
+			while (rest != null) {
+				Node<E> left = rest;
+				Node<E> right = split(left, width);
+				rest = split(right, width);
+				tail = merge(left, right, comp, tail);
+			}
+		}
+		for (Node<E> node = header; node != tail; node = node.getNext()) {
+			node.getNext().setPrev(node);
+		}
+		tail.setNext(trailer);
+		trailer.setPrev(tail);
+	}
+
+	/** Cuts a chain of nodes after its first n nodes and returns the remaining chain (or null). */
+	private static <E> Node<E> split(Node<E> node, long n) {
+		for (long k = 1; node != null && k < n; k++) {
+			node = node.getNext();
+		}
+		if (node == null) {
+			return null;
+		}
+		Node<E> rest = node.getNext();
+		node.setNext(null);
+		return rest;
+	}
+
+	/**
+	 * Merges two sorted, null-terminated chains of nodes after the given tail
+	 * node, taking from a first on ties, and returns the last node of the
+	 * merged chain. Only next references are set.
+	 */
+	private static <E> Node<E> merge(Node<E> a, Node<E> b, Comparator<E> comp, Node<E> tail) {
+		while (a != null && b != null) {
+			if (comp.compare(b.getElement(), a.getElement()) < 0) {
+				tail.setNext(b);
+				tail = b;
+				b = b.getNext();
+			} else {
+				tail.setNext(a);
+				tail = a;
+				a = a.getNext();
+			}
+		}
+		tail.setNext(a != null ? a : b);
+		while (tail.getNext() != null) {
+			tail = tail.getNext();
+		}
+		return tail;
 	}
 
 	// private update methods
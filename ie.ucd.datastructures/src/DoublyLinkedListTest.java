@@ -105,4 +105,27 @@ class DoublyLinkedListTest {
 		assertEquals("[0, 1, 2, 3, 4]", buf.toString());
 	}
 
+	@Test
+	void testSort() {
+		DoublyLinkedList<Integer> ll = new DoublyLinkedList<>();
+		java.util.Random rnd = new java.util.Random(23);
+		ArrayList<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 1001; ++i) {
+			int x = rnd.nextInt(100);
+			ll.addFirst(x);
+			expected.add(x);
+		}
+		ll.sort(java.util.Comparator.reverseOrder());
+		expected.sort(java.util.Comparator.reverseOrder());
+		ArrayList<Integer> buf = new ArrayList<>();
+		for (Integer i : ll) {
+			buf.add(i);
+		}
+		assertEquals(expected, buf);
+		// the prev references must be consistent after relinking
+		for (int i = 1000; i >= 0; --i) {
+			assertEquals(expected.get(i), ll.removeLast());
+		}
+		assertEquals(true, ll.isEmpty());
+	}
 }
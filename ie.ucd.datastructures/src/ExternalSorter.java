@@ -0,0 +1,362 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorts binary files of ints or longs that may be much larger than the heap,
+ * by external merge sort.
+ * <p>
+ * The input is read through a FileChannel in chunks of at most
+ * <code>chunkBytes</code> bytes. Each chunk is sorted in memory by
+ * Sorter (xSort for ints, radixSort for longs) and written to a temporary
+ * file as a sorted run. The runs are then merged, at most <code>fanIn</code>
+ * at a time, with a LongHeapPriorityQueue holding the next element of every
+ * run; when there are more runs than that, groups of runs are first merged
+ * into longer runs. Every file is read and written sequentially through a
+ * direct buffer of BUFFER_BYTES bytes. An input that fits in one chunk is
+ * sorted in memory and written straight to the output.
+ * <p>
+ * Files hold the elements back to back in big-endian byte order, as written
+ * by DataOutputStream. Temporary files are deleted when the sort completes
+ * or fails.
+ */
+public class ExternalSorter {
+
+    /** The size of the buffer through which each file is read or written. */
+    public static final int BUFFER_BYTES = 1 << 20;
+    /** The default number of runs merged at once. */
+    public static final int DEFAULT_FAN_IN = 128;
+
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final long chunkBytes;
+    private final int fanIn;
+    private final Path tempDir;
+
+    /**
+     * Creates a sorter whose chunks, together with the auxiliary array of the
+     * in-memory sort, take about a quarter of the maximum heap size, and which
+     * spills runs to the default temporary directory.
+     */
+    public ExternalSorter() {
+        this(Runtime.getRuntime().maxMemory() / 8, DEFAULT_FAN_IN, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Creates a sorter with the given chunk size, fan-in and temporary directory.
+     *
+     * @param chunkBytes the size in bytes of the chunks sorted in memory; the
+     *                   in-memory sort needs as much again
+     * @param fanIn      the largest number of runs merged at once, at least 2
+     * @param tempDir    the directory in which to write the sorted runs
+     * @throws IllegalArgumentException if the chunks cannot hold a long, or fanIn is less than 2
+     */
+    public ExternalSorter(long chunkBytes, int fanIn, Path tempDir) throws IllegalArgumentException {
+        if (chunkBytes < Long.BYTES) {
+            throw new IllegalArgumentException("Chunks must hold at least one element");
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("Fan-in must be at least 2");
+        }
+        this.chunkBytes = chunkBytes;
+        this.fanIn = fanIn;
+        this.tempDir = tempDir;
+    }
+
+    /**
+     * Sorts a file of ints into another file.
+     *
+     * @param input  the file to sort
+     * @param output the file to write, replaced if it exists
+     * @throws IOException              if reading or writing a file fails
+     * @throws IllegalArgumentException if the input does not hold a whole number of ints
+     */
+    public void sortInts(Path input, Path output) throws IOException, IllegalArgumentException {
+        sort(input, output, Integer.BYTES);
+    }
+
+    /**
+     * Sorts a file of longs into another file.
+     *
+     * @param input  the file to sort
+     * @param output the file to write, replaced if it exists
+     * @throws IOException              if reading or writing a file fails
+     * @throws IllegalArgumentException if the input does not hold a whole number of longs
+     */
+    public void sortLongs(Path input, Path output) throws IOException, IllegalArgumentException {
+        sort(input, output, Long.BYTES);
+    }
+
+    private void sort(Path input, Path output, int width) throws IOException {
+        long n = Files.size(input);
+        if (n % width != 0) {
+            throw new IllegalArgumentException(input + " does not hold a whole number of " + width + "-byte elements");
+        }
+        n /= width;
+        int chunkLength = (int) Math.max(1, Math.min(n, Math.min(chunkBytes / width, MAX_ARRAY_LENGTH)));
+        List<Path> runs = new ArrayList<>();
+        List<Path> created = new ArrayList<>();    // every temporary file, deleted at the end
+        if (n <= chunkLength) {
+            sortInMemory(input, output, width, (int) n);
+            return;
+        }
+        try {
+            try (Reader in = new Reader(input, width)) {
+                for (long done = 0; done < n; done += chunkLength) {
+                    Path run = Files.createTempFile(tempDir, "run", ".bin");
+                    created.add(run);
+                    runs.add(run);
+                    try (Writer out = new Writer(run, width)) {
+                        sortChunk(in, out, (int) Math.min(chunkLength, n - done));
+                    }
+                }
+            }
+            while (runs.size() > fanIn) {             // merge groups of runs into longer runs
+                List<Path> longer = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                    Path run = Files.createTempFile(tempDir, "run", ".bin");
+                    created.add(run);
+                    longer.add(run);
+                    merge(group, run, width);
+                    for (Path p : group) {
+                        Files.delete(p);
+                    }
+                }
+                runs = longer;
+            }
+            merge(runs, output, width);
+        } finally {
+            for (Path run : created) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Sorts an input that fits in one chunk. The input is read in full and
+     * closed before the output is opened, since opening the output truncates
+     * it and the two may be the same file.
+     */
+    private static void sortInMemory(Path input, Path output, int width, int length) throws IOException {
+        if (width == Integer.BYTES) {
+            int[] chunk = new int[length];
+            try (Reader in = new Reader(input, width)) {
+                in.read(chunk);
+            }
+            Sorter.xSort(chunk);
+            try (Writer out = new Writer(output, width)) {
+                out.write(chunk);
+            }
+        } else {
+            long[] chunk = new long[length];
+            try (Reader in = new Reader(input, width)) {
+                in.read(chunk);
+            }
+            Sorter.radixSort(chunk);
+            try (Writer out = new Writer(output, width)) {
+                out.write(chunk);
+            }
+        }
+    }
+
+    /** Reads the next length elements, sorts them in memory and writes them out. */
+    private static void sortChunk(Reader in, Writer out, int length) throws IOException {
+        if (in.width == Integer.BYTES) {
+            int[] chunk = new int[length];
+            in.read(chunk);
+            Sorter.xSort(chunk);
+            out.write(chunk);
+        } else {
+            long[] chunk = new long[length];
+            in.read(chunk);
+            Sorter.radixSort(chunk);
+            out.write(chunk);
+        }
+    }
+
+    /** Merges the sorted runs into the target file. */
+    private static void merge(List<Path> runs, Path target, int width) throws IOException {
+        LongHeapPriorityQueue<Reader> heads = new LongHeapPriorityQueue<>();
+        try (Writer out = new Writer(target, width)) {
+            try {
+                for (Path run : runs) {
+                    Reader in = new Reader(run, width);
+                    if (in.hasNext()) {
+                        heads.insert(in.next(), in);
+                    } else {
+                        in.close();
+                    }
+                }
+                while (!heads.isEmpty()) {
+                    long key = heads.minKey();
+                    out.put(key);
+                    Reader in = heads.minValue();
+                    if (in.hasNext()) {
+                        heads.replaceMin(in.next(), in);   // the run's next element takes the place of the written one
+                    } else {
+                        heads.removeMinValue().close();
+                    }
+                }
+            } finally {
+                while (!heads.isEmpty()) {
+                    heads.removeMinValue().close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts a binary file of ints or longs.
+     * Usage: java ExternalSorter int|long input output [chunkMegabytes]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || !(args[0].equals("int") || args[0].equals("long"))) {
+            System.err.println("Usage: java ExternalSorter int|long input output [chunkMegabytes]");
+            System.exit(2);
+        }
+        ExternalSorter sorter = (args.length > 3
+                ? new ExternalSorter(Long.parseLong(args[3]) << 20, DEFAULT_FAN_IN, Paths.get(System.getProperty("java.io.tmpdir")))
+                : new ExternalSorter());
+        long start = System.nanoTime();
+        if (args[0].equals("int")) {
+            sorter.sortInts(Paths.get(args[1]), Paths.get(args[2]));
+        } else {
+            sorter.sortLongs(Paths.get(args[1]), Paths.get(args[2]));
+        }
+        System.out.printf("sorted %s in %.1f s%n", args[1], (System.nanoTime() - start) / 1e9);
+    }
+
+    //---------------- nested Reader class ----------------
+    /** Reads the elements of a file sequentially through a buffer. */
+    private static class Reader implements AutoCloseable {
+        final int width;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private boolean eof = false;
+
+        Reader(Path file, int width) throws IOException {
+            this.width = width;
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            buffer.flip();                            // start empty
+        }
+
+        /** Makes sure the buffer holds a whole element, unless the file is exhausted. */
+        private boolean fill() throws IOException {
+            if (buffer.remaining() >= width) {
+                return true;
+            }
+            buffer.compact();
+            while (!eof && buffer.hasRemaining()) {
+                eof = (channel.read(buffer) < 0);
+            }
+            buffer.flip();
+            return buffer.remaining() >= width;
+        }
+
+        boolean hasNext() throws IOException {
+            return fill();
+        }
+
+        /** Returns the next element, widened to a long. Call hasNext first. */
+        long next() {
+            return (width == Integer.BYTES ? buffer.getInt() : buffer.getLong());
+        }
+
+        void read(int[] dst) throws IOException {
+            for (int n = 0; n < dst.length && fill(); ) {
+                int k = Math.min(buffer.remaining() / Integer.BYTES, dst.length - n);
+                buffer.asIntBuffer().get(dst, n, k);
+                buffer.position(buffer.position() + k * Integer.BYTES);
+                n += k;
+            }
+        }
+
+        void read(long[] dst) throws IOException {
+            for (int n = 0; n < dst.length && fill(); ) {
+                int k = Math.min(buffer.remaining() / Long.BYTES, dst.length - n);
+                buffer.asLongBuffer().get(dst, n, k);
+                buffer.position(buffer.position() + k * Long.BYTES);
+                n += k;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    } //----------- end of nested Reader class -----------
+
+    //---------------- nested Writer class ----------------
+    /** Writes elements to a file sequentially through a buffer. */
+    private static class Writer implements AutoCloseable {
+        private final int width;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+        Writer(Path file, int width) throws IOException {
+            this.width = width;
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /** Writes an element, narrowed to an int if the file holds ints. */
+        void put(long x) throws IOException {
+            if (buffer.remaining() < width) {
+                flush();
+            }
+            if (width == Integer.BYTES) {
+                buffer.putInt((int) x);
+            } else {
+                buffer.putLong(x);
+            }
+        }
+
+        void write(int[] src) throws IOException {
+            for (int n = 0; n < src.length; ) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    flush();
+                }
+                int k = Math.min(buffer.remaining() / Integer.BYTES, src.length - n);
+                buffer.asIntBuffer().put(src, n, k);
+                buffer.position(buffer.position() + k * Integer.BYTES);
+                n += k;
+            }
+        }
+
+        void write(long[] src) throws IOException {
+            for (int n = 0; n < src.length; ) {
+                if (buffer.remaining() < Long.BYTES) {
+                    flush();
+                }
+                int k = Math.min(buffer.remaining() / Long.BYTES, src.length - n);
+                buffer.asLongBuffer().put(src, n, k);
+                buffer.position(buffer.position() + k * Long.BYTES);
+                n += k;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    } //----------- end of nested Writer class -----------
+}
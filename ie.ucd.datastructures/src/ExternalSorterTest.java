@@ -0,0 +1,112 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExternalSorterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void testSortInts() throws IOException {
+		Random rnd = new Random(22);
+		Path spill = Files.createDirectory(dir.resolve("spill"));
+		for (int n : new int[] {0, 1, 999, 1000, 1001, 123457}) {
+			int[] data = new int[n];
+			for (int i = 0; i < n; i++) {
+				data[i] = (i % 3 == 0 ? rnd.nextInt(10) : rnd.nextInt());
+			}
+			Path input = dir.resolve("ints" + n);
+			writeInts(input, data);
+			Path output = dir.resolve("sorted" + n);
+			// 1000 ints per chunk and a fan-in of 4 merge the 124 runs of the largest input in four passes
+			new ExternalSorter(4000, 4, spill).sortInts(input, output);
+			Arrays.sort(data);
+			assertArrayEquals(data, readInts(output));
+			try (Stream<Path> left = Files.list(spill)) {
+				assertEquals(0, left.count());
+			}
+		}
+	}
+
+	@Test
+	void testSortLongs() throws IOException {
+		Random rnd = new Random(22);
+		long[] data = new long[50000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = rnd.nextLong();
+		}
+		Path input = dir.resolve("longs");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(input)))) {
+			for (long x : data) {
+				out.writeLong(x);
+			}
+		}
+		Path output = dir.resolve("sorted");
+		new ExternalSorter(80000, ExternalSorter.DEFAULT_FAN_IN, dir).sortLongs(input, output);
+		Arrays.sort(data);
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(output)))) {
+			for (long x : data) {
+				assertEquals(x, in.readLong());
+			}
+			assertEquals(-1, in.read());
+		}
+	}
+
+	@Test
+	void testSortInPlace() throws IOException {
+		Random rnd = new Random(22);
+		for (int n : new int[] {5, 10000}) {
+			int[] data = new int[n];
+			for (int i = 0; i < n; i++) {
+				data[i] = rnd.nextInt();
+			}
+			Path file = dir.resolve("inplace" + n);
+			writeInts(file, data);
+			// the small input fits in one chunk, the large one is split into ten runs
+			new ExternalSorter(4000, 4, dir).sortInts(file, file);
+			Arrays.sort(data);
+			assertArrayEquals(data, readInts(file));
+		}
+	}
+
+	@Test
+	void testInvalidInput() throws IOException {
+		Path input = dir.resolve("odd");
+		Files.write(input, new byte[] {1, 2, 3, 4, 5, 6});
+		assertThrows(IllegalArgumentException.class, () -> new ExternalSorter().sortInts(input, dir.resolve("out")));
+		assertThrows(IllegalArgumentException.class, () -> new ExternalSorter(1 << 20, 1, dir));
+	}
+
+	private static void writeInts(Path file, int[] data) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			for (int x : data) {
+				out.writeInt(x);
+			}
+		}
+	}
+
+	private static int[] readInts(Path file) throws IOException {
+		int[] data = new int[(int) (Files.size(file) / Integer.BYTES)];
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			for (int i = 0; i < data.length; i++) {
+				data[i] = in.readInt();
+			}
+		}
+		return data;
+	}
+}
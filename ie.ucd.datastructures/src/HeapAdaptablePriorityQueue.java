@@ -0,0 +1,203 @@
+import java.util.Comparator;
+
+/**
+ * An implementation of an adaptable priority queue using an array-based
+ * d-ary heap.
+ * <p>
+ * The entries returned by insert are location-aware: each one records its
+ * current index in the heap, which the heap updates whenever it moves the
+ * entry. remove, replaceKey and replaceValue therefore find the entry in
+ * constant time instead of searching for it, and take O(log n) time to
+ * restore the heap property. The heap stores the entries as the values of a
+ * HeapPriorityQueue, so the heap logic is shared with that class.
+ */
+public class HeapAdaptablePriorityQueue<K, V> extends AbstractPriorityQueue<K, V>
+        implements AdaptablePriorityQueue<K, V> {
+
+    //---------------- nested AdaptablePQEntry class ----------------
+    /** Extension of the PQEntry to include location information. */
+    protected static class AdaptablePQEntry<K, V> extends PQEntry<K, V> {
+        private int index;               // entry's current index within the heap, or -1 once removed
+
+        public AdaptablePQEntry(K key, V value, int j) {
+            super(key, value);
+            index = j;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int j) {
+            index = j;
+        }
+    } //----------- end of nested AdaptablePQEntry class -----------
+
+    //---------------- nested LocatorHeap class ----------------
+    /** A heap whose values are the entries themselves, kept informed of their index. */
+    private static class LocatorHeap<K, V> extends HeapPriorityQueue<K, AdaptablePQEntry<K, V>> {
+        LocatorHeap(Comparator<K> comp, int arity) {
+            super(comp, arity);
+        }
+
+        @Override
+        protected void placed(int j) {
+            valueAt(j).setIndex(j);
+        }
+    } //----------- end of nested LocatorHeap class -----------
+
+    private final LocatorHeap<K, V> heap;
+
+    /** Creates an empty adaptable priority queue using natural ordering of keys. */
+    public HeapAdaptablePriorityQueue() {
+        this(new DefaultComparator<K>());
+    }
+
+    /**
+     * Creates an empty adaptable priority queue using the given comparator to order keys.
+     *
+     * @param comp comparator defining the order of keys in the priority queue
+     */
+    public HeapAdaptablePriorityQueue(Comparator<K> comp) {
+        this(comp, HeapPriorityQueue.DEFAULT_ARITY);
+    }
+
+    /**
+     * Creates an empty adaptable priority queue using the given comparator to
+     * order keys, whose heap nodes have the given number of children.
+     *
+     * @param comp  comparator defining the order of keys in the priority queue
+     * @param arity the number of children of a node, a power of two
+     * @throws IllegalArgumentException if the arity is not a power of two greater than 1
+     */
+    public HeapAdaptablePriorityQueue(Comparator<K> comp, int arity) throws IllegalArgumentException {
+        super(comp);
+        heap = new LocatorHeap<>(comp, arity);
+    }
+
+    /**
+     * Validates an entry to ensure it is location-aware and still in this queue.
+     *
+     * @return the index of the entry in the heap
+     */
+    protected int validate(Entry<K, V> entry) throws IllegalArgumentException {
+        if (!(entry instanceof AdaptablePQEntry)) {
+            throw new IllegalArgumentException("Invalid entry");
+        }
+        AdaptablePQEntry<K, V> locator = (AdaptablePQEntry<K, V>) entry; // safe
+        int j = locator.getIndex();
+        if (j < 0 || j >= heap.size() || heap.valueAt(j) != locator) {
+            throw new IllegalArgumentException("Invalid entry");
+        }
+        return j;
+    }
+
+    /**
+     * Returns the number of items in the priority queue.
+     *
+     * @return number of items
+     */
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Inserts a key-value pair and returns the entry created, which can later
+     * be passed to remove, replaceKey and replaceValue.
+     *
+     * @param key   the key of the new entry
+     * @param value the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if the key is unacceptable for this queue
+     */
+    @Override
+    public Entry<K, V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        AdaptablePQEntry<K, V> newest = new AdaptablePQEntry<>(key, value, heap.size());
+        heap.append(key, newest);
+        return newest;
+    }
+
+    /**
+     * Returns (but does not remove) an entry with minimal key.
+     *
+     * @return entry having a minimal key (or null if empty)
+     */
+    @Override
+    public Entry<K, V> min() {
+        return (heap.isEmpty() ? null : heap.valueAt(0));
+    }
+
+    /**
+     * Removes and returns an entry with minimal key.
+     *
+     * @return the removed entry (or null if empty)
+     */
+    @Override
+    public Entry<K, V> removeMin() {
+        if (heap.isEmpty()) {
+            return null;
+        }
+        AdaptablePQEntry<K, V> answer = heap.valueAt(0);
+        heap.removeAt(0);
+        answer.setIndex(-1);
+        return answer;
+    }
+
+    /**
+     * Removes the given entry from the priority queue.
+     *
+     * @param entry an entry of this priority queue
+     * @throws IllegalArgumentException if the entry is not in this queue
+     */
+    @Override
+    public void remove(Entry<K, V> entry) throws IllegalArgumentException {
+        int j = validate(entry);
+        heap.removeAt(j);
+        ((AdaptablePQEntry<K, V>) entry).setIndex(-1);
+    }
+
+    /**
+     * Replaces the key of an entry, moving the entry up or down the heap.
+     *
+     * @param entry an entry of this priority queue
+     * @param key   the new key
+     * @throws IllegalArgumentException if the entry is not in this queue, or the key is unacceptable
+     */
+    @Override
+    public void replaceKey(Entry<K, V> entry, K key) throws IllegalArgumentException {
+        int j = validate(entry);
+        checkKey(key);
+        ((AdaptablePQEntry<K, V>) entry).setKey(key);
+        heap.keys[j] = key;
+        heap.bubble(j);
+    }
+
+    /**
+     * Replaces the value of an entry.
+     *
+     * @param entry an entry of this priority queue
+     * @param value the new value
+     * @throws IllegalArgumentException if the entry is not in this queue
+     */
+    @Override
+    public void replaceValue(Entry<K, V> entry, V value) throws IllegalArgumentException {
+        validate(entry);
+        ((AdaptablePQEntry<K, V>) entry).setValue(value);
+    }
+
+    public String toString() {
+        return heap.toString();
+    }
+
+    /** Used for testing: checks the heap property and every entry's index. */
+    boolean sanityCheck() {
+        for (int j = 0; j < heap.size(); j++) {
+            if (heap.valueAt(j).getIndex() != j) {
+                return false;
+            }
+        }
+        return heap.sanityCheck();
+    }
+}
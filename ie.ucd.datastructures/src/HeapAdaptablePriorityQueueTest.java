@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeapAdaptablePriorityQueueTest {
+
+	@Test
+	void testReplaceAndRemove() {
+		HeapAdaptablePriorityQueue<Integer, String> pq = new HeapAdaptablePriorityQueue<>();
+		Entry<Integer, String> a = pq.insert(5, "A");
+		Entry<Integer, String> b = pq.insert(9, "B");
+		Entry<Integer, String> c = pq.insert(7, "C");
+		pq.replaceKey(b, 1);
+		assertSame(b, pq.min());
+		pq.replaceValue(a, "AA");
+		pq.replaceKey(b, 10);
+		assertSame(a, pq.min());
+		pq.remove(a);
+		assertThrows(IllegalArgumentException.class, () -> pq.remove(a));
+		assertThrows(IllegalArgumentException.class, () -> pq.replaceKey(a, 0));
+		assertThrows(IllegalArgumentException.class, () -> pq.replaceValue(new HeapAdaptablePriorityQueue<Integer, String>().insert(7, "X"), "Y"));
+		assertEquals("AA", a.getValue());
+		assertSame(c, pq.removeMin());
+		assertThrows(IllegalArgumentException.class, () -> pq.remove(c));
+		assertSame(b, pq.removeMin());
+		assertNull(pq.removeMin());
+	}
+
+	@Test
+	void testRandomOperations() {
+		for (int arity : new int[] {2, 4, 8}) {
+			HeapAdaptablePriorityQueue<Integer, Integer> pq = new HeapAdaptablePriorityQueue<>(new DefaultComparator<>(), arity);
+			List<Entry<Integer, Integer>> live = new ArrayList<>();
+			Random rnd = new Random(arity);
+			for (int i = 0; i < 20000; i++) {
+				int op = rnd.nextInt(5);
+				if (op == 0 || live.isEmpty()) {
+					live.add(pq.insert(rnd.nextInt(1000), i));
+				} else if (op == 1) {
+					Entry<Integer, Integer> min = pq.removeMin();
+					for (Entry<Integer, Integer> e : live) {
+						assertTrue(min.getKey() <= e.getKey());
+					}
+					assertTrue(live.remove(min));
+				} else if (op == 2) {
+					pq.remove(live.remove(rnd.nextInt(live.size())));
+				} else {
+					pq.replaceKey(live.get(rnd.nextInt(live.size())), rnd.nextInt(1000));
+				}
+				assertEquals(live.size(), pq.size());
+			}
+			assertTrue(pq.sanityCheck());
+		}
+	}
+
+	@Test
+	void testDijkstra() {
+		int n = 300;
+		Random rnd = new Random(18);
+		int[][] weight = new int[n][n];
+		for (int[] row : weight) {
+			for (int v = 0; v < n; v++) {
+				row[v] = rnd.nextInt(8) == 0 ? 1 + rnd.nextInt(100) : -1; // -1 for no edge
+			}
+		}
+		assertArrayEquals(quadraticDijkstra(weight), heapDijkstra(weight));
+	}
+
+	private static long[] heapDijkstra(int[][] weight) {
+		int n = weight.length;
+		long[] dist = new long[n];
+		Arrays.fill(dist, Long.MAX_VALUE);
+		dist[0] = 0;
+		HeapAdaptablePriorityQueue<Long, Integer> pq = new HeapAdaptablePriorityQueue<>();
+		List<Entry<Long, Integer>> locator = new ArrayList<>();
+		for (int v = 0; v < n; v++) {
+			locator.add(pq.insert(dist[v], v));
+		}
+		while (!pq.isEmpty()) {
+			Entry<Long, Integer> e = pq.removeMin();
+			int u = e.getValue();
+			if (dist[u] == Long.MAX_VALUE) {
+				break;
+			}
+			for (int v = 0; v < n; v++) {
+				if (weight[u][v] >= 0 && dist[u] + weight[u][v] < dist[v]) {
+					dist[v] = dist[u] + weight[u][v];
+					pq.replaceKey(locator.get(v), dist[v]); // decrease-key
+				}
+			}
+		}
+		return dist;
+	}
+
+	private static long[] quadraticDijkstra(int[][] weight) {
+		int n = weight.length;
+		long[] dist = new long[n];
+		boolean[] done = new boolean[n];
+		Arrays.fill(dist, Long.MAX_VALUE);
+		dist[0] = 0;
+		for (int round = 0; round < n; round++) {
+			int u = -1;
+			for (int v = 0; v < n; v++) {
+				if (!done[v] && dist[v] != Long.MAX_VALUE && (u < 0 || dist[v] < dist[u])) {
+					u = v;
+				}
+			}
+			if (u < 0) {
+				break;
+			}
+			done[u] = true;
+			for (int v = 0; v < n; v++) {
+				if (weight[u][v] >= 0 && dist[u] + weight[u][v] < dist[v]) {
+					dist[v] = dist[u] + weight[u][v];
+				}
+			}
+		}
+		return dist;
+	}
+}
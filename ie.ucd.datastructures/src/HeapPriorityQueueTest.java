@@ -0,0 +1,142 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeapPriorityQueueTest {
+
+	@Test
+	void testInsertRemoveMin() {
+		HeapPriorityQueue<Integer, String> pq = new HeapPriorityQueue<>();
+		assertNull(pq.min());
+		assertNull(pq.removeMin());
+		pq.insert(5, "five");
+		pq.insert(1, "one");
+		pq.insert(3, "three");
+		assertEquals(1, pq.min().getKey());
+		assertEquals("one", pq.removeMin().getValue());
+		assertEquals("three", pq.removeMin().getValue());
+		assertEquals("five", pq.removeMin().getValue());
+		assertTrue(pq.isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> new HeapPriorityQueue<Integer, Integer>(new DefaultComparator<>(), 3));
+	}
+
+	@Test
+	void testArrayConstructor() {
+		// 6 entries leave the node at index 2 with a single child in a binary heap
+		HeapPriorityQueue<Integer, Integer> pq = new HeapPriorityQueue<>(new Integer[] {9, 4, 7, 1, 8, 2}, new Integer[] {0, 1, 2, 3, 4, 5});
+		assertTrue(pq.sanityCheck());
+		int[] expected = {1, 2, 4, 7, 8, 9};
+		for (int k : expected) {
+			assertEquals(k, pq.removeMin().getKey());
+			assertTrue(pq.sanityCheck());
+		}
+	}
+
+	@Test
+	void testAgainstJavaPriorityQueue() {
+		for (int arity : new int[] {2, 4, 8}) {
+			HeapPriorityQueue<Integer, Integer> pq = new HeapPriorityQueue<>(new DefaultComparator<>(), arity);
+			LongHeapPriorityQueue<Integer> longs = new LongHeapPriorityQueue<>(arity);
+			DoubleHeapPriorityQueue<Integer> doubles = new DoubleHeapPriorityQueue<>(arity);
+			java.util.PriorityQueue<Integer> expected = new java.util.PriorityQueue<>();
+			Random rnd = new Random(arity);
+			for (int i = 0; i < 20000; i++) {
+				if (rnd.nextInt(3) == 0) {
+					Integer min = expected.poll();
+					Entry<Integer, Integer> e = pq.removeMin();
+					assertEquals(min, e == null ? null : e.getKey());
+					if (min != null) {
+						assertEquals(min, e.getValue());
+						assertEquals((long) min, longs.minKey());
+						assertEquals((double) min, doubles.minKey());
+					}
+					assertEquals(min, longs.removeMinValue());
+					assertEquals(min, doubles.removeMinValue());
+				} else {
+					int k = rnd.nextInt(1000);
+					expected.add(k);
+					pq.insert(k, k);
+					longs.insert(k, k);
+					doubles.insert(k, k);
+				}
+				assertEquals(expected.size(), pq.size());
+				assertEquals(expected.size(), longs.size());
+				assertEquals(expected.size(), doubles.size());
+			}
+			assertTrue(pq.sanityCheck());
+		}
+	}
+
+	@Test
+	void testInsertAllAndMerge() {
+		Random rnd = new Random(19);
+		for (int n : new int[] {0, 1, 7, 100, 5000}) {
+			for (int m : new int[] {0, 1, 3, 50, 500, 20000}) {   // 500 heapifies only the ancestors of the batch
+				for (int arity : new int[] {2, 8}) {
+					Integer[] first = randomKeys(n, rnd);
+					Integer[] second = randomKeys(m, rnd);
+					HeapPriorityQueue<Integer, Integer> pq = new HeapPriorityQueue<>(new DefaultComparator<>(), arity);
+					pq.insertAll(first, first);
+					HeapPriorityQueue<Integer, Integer> other = new HeapPriorityQueue<>(second, second);
+					pq.merge(other);
+					assertEquals(m, other.size());
+					assertTrue(pq.sanityCheck());
+					java.util.PriorityQueue<Integer> expected = new java.util.PriorityQueue<>();
+					expected.addAll(java.util.Arrays.asList(first));
+					expected.addAll(java.util.Arrays.asList(second));
+					while (!expected.isEmpty()) {
+						assertEquals(expected.poll(), pq.removeMin().getKey());
+					}
+					assertTrue(pq.isEmpty());
+				}
+			}
+		}
+		HeapPriorityQueue<Integer, Integer> self = new HeapPriorityQueue<>(new Integer[] {3, 1, 2}, new Integer[] {3, 1, 2});
+		self.merge(self);
+		assertEquals(6, self.size());
+		assertEquals(1, self.removeMin().getKey());
+		assertEquals(1, self.removeMin().getKey());
+	}
+
+	private static Integer[] randomKeys(int n, Random rnd) {
+		Integer[] keys = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = rnd.nextInt(1000) - 500;
+		}
+		return keys;
+	}
+
+	@Test
+	void testPrimitiveQueues() {
+		LongHeapPriorityQueue<String> longs = new LongHeapPriorityQueue<>();
+		assertNull(longs.removeMinValue());
+		assertNull(longs.removeMin());
+		assertThrows(java.util.NoSuchElementException.class, longs::minKey);
+		longs.insert(Long.MAX_VALUE, "max");
+		longs.insert(Long.valueOf(-7), "boxed");
+		assertEquals("[-7, " + Long.MAX_VALUE + "]", longs.toString());
+		assertEquals(-7L, longs.removeMin().getKey());
+		assertEquals("max", longs.minValue());
+		longs.insert(3, "three");
+		assertEquals("three", longs.replaceMin(Long.MIN_VALUE, "min"));
+		assertEquals(Long.MIN_VALUE, longs.minKey());
+		assertEquals("min", longs.replaceMin(4, "four"));
+		assertEquals("four", longs.removeMinValue());
+		assertEquals("max", longs.removeMinValue());
+		assertThrows(java.util.NoSuchElementException.class, () -> longs.replaceMin(1, "one"));
+
+		DoubleHeapPriorityQueue<String> doubles = new DoubleHeapPriorityQueue<>(2);
+		assertThrows(IllegalArgumentException.class, () -> doubles.insert(Double.NaN, "nan"));
+		doubles.insert(0.5, "half");
+		doubles.insert(Double.NEGATIVE_INFINITY, "-inf");
+		assertEquals(Double.NEGATIVE_INFINITY, doubles.minKey());
+		assertEquals("-inf", doubles.removeMinValue());
+		assertEquals("half", doubles.removeMinValue());
+		assertTrue(doubles.isEmpty());
+	}
+}
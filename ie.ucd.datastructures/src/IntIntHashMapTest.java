@@ -0,0 +1,60 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntIntHashMapTest {
+
+	@Test
+	void testPutGet() {
+		IntIntHashMap m = new IntIntHashMap();
+		assertEquals(0, m.put(1, 10));
+		assertEquals(0, m.put(0, 5));
+		assertEquals(10, m.put(1, 11));
+		assertEquals(11, m.get(1));
+		assertEquals(5, m.get(0));
+		assertEquals(0, m.get(2));
+		assertEquals(-1, m.getOrDefault(2, -1));
+		assertEquals(2, m.size());
+	}
+
+	@Test
+	void testAddTo() {
+		IntIntHashMap m = new IntIntHashMap();
+		assertEquals(1, m.increment(7));
+		assertEquals(2, m.increment(7));
+		assertEquals(12, m.addTo(7, 10));
+		assertEquals(-3, m.addTo(0, -3));
+		assertEquals(12, m.get(7));
+		assertEquals(2, m.size());
+	}
+
+	@Test
+	void testRemove() {
+		IntIntHashMap m = new IntIntHashMap();
+		for (int i = -500; i < 500; i++) {
+			m.put(i, i * 2);
+		}
+		for (int i = -500; i < 500; i += 2) {
+			assertEquals(i * 2, m.remove(i));
+		}
+		assertEquals(500, m.size());
+		for (int i = -500; i < 500; i++) {
+			assertEquals(i % 2 != 0, m.containsKey(i));
+		}
+		assertFalse(m.containsKey(0));
+		assertTrue(m.containsKey(1));
+	}
+
+	@Test
+	void testForEach() {
+		IntIntHashMap m = new IntIntHashMap();
+		for (int i = 0; i < 100; i++) {
+			m.put(i, 1);
+		}
+		int[] sum = new int[1];
+		m.forEach((k, v) -> sum[0] += k + v);
+		assertEquals(4950 + 100, sum[0]);
+	}
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -158,6 +159,7 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
         }
     	root = createNode(e, null, null, null);
         size++; 
+        modCount++;
 		return root;
     }
 
@@ -174,12 +176,14 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
      */
     public Position<E> addLeft(Position<E> p, E e) throws IllegalArgumentException {
     	Node<E> parent = validate(p);
-    	if (parent == null) {
+    	if (parent.getLeft() != null) {
     		throw new IllegalArgumentException("Sorry, cannot add a left node here");
     	}
-    	parent.setLeft(createNode(e, parent, null, null));
+    	Node<E> child = createNode(e, parent, null, null);
+    	parent.setLeft(child);
     	size++; 
-    	return createNode(e, parent, null, null);
+    	modCount++;
+    	return child;
     }
 
     /**
@@ -194,12 +198,14 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
      */
     public Position<E> addRight(Position<E> p, E e) throws IllegalArgumentException {
     	Node<E> parent = validate(p);
-    	if (parent == null) {
+    	if (parent.getRight() != null) {
     		throw new IllegalArgumentException("Sorry, cannot add a right node here");
     	}
-    	parent.setRight(createNode(e, parent, null, null));
+    	Node<E> child = createNode(e, parent, null, null);
+    	parent.setRight(child);
     	size++; 
-    	return createNode(e, parent, null, null);
+    	modCount++;
+    	return child;
     }
 
     /**
@@ -248,31 +254,30 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
     		throw new IllegalArgumentException("Sorry, the node to remove has two children");
     	}
     	
-    	//Setting the child's node as either the right child or the left child - whichever is not null
-    	Node<E> child = new Node<E>(null, null, null, null); 
-    	if (toRemove.getLeft() != null) {
-    		child = toRemove.getLeft();
-    	}
-    	else if (toRemove.getRight() != null) {
-    		child = toRemove.getRight();
+    	//the child that takes the place of the removed node, if any
+    	Node<E> child = (toRemove.getLeft() != null ? toRemove.getLeft() : toRemove.getRight());
+    	if (child != null) {
+    		child.setParent(toRemove.getParent());
     	}
     	
     	if (toRemove == root) { //if the node to be removed is the root node, which does not have a parent 
     		root = child; 
     	}
-    	else if (child.getElement() != null) {
-    		child.setParent(toRemove.getParent()); //bypass the node to be removed
-    	}
-    	else if (child.getElement() == null) {
+    	else {
     		Node<E> parent = toRemove.getParent();
     		if (toRemove == parent.getLeft()) {
     			parent.setLeft(child);
     		}
-    		else if (toRemove == parent.getRight()) {
+    		else {
     			parent.setRight(child);
     		}
     	}
+    	toRemove.setElement(null); //help garbage collection
+    	toRemove.setLeft(null);
+    	toRemove.setRight(null);
+    	toRemove.setParent(toRemove); //our convention for defunct node
     	size--; 
+    	modCount++;
     	
     	return elementToRemove;
     }
@@ -293,33 +298,60 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
     }
 
     public void createLevelOrder(ArrayList<E> l) {
-    	root = createLevelOrderHelper(l, root, 0);
+    	root = createLevelOrderHelper(l, null, 0);
+    	modCount++;
     }
 
+    // p is the parent of the node to be created at index i
     private Node<E> createLevelOrderHelper(ArrayList<E> l, Node<E> p, int i) {
 		if (i<l.size()) {
 			Node<E> node = createNode(l.get(i), p, null, null);
-	        node.left = createLevelOrderHelper(l, node.left, 2*i+1);
-	        node.right = createLevelOrderHelper(l, node.right, 2*i+2);
+	        node.left = createLevelOrderHelper(l, node, 2*i+1);
+	        node.right = createLevelOrderHelper(l, node, 2*i+2);
 	        size++; 
 	        return node; 
 		}
-    	return p; 
+    	return null; 
     }
  
     public void createLevelOrder(E[] arr) {
-        root = createLevelOrderHelper(arr, root, 0);
+        root = createLevelOrderHelper(arr, null, 0);
+        modCount++;
     }
 
     private Node<E> createLevelOrderHelper(E[] arr, Node<E> p, int i) {
         if (i < arr.length) {
     	Node<E> node = createNode(arr[i], p, null, null);
-        node.left = createLevelOrderHelper(arr, node.left, 2*i+1);
-        node.right = createLevelOrderHelper(arr, node.right, 2*i+2);
+        node.left = createLevelOrderHelper(arr, node, 2*i+1);
+        node.right = createLevelOrderHelper(arr, node, 2*i+2);
         size++; 
         return node; 
         }
-        return p; 
+        return null; 
+    }
+
+    /**
+     * Builds a tree of minimal height whose inorder traversal is the given
+     * list, in O(n) time. Each subtree is rooted at the middle element of its
+     * range, so the depths of any two leaves differ by at most one.
+     *
+     * @param l the elements, in the order an inorder traversal should report them
+     */
+    public void createInorder(List<E> l) {
+        root = createInorderHelper(l, null, 0, l.size() - 1);
+        modCount++;
+    }
+
+    private Node<E> createInorderHelper(List<E> l, Node<E> parent, int low, int high) {
+        if (low > high) {
+            return null;
+        }
+        int mid = (low + high) >>> 1;
+        Node<E> node = createNode(l.get(mid), parent, null, null);
+        node.left = createInorderHelper(l, node, low, mid - 1);
+        node.right = createInorderHelper(l, node, mid + 1, high);
+        size++;
+        return node;
     }
     
     public int countExternalRecursive() {
@@ -425,7 +457,7 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
 
 		@Override
 		public String toString() {
-			return "[" + element+"]";
+			return "" + element;
 		}
 	
     }
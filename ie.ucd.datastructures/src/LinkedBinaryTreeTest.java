@@ -1,6 +1,11 @@
 import org.junit.jupiter.api.Test;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class LinkedBinaryTreeTest {
 
@@ -107,4 +112,31 @@ class LinkedBinaryTreeTest {
 		assertEquals(3, bt.height(bt.root()));
 	}
 
+	@Test
+	void testTraversals() {
+		LinkedBinaryTree<Integer> bt = new LinkedBinaryTree<Integer>();
+
+		Integer [] arr = new Integer[] {1,2,3,4,5,6,7,8,9,10,11,12};
+		bt.createLevelOrder(arr);
+		assertEquals("[1, 2, 4, 8, 9, 5, 10, 11, 3, 6, 12, 7]", bt.preorder().toString());
+		assertEquals("[8, 9, 4, 10, 11, 5, 2, 12, 6, 7, 3, 1]", bt.postorder().toString());
+		assertEquals("[1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12]", bt.breadthfirst().toString());
+
+		LinkedBinaryTree<Integer> empty = new LinkedBinaryTree<Integer>();
+		assertFalse(empty.inorder().iterator().hasNext());
+		assertFalse(empty.preorder().iterator().hasNext());
+		assertFalse(empty.postorder().iterator().hasNext());
+		assertFalse(empty.breadthfirst().iterator().hasNext());
+	}
+
+	@Test
+	void testTraversalFailsFast() {
+		LinkedBinaryTree<Integer> bt = new LinkedBinaryTree<Integer>();
+		bt.createLevelOrder(new Integer[] {1,2,3});
+		Iterator<Position<Integer>> it = bt.inorder().iterator();
+		it.next();
+		bt.addLeft(bt.left(bt.root()), 4);
+		assertThrows(ConcurrentModificationException.class, it::next);
+	}
+
 }
@@ -0,0 +1,322 @@
+import java.util.Arrays;
+
+/**
+ * A hash map from long keys to int values, using open addressing with linear
+ * probing over flat long and int arrays.
+ * <p>
+ * Unlike a ChainHashMap&lt;Long, Integer&gt;, keys and values are never
+ * boxed, so lookups and in-place updates such as addTo and increment do not
+ * allocate. A key that is not in the map reads as 0. Key 0 marks an empty slot
+ * of the table, so an entry with key 0 is kept in dedicated fields instead.
+ * Removal shifts later entries of the probe run back rather than leaving
+ * tombstones behind.
+ */
+public class LongIntHashMap {
+
+    /**
+     * Callback used to visit the entries of the map without allocating.
+     */
+    public interface Procedure {
+        void apply(long key, int value);
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;                 // 0 marks an empty slot
+    private int[] values;
+    private int mask;                    // capacity - 1 (capacity is a power of two)
+    private int n = 0;                   // number of entries stored in the table
+    private boolean hasZeroKey = false;  // whether key 0 is in the map
+    private int zeroValue = 0;           // value associated with key 0
+
+    /**
+     * Creates an empty map with a table of 16 slots.
+     */
+    public LongIntHashMap() {
+        this(DEFAULT_CAPACITY / 2);
+    }
+
+    /**
+     * Creates an empty map that can hold the given number of entries without resizing.
+     *
+     * @param expected expected number of entries
+     */
+    public LongIntHashMap(int expected) {
+        allocate(tableSizeFor(expected));
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return n + (hasZeroKey ? 1 : 0);
+    }
+
+    /**
+     * Tests whether the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Tests whether the map contains an entry with the given key.
+     *
+     * @param key the key of interest
+     * @return true if such an entry exists, false otherwise
+     */
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns the value associated with the given key, or 0 if no such entry exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or 0 if no such entry exists
+     */
+    public int get(long key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Returns the value associated with the given key, or the given default if
+     * no such entry exists.
+     *
+     * @param key          the key whose associated value is to be returned
+     * @param defaultValue the value to return if the key is not in the map
+     * @return the associated value, or defaultValue if no such entry exists
+     */
+    public int getOrDefault(long key, int defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int j = indexOf(key);
+        return j >= 0 ? values[j] : defaultValue;
+    }
+
+    /**
+     * Associates the given value with the given key, returning the previous
+     * value (or 0 if there was no such entry).
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or 0, if no such entry)
+     */
+    public int put(long key, int value) {
+        if (key == 0) {
+            int old = zeroValue;
+            zeroValue = value;
+            hasZeroKey = true;
+            return old;
+        }
+        int j = indexOf(key);
+        if (j >= 0) {
+            int old = values[j];
+            values[j] = value;
+            return old;
+        }
+        insertAt(-(j + 1), key, value);
+        return 0;
+    }
+
+    /**
+     * Adds delta to the value associated with the given key, treating a
+     * missing entry as 0, and returns the updated value.
+     *
+     * @param key   the key whose value is updated
+     * @param delta the amount to add
+     * @return the value associated with the key after the update
+     */
+    public int addTo(long key, int delta) {
+        if (key == 0) {
+            hasZeroKey = true;
+            return zeroValue += delta;
+        }
+        int j = indexOf(key);
+        if (j >= 0) {
+            return values[j] += delta;
+        }
+        insertAt(-(j + 1), key, delta);
+        return delta;
+    }
+
+    /**
+     * Adds one to the value associated with the given key and returns the updated value.
+     *
+     * @param key the key whose value is incremented
+     * @return the value associated with the key after the update
+     */
+    public int increment(long key) {
+        return addTo(key, 1);
+    }
+
+    /**
+     * Removes the entry with the given key, if present, and returns its value.
+     * Otherwise does nothing and returns 0.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the key (or 0, if no such entry)
+     */
+    public int remove(long key) {
+        if (key == 0) {
+            int old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return old;
+        }
+        int j = indexOf(key);
+        if (j < 0) {
+            return 0;
+        }
+        int old = values[j];
+        shiftKeys(j);
+        n--;
+        return old;
+    }
+
+    /**
+     * Removes all entries from the map, keeping the current table.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, 0);
+        n = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    /**
+     * Applies the given procedure to every entry of the map.
+     *
+     * @param procedure the callback receiving each key and value
+     */
+    public void forEach(Procedure procedure) {
+        if (hasZeroKey) {
+            procedure.apply(0, zeroValue);
+        }
+        for (int j = 0; j <= mask; j++) {
+            if (keys[j] != 0) {
+                procedure.apply(keys[j], values[j]);
+            }
+        }
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v));
+        return sb.append(']').toString();
+    }
+
+    // private utilities
+
+    /**
+     * Returns the smallest power of two table length keeping the load factor
+     * of the given number of entries at or below 1/2.
+     */
+    private static int tableSizeFor(int expected) {
+        int cap = DEFAULT_CAPACITY;
+        while (cap < 2L * expected && cap < (1 << 30)) {
+            cap <<= 1;
+        }
+        return cap;
+    }
+
+    /**
+     * Creates empty arrays of the given (power of two) length.
+     */
+    private void allocate(int cap) {
+        keys = new long[cap];
+        values = new int[cap];
+        mask = cap - 1;
+    }
+
+    /**
+     * Returns the home slot of a key, scrambling its bits so that sequential
+     * keys spread out over the table.
+     */
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the slot holding the given non-zero key, or -(j+1) where j is the
+     * empty slot at which the search stopped.
+     */
+    private int indexOf(long key) {
+        int j = slot(key);
+        while (keys[j] != 0) {
+            if (keys[j] == key) {
+                return j;
+            }
+            j = (j + 1) & mask;
+        }
+        return -(j + 1);
+    }
+
+    /**
+     * Stores a new entry in the empty slot j, growing the table if necessary.
+     */
+    private void insertAt(int j, long key, int value) {
+        keys[j] = key;
+        values[j] = value;
+        if (++n > (mask + 1) / 2) {          // keep load factor <= 0.5
+            rehash(2 * (mask + 1));
+        }
+    }
+
+    /**
+     * Empties slot j, moving back every later entry of the probe run that would
+     * otherwise become unreachable from its home slot.
+     */
+    private void shiftKeys(int j) {
+        while (true) {
+            int last = j;
+            j = (j + 1) & mask;
+            while (true) {
+                long key = keys[j];
+                if (key == 0) {
+                    keys[last] = 0;
+                    values[last] = 0;
+                    return;
+                }
+                int home = slot(key);
+                // the entry may move to last unless its home lies cyclically in (last, j]
+                if (last <= j ? (last >= home || home > j) : (last >= home && home > j)) {
+                    break;
+                }
+                j = (j + 1) & mask;
+            }
+            keys[last] = keys[j];
+            values[last] = values[j];
+        }
+    }
+
+    /**
+     * Moves every entry into a new table of the given length.
+     */
+    private void rehash(int newCap) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCap);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int j = slot(oldKeys[i]);
+                while (keys[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongIntHashMapTest {
+
+	@Test
+	void testEdgeKeys() {
+		LongIntHashMap m = new LongIntHashMap();
+		assertFalse(m.containsKey(0));
+		assertEquals(0, m.put(0, 5));
+		assertEquals(0, m.put(Long.MIN_VALUE, 6));
+		assertEquals(0, m.put(Long.MAX_VALUE, 7));
+		assertEquals(0, m.put(-1, 8));
+		assertEquals(5, m.put(0, 9));
+		assertTrue(m.containsKey(0));
+		assertEquals(9, m.get(0));
+		assertEquals(6, m.get(Long.MIN_VALUE));
+		assertEquals(7, m.get(Long.MAX_VALUE));
+		assertEquals(8, m.get(-1));
+		assertEquals(4, m.size());
+		assertEquals(9, m.remove(0));
+		assertFalse(m.containsKey(0));
+		assertEquals(0, m.remove(0));
+		assertEquals(3, m.size());
+		assertEquals(-1, m.getOrDefault(0, -1));
+	}
+
+	@Test
+	void testAddTo() {
+		LongIntHashMap m = new LongIntHashMap();
+		assertEquals(1, m.increment(7));
+		assertEquals(2, m.increment(7));
+		assertEquals(12, m.addTo(7, 10));
+		assertEquals(-3, m.addTo(0, -3));
+		assertEquals(1, m.increment(Long.MIN_VALUE));
+		assertEquals(12, m.get(7));
+		assertEquals(-3, m.get(0));
+		assertEquals(3, m.size());
+	}
+
+	@Test
+	void testResize() {
+		LongIntHashMap m = new LongIntHashMap(1);
+		for (int i = 0; i < 100000; i++) {
+			m.put(i * 0x100000000L, i);                 // keys differing only in their high bits
+		}
+		assertEquals(100000, m.size());
+		for (int i = 0; i < 100000; i++) {
+			assertEquals(i, m.get(i * 0x100000000L));
+		}
+	}
+
+	@Test
+	void testRemoveShiftsBack() {
+		// interleaved inserts and removals, checked against java.util.HashMap, so that
+		// removals land in the middle of probe runs and must shift later entries back
+		Random rnd = new Random(3);
+		LongIntHashMap m = new LongIntHashMap();
+		HashMap<Long, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 200000; i++) {
+			long key = rnd.nextInt(3000) - 1500;
+			if (rnd.nextInt(3) == 0) {
+				Integer old = expected.remove(key);
+				assertEquals(old == null ? 0 : old, m.remove(key));
+			} else {
+				Integer old = expected.put(key, i);
+				assertEquals(old == null ? 0 : old, m.put(key, i));
+			}
+		}
+		assertEquals(expected.size(), m.size());
+		for (long key = -1500; key < 1500; key++) {
+			assertEquals(expected.containsKey(key), m.containsKey(key));
+			assertEquals(expected.getOrDefault(key, 0), m.get(key));
+		}
+	}
+
+	@Test
+	void testForEach() {
+		LongIntHashMap m = new LongIntHashMap();
+		HashMap<Long, Integer> expected = new HashMap<>();
+		for (long k : new long[] {0, 1, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 40}) {
+			m.put(k, (int) (k % 1000));
+			expected.put(k, (int) (k % 1000));
+		}
+		HashMap<Long, Integer> seen = new HashMap<>();
+		m.forEach((k, v) -> assertEquals(null, seen.put(k, v)));
+		assertEquals(expected, seen);
+		m.clear();
+		assertEquals(0, m.size());
+		assertFalse(m.containsKey(0));
+	}
+}
@@ -0,0 +1,321 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A hash map from long keys to object values, using open addressing with
+ * linear probing over flat long and value arrays.
+ * <p>
+ * The primitive get, put, remove and containsKey methods never box the key;
+ * the Map methods taking a Long are also supported and simply unbox it. Key 0
+ * marks an empty slot of the table, so an entry with key 0 is kept in
+ * dedicated fields instead.
+ */
+public class LongObjectHashMap<V> extends AbstractMap<Long, V> {
+
+    /**
+     * Callback used to visit the entries of the map without allocating.
+     */
+    public interface Procedure<V> {
+        void apply(long key, V value);
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;                 // 0 marks an empty slot
+    private V[] values;
+    private int mask;                    // capacity - 1 (capacity is a power of two)
+    private int n = 0;                   // number of entries stored in the table
+    private boolean hasZeroKey = false;  // whether key 0 is in the map
+    private V zeroValue = null;          // value associated with key 0
+
+    /**
+     * Creates an empty map with a table of 16 slots.
+     */
+    public LongObjectHashMap() {
+        this(DEFAULT_CAPACITY / 2);
+    }
+
+    /**
+     * Creates an empty map that can hold the given number of entries without resizing.
+     *
+     * @param expected expected number of entries
+     */
+    public LongObjectHashMap(int expected) {
+        allocate(tableSizeFor(expected));
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+        return n + (hasZeroKey ? 1 : 0);
+    }
+
+    /**
+     * Tests whether the map contains an entry with the given key.
+     *
+     * @param key the key of interest
+     * @return true if such an entry exists, false otherwise
+     */
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns the value associated with the given key, or null if no such entry exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    public V get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int j = indexOf(key);
+        return j >= 0 ? values[j] : null;
+    }
+
+    /**
+     * Associates the given value with the given key, returning the previous
+     * value (or null if there was no such entry).
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such entry)
+     */
+    public V put(long key, V value) {
+        if (key == 0) {
+            V old = zeroValue;
+            zeroValue = value;
+            hasZeroKey = true;
+            return old;
+        }
+        int j = indexOf(key);
+        if (j >= 0) {
+            V old = values[j];
+            values[j] = value;
+            return old;
+        }
+        insertAt(-(j + 1), key, value);
+        return null;
+    }
+
+    /**
+     * Removes the entry with the given key, if present, and returns its value.
+     * Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the key (or null, if no such entry)
+     */
+    public V remove(long key) {
+        if (key == 0) {
+            V old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            return old;
+        }
+        int j = indexOf(key);
+        if (j < 0) {
+            return null;
+        }
+        V old = values[j];
+        shiftKeys(j);
+        n--;
+        return old;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public V get(Long key) {
+        return get(key.longValue());
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaced the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     */
+    @Override
+    public V put(Long key, V value) {
+        return put(key.longValue(), value);
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     */
+    @Override
+    public V remove(Long key) {
+        return remove(key.longValue());
+    }
+
+    /**
+     * Removes all entries from the map, keeping the current table.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(values, null);
+        n = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+    /**
+     * Applies the given procedure to every entry of the map.
+     *
+     * @param procedure the callback receiving each key and value
+     */
+    public void forEach(Procedure<V> procedure) {
+        if (hasZeroKey) {
+            procedure.apply(0L, zeroValue);
+        }
+        for (int j = 0; j <= mask; j++) {
+            if (keys[j] != 0) {
+                procedure.apply(keys[j], values[j]);
+            }
+        }
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<Long, V>> entrySet() {
+        ArrayList<Entry<Long, V>> buffer = new ArrayList<>(size());
+        forEach((k, v) -> buffer.add(new MapEntry<>(k, v)));
+        return buffer;
+    }
+
+    public String toString() {
+        return entrySet().toString();
+    }
+
+    // private utilities
+
+    /**
+     * Returns the smallest power of two table length keeping the load factor
+     * of the given number of entries at or below 1/2.
+     */
+    private static int tableSizeFor(int expected) {
+        int cap = DEFAULT_CAPACITY;
+        while (cap < 2L * expected && cap < (1 << 30)) {
+            cap <<= 1;
+        }
+        return cap;
+    }
+
+    /**
+     * Creates empty arrays of the given (power of two) length.
+     */
+    @SuppressWarnings({"unchecked"})
+    private void allocate(int cap) {
+        keys = new long[cap];
+        values = (V[]) new Object[cap];
+        mask = cap - 1;
+    }
+
+    /**
+     * Returns the home slot of a key, scrambling its bits so that sequential
+     * keys spread out over the table.
+     */
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the slot holding the given non-zero key, or -(j+1) where j is the
+     * empty slot at which the search stopped.
+     */
+    private int indexOf(long key) {
+        int j = slot(key);
+        while (keys[j] != 0) {
+            if (keys[j] == key) {
+                return j;
+            }
+            j = (j + 1) & mask;
+        }
+        return -(j + 1);
+    }
+
+    /**
+     * Stores a new entry in the empty slot j, growing the table if necessary.
+     */
+    private void insertAt(int j, long key, V value) {
+        keys[j] = key;
+        values[j] = value;
+        if (++n > (mask + 1) / 2) {          // keep load factor <= 0.5
+            rehash(2 * (mask + 1));
+        }
+    }
+
+    /**
+     * Empties slot j, moving back every later entry of the probe run that would
+     * otherwise become unreachable from its home slot.
+     */
+    private void shiftKeys(int j) {
+        while (true) {
+            int last = j;
+            j = (j + 1) & mask;
+            while (true) {
+                long key = keys[j];
+                if (key == 0) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+                int home = slot(key);
+                // the entry may move to last unless its home lies cyclically in (last, j]
+                if (last <= j ? (last >= home || home > j) : (last >= home && home > j)) {
+                    break;
+                }
+                j = (j + 1) & mask;
+            }
+            keys[last] = keys[j];
+            values[last] = values[j];
+        }
+    }
+
+    /**
+     * Moves every entry into a new table of the given length.
+     */
+    private void rehash(int newCap) {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(newCap);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int j = slot(oldKeys[i]);
+                while (keys[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
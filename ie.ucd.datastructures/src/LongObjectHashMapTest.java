@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongObjectHashMapTest {
+
+	@Test
+	void testEdgeKeys() {
+		LongObjectHashMap<String> m = new LongObjectHashMap<>();
+		assertNull(m.put(0, "zero"));
+		assertNull(m.put(Long.MIN_VALUE, "min"));
+		assertNull(m.put(Long.MAX_VALUE, "max"));
+		assertEquals("zero", m.put(0, "nought"));
+		assertEquals("nought", m.get(0));
+		assertEquals("min", m.get(Long.valueOf(Long.MIN_VALUE)));
+		assertEquals("max", m.get(Long.MAX_VALUE));
+		assertTrue(m.containsKey(0));
+		assertEquals(3, m.size());
+		assertEquals("nought", m.remove(0));
+		assertFalse(m.containsKey(0));
+		assertNull(m.remove(0));
+		assertNull(m.get(0));
+		assertEquals("min", m.remove(Long.valueOf(Long.MIN_VALUE)));
+		assertEquals(1, m.size());
+	}
+
+	@Test
+	void testNullValues() {
+		LongObjectHashMap<String> m = new LongObjectHashMap<>();
+		assertNull(m.put(0, null));
+		assertNull(m.put(5, null));
+		assertTrue(m.containsKey(0));
+		assertTrue(m.containsKey(5));
+		assertEquals(2, m.size());
+	}
+
+	@Test
+	void testResize() {
+		LongObjectHashMap<Integer> m = new LongObjectHashMap<>(1);
+		for (int i = 0; i < 100000; i++) {
+			m.put(i * 0x100000000L, Integer.valueOf(i));
+		}
+		assertEquals(100000, m.size());
+		for (int i = 0; i < 100000; i++) {
+			assertEquals(i, m.get(i * 0x100000000L));
+		}
+	}
+
+	@Test
+	void testRemoveShiftsBack() {
+		Random rnd = new Random(3);
+		LongObjectHashMap<Integer> m = new LongObjectHashMap<>();
+		HashMap<Long, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 200000; i++) {
+			long key = rnd.nextInt(3000) - 1500;
+			if (rnd.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), m.remove(key));
+			} else {
+				assertEquals(expected.put(key, i), m.put(key, Integer.valueOf(i)));
+			}
+		}
+		assertEquals(expected.size(), m.size());
+		for (long key = -1500; key < 1500; key++) {
+			assertEquals(expected.containsKey(key), m.containsKey(key));
+			assertEquals(expected.get(key), m.get(key));
+		}
+	}
+
+	@Test
+	void testEntrySet() {
+		LongObjectHashMap<String> m = new LongObjectHashMap<>();
+		HashMap<Long, String> expected = new HashMap<>();
+		for (long k : new long[] {0, 1, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 40}) {
+			m.put(k, "v" + k);
+			expected.put(k, "v" + k);
+		}
+		HashMap<Long, String> seen = new HashMap<>();
+		for (Entry<Long, String> e : m.entrySet()) {
+			assertNull(seen.put(e.getKey(), e.getValue()));
+		}
+		assertEquals(expected, seen);
+		HashMap<Long, String> visited = new HashMap<>();
+		m.forEach((k, v) -> visited.put(k, v));
+		assertEquals(expected, visited);
+		m.clear();
+		assertEquals(0, m.size());
+		assertFalse(m.containsKey(0));
+	}
+}
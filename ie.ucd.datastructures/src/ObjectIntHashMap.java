@@ -0,0 +1,354 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A hash map from object keys to int values, using open addressing with
+ * linear probing over flat key and int arrays.
+ * <p>
+ * Counting with a ChainHashMap&lt;K, Integer&gt; allocates a new Integer on
+ * every update; here the counts live in an int array and are updated in place
+ * by addTo and increment. The Map methods are also supported, boxing values on
+ * the way in and out. Null keys are not supported, as null marks an empty slot,
+ * and neither are null values, as values are ints.
+ */
+public class ObjectIntHashMap<K> extends AbstractMap<K, Integer> {
+
+    /**
+     * Callback used to visit the entries of the map without allocating.
+     */
+    public interface Procedure<K> {
+        void apply(K key, int value);
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private K[] keys;                    // null marks an empty slot
+    private int[] values;
+    private int mask;                    // capacity - 1 (capacity is a power of two)
+    private int n = 0;                   // number of entries
+
+    /**
+     * Creates an empty map with a table of 16 slots.
+     */
+    public ObjectIntHashMap() {
+        this(DEFAULT_CAPACITY / 2);
+    }
+
+    /**
+     * Creates an empty map that can hold the given number of entries without resizing.
+     *
+     * @param expected expected number of entries
+     */
+    public ObjectIntHashMap(int expected) {
+        allocate(tableSizeFor(expected));
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Tests whether the map contains an entry with the given key.
+     *
+     * @param key the key of interest
+     * @return true if such an entry exists, false otherwise
+     */
+    public boolean containsKey(K key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns the value associated with the given key, or 0 if no such entry exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or 0 if no such entry exists
+     */
+    public int getInt(K key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Returns the value associated with the given key, or the given default if
+     * no such entry exists.
+     *
+     * @param key          the key whose associated value is to be returned
+     * @param defaultValue the value to return if the key is not in the map
+     * @return the associated value, or defaultValue if no such entry exists
+     */
+    public int getOrDefault(K key, int defaultValue) {
+        int j = indexOf(key);
+        return j >= 0 ? values[j] : defaultValue;
+    }
+
+    /**
+     * Associates the given value with the given key, returning the previous
+     * value (or 0 if there was no such entry).
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or 0, if no such entry)
+     */
+    public int putInt(K key, int value) {
+        int j = indexOf(key);
+        if (j >= 0) {
+            int old = values[j];
+            values[j] = value;
+            return old;
+        }
+        insertAt(-(j + 1), key, value);
+        return 0;
+    }
+
+    /**
+     * Adds delta to the value associated with the given key, treating a
+     * missing entry as 0, and returns the updated value.
+     *
+     * @param key   the key whose value is updated
+     * @param delta the amount to add
+     * @return the value associated with the key after the update
+     */
+    public int addTo(K key, int delta) {
+        int j = indexOf(key);
+        if (j >= 0) {
+            return values[j] += delta;
+        }
+        insertAt(-(j + 1), key, delta);
+        return delta;
+    }
+
+    /**
+     * Adds one to the value associated with the given key and returns the updated value.
+     *
+     * @param key the key whose value is incremented
+     * @return the value associated with the key after the update
+     */
+    public int increment(K key) {
+        return addTo(key, 1);
+    }
+
+    /**
+     * Removes the entry with the given key, if present, and returns its value.
+     * Otherwise does nothing and returns 0.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the key (or 0, if no such entry)
+     */
+    public int removeInt(K key) {
+        int j = indexOf(key);
+        if (j < 0) {
+            return 0;
+        }
+        int old = values[j];
+        shiftKeys(j);
+        n--;
+        return old;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public Integer get(K key) {
+        int j = indexOf(key);
+        return j >= 0 ? values[j] : null;
+    }
+
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaced the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     * @throws IllegalArgumentException if value is null, as values are stored as ints
+     */
+    @Override
+    public Integer put(K key, Integer value) throws IllegalArgumentException {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int j = indexOf(key);
+        if (j >= 0) {
+            int old = values[j];
+            values[j] = value;
+            return old;
+        }
+        insertAt(-(j + 1), key, value);
+        return null;
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     */
+    @Override
+    public Integer remove(K key) {
+        if (indexOf(key) < 0) {
+            return null;
+        }
+        return removeInt(key);
+    }
+
+    /**
+     * Removes all entries from the map, keeping the current table.
+     */
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, 0);
+        n = 0;
+    }
+
+    /**
+     * Applies the given procedure to every entry of the map.
+     *
+     * @param procedure the callback receiving each key and value
+     */
+    public void forEach(Procedure<K> procedure) {
+        for (int j = 0; j <= mask; j++) {
+            if (keys[j] != null) {
+                procedure.apply(keys[j], values[j]);
+            }
+        }
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, Integer>> entrySet() {
+        ArrayList<Entry<K, Integer>> buffer = new ArrayList<>(n);
+        for (int j = 0; j <= mask; j++) {
+            if (keys[j] != null) {
+                buffer.add(new MapEntry<>(keys[j], values[j]));
+            }
+        }
+        return buffer;
+    }
+
+    public String toString() {
+        return entrySet().toString();
+    }
+
+    // private utilities
+
+    /**
+     * Returns the smallest power of two table length keeping the load factor
+     * of the given number of entries at or below 1/2.
+     */
+    private static int tableSizeFor(int expected) {
+        int cap = DEFAULT_CAPACITY;
+        while (cap < 2L * expected && cap < (1 << 30)) {
+            cap <<= 1;
+        }
+        return cap;
+    }
+
+    /**
+     * Creates empty arrays of the given (power of two) length.
+     */
+    @SuppressWarnings({"unchecked"})
+    private void allocate(int cap) {
+        keys = (K[]) new Object[cap];
+        values = new int[cap];
+        mask = cap - 1;
+    }
+
+    /**
+     * Returns the home slot of a key, spreading the high bits of its hash code
+     * over the low bits used to index the table.
+     */
+    private int slot(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the slot holding the given key, or -(j+1) where j is the empty
+     * slot at which the search stopped.
+     */
+    private int indexOf(K key) {
+        int j = slot(key);
+        while (keys[j] != null) {
+            if (keys[j].equals(key)) {
+                return j;
+            }
+            j = (j + 1) & mask;
+        }
+        return -(j + 1);
+    }
+
+    /**
+     * Stores a new entry in the empty slot j, growing the table if necessary.
+     */
+    private void insertAt(int j, K key, int value) {
+        keys[j] = key;
+        values[j] = value;
+        if (++n > (mask + 1) / 2) {          // keep load factor <= 0.5
+            rehash(2 * (mask + 1));
+        }
+    }
+
+    /**
+     * Empties slot j, moving back every later entry of the probe run that would
+     * otherwise become unreachable from its home slot.
+     */
+    private void shiftKeys(int j) {
+        while (true) {
+            int last = j;
+            j = (j + 1) & mask;
+            while (true) {
+                K key = keys[j];
+                if (key == null) {
+                    keys[last] = null;
+                    values[last] = 0;
+                    return;
+                }
+                int home = slot(key);
+                // the entry may move to last unless its home lies cyclically in (last, j]
+                if (last <= j ? (last >= home || home > j) : (last >= home && home > j)) {
+                    break;
+                }
+                j = (j + 1) & mask;
+            }
+            keys[last] = keys[j];
+            values[last] = values[j];
+        }
+    }
+
+    /**
+     * Moves every entry into a new table of the given length.
+     */
+    private void rehash(int newCap) {
+        K[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCap);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int j = slot(oldKeys[i]);
+                while (keys[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObjectIntHashMapTest {
+
+	@Test
+	void testPutGet() {
+		ObjectIntHashMap<String> m = new ObjectIntHashMap<>();
+		assertEquals(0, m.putInt("a", 1));
+		assertNull(m.put("b", 2));
+		assertEquals(1, m.put("a", 3));
+		assertEquals(3, m.getInt("a"));
+		assertEquals(2, m.get("b"));
+		assertEquals(0, m.getInt("c"));
+		assertNull(m.get("c"));
+		assertEquals(-1, m.getOrDefault("c", -1));
+		assertEquals(2, m.size());
+		assertThrows(IllegalArgumentException.class, () -> m.put("c", null));
+		assertFalse(m.containsKey("c"));
+	}
+
+	@Test
+	void testCollidingKeys() {
+		// "Aa" and "BB" have the same hashCode, as do all strings built from them
+		ObjectIntHashMap<String> m = new ObjectIntHashMap<>();
+		String[] keys = {"AaAa", "AaBB", "BBAa", "BBBB"};
+		for (int i = 0; i < keys.length; i++) {
+			m.putInt(keys[i], i);
+		}
+		assertEquals(1, m.removeInt("AaBB"));
+		assertFalse(m.containsKey("AaBB"));
+		assertEquals(0, m.getInt("AaAa"));
+		assertEquals(2, m.getInt("BBAa"));
+		assertEquals(3, m.getInt("BBBB"));
+		assertEquals(3, m.size());
+	}
+
+	@Test
+	void testAddTo() {
+		ObjectIntHashMap<String> m = new ObjectIntHashMap<>();
+		assertEquals(1, m.increment("x"));
+		assertEquals(2, m.increment("x"));
+		assertEquals(12, m.addTo("x", 10));
+		assertEquals(-3, m.addTo("y", -3));
+		assertEquals(12, m.getInt("x"));
+		assertEquals(2, m.size());
+	}
+
+	@Test
+	void testResize() {
+		ObjectIntHashMap<Integer> m = new ObjectIntHashMap<>(1);
+		for (int i = 0; i < 100000; i++) {
+			m.putInt(i * 1024, i);                 // keys differing only above their low bits
+		}
+		assertEquals(100000, m.size());
+		for (int i = 0; i < 100000; i++) {
+			assertEquals(i, m.getInt(i * 1024));
+		}
+	}
+
+	@Test
+	void testRemoveShiftsBack() {
+		Random rnd = new Random(3);
+		ObjectIntHashMap<Integer> m = new ObjectIntHashMap<>();
+		HashMap<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 200000; i++) {
+			int key = rnd.nextInt(3000) - 1500;
+			if (rnd.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), m.remove(key));
+			} else {
+				assertEquals(expected.put(key, i), m.put(key, i));
+			}
+		}
+		assertEquals(expected.size(), m.size());
+		for (int key = -1500; key < 1500; key++) {
+			assertEquals(expected.containsKey(key), m.containsKey(key));
+			assertEquals(expected.get(key), m.get(key));
+		}
+	}
+
+	@Test
+	void testEntrySet() {
+		ObjectIntHashMap<String> m = new ObjectIntHashMap<>();
+		HashMap<String, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			m.putInt("k" + i, i);
+			expected.put("k" + i, i);
+		}
+		HashMap<String, Integer> seen = new HashMap<>();
+		for (Entry<String, Integer> e : m.entrySet()) {
+			assertNull(seen.put(e.getKey(), e.getValue()));
+		}
+		assertEquals(expected, seen);
+		HashMap<String, Integer> visited = new HashMap<>();
+		m.forEach((k, v) -> visited.put(k, v));
+		assertEquals(expected, visited);
+		m.clear();
+		assertEquals(0, m.size());
+		assertTrue(m.isEmpty());
+	}
+}
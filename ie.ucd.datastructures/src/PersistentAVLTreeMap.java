@@ -0,0 +1,448 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A persistent sorted map using an AVL tree whose nodes are never modified.
+ * <p>
+ * An update copies only the nodes on the path from the root to the changed
+ * position, rebalancing the copies as it goes; every other subtree is shared
+ * with the previous version. A version of the map is therefore nothing more
+ * than a root reference: snapshot() runs in O(1) time, and each update costs
+ * O(log n) time and O(log n) new nodes.
+ * <p>
+ * put and remove replace the root of this map with an atomic compare-and-set,
+ * retrying if another thread got there first, so readers never block writers
+ * and a reader always sees one complete version. plus and minus leave this
+ * map alone and return the updated version as a new map. Every node also
+ * records the size of its subtree, so size() is O(1) in every version.
+ */
+public class PersistentAVLTreeMap<K, V> extends AbstractSortedMap<K, V> {
+
+    // ---------------- nested Node class ----------------
+    private static final class Node<K, V> implements Entry<K, V> {
+        final K key;
+        final V value;
+        final Node<K, V> left, right;
+        final int height;                // 1 for a leaf
+        final int size;                  // number of nodes in this subtree
+
+        Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public String toString() {
+            return "" + key;
+        }
+    } // ----------- end of nested Node class -----------
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<PersistentAVLTreeMap, Node> ROOT =
+            AtomicReferenceFieldUpdater.newUpdater(PersistentAVLTreeMap.class, Node.class, "root");
+
+    private volatile Node<K, V> root;
+
+    /**
+     * Constructs an empty map using the natural ordering of keys.
+     */
+    public PersistentAVLTreeMap() {
+        super();
+    }
+
+    /**
+     * Constructs an empty map using the given comparator to order keys.
+     *
+     * @param comp comparator defining the order of keys in the map
+     */
+    public PersistentAVLTreeMap(Comparator<K> comp) {
+        super(comp);
+    }
+
+    private PersistentAVLTreeMap(Comparator<K> comp, Node<K, V> root) {
+        super(comp);
+        this.root = root;
+    }
+
+    private static int height(Node<?, ?> n) {
+        return (n == null ? 0 : n.height);
+    }
+
+    private static int size(Node<?, ?> n) {
+        return (n == null ? 0 : n.size);
+    }
+
+    /**
+     * Returns a map holding the current version of this one, in O(1) time. The
+     * two maps share all of their nodes, but later updates to either one are
+     * not seen by the other.
+     *
+     * @return an independent map with the same entries
+     */
+    public PersistentAVLTreeMap<K, V> snapshot() {
+        return new PersistentAVLTreeMap<>(comparator(), root);
+    }
+
+    /**
+     * Returns a new map with the given entry added (or its value replaced),
+     * leaving this map unchanged.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the updated version of the map
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    public PersistentAVLTreeMap<K, V> plus(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        return new PersistentAVLTreeMap<>(comparator(), insert(root, key, value));
+    }
+
+    /**
+     * Returns a new map without the entry for the given key, leaving this map
+     * unchanged.
+     *
+     * @param key the key whose entry is to be left out
+     * @return the updated version of the map (this map, if the key is absent)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    public PersistentAVLTreeMap<K, V> minus(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Node<K, V> current = root;
+        if (find(current, key) == null) {
+            return this;
+        }
+        return new PersistentAVLTreeMap<>(comparator(), delete(current, key));
+    }
+
+    // public methods of the Map interface
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public V get(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Node<K, V> n = find(root, key);
+        return (n == null ? null : n.value);
+    }
+
+    /**
+     * Associates the given value with the given key, by installing a new
+     * version of the tree.
+     *
+     * @param key   key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        while (true) {
+            Node<K, V> current = root;
+            Node<K, V> old = find(current, key);
+            if (ROOT.compareAndSet(this, current, insert(current, key, value))) {
+                return (old == null ? null : old.value);
+            }
+        }
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, by installing a new
+     * version of the tree.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     */
+    @Override
+    public V remove(K key) throws IllegalArgumentException {
+        checkKey(key);
+        while (true) {
+            Node<K, V> current = root;
+            Node<K, V> old = find(current, key);
+            if (old == null) {
+                return null;
+            }
+            if (ROOT.compareAndSet(this, current, delete(current, key))) {
+                return old.value;
+            }
+        }
+    }
+
+    // additional behaviors of the SortedMap interface
+    @Override
+    public Entry<K, V> firstEntry() {
+        Node<K, V> n = root;
+        if (n != null) {
+            while (n.left != null) {
+                n = n.left;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public Entry<K, V> lastEntry() {
+        Node<K, V> n = root;
+        if (n != null) {
+            while (n.right != null) {
+                n = n.right;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return ceiling(root, key, true);
+    }
+
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return floor(root, key, true);
+    }
+
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return floor(root, key, false);
+    }
+
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return ceiling(root, key, false);
+    }
+
+    /**
+     * Returns an iterable containing all entries with keys in the range from
+     * <code>fromKey</code> inclusive to <code>toKey</code> exclusive.
+     *
+     * @return iterable with keys in desired range
+     * @throws IllegalArgumentException if <code>fromKey</code> or
+     *                                  <code>toKey</code> is not compatible with
+     *                                  the map
+     */
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+        return subMap(fromKey, true, toKey, false).entrySet();
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map. Each
+     * iteration runs over the version that was current when it started, so it
+     * is never disturbed by concurrent updates.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+        return () -> iteratorFrom(null, true, false);
+    }
+
+    /**
+     * Iterates over the current version with a stack of the nodes whose
+     * entries are still to come, since the nodes have no parent links.
+     */
+    @Override
+    protected Iterator<Entry<K, V>> iteratorFrom(K key, boolean inclusive, boolean descending) {
+        if (key != null) {
+            checkKey(key);
+        }
+        return new EntryIterator(root, key, inclusive, descending);
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(");
+        for (Entry<K, V> e : entrySet()) {
+            sb.append(e).append(", ");
+        }
+        return sb.append(")").toString();
+    }
+
+    // ---------------- nested EntryIterator class ----------------
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private final LinkedStack<Node<K, V>> pending = new LinkedStack<>();
+        private final boolean descending;
+
+        /* Pushes the path to the first node at or after key (in iteration order), skipping earlier subtrees. */
+        EntryIterator(Node<K, V> n, K key, boolean inclusive, boolean descending) {
+            this.descending = descending;
+            while (n != null) {
+                int c = (key == null ? (descending ? 1 : -1) : compare(key, n.key));
+                if (descending) {
+                    c = -c;
+                }
+                if (c < 0 || (c == 0 && inclusive)) {
+                    pending.push(n); // n comes after the start, and so may its near subtree
+                    n = (c == 0 ? null : descending ? n.right : n.left);
+                } else {
+                    n = (descending ? n.left : n.right);
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            return !pending.isEmpty();
+        }
+
+        public Entry<K, V> next() {
+            if (pending.isEmpty()) {
+                throw new NoSuchElementException("No more entries");
+            }
+            Node<K, V> answer = pending.pop();
+            for (Node<K, V> n = (descending ? answer.left : answer.right); n != null;
+                 n = (descending ? n.right : n.left)) {
+                pending.push(n);
+            }
+            return answer;
+        }
+    } // ----------- end of nested EntryIterator class -----------
+
+    // private utilities on immutable subtrees
+    private Node<K, V> find(Node<K, V> n, K key) {
+        while (n != null) {
+            int c = compare(key, n.key);
+            if (c == 0) {
+                return n;
+            }
+            n = (c < 0 ? n.left : n.right);
+        }
+        return null;
+    }
+
+    private Node<K, V> ceiling(Node<K, V> n, K key, boolean inclusive) {
+        Node<K, V> best = null;
+        while (n != null) {
+            int c = compare(key, n.key);
+            if (c == 0 && inclusive) {
+                return n;
+            }
+            if (c < 0) {
+                best = n;
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+        }
+        return best;
+    }
+
+    private Node<K, V> floor(Node<K, V> n, K key, boolean inclusive) {
+        Node<K, V> best = null;
+        while (n != null) {
+            int c = compare(key, n.key);
+            if (c == 0 && inclusive) {
+                return n;
+            }
+            if (c > 0) {
+                best = n;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return best;
+    }
+
+    /** Returns a copy of subtree n with the entry added or replaced. */
+    private Node<K, V> insert(Node<K, V> n, K key, V value) {
+        if (n == null) {
+            return new Node<>(key, value, null, null);
+        }
+        int c = compare(key, n.key);
+        if (c == 0) {
+            return new Node<>(n.key, value, n.left, n.right);
+        } else if (c < 0) {
+            return balance(n.key, n.value, insert(n.left, key, value), n.right);
+        } else {
+            return balance(n.key, n.value, n.left, insert(n.right, key, value));
+        }
+    }
+
+    /** Returns a copy of subtree n without key, which must be present. */
+    private Node<K, V> delete(Node<K, V> n, K key) {
+        int c = compare(key, n.key);
+        if (c < 0) {
+            return balance(n.key, n.value, delete(n.left, key), n.right);
+        } else if (c > 0) {
+            return balance(n.key, n.value, n.left, delete(n.right, key));
+        }
+        if (n.left == null) {
+            return n.right;
+        } else if (n.right == null) {
+            return n.left;
+        }
+        Node<K, V> successor = n.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, n.left, deleteMin(n.right));
+    }
+
+    private Node<K, V> deleteMin(Node<K, V> n) {
+        if (n.left == null) {
+            return n.right;
+        }
+        return balance(n.key, n.value, deleteMin(n.left), n.right);
+    }
+
+    /**
+     * Returns a new node for (key, value) over subtrees left and right, whose
+     * heights differ by at most two, performing the trinode restructuring
+     * needed to restore the AVL property.
+     */
+    private Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        if (height(left) > height(right) + 1) {
+            if (height(left.left) >= height(left.right)) { // single rotation
+                return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+            }
+            Node<K, V> middle = left.right; // double rotation
+            return new Node<>(middle.key, middle.value, new Node<>(left.key, left.value, left.left, middle.left),
+                    new Node<>(key, value, middle.right, right));
+        }
+        if (height(right) > height(left) + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+            }
+            Node<K, V> middle = right.left;
+            return new Node<>(middle.key, middle.value, new Node<>(key, value, left, middle.left),
+                    new Node<>(right.key, right.value, middle.right, right.right));
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    /** Returns the height of the current version (for tests and debugging). */
+    int height() {
+        return height(root);
+    }
+}
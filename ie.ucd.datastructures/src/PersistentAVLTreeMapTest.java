@@ -0,0 +1,155 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentAVLTreeMapTest {
+
+	@Test
+	void testPutGetRemove() {
+		PersistentAVLTreeMap<Integer, String> m = new PersistentAVLTreeMap<>();
+		assertNull(m.firstEntry());
+		assertNull(m.put(2, "two"));
+		assertNull(m.put(1, "one"));
+		assertEquals("one", m.put(1, "uno"));
+		assertEquals(2, m.size());
+		assertEquals("uno", m.get(1));
+		assertEquals("two", m.remove(2));
+		assertNull(m.remove(2));
+		assertEquals(1, m.size());
+	}
+
+	@Test
+	void testSnapshotsAreUnaffectedByUpdates() {
+		PersistentAVLTreeMap<Integer, Integer> m = new PersistentAVLTreeMap<>();
+		for (int i = 0; i < 100; i++) {
+			m.put(i, i);
+		}
+		PersistentAVLTreeMap<Integer, Integer> snapshot = m.snapshot();
+		for (int i = 0; i < 100; i += 2) {
+			m.remove(i);
+		}
+		m.put(500, 500);
+		assertEquals(100, snapshot.size());
+		assertEquals(50, snapshot.get(50));
+		assertNull(snapshot.get(500));
+		assertEquals(51, m.size());
+
+		snapshot.put(1, -1); // updating the snapshot does not touch the map either
+		assertEquals(1, m.get(1));
+
+		PersistentAVLTreeMap<Integer, Integer> plus = m.plus(7, 70);
+		PersistentAVLTreeMap<Integer, Integer> minus = plus.minus(500);
+		assertEquals(7, m.get(7));
+		assertEquals(70, plus.get(7));
+		assertEquals(500, plus.get(500));
+		assertNull(minus.get(500));
+		assertSame(minus, minus.minus(12345));
+	}
+
+	@Test
+	void testUpdatesShareUntouchedNodes() {
+		PersistentAVLTreeMap<Integer, Integer> m = new PersistentAVLTreeMap<>();
+		for (int i = 0; i < 10000; i++) {
+			m.put(i, i);
+		}
+		PersistentAVLTreeMap<Integer, Integer> next = m.plus(5000, -1).minus(7777);
+		IdentityHashMap<Entry<Integer, Integer>, Boolean> old = new IdentityHashMap<>();
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			old.put(e, true);
+		}
+		int fresh = 0;
+		for (Entry<Integer, Integer> e : next.entrySet()) {
+			if (!old.containsKey(e)) {
+				fresh++;
+			}
+		}
+		// two updates copy at most two root-to-leaf paths, plus rotations
+		assertTrue(fresh <= 2 * (m.height() + 2), "copied " + fresh + " nodes");
+		assertTrue(m.height() <= 1.45 * Math.log(m.size() + 2) / Math.log(2));
+	}
+
+	@Test
+	void testAgainstTreeMap() {
+		PersistentAVLTreeMap<Integer, Integer> m = new PersistentAVLTreeMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rnd = new Random(15);
+		for (int i = 0; i < 30000; i++) {
+			int k = rnd.nextInt(1000);
+			if (rnd.nextInt(5) < 2) {
+				assertEquals(expected.remove(k), m.remove(k));
+			} else {
+				assertEquals(expected.put(k, i), m.put(k, i));
+			}
+			assertEquals(expected.size(), m.size());
+			int probe = rnd.nextInt(1020) - 10;
+			assertEquals(expected.ceilingKey(probe), key(m.ceilingEntry(probe)));
+			assertEquals(expected.floorKey(probe), key(m.floorEntry(probe)));
+			assertEquals(expected.lowerKey(probe), key(m.lowerEntry(probe)));
+			assertEquals(expected.higherKey(probe), key(m.higherEntry(probe)));
+		}
+		assertEquals(expected.firstKey(), key(m.firstEntry()));
+		assertEquals(expected.lastKey(), key(m.lastEntry()));
+		assertEquals(new ArrayList<>(expected.keySet()), keys(m.entrySet()));
+		assertEquals(new ArrayList<>(expected.descendingKeySet()), keys(m.descendingMap().entrySet()));
+		assertEquals(new ArrayList<>(expected.subMap(200, 300).keySet()), keys(m.subMap(200, 300)));
+		assertTrue(m.height() <= 1.45 * Math.log(m.size() + 2) / Math.log(2));
+	}
+
+	@Test
+	void testConcurrentReadersSeeCompleteVersions() throws InterruptedException {
+		PersistentAVLTreeMap<Integer, Integer> m = new PersistentAVLTreeMap<>();
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread reader = new Thread(() -> {
+			try {
+				while (!done.get()) {
+					// each snapshot is one complete version: ordered, and as large as it claims
+					PersistentAVLTreeMap<Integer, Integer> snapshot = m.snapshot();
+					int count = 0;
+					Integer previous = null;
+					for (Entry<Integer, Integer> e : snapshot.entrySet()) {
+						assertTrue(previous == null || previous < e.getKey());
+						previous = e.getKey();
+						count++;
+					}
+					assertEquals(snapshot.size(), count);
+				}
+			} catch (Throwable t) {
+				failure.set(t);
+			}
+		});
+		reader.start();
+		for (int i = 0; i < 20000; i += 2) {
+			PersistentAVLTreeMap<Integer, Integer> next = m.snapshot().plus(i, i).plus(i + 1, i + 1);
+			m.put(i, i);
+			m.put(i + 1, i + 1);
+			assertEquals(next.size(), m.size());
+		}
+		done.set(true);
+		reader.join();
+		assertNull(failure.get());
+		assertEquals(20000, m.size());
+	}
+
+	private static List<Integer> keys(Iterable<Entry<Integer, Integer>> entries) {
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : entries) {
+			keys.add(e.getKey());
+		}
+		return keys;
+	}
+
+	private static Integer key(Entry<Integer, Integer> e) {
+		return e == null ? null : e.getKey();
+	}
+}
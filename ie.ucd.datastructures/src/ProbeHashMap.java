@@ -0,0 +1,334 @@
+import java.util.ArrayList;
+
+/**
+ * Map implementation using hash table with open addressing.
+ * <p>
+ * Keys, values and their hash values are kept in flat parallel arrays, so a
+ * lookup touches the arrays directly instead of following a per-bucket list as
+ * in ChainHashMap. Three probing strategies are supported:
+ * 1) LINEAR    - probes slots h, h+1, h+2, ...
+ * 2) QUADRATIC - probes slots h, h+1, h+4, h+9, ...
+ * 3) ROBIN_HOOD - linear probing where an insertion takes the slot of any
+ *    entry that is closer to its home bucket, and removal shifts the following
+ *    entries back instead of leaving a marker behind.
+ * <p>
+ * LINEAR and QUADRATIC removals leave a tombstone in the slot. Once tombstones
+ * make up more than a quarter of the table, the live entries are compacted
+ * back into a fresh table of the same capacity.
+ * <p>
+ * Incremental resizing is not supported: an entry may sit anywhere along its
+ * probe sequence, so a key cannot be migrated by moving a single bucket.
+ */
+public class ProbeHashMap<K, V> extends AbstractHashMap<K, V> {
+
+    /**
+     * The probing strategies supported by this map.
+     */
+    public enum Probing { LINEAR, QUADRATIC, ROBIN_HOOD }
+
+    // sentinel marking the slot of a removed entry
+    private static final Object TOMBSTONE = new Object();
+
+    private Object[] keys;               // null (empty), TOMBSTONE or a key
+    private V[] values;                  // value stored alongside keys[j]
+    private int[] hashes;                // hash value (home bucket) of keys[j]
+    private int tombstones;              // number of TOMBSTONE slots in keys
+    private Probing probing = Probing.LINEAR;
+
+    /**
+     * Creates a linear probing hash table with capacity 17 and prime factor 109345121.
+     */
+    public ProbeHashMap() {
+        super();
+    }
+
+    /**
+     * Creates a linear probing hash table with given capacity and prime factor 109345121.
+     */
+    public ProbeHashMap(int cap) {
+        super(cap);
+    }
+
+    /**
+     * Creates a linear probing hash table with the given capacity and prime factor.
+     */
+    public ProbeHashMap(int cap, int p) {
+        super(cap, p);
+    }
+
+    /**
+     * Creates a hash table with capacity 17, prime factor 109345121 and the
+     * given probing strategy.
+     */
+    public ProbeHashMap(Probing probing) {
+        super();
+        this.probing = probing;
+    }
+
+    /**
+     * Creates a hash table with the given capacity, prime factor and probing strategy.
+     */
+    public ProbeHashMap(int cap, int p, Probing probing) {
+        super(cap, p);
+        this.probing = probing;
+    }
+
+    /**
+     * Returns the probing strategy used by this map.
+     *
+     * @return the probing strategy
+     */
+    public Probing getProbing() {
+        return probing;
+    }
+
+    /**
+     * Creates an empty table having length equal to current capacity.
+     */
+    @Override
+    @SuppressWarnings({"unchecked"})
+    protected void createTable() {
+        keys = new Object[capacity];
+        values = (V[]) new Object[capacity];
+        hashes = new int[capacity];
+        tombstones = 0;
+    }
+
+    // private utilities
+
+    /**
+     * Returns the index of the i-th slot in the probe sequence of bucket h.
+     * A quadratic sequence need not visit every slot of a table whose capacity
+     * is not prime, so after capacity steps it falls back to a linear sweep.
+     */
+    private int probe(int h, int i) {
+        if (probing == Probing.QUADRATIC && i < capacity) {
+            return (int) ((h + (long) i * i) % capacity);
+        }
+        return (h + i) % capacity;
+    }
+
+    /**
+     * Returns the length of a full probe sequence, after which every slot of
+     * the table has been visited at least once.
+     */
+    private int probeLength() {
+        return probing == Probing.QUADRATIC ? 2 * capacity : capacity;
+    }
+
+    /**
+     * Returns the distance of the entry stored at slot j from its home bucket.
+     */
+    private int displacement(int j) {
+        int d = j - hashes[j];
+        return d < 0 ? d + capacity : d;
+    }
+
+    /**
+     * Returns true if slot j holds an entry with key k and hash value h.
+     */
+    private boolean matches(int j, int h, K k) {
+        Object key = keys[j];
+        return key != null && key != TOMBSTONE && hashes[j] == h && key.equals(k);
+    }
+
+    /**
+     * Returns the slot holding key k, or -1 if no such entry exists.
+     */
+    private int findSlot(int h, K k) {
+        int length = probeLength();
+        for (int i = 0; i < length; i++) {
+            int j = probe(h, i);
+            if (keys[j] == null) {
+                return -1;                          // end of the probe sequence
+            }
+            if (matches(j, h, k)) {
+                return j;
+            }
+            // a Robin Hood table keeps entries ordered by displacement, so the
+            // search can stop as soon as it passes a "richer" entry
+            if (probing == Probing.ROBIN_HOOD && keys[j] != TOMBSTONE && displacement(j) < i) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first slot available for a new entry in the probe sequence of h.
+     */
+    private int findAvailable(int h) {
+        int length = probeLength();
+        for (int i = 0; i < length; i++) {
+            int j = probe(h, i);
+            if (keys[j] == null || keys[j] == TOMBSTONE) {
+                return j;
+            }
+        }
+        throw new IllegalStateException("Hash table is full");
+    }
+
+    /**
+     * Stores the given entry in slot j.
+     */
+    private void store(int j, int h, Object k, V v) {
+        keys[j] = k;
+        values[j] = v;
+        hashes[j] = h;
+    }
+
+    /**
+     * Inserts a new entry using Robin Hood displacement: whenever the entry
+     * being placed is further from home than the occupant, they swap places
+     * and the evicted occupant continues the search.
+     */
+    private void robinHoodInsert(int h, Object k, V v) {
+        int j = h;
+        int distance = 0;
+        while (keys[j] != null) {
+            int occupant = displacement(j);
+            if (occupant < distance) {
+                Object evictedKey = keys[j];
+                V evictedValue = values[j];
+                int evictedHash = hashes[j];
+                store(j, h, k, v);
+                k = evictedKey;
+                v = evictedValue;
+                h = evictedHash;
+                distance = occupant;
+            }
+            j = (j + 1) % capacity;
+            distance++;
+        }
+        store(j, h, k, v);
+    }
+
+    /**
+     * Empties slot j of a Robin Hood table, shifting each following displaced
+     * entry back by one slot so that no tombstone is needed.
+     */
+    private void backwardShift(int j) {
+        int next = (j + 1) % capacity;
+        while (keys[next] != null && displacement(next) > 0) {
+            store(j, hashes[next], keys[next], values[next]);
+            j = next;
+            next = (next + 1) % capacity;
+        }
+        store(j, 0, null, null);
+    }
+
+    /**
+     * Rebuilds the table at its current capacity, discarding all tombstones.
+     */
+    private void compact() {
+        Object[] oldKeys = keys;
+        V[] oldValues = values;
+        int[] oldHashes = hashes;
+        createTable();
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != null && oldKeys[j] != TOMBSTONE) {
+                store(findAvailable(oldHashes[j]), oldHashes[j], oldKeys[j], oldValues[j]);
+            }
+        }
+    }
+
+    // protected methods required by AbstractHashMap
+
+    /**
+     * Returns value associated with key k in bucket with hash value h. If no such
+     * entry exists, returns null.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return associate value (or null, if no such entry)
+     */
+    @Override
+    protected V bucketGet(int h, K k) {
+        int j = findSlot(h, k);
+        if (j < 0) {
+            return null;
+        }
+        return values[j];
+    }
+
+    /**
+     * Associates key k with value v in bucket with hash value h, returning the
+     * previously associated value, if any.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @param v the value to be associated
+     * @return previous value associated with k (or null, if no such entry)
+     */
+    @Override
+    protected V bucketPut(int h, K k, V v) {
+        int j = findSlot(h, k);
+        if (j >= 0) {                               // replace the existing value
+            V old = values[j];
+            values[j] = v;
+            return old;
+        }
+
+        if (probing == Probing.ROBIN_HOOD) {
+            robinHoodInsert(h, k, v);
+        } else {
+            j = findAvailable(h);
+            if (keys[j] == TOMBSTONE) {
+                tombstones--;                       // reusing a removed slot
+            }
+            store(j, h, k, v);
+        }
+        n++;
+        return null;
+    }
+
+    /**
+     * Removes entry having key k from bucket with hash value h, returning the
+     * previously associated value, if found.
+     *
+     * @param h the hash value of the relevant bucket
+     * @param k the key of interest
+     * @return previous value associated with k (or null, if no such entry)
+     */
+    @Override
+    protected V bucketRemove(int h, K k) {
+        int j = findSlot(h, k);
+        if (j < 0) {
+            return null;
+        }
+
+        V old = values[j];
+        if (probing == Probing.ROBIN_HOOD) {
+            backwardShift(j);
+        } else {
+            store(j, 0, TOMBSTONE, null);
+            tombstones++;
+            if (tombstones > capacity / 4) {
+                compact();
+            }
+        }
+        n--;
+        return old;
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public Iterable<Entry<K, V>> entrySet() {
+        ArrayList<Entry<K, V>> buffer = new ArrayList<>(n);
+        for (int j = 0; j < capacity; j++) {
+            if (keys[j] != null && keys[j] != TOMBSTONE) {
+                buffer.add(new MapEntry<>((K) keys[j], values[j]));
+            }
+        }
+        return buffer;
+    }
+
+    public String toString() {
+        return entrySet().toString();
+    }
+}
@@ -0,0 +1,80 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProbeHashMapTest {
+
+	@Test
+	void testPutGet() {
+		for (ProbeHashMap.Probing probing : ProbeHashMap.Probing.values()) {
+			ProbeHashMap<Integer, String> m = new ProbeHashMap<>(probing);
+			assertNull(m.put(1, "One"));
+			assertNull(m.put(10, "Ten"));
+			assertEquals("One", m.put(1, "Uno"));
+			assertEquals("Uno", m.get(1));
+			assertEquals("Ten", m.get(10));
+			assertNull(m.get(11));
+			assertEquals(2, m.size());
+		}
+	}
+
+	@Test
+	void testRemove() {
+		for (ProbeHashMap.Probing probing : ProbeHashMap.Probing.values()) {
+			ProbeHashMap<Integer, String> m = new ProbeHashMap<>(probing);
+			m.put(1, "One");
+			m.put(18, "Eighteen");
+			assertEquals("One", m.remove(1));
+			assertNull(m.remove(1));
+			assertNull(m.get(1));
+			assertEquals("Eighteen", m.get(18));
+			assertEquals(1, m.size());
+		}
+	}
+
+	@Test
+	void testResizeAndChurn() {
+		for (ProbeHashMap.Probing probing : ProbeHashMap.Probing.values()) {
+			ProbeHashMap<Integer, Integer> m = new ProbeHashMap<>(probing);
+			for (int i = 0; i < 1000; i++) {
+				m.put(i, i * i);
+			}
+			for (int i = 0; i < 1000; i += 2) {
+				assertEquals(i * i, m.remove(i));
+			}
+			assertEquals(500, m.size());
+			for (int i = 0; i < 1000; i++) {
+				assertEquals(i % 2 == 0 ? null : i * i, m.get(i));
+			}
+		}
+	}
+
+	@Test
+	void testEntrySet() {
+		ProbeHashMap<Integer, Integer> m = new ProbeHashMap<>(ProbeHashMap.Probing.ROBIN_HOOD);
+		HashSet<Integer> expected = new HashSet<>();
+		for (int i = 0; i < 100; i++) {
+			m.put(i, i);
+			expected.add(i);
+		}
+		HashSet<Integer> keys = new HashSet<>();
+		for (Integer k : m.keySet()) {
+			keys.add(k);
+		}
+		assertEquals(expected, keys);
+	}
+
+	@Test
+	void testIncrementalResizeRejected() {
+		ProbeHashMap<Integer, Integer> m = new ProbeHashMap<>();
+		assertThrows(UnsupportedOperationException.class, () -> m.enableIncrementalResize(1));
+		for (int i = 0; i < 100; i++) {
+			m.put(i, i);                               // still resizes all at once
+		}
+		assertEquals(100, m.size());
+	}
+}
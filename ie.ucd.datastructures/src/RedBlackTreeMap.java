@@ -0,0 +1,198 @@
+import java.util.Comparator;
+
+/**
+ * An implementation of a sorted map using a red-black tree.
+ * <p>
+ * The color of each node is kept in the aux field of the underlying
+ * BalanceableBinaryTree (1 for red, 0 for black); a missing child counts as
+ * black. An insertion performs at most one trinode restructuring and a
+ * removal at most two rotations plus one restructuring, with any further
+ * repair done by recoloring, so updates cause O(1) structural changes
+ * (compared with O(log n) rotations for an AVL removal).
+ */
+public class RedBlackTreeMap<K, V> extends TreeMap<K, V> {
+
+    private static final int BLACK = 0;
+    private static final int RED = 1;
+
+    // state of the last structural removal, consumed by rebalanceDelete
+    private boolean removedBlack;
+    private boolean removedLeft;
+    private Position<Entry<K, V>> replacement;
+
+    /**
+     * Constructs an empty map using the natural ordering of keys.
+     */
+    public RedBlackTreeMap() {
+        super();
+    }
+
+    /**
+     * Constructs an empty map using the given comparator to order keys.
+     *
+     * @param comp comparator defining the order of keys in the map
+     */
+    public RedBlackTreeMap(Comparator<K> comp) {
+        super(comp);
+    }
+
+    // positional-based utility methods
+
+    /** Returns whether p is black; a missing child (null) counts as black. */
+    protected boolean isBlack(Position<Entry<K, V>> p) {
+        return p == null || tree.getAux(p) == BLACK;
+    }
+
+    protected boolean isRed(Position<Entry<K, V>> p) {
+        return !isBlack(p);
+    }
+
+    private void makeBlack(Position<Entry<K, V>> p) {
+        tree.setAux(p, BLACK);
+    }
+
+    private void makeRed(Position<Entry<K, V>> p) {
+        tree.setAux(p, RED);
+    }
+
+    private void setColor(Position<Entry<K, V>> p, boolean toRed) {
+        tree.setAux(p, toRed ? RED : BLACK);
+    }
+
+    /**
+     * Overrides the TreeMap rebalancing hook that is called after an insertion.
+     * The new leaf is colored red (black if it is the root), which may create a
+     * double red with its parent.
+     */
+    @Override
+    protected void rebalanceInsert(Position<Entry<K, V>> p) {
+        if (isRoot(p)) {
+            makeBlack(p);
+        } else {
+            makeRed(p);
+            resolveRed(p);
+        }
+    }
+
+    /**
+     * Remedies a potential double red violation above red position p.
+     */
+    private void resolveRed(Position<Entry<K, V>> p) {
+        while (true) {
+            Position<Entry<K, V>> parent = parent(p);
+            if (isBlack(parent)) { // no violation (the root is always black)
+                return;
+            }
+            Position<Entry<K, V>> uncle = sibling(parent);
+            if (isBlack(uncle)) { // Case 1: misshapen 4-node, one restructuring fixes it
+                Position<Entry<K, V>> middle = restructure(p);
+                makeBlack(middle);
+                makeRed(left(middle));
+                makeRed(right(middle));
+                return;
+            }
+            // Case 2: overfull 5-node, recolor and continue at the grandparent
+            makeBlack(parent);
+            makeBlack(uncle);
+            Position<Entry<K, V>> grand = parent(parent);
+            if (isRoot(grand)) {
+                return;
+            }
+            makeRed(grand);
+            p = grand;
+        }
+    }
+
+    /**
+     * Overrides the TreeMap rebalancing hook that is called after a bulk build.
+     * In a tree of minimal height all leaves lie on the two deepest levels, so
+     * coloring the deepest level red and everything else black gives every
+     * path the same number of black nodes.
+     */
+    @Override
+    protected void rebalanceBuild() {
+        if (!isEmpty()) {
+            colorBuilt(root(), 0, tree.height(root()));
+        }
+    }
+
+    private void colorBuilt(Position<Entry<K, V>> p, int depth, int deepest) {
+        if (p == null) {
+            return;
+        }
+        setColor(p, depth == deepest && depth > 0);
+        colorBuilt(left(p), depth + 1, deepest);
+        colorBuilt(right(p), depth + 1, deepest);
+    }
+
+    /**
+     * Records the color and the side of the node being spliced out, and the
+     * child that takes its place, before delegating to TreeMap.
+     */
+    @Override
+    protected Entry<K, V> remove(Position<Entry<K, V>> p) {
+        Position<Entry<K, V>> parent = parent(p);
+        removedBlack = isBlack(p);
+        removedLeft = (parent != null && p == left(parent));
+        replacement = (left(p) != null ? left(p) : right(p));
+        return super.remove(p);
+    }
+
+    /**
+     * Overrides the TreeMap rebalancing hook that is called after a deletion.
+     * Removing a black node leaves one black too few on the removed node's
+     * side of p, which is repaired by recoloring its replacement if it is red
+     * and by remedyDoubleBlack otherwise.
+     */
+    @Override
+    protected void rebalanceDelete(Position<Entry<K, V>> p) {
+        Position<Entry<K, V>> child = replacement;
+        replacement = null;
+        if (!removedBlack) { // removing a red node changes no black depth
+            return;
+        }
+        if (isRed(child)) { // the red child becomes black and takes over the missing black
+            makeBlack(child);
+        } else if (p != null) {
+            remedyDoubleBlack(p, removedLeft);
+        }
+    }
+
+    /**
+     * Remedies a double black below p: the subtree on the given side of p has
+     * one black node fewer than the subtree on the other side.
+     */
+    private void remedyDoubleBlack(Position<Entry<K, V>> p, boolean leftSide) {
+        while (true) {
+            Position<Entry<K, V>> sib = (leftSide ? right(p) : left(p)); // never null
+            if (isRed(sib)) { // Case 3: rotate the red sibling above p, then p has a black sibling
+                rotate(sib);
+                makeBlack(sib);
+                makeRed(p);
+                continue;
+            }
+            Position<Entry<K, V>> far = (leftSide ? right(sib) : left(sib));
+            Position<Entry<K, V>> near = (leftSide ? left(sib) : right(sib));
+            if (isRed(far) || isRed(near)) { // Case 1: a trinode restructuring fixes it
+                boolean oldColor = isRed(p);
+                Position<Entry<K, V>> middle = restructure(isRed(far) ? far : near);
+                setColor(middle, oldColor);
+                makeBlack(left(middle));
+                makeBlack(right(middle));
+                return;
+            }
+            // Case 2: recolor the sibling red and push the problem up
+            makeRed(sib);
+            if (isRed(p)) {
+                makeBlack(p);
+                return;
+            }
+            if (isRoot(p)) {
+                return;
+            }
+            Position<Entry<K, V>> parent = parent(p);
+            leftSide = (p == left(parent));
+            p = parent;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedBlackTreeMapTest {
+
+	@Test
+	void testPutGetRemove() {
+		RedBlackTreeMap<Integer, String> m = new RedBlackTreeMap<>();
+		assertNull(m.put(4, "four"));
+		assertNull(m.put(7, "seven"));
+		assertNull(m.put(12, "twelve"));
+		assertEquals("seven", m.put(7, "sept"));
+		assertEquals(3, m.size());
+		assertEquals("sept", m.get(7));
+		assertEquals("four", m.remove(4));
+		assertNull(m.get(4));
+		assertEquals(2, m.size());
+		checkRedBlack(m);
+	}
+
+	@Test
+	void testSequentialInsertAndRemove() {
+		RedBlackTreeMap<Integer, Integer> m = new RedBlackTreeMap<>();
+		for (int i = 0; i < 4096; i++) {
+			m.put(i, i);
+			if (i % 256 == 0) {
+				checkRedBlack(m);
+			}
+		}
+		checkRedBlack(m);
+		for (int i = 0; i < 4096; i += 2) {
+			assertEquals(i, m.remove(i));
+		}
+		checkRedBlack(m);
+		assertEquals(2048, m.size());
+		assertEquals(1, m.firstEntry().getKey());
+	}
+
+	@Test
+	void testRandomChurn() {
+		RedBlackTreeMap<Integer, Integer> m = new RedBlackTreeMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rnd = new Random(11);
+		for (int i = 0; i < 30000; i++) {
+			int k = rnd.nextInt(1000);
+			if (rnd.nextBoolean()) {
+				assertEquals(expected.remove(k), m.remove(k));
+			} else {
+				assertEquals(expected.put(k, i), m.put(k, i));
+			}
+			if (i % 1000 == 0) {
+				checkRedBlack(m);
+			}
+		}
+		checkRedBlack(m);
+		assertEquals(expected.size(), m.size());
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			assertEquals(expected.get(e.getKey()), e.getValue());
+		}
+	}
+
+	@Test
+	void testBulkLoad() {
+		for (int n = 0; n <= 70; n++) {
+			Integer[] keys = new Integer[n];
+			for (int i = 0; i < n; i++) {
+				keys[i] = 2 * i;
+			}
+			RedBlackTreeMap<Integer, Integer> m = new RedBlackTreeMap<>();
+			m.bulkLoad(keys, keys);
+			checkRedBlack(m);
+			assertEquals(n, m.size());
+			for (int i = 0; i < n; i++) {
+				m.put(2 * i + 1, i);
+			}
+			checkRedBlack(m);
+			for (int i = 0; i < 2 * n; i += 3) {
+				m.remove(i);
+			}
+			checkRedBlack(m);
+		}
+	}
+
+	/** Checks that the root is black, no red node has a red child and all paths have equal black height. */
+	private static <V> void checkRedBlack(RedBlackTreeMap<Integer, V> m) {
+		if (!m.isEmpty()) {
+			assertTrue(m.isBlack(m.root()));
+		}
+		blackHeight(m, m.root());
+	}
+
+	private static <V> int blackHeight(RedBlackTreeMap<Integer, V> m, Position<Entry<Integer, V>> p) {
+		if (p == null) {
+			return 1;
+		}
+		if (m.isRed(p)) {
+			assertFalse(m.isRed(m.left(p)));
+			assertFalse(m.isRed(m.right(p)));
+		}
+		int left = blackHeight(m, m.left(p));
+		assertEquals(left, blackHeight(m, m.right(p)));
+		return left + (m.isBlack(p) ? 1 : 0);
+	}
+}
@@ -1,4 +1,5 @@
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -290,18 +291,110 @@ public class SinglyLinkedList<E> implements Cloneable, Iterable<E>, List<E>{
 		return output;
     }
     
-    /* This method merges two sorted linked lists. 
+    /* This method merges two sorted linked lists, ordered by the natural ordering of their elements.
      * 
      * @param list: the list to be merged to this.SinglyLinkedList
      * @return the merged list. 
      */
     public SinglyLinkedList<E> sortedMerge(SinglyLinkedList<E> list) {
-    	SinglyLinkedList<E> newlist = new SinglyLinkedList<E>(); 
-    	
-    	newlist.head = this.head; 
-    	
-    	//IMPLEMENT
-    	return null; 
+        return sortedMerge(list, new DefaultComparator<E>());
+    }
+
+    /* This method merges two linked lists sorted by the given comparator. The nodes of both lists
+     * are relinked into the merged list rather than copied, so both lists are left empty. Of equal
+     * elements, those of this list come first.
+     *
+     * @param list: the list to be merged to this.SinglyLinkedList
+     * @param comp: the comparator by which both lists are sorted
+     * @return the merged list.
+     * @throws IllegalArgumentException if list is this list
+     */
+    public SinglyLinkedList<E> sortedMerge(SinglyLinkedList<E> list, Comparator<E> comp) throws IllegalArgumentException {
+        if (list == this) {
+            throw new IllegalArgumentException("Cannot merge a list with itself");
+        }
+        SinglyLinkedList<E> newlist = new SinglyLinkedList<E>();
+        Node<E> sentinel = new Node<E>(null, null);
+        Node<E> tail = merge(head, list.head, comp, sentinel);
+        if (sentinel.getNext() != null) {
+            newlist.head = sentinel.getNext();
+            newlist.last = tail;
+        }
+        newlist.size = size + list.size;
+        head = last = null;
+        size = 0;
+        list.head = list.last = null;
+        list.size = 0;
+        return newlist;
+    }
+
+    /* This method sorts the list by the natural ordering of its elements. See sort(Comparator).
+     */
+    public void sort() {
+        sort(new DefaultComparator<E>());
+    }
+
+    /* This method sorts the list with a bottom-up merge sort, in O(n log n) time and constant extra
+     * space. Each pass cuts the list into runs of width 1, 2, 4, ... nodes and merges neighbouring
+     * runs by relinking their nodes, so no element is copied and no node is allocated except one
+     * sentinel. The sort is stable.
+     *
+     * @param comp: the comparator defining the order of the elements
+     */
+    public void sort(Comparator<E> comp) {
+        if (size < 2) {
+            return;
+        }
+        Node<E> sentinel = new Node<E>(null, head);
+        Node<E> tail = null;
+        for (long width = 1; width < size; width *= 2) {
+            tail = sentinel;
+            Node<E> rest = sentinel.getNext();
+            while (rest != null) {
+                Node<E> left = rest;
+                Node<E> right = split(left, width);
+                rest = split(right, width);
+                tail = merge(left, right, comp, tail);
+            }
+        }
+        head = sentinel.getNext();
+        last = tail;
+    }
+
+    /* Cuts a chain of nodes after its first n nodes and returns the remaining chain (or null).
+     */
+    private static <E> Node<E> split(Node<E> node, long n) {
+        for (long k = 1; node != null && k < n; k++) {
+            node = node.getNext();
+        }
+        if (node == null) {
+            return null;
+        }
+        Node<E> rest = node.getNext();
+        node.setNext(null);
+        return rest;
+    }
+
+    /* Merges two sorted, null-terminated chains of nodes after the given tail node, taking from a
+     * first on ties, and returns the last node of the merged chain.
+     */
+    private static <E> Node<E> merge(Node<E> a, Node<E> b, Comparator<E> comp, Node<E> tail) {
+        while (a != null && b != null) {
+            if (comp.compare(b.getElement(), a.getElement()) < 0) {
+                tail.setNext(b);
+                tail = b;
+                b = b.getNext();
+            } else {
+                tail.setNext(a);
+                tail = a;
+                a = a.getNext();
+            }
+        }
+        tail.setNext(a != null ? a : b);
+        while (tail.getNext() != null) {
+            tail = tail.getNext();
+        }
+        return tail;
     }
     
     
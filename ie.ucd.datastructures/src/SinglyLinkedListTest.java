@@ -109,4 +109,43 @@ class SinglyLinkedListTest {
 		assertEquals("[0, 1, 2, 3, 4]", buf.toString());
 	}
 
+	@Test
+	void testSort() {
+		SinglyLinkedList<Integer> ll = new SinglyLinkedList<>();
+		java.util.Random rnd = new java.util.Random(23);
+		ArrayList<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 1001; ++i) {
+			int x = rnd.nextInt(100);
+			ll.addLast(x);
+			expected.add(x);
+		}
+		ll.sort();
+		expected.sort(null);
+		ArrayList<Integer> buf = new ArrayList<>();
+		for (Integer i : ll) {
+			buf.add(i);
+		}
+		assertEquals(expected, buf);
+		assertEquals(expected.get(1000), ll.last());
+		ll.addLast(-1);
+		assertEquals(-1, ll.last());
+		assertEquals(1002, ll.size());
+	}
+
+	@Test
+	void testSortedMerge() {
+		SinglyLinkedList<Integer> a = new SinglyLinkedList<>();
+		SinglyLinkedList<Integer> b = new SinglyLinkedList<>();
+		for (int i = 0; i < 5; ++i) {
+			a.addLast(2 * i);
+			b.addLast(3 * i);
+		}
+		SinglyLinkedList<Integer> merged = a.sortedMerge(b);
+		assertEquals("[0, 0, 2, 3, 4, 6, 6, 8, 9, 12]", merged.toString());
+		assertEquals(10, merged.size());
+		assertEquals(12, merged.last());
+		assertEquals(true, a.isEmpty());
+		assertEquals(true, b.isEmpty());
+		assertEquals("[0, 0, 2, 3, 4, 6, 6, 8, 9, 12]", merged.sortedMerge(a).toString());
+	}
 }
@@ -1,12 +1,22 @@
-import java.util.AbstractMap;
-import java.util.*;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
 
-public class SkipList<K extends Comparable<? super K>, V> extends AbstractMap<K, V> {
+/**
+ * An implementation of a sorted map using a skip list.
+ * <p>
+ * Every node keeps its forward pointers in a plain array sized to the node's
+ * level, so a search only follows array slots and never goes through a list
+ * object. Levels are drawn from a geometric distribution with probability
+ * 1/2, giving expected O(log n) search, insertion and removal.
+ */
+public class SkipList<K, V> extends AbstractSortedMap<K, V> {
 
-    private static class SkipListNode<K, V> {
-        private K key;
+    private static class SkipListNode<K, V> implements Entry<K, V> {
+        private final K key;
         private V value;
-        public ArrayList<SkipListNode<K, V> > nextNodes;
+        private final SkipListNode<K, V>[] nextNodes;   // nextNodes[l] is the successor at level l
 
         public K getKey() {
             return key;
@@ -16,14 +26,15 @@ public class SkipList<K extends Comparable<? super K>, V> extends AbstractMap<K,
             return value;
         }
 
-        public SkipListNode(K key, V value) {
+        @SuppressWarnings({"unchecked"})
+        public SkipListNode(K key, V value, int level) {
             this.value = value;
             this.key = key;
-            nextNodes = new ArrayList<SkipListNode<K, V> >();
+            nextNodes = (SkipListNode<K, V>[]) new SkipListNode<?, ?>[level + 1];
         }
 
         public int level() {
-            return nextNodes.size()-1;
+            return nextNodes.length - 1;
         }
 
         public String toString() {
@@ -31,92 +42,356 @@ public class SkipList<K extends Comparable<? super K>, V> extends AbstractMap<K,
         }
     }
 
+    private static final int MAX_LEVEL = 32;
+    private static final double PROBABILITY = 0.5;
 
-    private SkipListNode<K,V> head;
-    private int maxLevel;
+    private SkipListNode<K, V> head;
+    private int maxLevel;                // highest level currently in use
     private int size;
     private Random rnd;
+    // predecessors found by the last search, reused to avoid allocating per update
+    private SkipListNode<K, V>[] update;
 
-    private static final double PROBABILITY = 0.5;
-    private Comparator<K> comp;
-
-    protected SkipList(Comparator<K> c) { comp = c; }
-
-
-    /** Method for comparing two entries according to key */
-    protected int compare(K a, K b) {
-        return comp.compare(a, b);
-    }
-
+    /**
+     * Constructs an empty map using the natural ordering of keys.
+     */
     public SkipList() {
         this(new DefaultComparator<K>());
+    }
+
+    /**
+     * Constructs an empty map using the given comparator to order keys.
+     *
+     * @param c comparator defining the order of keys in the map
+     */
+    @SuppressWarnings({"unchecked"})
+    public SkipList(Comparator<K> c) {
+        super(c);
         rnd = new Random();
         size = 0;
         maxLevel = 0;
-        // a SkipListNode with value null marks the beginning
-        head = new SkipListNode<K, V>(null, null);
-        // null marks the end
-        head.nextNodes.add(null);
+        // a SkipListNode with key null marks the beginning, null marks the end
+        head = new SkipListNode<K, V>(null, null, MAX_LEVEL - 1);
+        update = (SkipListNode<K, V>[]) new SkipListNode<?, ?>[MAX_LEVEL];
     }
 
-    public SkipListNode getHead() {
+    public SkipListNode<K, V> getHead() {
         return head;
     }
 
-    // Adds e to the skiplist.
-    // Returns false if already in skiplist, true otherwise.
-    public V put(K k, V v) {
-        // TODO
-        return null;
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    @Override
+    public int size() {
+        return size;
     }
 
-    public V remove(K key) {
-        // TODO
+    /**
+     * Returns the value associated with the specified key, or null if no such entry
+     * exists.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @Override
+    public V get(K key) throws IllegalArgumentException {
+        checkKey(key);
+        SkipListNode<K, V> next = find(key).nextNodes[0];
+        if (next != null && compare(next.key, key) == 0) {
+            return next.value;
+        }
         return null;
     }
 
-    
-    public Set<Entry<K, V>> entrySet() {
-        // TODO
+    /**
+     * Associates the given value with the given key. If an entry with the key was
+     * already in the map, this replaced the previous value with the new one and
+     * returns the old value. Otherwise, a new entry is added and null is returned.
+     *
+     * @param k key with which the specified value is to be associated
+     * @param v value to be associated with the specified key
+     * @return the previous value associated with the key (or null, if no such
+     *         entry)
+     */
+    @Override
+    public V put(K k, V v) throws IllegalArgumentException {
+        checkKey(k);
+        SkipListNode<K, V> next = findPredecessors(k).nextNodes[0];
+        if (next != null && compare(next.key, k) == 0) {
+            V old = next.value;
+            next.value = v;
+            return old;
+        }
+
+        int level = randomLevel();
+        if (level > maxLevel) {
+            for (int l = maxLevel + 1; l <= level; l++) {
+                update[l] = head;
+            }
+            maxLevel = level;
+        }
+        SkipListNode<K, V> node = new SkipListNode<>(k, v, level);
+        for (int l = 0; l <= level; l++) {
+            node.nextNodes[l] = update[l].nextNodes[l];
+            update[l].nextNodes[l] = node;
+        }
+        size++;
         return null;
     }
 
-    // Returns the skiplist node with greatest value <= e
-    private SkipListNode find(K k) {
-        return find(k, head, maxLevel);
+    /**
+     * Removes the entry with the specified key, if present, and returns its
+     * associated value. Otherwise does nothing and returns null.
+     *
+     * @param key the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key, or null if no
+     *         such entry exists
+     */
+    @Override
+    public V remove(K key) throws IllegalArgumentException {
+        checkKey(key);
+        SkipListNode<K, V> node = findPredecessors(key).nextNodes[0];
+        if (node == null || compare(node.key, key) != 0) {
+            return null;
+        }
+
+        for (int l = 0; l <= node.level(); l++) {
+            update[l].nextNodes[l] = node.nextNodes[l];
+        }
+        while (maxLevel > 0 && head.nextNodes[maxLevel] == null) {
+            maxLevel--;
+        }
+        size--;
+        return node.value;
     }
 
-    // Returns the skiplist node with greatest value <= e
-    // Starts at node start and level
-    private SkipListNode find(K k, SkipListNode current, int level) {
-        // TODO
-        return null;
+    // additional behaviors of the SortedMap interface
+
+    /**
+     * Returns the entry having the least key (or null if map is empty).
+     *
+     * @return entry with least key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> firstEntry() {
+        return head.nextNodes[0];
     }
 
-    // Returns the node at a given level with highest value less than e
-    private SkipListNode findNext(K k, SkipListNode current, int level) {
-        // TODO
-        return null;
+    /**
+     * Returns the entry having the greatest key (or null if map is empty).
+     *
+     * @return entry with greatest key (or null if map is empty)
+     */
+    @Override
+    public Entry<K, V> lastEntry() {
+        SkipListNode<K, V> current = head;
+        for (int level = maxLevel; level >= 0; level--) {
+            while (current.nextNodes[level] != null) {
+                current = current.nextNodes[level];
+            }
+        }
+        return current == head ? null : current;
     }
 
-    public int size() {
-        return size;
+    /**
+     * Returns the entry with least key greater than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with least key greater than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return find(key).nextNodes[0];
     }
 
-    public V get(K key) {
-        // TODO
-        return null;
+    /**
+     * Returns the entry with greatest key less than or equal to given key (or null
+     * if no such key exists).
+     *
+     * @return entry with greatest key less than or equal to given (or null if no
+     *         such entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        SkipListNode<K, V> pred = find(key);
+        SkipListNode<K, V> next = pred.nextNodes[0];
+        if (next != null && compare(next.key, key) == 0) {
+            return next;
+        }
+        return pred == head ? null : pred;
+    }
+
+    /**
+     * Returns the entry with greatest key strictly less than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with greatest key strictly less than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        SkipListNode<K, V> pred = find(key);
+        return pred == head ? null : pred;
+    }
+
+    /**
+     * Returns the entry with least key strictly greater than given key (or null if
+     * no such key exists).
+     *
+     * @return entry with least key strictly greater than given (or null if no such
+     *         entry)
+     * @throws IllegalArgumentException if the key is not compatible with the map
+     */
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+        checkKey(key);
+        SkipListNode<K, V> next = find(key).nextNodes[0];
+        if (next != null && compare(next.key, key) == 0) {
+            return next.nextNodes[0];
+        }
+        return next;
+    }
+
+    /**
+     * Returns an iterable containing all entries with keys in the range from
+     * <code>fromKey</code> inclusive to <code>toKey</code> exclusive. Entries are
+     * produced lazily by walking the bottom level.
+     *
+     * @return iterable with keys in desired range
+     * @throws IllegalArgumentException if <code>fromKey</code> or
+     *                                  <code>toKey</code> is not compatible with
+     *                                  the map
+     */
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+        checkKey(fromKey);
+        checkKey(toKey);
+        return () -> new EntryIterator(find(fromKey).nextNodes[0], toKey);
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+        return () -> new EntryIterator(head.nextNodes[0], null);
+    }
+
+    /**
+     * Walks the bottom level when iterating in increasing order. There are no
+     * backward links, so a descending iteration falls back to one lowerEntry
+     * search per step.
+     */
+    @Override
+    protected Iterator<Entry<K, V>> iteratorFrom(K key, boolean inclusive, boolean descending) {
+        if (descending) {
+            return super.iteratorFrom(key, inclusive, true);
+        }
+        SkipListNode<K, V> first = head.nextNodes[0];
+        if (key != null) {
+            checkKey(key);
+            first = find(key).nextNodes[0];
+            if (!inclusive && first != null && compare(first.key, key) == 0) {
+                first = first.nextNodes[0];
+            }
+        }
+        return new EntryIterator(first, null);
+    }
+
+    // ---------------- nested EntryIterator class ----------------
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private SkipListNode<K, V> next;
+        private final K toKey;           // exclusive upper bound, or null if unbounded
+
+        EntryIterator(SkipListNode<K, V> first, K toKey) {
+            this.toKey = toKey;
+            next = first;
+            if (next != null && toKey != null && compare(next.key, toKey) >= 0) {
+                next = null;
+            }
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException("No more entries");
+            }
+            SkipListNode<K, V> answer = next;
+            next = next.nextNodes[0];
+            if (next != null && toKey != null && compare(next.key, toKey) >= 0) {
+                next = null;
+            }
+            return answer;
+        }
+    } // ----------- end of nested EntryIterator class -----------
+
+    // Returns a random level: level l is reached with probability PROBABILITY^l
+    private int randomLevel() {
+        int level = 0;
+        while (level < MAX_LEVEL - 1 && rnd.nextDouble() < PROBABILITY) {
+            level++;
+        }
+        return level;
+    }
+
+    // Returns the skiplist node with greatest key < k (the head if there is none)
+    private SkipListNode<K, V> find(K k) {
+        return find(k, head, maxLevel);
+    }
+
+    // Returns the skiplist node with greatest key < k
+    // Starts at node start and level
+    private SkipListNode<K, V> find(K k, SkipListNode<K, V> current, int level) {
+        for (int l = level; l >= 0; l--) {
+            current = findNext(k, current, l);
+        }
+        return current;
+    }
+
+    // Returns the node at a given level with highest key less than k
+    private SkipListNode<K, V> findNext(K k, SkipListNode<K, V> current, int level) {
+        SkipListNode<K, V> next = current.nextNodes[level];
+        while (next != null && compare(next.key, k) < 0) {
+            current = next;
+            next = current.nextNodes[level];
+        }
+        return current;
+    }
+
+    // Like find(k), but records the predecessor at every level in update
+    private SkipListNode<K, V> findPredecessors(K k) {
+        SkipListNode<K, V> current = head;
+        for (int l = maxLevel; l >= 0; l--) {
+            current = findNext(k, current, l);
+            update[l] = current;
+        }
+        return current;
     }
 
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("(");
         int level = 0;
-        SkipListNode current = (SkipListNode) head.nextNodes.get(level);
+        SkipListNode<K, V> current = head.nextNodes[level];
 
         while(current != null) {
             sb.append(current.toString()).append(", ");
-            current = (SkipListNode)current.nextNodes.get(level);
+            current = current.nextNodes[level];
         }
         sb.append(")");
         return sb.toString();
@@ -127,7 +402,7 @@ public class SkipList<K extends Comparable<? super K>, V> extends AbstractMap<K,
      ******************************************************************************/
 
     public static void main(String[] args) {
-        SkipList testList = new SkipList<Integer, String>();
+        SkipList<Integer, String> testList = new SkipList<Integer, String>();
         System.out.println(testList);
 
         testList.put(4, "four");
@@ -135,14 +410,14 @@ public class SkipList<K extends Comparable<? super K>, V> extends AbstractMap<K,
         testList.put(1, "one");
         System.out.println(testList);
 
-//        for(Integer k : testList.keySet()) {
-//            System.out.println(k);
-//        }
-//
-//        for(String s : testList.values()) {
-//            System.out.println(s);
-//        }
+        for(Integer k : testList.keySet()) {
+            System.out.println(k);
+        }
+
+        for(String s : testList.values()) {
+            System.out.println(s);
+        }
     }
 
 
-}
\ No newline at end of file
+}
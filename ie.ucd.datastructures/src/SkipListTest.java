@@ -0,0 +1,156 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SkipListTest {
+
+	@Test
+	void testPutGetRemove() {
+		SkipList<Integer, String> m = new SkipList<>();
+		assertNull(m.put(4, "four"));
+		assertNull(m.put(1, "one"));
+		assertEquals("one", m.put(1, "uno"));
+		assertEquals(2, m.size());
+		assertEquals("uno", m.get(1));
+		assertEquals("four", m.remove(4));
+		assertNull(m.get(4));
+		assertNull(m.remove(4));
+		assertEquals(1, m.size());
+	}
+
+	@Test
+	void testNavigation() {
+		SkipList<Integer, Integer> m = new SkipList<>();
+		for (int i = 10; i <= 50; i += 10) {
+			m.put(i, i);
+		}
+		assertEquals(10, m.firstEntry().getKey());
+		assertEquals(50, m.lastEntry().getKey());
+		assertEquals(20, m.ceilingEntry(20).getKey());
+		assertEquals(30, m.ceilingEntry(21).getKey());
+		assertEquals(20, m.floorEntry(29).getKey());
+		assertEquals(20, m.lowerEntry(30).getKey());
+		assertEquals(40, m.higherEntry(30).getKey());
+		assertNull(m.lowerEntry(10));
+		assertNull(m.higherEntry(50));
+
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : m.subMap(15, 40)) {
+			keys.add(e.getKey());
+		}
+		assertEquals(List.of(20, 30), keys);
+	}
+
+	@Test
+	void testAgainstTreeMap() {
+		checkAgainstTreeMap(new SkipList<>());
+		checkAgainstTreeMap(new ConcurrentSkipList<>());
+	}
+
+	@Test
+	void testConcurrentUpdates() throws InterruptedException {
+		ConcurrentSkipList<Integer, Integer> m = new ConcurrentSkipList<>();
+		int threads = 8;
+		int perThread = 2000;
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			int base = t * perThread;
+			workers[t] = new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					m.put(base + i, i);
+				}
+				for (int i = 0; i < perThread; i += 2) {
+					m.remove(base + i);
+				}
+			});
+			workers[t].start();
+		}
+		for (Thread w : workers) {
+			w.join();
+		}
+
+		assertEquals(threads * perThread / 2, m.size());
+		int expected = 1;
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			assertEquals(expected, e.getKey());
+			expected += 2;
+		}
+		assertEquals(threads * perThread + 1, expected);
+	}
+
+	@Test
+	void testConcurrentPutRemoveSameKeys() throws InterruptedException {
+		// puts racing removes of the same few keys, so puts keep meeting nodes whose removal is half done
+		ConcurrentSkipList<Integer, Integer> m = new ConcurrentSkipList<>();
+		int threads = 4;
+		int keys = 4;
+		java.util.concurrent.atomic.AtomicLongArray added = new java.util.concurrent.atomic.AtomicLongArray(keys);
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			int seed = t;
+			workers[t] = new Thread(() -> {
+				Random rnd = new Random(seed);
+				for (int i = 0; i < 50000; i++) {
+					int k = rnd.nextInt(keys);
+					if (rnd.nextBoolean()) {
+						if (m.put(k, i) == null) {
+							added.incrementAndGet(k);
+						}
+					} else if (m.remove(k) != null) {
+						added.decrementAndGet(k);
+					}
+				}
+			});
+			workers[t].start();
+		}
+		for (Thread w : workers) {
+			w.join();
+		}
+
+		int present = 0;
+		for (int k = 0; k < keys; k++) {
+			assertEquals(m.get(k) != null ? 1 : 0, added.get(k), "key " + k);
+			present += (m.get(k) != null ? 1 : 0);
+		}
+		assertEquals(present, m.size());
+		int count = 0;
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			count++;
+		}
+		assertEquals(present, count);
+	}
+
+	private static void checkAgainstTreeMap(SortedMap<Integer, Integer> m) {
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rnd = new Random(42);
+		for (int i = 0; i < 20000; i++) {
+			int k = rnd.nextInt(500);
+			if (rnd.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), m.remove(k));
+			} else {
+				assertEquals(expected.put(k, i), m.put(k, i));
+			}
+			assertEquals(expected.size(), m.size());
+			int probe = rnd.nextInt(520) - 10;
+			assertEquals(expected.ceilingKey(probe), key(m.ceilingEntry(probe)));
+			assertEquals(expected.floorKey(probe), key(m.floorEntry(probe)));
+			assertEquals(expected.lowerKey(probe), key(m.lowerEntry(probe)));
+			assertEquals(expected.higherKey(probe), key(m.higherEntry(probe)));
+		}
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			assertEquals(expected.get(e.getKey()), e.getValue());
+			keys.add(e.getKey());
+		}
+		assertEquals(new ArrayList<>(expected.keySet()), keys);
+	}
+
+	private static Integer key(Entry<Integer, Integer> e) {
+		return e == null ? null : e.getKey();
+	}
+}
@@ -75,4 +75,49 @@ public interface SortedMap<K, V> extends Map<K, V> {
 	 *                                  the map
 	 */
 	Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException;
+
+	/**
+	 * Returns a view of the map with its keys in reverse order. The view is
+	 * backed by this map, so changes to either are reflected in the other.
+	 * 
+	 * @return reverse-order view of this map
+	 */
+	SortedMap<K, V> descendingMap();
+
+	/**
+	 * Returns a view of the portion of the map whose keys come before
+	 * <code>toKey</code> (or are equal to it, if <code>inclusive</code>). The
+	 * view is backed by this map, and putting a key outside the range into it
+	 * throws an IllegalArgumentException.
+	 * 
+	 * @return view of the entries with keys up to toKey
+	 * @throws IllegalArgumentException if <code>toKey</code> is not compatible
+	 *                                  with the map
+	 */
+	SortedMap<K, V> headMap(K toKey, boolean inclusive) throws IllegalArgumentException;
+
+	/**
+	 * Returns a view of the portion of the map whose keys come after
+	 * <code>fromKey</code> (or are equal to it, if <code>inclusive</code>). The
+	 * view is backed by this map, and putting a key outside the range into it
+	 * throws an IllegalArgumentException.
+	 * 
+	 * @return view of the entries with keys from fromKey on
+	 * @throws IllegalArgumentException if <code>fromKey</code> is not compatible
+	 *                                  with the map
+	 */
+	SortedMap<K, V> tailMap(K fromKey, boolean inclusive) throws IllegalArgumentException;
+
+	/**
+	 * Returns a view of the portion of the map whose keys lie between
+	 * <code>fromKey</code> and <code>toKey</code>, each bound being included
+	 * as requested. The view is empty if fromKey comes after toKey.
+	 * 
+	 * @return view of the entries with keys in the range
+	 * @throws IllegalArgumentException if <code>fromKey</code> or
+	 *                                  <code>toKey</code> is not compatible with
+	 *                                  the map
+	 */
+	SortedMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive)
+			throws IllegalArgumentException;
 }
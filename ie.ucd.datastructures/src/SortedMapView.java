@@ -0,0 +1,285 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A live view of a key range of a sorted map, in increasing or decreasing key
+ * order. This is the class behind descendingMap, headMap, tailMap and the
+ * four-argument subMap of AbstractSortedMap.
+ * <p>
+ * No entries are copied: every query is translated into one or two searches
+ * of the backing map, and iteration uses the backing map's iteratorFrom
+ * method, stopping as soon as a key leaves the range. Updates through the view
+ * go to the backing map, and updates to the backing map are visible in the
+ * view. The bounds are kept in the order of the backing map, whatever the
+ * direction of the view. The size of a view is found by counting its entries.
+ */
+public class SortedMapView<K, V> extends AbstractSortedMap<K, V> {
+
+    private final AbstractSortedMap<K, V> map;   // the backing map
+    private final boolean descending;
+    private final boolean hasLow, lowInclusive;
+    private final K low;
+    private final boolean hasHigh, highInclusive;
+    private final K high;
+
+    /**
+     * Constructs an ascending view of all of the given map.
+     *
+     * @param map the backing map
+     */
+    public SortedMapView(AbstractSortedMap<K, V> map) {
+        this(map, false, false, null, false, false, null, false);
+    }
+
+    private SortedMapView(AbstractSortedMap<K, V> map, boolean descending, boolean hasLow, K low,
+                          boolean lowInclusive, boolean hasHigh, K high, boolean highInclusive) {
+        this.map = map;
+        this.descending = descending;
+        this.hasLow = hasLow;
+        this.low = low;
+        this.lowInclusive = lowInclusive;
+        this.hasHigh = hasHigh;
+        this.high = high;
+        this.highInclusive = highInclusive;
+    }
+
+    // range tests, in the order of the backing map
+    private boolean tooLow(K key) {
+        if (!hasLow) {
+            return false;
+        }
+        int c = map.compare(key, low);
+        return c < 0 || (c == 0 && !lowInclusive);
+    }
+
+    private boolean tooHigh(K key) {
+        if (!hasHigh) {
+            return false;
+        }
+        int c = map.compare(key, high);
+        return c > 0 || (c == 0 && !highInclusive);
+    }
+
+    private boolean inRange(K key) {
+        return !tooLow(key) && !tooHigh(key);
+    }
+
+    /** Returns e if it lies in the range, else null. */
+    private Entry<K, V> inRange(Entry<K, V> e) {
+        return (e == null || !inRange(e.getKey()) ? null : e);
+    }
+
+    // navigation in the order of the backing map
+    private Entry<K, V> lowest() {
+        Entry<K, V> e;
+        if (!hasLow) {
+            e = map.firstEntry();
+        } else {
+            e = (lowInclusive ? map.ceilingEntry(low) : map.higherEntry(low));
+        }
+        return inRange(e);
+    }
+
+    private Entry<K, V> highest() {
+        Entry<K, V> e;
+        if (!hasHigh) {
+            e = map.lastEntry();
+        } else {
+            e = (highInclusive ? map.floorEntry(high) : map.lowerEntry(high));
+        }
+        return inRange(e);
+    }
+
+    private Entry<K, V> ceiling(K key, boolean inclusive) {
+        if (tooLow(key)) {
+            return lowest();
+        }
+        return inRange(inclusive ? map.ceilingEntry(key) : map.higherEntry(key));
+    }
+
+    private Entry<K, V> floor(K key, boolean inclusive) {
+        if (tooHigh(key)) {
+            return highest();
+        }
+        return inRange(inclusive ? map.floorEntry(key) : map.lowerEntry(key));
+    }
+
+    // public methods of the Map interface
+    /**
+     * Returns the number of entries in the view, by counting them.
+     *
+     * @return number of entries in the view
+     */
+    @Override
+    public int size() {
+        int count = 0;
+        for (Iterator<Entry<K, V>> it = entrySet().iterator(); it.hasNext(); it.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return lowest() == null;
+    }
+
+    @Override
+    public V get(K key) throws IllegalArgumentException {
+        map.checkKey(key);
+        return (inRange(key) ? map.get(key) : null);
+    }
+
+    /**
+     * Puts the entry into the backing map.
+     *
+     * @throws IllegalArgumentException if the key lies outside the view's range
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+        map.checkKey(key);
+        if (!inRange(key)) {
+            throw new IllegalArgumentException("Key out of range");
+        }
+        return map.put(key, value);
+    }
+
+    @Override
+    public V remove(K key) throws IllegalArgumentException {
+        map.checkKey(key);
+        return (inRange(key) ? map.remove(key) : null);
+    }
+
+    @Override
+    public Iterable<Entry<K, V>> entrySet() {
+        return () -> new RangeIterator();
+    }
+
+    // public methods of the SortedMap interface, in the order of the view
+    @Override
+    public Entry<K, V> firstEntry() {
+        return (descending ? highest() : lowest());
+    }
+
+    @Override
+    public Entry<K, V> lastEntry() {
+        return (descending ? lowest() : highest());
+    }
+
+    @Override
+    public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+        map.checkKey(key);
+        return (descending ? floor(key, true) : ceiling(key, true));
+    }
+
+    @Override
+    public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+        map.checkKey(key);
+        return (descending ? ceiling(key, true) : floor(key, true));
+    }
+
+    @Override
+    public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+        map.checkKey(key);
+        return (descending ? ceiling(key, false) : floor(key, false));
+    }
+
+    @Override
+    public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+        map.checkKey(key);
+        return (descending ? floor(key, false) : ceiling(key, false));
+    }
+
+    @Override
+    public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+        return subMap(fromKey, true, toKey, false).entrySet();
+    }
+
+    @Override
+    public SortedMap<K, V> descendingMap() {
+        return new SortedMapView<>(map, !descending, hasLow, low, lowInclusive, hasHigh, high, highInclusive);
+    }
+
+    @Override
+    public SortedMap<K, V> headMap(K toKey, boolean inclusive) throws IllegalArgumentException {
+        map.checkKey(toKey);
+        return (descending ? withLow(toKey, inclusive) : withHigh(toKey, inclusive));
+    }
+
+    @Override
+    public SortedMap<K, V> tailMap(K fromKey, boolean inclusive) throws IllegalArgumentException {
+        map.checkKey(fromKey);
+        return (descending ? withHigh(fromKey, inclusive) : withLow(fromKey, inclusive));
+    }
+
+    @Override
+    public SortedMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive)
+            throws IllegalArgumentException {
+        return ((SortedMapView<K, V>) tailMap(fromKey, fromInclusive)).headMap(toKey, toInclusive);
+    }
+
+    /** Returns a view whose lower bound is the tighter of the current one and the given one. */
+    private SortedMapView<K, V> withLow(K key, boolean inclusive) {
+        if (hasLow) {
+            int c = map.compare(key, low);
+            if (c < 0) {
+                return this;
+            } else if (c == 0) {
+                inclusive &= lowInclusive;
+            }
+        }
+        return new SortedMapView<>(map, descending, true, key, inclusive, hasHigh, high, highInclusive);
+    }
+
+    /** Returns a view whose upper bound is the tighter of the current one and the given one. */
+    private SortedMapView<K, V> withHigh(K key, boolean inclusive) {
+        if (hasHigh) {
+            int c = map.compare(key, high);
+            if (c > 0) {
+                return this;
+            } else if (c == 0) {
+                inclusive &= highInclusive;
+            }
+        }
+        return new SortedMapView<>(map, descending, hasLow, low, lowInclusive, true, key, inclusive);
+    }
+
+    // ---------------- nested RangeIterator class ----------------
+    /* Iterates in the backing map from the near end of the range, and stops at the first key past the far end. */
+    private class RangeIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<Entry<K, V>> entries;
+        private Entry<K, V> next;
+
+        RangeIterator() {
+            if (descending) {
+                entries = map.iteratorFrom(hasHigh ? high : null, highInclusive || !hasHigh, true);
+            } else {
+                entries = map.iteratorFrom(hasLow ? low : null, lowInclusive || !hasLow, false);
+            }
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            if (entries.hasNext()) {
+                Entry<K, V> e = entries.next();
+                if (descending ? !tooLow(e.getKey()) : !tooHigh(e.getKey())) {
+                    next = e;
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException("No more entries");
+            }
+            Entry<K, V> answer = next;
+            advance();
+            return answer;
+        }
+    } // ----------- end of nested RangeIterator class -----------
+}
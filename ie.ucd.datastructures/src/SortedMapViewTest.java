@@ -0,0 +1,143 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortedMapViewTest {
+
+	@Test
+	void testDescendingMap() {
+		TreeMap<Integer, String> m = new TreeMap<>();
+		for (int i = 1; i <= 5; i++) {
+			m.put(i, "v" + i);
+		}
+		SortedMap<Integer, String> d = m.descendingMap();
+		assertEquals(List.of(5, 4, 3, 2, 1), keys(d));
+		assertEquals(5, d.firstEntry().getKey());
+		assertEquals(3, d.higherEntry(4).getKey());
+		assertEquals(List.of(1, 2, 3, 4, 5), keys(d.descendingMap()));
+	}
+
+	@Test
+	void testViewsAreLive() {
+		AVLTreeMap<Integer, Integer> m = new AVLTreeMap<>();
+		for (int i = 0; i < 100; i += 10) {
+			m.put(i, i);
+		}
+		SortedMap<Integer, Integer> head = m.headMap(50, true);
+		assertEquals(6, head.size());
+		m.put(45, 45);
+		m.remove(0);
+		assertEquals(List.of(10, 20, 30, 40, 45, 50), keys(head));
+		head.put(5, 5);
+		assertEquals(5, m.get(5));
+		assertNull(head.remove(60));
+		assertEquals(60, m.get(60));
+		assertThrows(IllegalArgumentException.class, () -> head.put(51, 51));
+		assertTrue(m.subMap(31, true, 39, true).isEmpty());
+		assertTrue(m.subMap(60, true, 20, true).isEmpty());
+	}
+
+	@Test
+	void testAgainstNavigableMap() {
+		checkViews(TreeMap::new);
+		checkViews(AVLTreeMap::new);
+		checkViews(SplayTreeMap::new);
+		checkViews(() -> new SplayTreeMap<>(null, 0.5, 3, true));
+		checkViews(ConcurrentSplayTreeMap::new);
+		checkViews(RedBlackTreeMap::new);
+		checkViews(SkipList::new);
+		checkViews(ConcurrentSkipList::new);
+		checkViews(BTreeMap::new);
+		checkViews(ArrayAVLTreeMap::new);
+		checkViews(PersistentAVLTreeMap::new);
+	}
+
+	private static void checkViews(Supplier<SortedMap<Integer, Integer>> factory) {
+		SortedMap<Integer, Integer> m = factory.get();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rnd = new Random(5);
+		for (int i = 0; i < 300; i++) {
+			int k = 2 * rnd.nextInt(200); // even keys, so odd probes are absent
+			m.put(k, i);
+			expected.put(k, i);
+		}
+		for (int trial = 0; trial < 200; trial++) {
+			int from = rnd.nextInt(420) - 10;
+			int to = from + rnd.nextInt(150);
+			boolean fromInclusive = rnd.nextBoolean();
+			boolean toInclusive = rnd.nextBoolean();
+			SortedMap<Integer, Integer> view;
+			NavigableMap<Integer, Integer> model;
+			switch (trial % 4) {
+				case 0:
+					view = m.headMap(to, toInclusive);
+					model = expected.headMap(to, toInclusive);
+					break;
+				case 1:
+					view = m.tailMap(from, fromInclusive);
+					model = expected.tailMap(from, fromInclusive);
+					break;
+				default:
+					view = m.subMap(from, fromInclusive, to, toInclusive);
+					model = expected.subMap(from, fromInclusive, to, toInclusive);
+			}
+			if (trial % 2 == 1) {
+				view = view.descendingMap();
+				model = model.descendingMap();
+			}
+			compare(model, view, rnd);
+			// a view of a view narrows the range further
+			int mid = from + rnd.nextInt(150);
+			compare(tailOf(model, mid), view.tailMap(mid, true), rnd);
+		}
+	}
+
+	private static NavigableMap<Integer, Integer> tailOf(NavigableMap<Integer, Integer> model, int key) {
+		// java.util views reject keys outside their range, while ours clip them
+		NavigableMap<Integer, Integer> result = new java.util.TreeMap<>(model.comparator());
+		for (java.util.Map.Entry<Integer, Integer> e : model.entrySet()) {
+			int c = model.comparator() == null ? Integer.compare(e.getKey(), key) : model.comparator().compare(e.getKey(), key);
+			if (c >= 0) {
+				result.put(e.getKey(), e.getValue());
+			}
+		}
+		return result;
+	}
+
+	private static void compare(NavigableMap<Integer, Integer> model, SortedMap<Integer, Integer> view, Random rnd) {
+		assertEquals(new ArrayList<>(model.keySet()), keys(view));
+		assertEquals(model.size(), view.size());
+		assertEquals(model.isEmpty(), view.isEmpty());
+		assertEquals(model.isEmpty() ? null : model.firstKey(), key(view.firstEntry()));
+		assertEquals(model.isEmpty() ? null : model.lastKey(), key(view.lastEntry()));
+		for (int i = 0; i < 20; i++) {
+			int probe = rnd.nextInt(420) - 10;
+			assertEquals(model.ceilingKey(probe), key(view.ceilingEntry(probe)));
+			assertEquals(model.floorKey(probe), key(view.floorEntry(probe)));
+			assertEquals(model.higherKey(probe), key(view.higherEntry(probe)));
+			assertEquals(model.lowerKey(probe), key(view.lowerEntry(probe)));
+			assertEquals(model.get(probe), view.get(probe));
+		}
+	}
+
+	private static List<Integer> keys(SortedMap<Integer, ?> m) {
+		List<Integer> keys = new ArrayList<>();
+		for (Integer k : m.keySet()) {
+			keys.add(k);
+		}
+		return keys;
+	}
+
+	private static Integer key(Entry<Integer, Integer> e) {
+		return e == null ? null : e.getKey();
+	}
+}
@@ -1,21 +1,403 @@
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class Sorter {
+	/* Below this length a range is finished by insertion sort. */
+	static final int INSERTION_THRESHOLD = 32;
+	/* From this length on, xSort uses the radix sort instead of the quicksort. */
+	static final int RADIX_THRESHOLD = 1 << 8;
+	/* From this length on, xSort sorts in parallel when there is more than one processor. */
+	static final int PARALLEL_THRESHOLD = 1 << 17;
+	/* The parallel merge sort sorts and merges ranges shorter than this sequentially. */
+	static final int PARALLEL_GRAIN = 1 << 13;
+	/* timSort extends runs shorter than about this length by binary insertion sort. */
+	static final int MIN_MERGE = 32;
+	/* A timSort merge moves a run's elements in bulk once the run has supplied this many in a row. */
+	static final int MIN_GALLOP = 7;
+	/* Lengths above which the quadratic sorts are left out of the timings in main. */
+	private static final int QUADRATIC_LIMIT = 20000;
+	/* The algorithms timed by main; the first QUADRATIC_SORTS of them take quadratic time. */
+	private static final String[] ALGORITHMS = {"bubbleSort", "selectionSort", "insertionSort", "quickSort", "radixSort", "parallelMergeSort", "xSort"};
+	private static final int QUADRATIC_SORTS = 3;
+
+	/* The function sorts a given array with the algorithm best suited to its length: insertion sort for short arrays,
+	 * the dual-pivot quicksort up to RADIX_THRESHOLD elements, the LSD radix sort beyond, and the parallel merge sort
+	 * from PARALLEL_THRESHOLD elements on if more than one processor is available.
+	 *
+	 * @param arr: the integer array to be sorted
+	 */
 	public static void xSort(int [] arr) {
+		int n = arr.length;
+		if (n < INSERTION_THRESHOLD) {
+			insertionSort(arr, 0, n);
+		} else if (n >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+			parallelMergeSort(arr);
+		} else if (n >= RADIX_THRESHOLD) {
+			radixSort(arr);
+		} else {
+			quickSort(arr);
+		}
 	}
+
+	/* Times each algorithm on random arrays of growing length and prints one CSV line per run: the length, the
+	 * algorithm and the median time in milliseconds of several sorts of fresh copies, after some warm-up sorts.
+	 * The quadratic sorts stop at QUADRATIC_LIMIT elements. Every result is checked to be sorted.
+	 *
+	 * @param args: optionally, the largest length to time (10,000,000 by default)
+	 */
 	public static void main(String [] args) {
+		int maxN = (args.length > 0 ? Integer.parseInt(args[0]) : 10000000);
 		Random random = new Random(20010);
-		for (int n = 1000; n < 10000000;) {
-			int[] arr = new int[n];
+		System.out.println("n,algorithm,ms");
+		for (int n = 1000; n <= maxN; n *= 10) {
+			int[] data = new int[n];
 			for (int i = 0; i < n; ++i) {
-				arr[i] = random.nextInt(); }
-			Timer t = new Timer(); 
-			Sorter.insertionSort(arr);
-			System.out.println("" + n + "," + t.elapsedTime());
-			n = (int) (n * 1.5);
+				data[i] = random.nextInt(); }
+			int[] expected = data.clone();
+			Arrays.sort(expected);
+			for (int a = (n > QUADRATIC_LIMIT ? QUADRATIC_SORTS : 0); a < ALGORITHMS.length; a++) {
+				System.out.printf("%d,%s,%.3f%n", n, ALGORITHMS[a], time(ALGORITHMS[a], data, expected));
+			}
+		}
+	}
+
+	/* Returns the median time in milliseconds of sorting copies of data with the named algorithm. */
+	private static double time(String algorithm, int[] data, int[] expected) {
+		int runs = Math.max(3, Math.min(25, 10000000 / data.length));
+		double[] ms = new double[runs];
+		for (int r = -runs; r < runs; r++) {   // the first runs only warm up
+			int[] arr = data.clone();
+			long start = System.nanoTime();
+			sort(algorithm, arr);
+			long elapsed = System.nanoTime() - start;
+			if (!Arrays.equals(arr, expected)) {
+				throw new IllegalStateException(algorithm + " did not sort " + data.length + " elements");
+			}
+			if (r >= 0) {
+				ms[r] = elapsed / 1e6;
+			}
+		}
+		Arrays.sort(ms);
+		return ms[runs / 2];
+	}
+
+	/* Sorts the array with the algorithm of the given name, one of ALGORITHMS. */
+	static void sort(String algorithm, int[] arr) {
+		switch (algorithm) {
+			case "bubbleSort": bubbleSort(arr); break;
+			case "selectionSort": selectionSort(arr); break;
+			case "insertionSort": insertionSort(arr); break;
+			case "quickSort": quickSort(arr); break;
+			case "radixSort": radixSort(arr); break;
+			case "parallelMergeSort": parallelMergeSort(arr); break;
+			case "xSort": xSort(arr); break;
+			default: throw new IllegalArgumentException("Unknown sorting algorithm: " + algorithm);
 		}
 	}
 	
+	/* Sorts a list by the natural ordering of its elements. See sort(List, Comparator).
+	 *
+	 * @param list: the list to be sorted
+	 */
+	public static <E> void sort(List<E> list) {
+		sort(list, new DefaultComparator<E>());
+	}
+
+	/* The function sorts a list of objects with the given comparator. The sort is stable and takes O(n log n) time.
+	 * A SinglyLinkedList or DoublyLinkedList is sorted in place by its bottom-up merge sort, which relinks its nodes
+	 * instead of copying the elements. The elements of any other list are copied into an array, sorted by timSort
+	 * and written back: a CircularlyLinkedList is read and written by rotating it once around, other lists by get and
+	 * set, which suits lists with constant-time positional access.
+	 *
+	 * @param list: the list to be sorted
+	 * @param comp: the comparator defining the order of the elements
+	 */
+	@SuppressWarnings({"unchecked"})
+	public static <E> void sort(List<E> list, Comparator<E> comp) {
+		if (list instanceof SinglyLinkedList) {
+			((SinglyLinkedList<E>) list).sort(comp);
+		} else if (list instanceof DoublyLinkedList) {
+			((DoublyLinkedList<E>) list).sort(comp);
+		} else if (list instanceof CircularlyLinkedList) {
+			CircularlyLinkedList<E> circle = (CircularlyLinkedList<E>) list;
+			E[] a = (E[]) new Object[circle.size()];
+			for (int i = 0; i < a.length; i++) {
+				a[i] = circle.first();
+				circle.rotate();
+			}
+			timSort(a, comp);
+			for (E e : a) {
+				circle.set(0, e);
+				circle.rotate();
+			}
+		} else {
+			E[] a = (E[]) new Object[list.size()];
+			for (int i = 0; i < a.length; i++) {
+				a[i] = list.get(i);
+			}
+			timSort(a, comp);
+			for (int i = 0; i < a.length; i++) {
+				list.set(i, a[i]);
+			}
+		}
+	}
+
+	/* The function uses a TimSort-style natural merge sort in order to sort a given array of objects, stably. The
+	 * array is cut into runs that are already ascending, or strictly descending and then reversed; runs shorter than
+	 * a minimum length of about MIN_MERGE are extended by binary insertion sort. The runs are kept on a stack whose
+	 * lengths grow at least like the Fibonacci numbers, merging neighbours whenever that invariant breaks, so merges
+	 * stay balanced. Each merge first skips the prefix of the left run and the suffix of the right run that are
+	 * already in place, buffers only the shorter of the remainders, and gallops through long stretches taken from
+	 * one run (see MIN_GALLOP). A sorted input is a single run and takes
+	 * n - 1 comparisons; an input with few runs takes O(n log r) time for r runs.
+	 *
+	 * @param array: the array to be sorted
+	 * @param comp: the comparator defining the order of the elements
+	 */
+	public static <E> void timSort(E [] array, Comparator<E> comp) {
+		int n = array.length;
+		if (n < 2) {
+			return;
+		}
+		TimSort<E> ts = new TimSort<>(array, comp);
+		int minRun = minRunLength(n);
+		for (int lo = 0; lo < n; ) {
+			int run = ts.countRunAndMakeAscending(lo, n);
+			if (run < minRun) {
+				int force = Math.min(minRun, n - lo);
+				ts.binaryInsertionSort(lo, lo + force, lo + run);
+				run = force;
+			}
+			ts.pushRun(lo, run);
+			ts.mergeCollapse();
+			lo += run;
+		}
+		ts.mergeForceCollapse();
+	}
+
+	/* Returns the minimum run length for an array of length n: n itself if it is shorter than MIN_MERGE, otherwise
+	 * a length between MIN_MERGE/2 and MIN_MERGE such that n divided by it is close to, but at most, a power of two.
+	 */
+	private static int minRunLength(int n) {
+		int r = 0;
+		while (n >= MIN_MERGE) {
+			r |= (n & 1);
+			n >>= 1;
+		}
+		return n + r;
+	}
+
+	//---------------- nested TimSort class ----------------
+	/* The state of one timSort: the array, the stack of pending runs and the merge buffer. */
+	private static class TimSort<E> {
+		private final E[] a;
+		private final Comparator<E> comp;
+		private E[] tmp;                                // merge buffer, allocated by the first merge
+		private final int[] runBase = new int[49];      // enough for any int length under the stack invariant
+		private final int[] runLen = new int[49];
+		private int stackSize = 0;
+
+		TimSort(E[] a, Comparator<E> comp) {
+			this.a = a;
+			this.comp = comp;
+		}
+
+		/* Returns the length of the run starting at lo, reversing it first if it is strictly descending. */
+		int countRunAndMakeAscending(int lo, int hi) {
+			int runHi = lo + 1;
+			if (runHi == hi) {
+				return 1;
+			}
+			if (comp.compare(a[runHi++], a[lo]) < 0) {  // strictly descending, so that reversing keeps it stable
+				while (runHi < hi && comp.compare(a[runHi], a[runHi - 1]) < 0) {
+					runHi++;
+				}
+				for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+					E temp = a[i];
+					a[i] = a[j];
+					a[j] = temp;
+				}
+			} else {
+				while (runHi < hi && comp.compare(a[runHi], a[runHi - 1]) >= 0) {
+					runHi++;
+				}
+			}
+			return runHi - lo;
+		}
+
+		/* Sorts [lo, hi) by binary insertion sort, given that [lo, start) is already sorted. */
+		void binaryInsertionSort(int lo, int hi, int start) {
+			for (int i = start; i < hi; i++) {
+				E pivot = a[i];
+				int left = upperBound(pivot, a, lo, i);    // after any equal elements, for stability
+				System.arraycopy(a, left, a, left + 1, i - left);
+				a[left] = pivot;
+			}
+		}
+
+		void pushRun(int base, int len) {
+			runBase[stackSize] = base;
+			runLen[stackSize] = len;
+			stackSize++;
+		}
+
+		/* Merges runs until runLen[i-2] > runLen[i-1] + runLen[i] and runLen[i-1] > runLen[i] hold on the stack. */
+		void mergeCollapse() {
+			while (stackSize > 1) {
+				int n = stackSize - 2;
+				if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+						|| n > 1 && runLen[n - 2] <= runLen[n - 1] + runLen[n]) {
+					if (runLen[n - 1] < runLen[n + 1]) {
+						n--;
+					}
+				} else if (runLen[n] > runLen[n + 1]) {
+					break;
+				}
+				mergeAt(n);
+			}
+		}
+
+		/* Merges all remaining runs, once the whole array has been cut into runs. */
+		void mergeForceCollapse() {
+			while (stackSize > 1) {
+				int n = stackSize - 2;
+				if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+					n--;
+				}
+				mergeAt(n);
+			}
+		}
+
+		/* Merges the runs at stack positions i and i + 1. */
+		private void mergeAt(int i) {
+			int base1 = runBase[i], len1 = runLen[i];
+			int base2 = runBase[i + 1], len2 = runLen[i + 1];
+			runLen[i] = len1 + len2;
+			if (i == stackSize - 3) {
+				runBase[i + 1] = runBase[i + 2];
+				runLen[i + 1] = runLen[i + 2];
+			}
+			stackSize--;
+
+			int k = upperBound(a[base2], a, base1, base1 + len1);     // elements of run 1 already in place
+			len1 -= k - base1;
+			base1 = k;
+			if (len1 == 0) {
+				return;
+			}
+			len2 = lowerBound(a[base1 + len1 - 1], a, base2, base2 + len2) - base2;  // elements of run 2 to move
+			if (len2 == 0) {
+				return;
+			}
+			if (tmp == null || tmp.length < Math.min(len1, len2)) {
+				tmp = Arrays.copyOf(a, Math.max(Math.min(len1, len2), Math.min(a.length >>> 1, 256)));
+			}
+			if (len1 <= len2) {
+				mergeLo(base1, len1, base2, len2);
+			} else {
+				mergeHi(base1, len1, base2, len2);
+			}
+		}
+
+		/* Merges two adjacent runs from the left, buffering the first, shorter one. Once one run has supplied
+		 * MIN_GALLOP elements in a row, the whole stretch of it that precedes the other run's next element is found
+		 * by binary search and moved at once.
+		 */
+		private void mergeLo(int base1, int len1, int base2, int len2) {
+			System.arraycopy(a, base1, tmp, 0, len1);
+			int i = 0, j = base2, end2 = base2 + len2, dest = base1;
+			int count1 = 0, count2 = 0;                 // elements in a row taken from each run
+			while (i < len1 && j < end2) {
+				if (comp.compare(a[j], tmp[i]) < 0) {
+					count1 = 0;
+					if (++count2 < MIN_GALLOP) {
+						a[dest++] = a[j++];
+					} else {
+						int k = lowerBound(tmp[i], a, j, end2);
+						System.arraycopy(a, j, a, dest, k - j);
+						dest += k - j;
+						j = k;
+						count2 = 0;
+					}
+				} else {
+					count2 = 0;
+					if (++count1 < MIN_GALLOP) {
+						a[dest++] = tmp[i++];
+					} else {
+						int k = upperBound(a[j], tmp, i, len1);
+						System.arraycopy(tmp, i, a, dest, k - i);
+						dest += k - i;
+						i = k;
+						count1 = 0;
+					}
+				}
+			}
+			System.arraycopy(tmp, i, a, dest, len1 - i);   // what is left of run 2 is already in place
+		}
+
+		/* Merges two adjacent runs from the right, buffering the second, shorter one, galloping as mergeLo does. */
+		private void mergeHi(int base1, int len1, int base2, int len2) {
+			System.arraycopy(a, base2, tmp, 0, len2);
+			int i = base1 + len1 - 1, j = len2 - 1, dest = base2 + len2 - 1;
+			int count1 = 0, count2 = 0;
+			while (i >= base1 && j >= 0) {
+				if (comp.compare(tmp[j], a[i]) < 0) {
+					count2 = 0;
+					if (++count1 < MIN_GALLOP) {
+						a[dest--] = a[i--];
+					} else {
+						int k = upperBound(tmp[j], a, base1, i + 1);
+						System.arraycopy(a, k, a, dest - (i - k), i + 1 - k);
+						dest -= i + 1 - k;
+						i = k - 1;
+						count1 = 0;
+					}
+				} else {
+					count1 = 0;
+					if (++count2 < MIN_GALLOP) {
+						a[dest--] = tmp[j--];
+					} else {
+						int k = lowerBound(a[i], tmp, 0, j + 1);
+						System.arraycopy(tmp, k, a, dest - (j - k), j + 1 - k);
+						dest -= j + 1 - k;
+						j = k - 1;
+						count2 = 0;
+					}
+				}
+			}
+			System.arraycopy(tmp, 0, a, dest - j, j + 1);   // what is left of run 1 is already in place
+		}
+
+		/* Returns the first index of arr[lo, hi) whose element is greater than key. */
+		private int upperBound(E key, E[] arr, int lo, int hi) {
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (comp.compare(key, arr[mid]) < 0) {
+					hi = mid;
+				} else {
+					lo = mid + 1;
+				}
+			}
+			return lo;
+		}
+
+		/* Returns the first index of arr[lo, hi) whose element is not less than key. */
+		private int lowerBound(E key, E[] arr, int lo, int hi) {
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (comp.compare(arr[mid], key) < 0) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+	} //----------- end of nested TimSort class -----------
+
 	/* The function uses the bubble sort algorithm in order to sort a given array. Bubble sort repeatedly steps through the array to sort
 	 * comparing adjecent elements, and swapping them around if the second value is larger than the first.
 	 * 
@@ -78,4 +460,316 @@ public class Sorter {
 		}
 	}
 
-}
\ No newline at end of file
+	/* Sorts the range [lo, hi) of the array by insertion sort. */
+	static void insertionSort(int [] array, int lo, int hi) {
+		for (int i = lo + 1; i < hi; i++) {
+			int temp = array[i];
+			int j = i - 1;
+			while (j >= lo && array[j] > temp) {
+				array[j + 1] = array[j];
+				j--;
+			}
+			array[j + 1] = temp;
+		}
+	}
+
+	/* The function uses an introspective dual-pivot quicksort in order to sort a given array. Each step partitions the
+	 * range around two pivots, the second and fourth of five evenly spaced samples, into the elements less than the
+	 * first pivot, those between the pivots and those greater than the second pivot. Ranges shorter than
+	 * INSERTION_THRESHOLD are finished by insertion sort, and a range still unsorted after 2 log2(n) levels of
+	 * partitioning is heap sorted, so that the worst case is O(n log n).
+	 *
+	 * @param array: the integer array to be sorted
+	 */
+	public static void quickSort(int [] array) {
+		quickSort(array, 0, array.length, 2 * (32 - Integer.numberOfLeadingZeros(array.length)));
+	}
+
+	/* Sorts the range [lo, hi), allowing depth more levels of partitioning before falling back to heap sort. */
+	private static void quickSort(int [] a, int lo, int hi, int depth) {
+		while (hi - lo >= INSERTION_THRESHOLD) {
+			if (depth-- == 0) {
+				heapSort(a, lo, hi);
+				return;
+			}
+			int len = hi - lo;
+			int seventh = (len >> 3) + (len >> 6) + 1;
+			int e3 = (lo + hi - 1) >>> 1;
+			int e2 = e3 - seventh, e1 = e2 - seventh, e4 = e3 + seventh, e5 = e4 + seventh;
+			// sort the five samples with an optimal sorting network
+			compareSwap(a, e1, e2); compareSwap(a, e4, e5); compareSwap(a, e3, e5);
+			compareSwap(a, e3, e4); compareSwap(a, e2, e5); compareSwap(a, e1, e4);
+			compareSwap(a, e1, e3); compareSwap(a, e2, e4); compareSwap(a, e2, e3);
+
+			int p = a[e2], q = a[e4];                  // p <= q
+			a[e2] = a[lo];                             // park the pivots at both ends
+			a[e4] = a[hi - 1];
+			int lt = lo + 1, gt = hi - 2;              // a[lo+1..lt) < p, a(gt..hi-1) > q
+			for (int k = lt; k <= gt; k++) {
+				int x = a[k];
+				if (x < p) {
+					a[k] = a[lt];
+					a[lt++] = x;
+				} else if (x > q) {
+					while (a[gt] > q && k < gt) {
+						gt--;
+					}
+					a[k] = a[gt];
+					a[gt--] = x;
+					x = a[k];
+					if (x < p) {
+						a[k] = a[lt];
+						a[lt++] = x;
+					}
+				}
+			}
+			a[lo] = a[--lt];                           // move the pivots to their final places
+			a[lt] = p;
+			a[hi - 1] = a[++gt];
+			a[gt] = q;
+
+			quickSort(a, lo, lt, depth);
+			if (p < q) {                               // if p == q the middle holds only copies of p
+				quickSort(a, lt + 1, gt, depth);
+			}
+			lo = gt + 1;                               // loop on the right part
+		}
+		insertionSort(a, lo, hi);
+	}
+
+	private static void compareSwap(int [] a, int i, int j) {
+		if (a[i] > a[j]) {
+			int temp = a[i];
+			a[i] = a[j];
+			a[j] = temp;
+		}
+	}
+
+	/* Sorts the range [lo, hi) by heap sort, using a binary max-heap rooted at lo. */
+	static void heapSort(int [] a, int lo, int hi) {
+		int n = hi - lo;
+		for (int j = n / 2 - 1; j >= 0; j--) {
+			siftDown(a, lo, j, n);
+		}
+		for (int end = n - 1; end > 0; end--) {
+			int temp = a[lo];
+			a[lo] = a[lo + end];
+			a[lo + end] = temp;
+			siftDown(a, lo, 0, end);
+		}
+	}
+
+	private static void siftDown(int [] a, int lo, int j, int n) {
+		int x = a[lo + j];
+		int child;
+		while ((child = 2 * j + 1) < n) {
+			if (child + 1 < n && a[lo + child + 1] > a[lo + child]) {
+				child++;
+			}
+			if (a[lo + child] <= x) {
+				break;
+			}
+			a[lo + j] = a[lo + child];
+			j = child;
+		}
+		a[lo + j] = x;
+	}
+
+	/* The function uses an LSD radix sort in order to sort a given array. The keys are distributed by counting sort
+	 * on one byte at a time, from the least significant byte to the most significant one, whose sign bit is flipped
+	 * so that negative numbers come first. One pass over the array counts all four bytes at once, and a byte on
+	 * which all keys agree is skipped. It takes O(n) time and an auxiliary array of n integers.
+	 *
+	 * @param array: the integer array to be sorted
+	 */
+	public static void radixSort(int [] array) {
+		if (array.length >= 2) {
+			radixSort(array, new int[array.length], 0, array.length);
+		}
+	}
+
+	/* Radix sorts the range [lo, hi) of the array, using the same range of buf as the auxiliary array. */
+	private static void radixSort(int [] array, int [] buf, int lo, int hi) {
+		int n = hi - lo;
+		int[][] counts = new int[4][256];
+		for (int i = lo; i < hi; i++) {
+			int x = array[i] ^ Integer.MIN_VALUE;
+			counts[0][x & 0xFF]++;
+			counts[1][(x >>> 8) & 0xFF]++;
+			counts[2][(x >>> 16) & 0xFF]++;
+			counts[3][x >>> 24]++;
+		}
+		int[] src = array, dst = buf;
+		for (int d = 0; d < 4; d++) {
+			int shift = 8 * d;
+			int[] count = counts[d];
+			if (count[((array[lo] ^ Integer.MIN_VALUE) >>> shift) & 0xFF] == n) {
+				continue;                              // every key has the same byte here
+			}
+			for (int b = 0, sum = lo; b < 256; b++) {  // turn the counts into starting positions
+				int c = count[b];
+				count[b] = sum;
+				sum += c;
+			}
+			for (int i = lo; i < hi; i++) {
+				int x = src[i];
+				dst[count[((x ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++] = x;
+			}
+			int[] temp = src;
+			src = dst;
+			dst = temp;
+		}
+		if (src != array) {
+			System.arraycopy(src, lo, array, lo, n);
+		}
+	}
+
+	/* The function uses an LSD radix sort in order to sort a given array of longs, one byte at a time as for an
+	 * integer array, in up to eight passes.
+	 *
+	 * @param array: the long array to be sorted
+	 */
+	public static void radixSort(long [] array) {
+		int n = array.length;
+		if (n < 2) {
+			return;
+		}
+		int[][] counts = new int[8][256];
+		for (long x : array) {
+			x ^= Long.MIN_VALUE;
+			for (int d = 0; d < 8; d++) {
+				counts[d][(int) (x >>> (8 * d)) & 0xFF]++;
+			}
+		}
+		long[] src = array, dst = new long[n];
+		for (int d = 0; d < 8; d++) {
+			int shift = 8 * d;
+			int[] count = counts[d];
+			if (count[(int) ((array[0] ^ Long.MIN_VALUE) >>> shift) & 0xFF] == n) {
+				continue;
+			}
+			for (int b = 0, sum = 0; b < 256; b++) {
+				int c = count[b];
+				count[b] = sum;
+				sum += c;
+			}
+			for (long x : src) {
+				dst[count[(int) ((x ^ Long.MIN_VALUE) >>> shift) & 0xFF]++] = x;
+			}
+			long[] temp = src;
+			src = dst;
+			dst = temp;
+		}
+		if (src != array) {
+			System.arraycopy(src, 0, array, 0, n);
+		}
+	}
+
+	/* The function uses a parallel merge sort in order to sort a given array, on the common fork-join pool. The array
+	 * is split in halves which are sorted in parallel, down to PARALLEL_GRAIN elements sorted by radixSort, and the
+	 * sorted halves are merged in parallel too, by splitting the longer half at its middle and the other at the same
+	 * key. The levels alternate between the array and one auxiliary array, so no level copies its result back.
+	 *
+	 * @param array: the integer array to be sorted
+	 */
+	public static void parallelMergeSort(int [] array) {
+		if (array.length < PARALLEL_GRAIN) {
+			radixSort(array);
+			return;
+		}
+		ForkJoinPool.commonPool().invoke(new MergeSortTask(array, new int[array.length], 0, array.length, true));
+	}
+
+	//---------------- nested MergeSortTask class ----------------
+	/* Sorts the range [lo, hi) of a, leaving the result in a if toA, otherwise in b. */
+	private static class MergeSortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] a, b;
+		private final int lo, hi;
+		private final boolean toA;
+
+		MergeSortTask(int[] a, int[] b, int lo, int hi, boolean toA) {
+			this.a = a;
+			this.b = b;
+			this.lo = lo;
+			this.hi = hi;
+			this.toA = toA;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo <= PARALLEL_GRAIN) {
+				radixSort(a, b, lo, hi);
+				if (!toA) {
+					System.arraycopy(a, lo, b, lo, hi - lo);
+				}
+				return;
+			}
+			int mid = (lo + hi) >>> 1;
+			invokeAll(new MergeSortTask(a, b, lo, mid, !toA), new MergeSortTask(a, b, mid, hi, !toA));
+			int[] src = (toA ? b : a), dst = (toA ? a : b);
+			new MergeTask(src, lo, mid, mid, hi, dst, lo).compute();
+		}
+	} //----------- end of nested MergeSortTask class -----------
+
+	//---------------- nested MergeTask class ----------------
+	/* Merges the sorted ranges [lo1, hi1) and [lo2, hi2) of src into dst starting at out. */
+	private static class MergeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] src, dst;
+		private final int lo1, hi1, lo2, hi2, out;
+
+		MergeTask(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int out) {
+			this.src = src;
+			this.lo1 = lo1;
+			this.hi1 = hi1;
+			this.lo2 = lo2;
+			this.hi2 = hi2;
+			this.dst = dst;
+			this.out = out;
+		}
+
+		@Override
+		protected void compute() {
+			int n1 = hi1 - lo1, n2 = hi2 - lo2;
+			if (n1 + n2 <= PARALLEL_GRAIN) {
+				merge();
+				return;
+			}
+			int m1, m2;                                // split both ranges at the same key
+			if (n1 >= n2) {
+				m1 = (lo1 + hi1) >>> 1;
+				m2 = lowerBound(src, lo2, hi2, src[m1]);
+			} else {
+				m2 = (lo2 + hi2) >>> 1;
+				m1 = lowerBound(src, lo1, hi1, src[m2]);
+			}
+			int split = out + (m1 - lo1) + (m2 - lo2);
+			invokeAll(new MergeTask(src, lo1, m1, lo2, m2, dst, out), new MergeTask(src, m1, hi1, m2, hi2, dst, split));
+		}
+
+		private void merge() {
+			int i = lo1, j = lo2, k = out;
+			while (i < hi1 && j < hi2) {
+				dst[k++] = (src[j] < src[i] ? src[j++] : src[i++]);
+			}
+			System.arraycopy(src, i, dst, k, hi1 - i);
+			System.arraycopy(src, j, dst, k + hi1 - i, hi2 - j);
+		}
+
+		/* Returns the first index of [lo, hi) whose element is not less than key. */
+		private static int lowerBound(int[] a, int lo, int hi, int key) {
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (a[mid] < key) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+	} //----------- end of nested MergeTask class -----------
+}
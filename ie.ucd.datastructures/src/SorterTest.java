@@ -0,0 +1,169 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SorterTest {
+
+	private static final String[] ALGORITHMS = {"bubbleSort", "selectionSort", "insertionSort", "quickSort", "radixSort", "parallelMergeSort", "xSort"};
+
+	@Test
+	void testSmallInputs() {
+		Random rnd = new Random(21);
+		for (int n = 0; n < 100; n++) {
+			int[] data = randomInts(n, n < 50 ? 10 : Integer.MAX_VALUE, rnd);
+			for (String algorithm : ALGORITHMS) {
+				assertSorts(algorithm, data);
+			}
+		}
+		assertThrows(IllegalArgumentException.class, () -> Sorter.sort("bogoSort", new int[0]));
+	}
+
+	@Test
+	void testLargeInputs() {
+		Random rnd = new Random(21);
+		for (int n : new int[] {1000, Sorter.RADIX_THRESHOLD + 1, 100000, Sorter.PARALLEL_THRESHOLD + 12345}) {
+			int[][] inputs = {
+					randomInts(n, Integer.MAX_VALUE, rnd),
+					randomInts(n, 3, rnd),                          // few distinct keys
+					sawtooth(n),
+					organPipe(n),
+					alternating(n),
+					new int[n],
+			};
+			for (int[] data : inputs) {
+				for (int a = 3; a < ALGORITHMS.length; a++) {
+					assertSorts(ALGORITHMS[a], data);
+				}
+			}
+		}
+	}
+
+	@Test
+	void testExtremeValues() {
+		int[] data = {Integer.MAX_VALUE, 0, Integer.MIN_VALUE, -1, 1, Integer.MIN_VALUE + 1, Integer.MAX_VALUE - 1};
+		for (String algorithm : ALGORITHMS) {
+			assertSorts(algorithm, data);
+		}
+		Random rnd = new Random(21);
+		for (int n : new int[] {0, 1, 50, 100000}) {
+			long[] longs = new long[n];
+			for (int i = 0; i < n; i++) {
+				longs[i] = (i % 7 == 0 ? Long.MIN_VALUE + i : rnd.nextLong());
+			}
+			long[] expected = longs.clone();
+			Arrays.sort(expected);
+			Sorter.radixSort(longs);
+			assertArrayEquals(expected, longs);
+		}
+	}
+
+	@Test
+	void testHeapSortFallback() {
+		// the introsort only heap sorts ranges that partition badly, so test it directly on a range
+		Random rnd = new Random(21);
+		int[] data = randomInts(5000, 100, rnd);
+		int[] expected = data.clone();
+		Arrays.sort(expected, 100, 4900);
+		Sorter.heapSort(data, 100, 4900);
+		assertArrayEquals(expected, data);
+	}
+
+	private static void assertSorts(String algorithm, int[] data) {
+		int[] expected = data.clone();
+		Arrays.sort(expected);
+		int[] arr = data.clone();
+		Sorter.sort(algorithm, arr);
+		assertArrayEquals(expected, arr, algorithm + " of " + data.length + " elements");
+	}
+
+	private static int[] randomInts(int n, int bound, Random rnd) {
+		int[] a = new int[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = (bound == Integer.MAX_VALUE ? rnd.nextInt() : rnd.nextInt(bound));
+		}
+		return a;
+	}
+
+	private static int[] sawtooth(int n) {
+		int[] a = new int[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = i % 1000;
+		}
+		return a;
+	}
+
+	private static int[] alternating(int n) {
+		int[] a = new int[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = (i % 2 == 0 ? i : n - i);
+		}
+		return a;
+	}
+
+	private static int[] organPipe(int n) {
+		int[] a = new int[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = Math.min(i, n - i);
+		}
+		return a;
+	}
+
+	@Test
+	void testTimSortIsStable() {
+		Random rnd = new Random(23);
+		Comparator<int[]> byKey = Comparator.comparingInt(p -> p[0]);
+		for (int n : new int[] {0, 1, 31, 32, 33, 1000, 100000}) {
+			for (int pattern = 0; pattern < 4; pattern++) {
+				int[][] pairs = new int[n][];
+				for (int i = 0; i < n; i++) {
+					int key;
+					switch (pattern) {
+						case 0: key = rnd.nextInt(50); break;                         // many duplicates
+						case 1: key = (rnd.nextInt(100) == 0 ? rnd.nextInt() : i); break;  // nearly sorted
+						case 2: key = n - i; break;                                   // descending
+						default: key = (i / 100) % 2 == 0 ? i : -i; break;            // alternating runs
+					}
+					pairs[i] = new int[] {key, i};
+				}
+				int[][] expected = pairs.clone();
+				Arrays.sort(expected, byKey);                  // also stable
+				Sorter.timSort(pairs, byKey);
+				for (int i = 0; i < n; i++) {
+					assertSame(expected[i], pairs[i], "pattern " + pattern + " of " + n + " elements at " + i);
+				}
+			}
+		}
+	}
+
+	@Test
+	void testSortLists() {
+		Random rnd = new Random(23);
+		Integer[] data = new Integer[500];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = rnd.nextInt(100);
+		}
+		Integer[] expected = data.clone();
+		Arrays.sort(expected);
+		SinglyLinkedList<Integer> singly = new SinglyLinkedList<>();
+		DoublyLinkedList<Integer> doubly = new DoublyLinkedList<>();
+		CircularlyLinkedList<Integer> circle = new CircularlyLinkedList<>();
+		for (Integer x : data) {
+			singly.addLast(x);
+			doubly.addLast(x);
+			circle.addLast(x);
+		}
+		for (List<Integer> list : Arrays.<List<Integer>>asList(singly, doubly, circle)) {
+			Sorter.sort(list);
+			for (int i = 0; i < data.length; i++) {
+				assertEquals(expected[i], list.get(i), list.getClass().getSimpleName() + " at " + i);
+			}
+		}
+	}
+}
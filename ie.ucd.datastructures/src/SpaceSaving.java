@@ -0,0 +1,211 @@
+import java.util.Arrays;
+
+/**
+ * The SpaceSaving algorithm of Metwally, Agrawal and El Abbadi, which tracks
+ * the most frequent keys of a stream with a fixed number of counters.
+ * <p>
+ * At most <code>capacity</code> keys are tracked, each with a count. A
+ * tracked key has its count increased; an untracked key is counted in place
+ * of the tracked key with the smallest count m, starting from m, and
+ * remembers m as its error. The count of a tracked key therefore exceeds its
+ * true count by at most its error, which is at most total/capacity, so a
+ * capacity of 1/epsilon finds every key that makes up more than a fraction
+ * epsilon of the stream. Trackers of separate streams can be merged into a
+ * tracker of their union, whose counts keep the same guarantees with
+ * respect to its smallest count.
+ * <p>
+ * The counters are the entries of a HeapAdaptablePriorityQueue keyed by
+ * count, so the smallest one is found in O(1) time, and a ProbeHashMap
+ * locates the counter of a key; adding costs O(log capacity) time.
+ */
+public class SpaceSaving<K> {
+
+    /** The key tracked by a counter, and the count it had before the key took it over. */
+    private static class Counter<K> {
+        K key;
+        long error;
+
+        Counter(K key, long error) {
+            this.key = key;
+            this.error = error;
+        }
+    }
+
+    private final int capacity;
+    private HeapAdaptablePriorityQueue<Long, Counter<K>> counters = new HeapAdaptablePriorityQueue<>();
+    private ProbeHashMap<K, Entry<Long, Counter<K>>> index;
+    private long total = 0;
+
+    /**
+     * Creates a tracker with the given number of counters.
+     *
+     * @param capacity the largest number of keys tracked
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public SpaceSaving(int capacity) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        index = new ProbeHashMap<>(Math.min(2 * capacity + 1, 1 << 20));
+    }
+
+    /**
+     * Returns the largest number of keys tracked.
+     *
+     * @return number of counters
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of keys tracked.
+     *
+     * @return number of keys tracked
+     */
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * Returns the sum of the counts added.
+     *
+     * @return total count
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Returns the smallest count of a tracked key once all counters are in
+     * use, which bounds the true count of every untracked key.
+     *
+     * @return smallest count, or 0 if some counters are unused
+     */
+    public long minCount() {
+        return (counters.size() < capacity ? 0 : counters.min().getKey());
+    }
+
+    /**
+     * Adds one occurrence of a key.
+     *
+     * @param key the key
+     */
+    public void add(K key) {
+        add(key, 1);
+    }
+
+    /**
+     * Adds occurrences of a key.
+     *
+     * @param key   the key
+     * @param count the number of occurrences to add
+     * @throws IllegalArgumentException if count is negative
+     */
+    public void add(K key, long count) throws IllegalArgumentException {
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative count");
+        }
+        total += count;
+        Entry<Long, Counter<K>> counter = index.get(key);
+        if (counter != null) {
+            counters.replaceKey(counter, counter.getKey() + count);
+        } else if (counters.size() < capacity) {
+            index.put(key, counters.insert(count, new Counter<>(key, 0)));
+        } else {                                   // take over the counter of the least frequent key
+            counter = counters.min();
+            long min = counter.getKey();
+            index.remove(counter.getValue().key);
+            counter.getValue().key = key;
+            counter.getValue().error = min;
+            counters.replaceKey(counter, min + count);
+            index.put(key, counter);
+        }
+    }
+
+    /**
+     * Returns an upper bound on the number of occurrences of a key: its
+     * count if it is tracked, and otherwise the smallest count.
+     *
+     * @param key the key
+     * @return the estimated count of the key
+     */
+    public long estimate(K key) {
+        Entry<Long, Counter<K>> counter = index.get(key);
+        return (counter != null ? counter.getKey() : minCount());
+    }
+
+    /**
+     * Returns the amount by which the estimate of a key may exceed its true count.
+     *
+     * @param key the key
+     * @return the error of the estimate of the key
+     */
+    public long error(K key) {
+        Entry<Long, Counter<K>> counter = index.get(key);
+        return (counter != null ? counter.getValue().error : minCount());
+    }
+
+    /**
+     * Returns the k tracked keys with the largest counts, with their counts,
+     * largest first; the order of keys with equal counts is unspecified.
+     *
+     * @param k the number of keys to report
+     * @return up to k keys and their counts
+     */
+    public java.util.List<Entry<K, Long>> top(int k) {
+        Entry<K, Long>[] all = newArray(counters.size());
+        int n = 0;
+        for (Entry<K, Entry<Long, Counter<K>>> e : index.entrySet()) {
+            all[n++] = new AbstractMap.MapEntry<>(e.getKey(), e.getValue().getKey());
+        }
+        Sorter.timSort(all, (x, y) -> Long.compare(y.getValue(), x.getValue()));
+        return Arrays.asList(Arrays.copyOf(all, Math.max(0, Math.min(k, n))));
+    }
+
+    /**
+     * Merges another tracker into this one, so that it tracks the keys of
+     * both streams together. Every key tracked by either tracker gets the sum
+     * of its estimates in the two, where a key a tracker does not hold is
+     * estimated at that tracker's smallest count, and likewise for the
+     * errors; the capacity keys with the largest sums are kept. Counts
+     * therefore remain upper bounds that exceed the true counts by at most
+     * their errors, and the smallest count still bounds every untracked key.
+     *
+     * @param other another tracker
+     */
+    public void merge(SpaceSaving<K> other) {
+        long minThis = minCount(), minOther = other.minCount();
+        Entry<Long, Counter<K>>[] merged = newArray(size() + other.size());
+        int n = 0;
+        for (Entry<K, Entry<Long, Counter<K>>> e : index.entrySet()) {
+            Entry<Long, Counter<K>> theirs = other.index.get(e.getKey());
+            long count = e.getValue().getKey() + (theirs != null ? theirs.getKey() : minOther);
+            long error = e.getValue().getValue().error + (theirs != null ? theirs.getValue().error : minOther);
+            merged[n++] = new AbstractMap.MapEntry<>(count, new Counter<>(e.getKey(), error));
+        }
+        for (Entry<K, Entry<Long, Counter<K>>> e : other.index.entrySet()) {
+            if (index.get(e.getKey()) == null) {
+                long count = e.getValue().getKey() + minThis;
+                long error = e.getValue().getValue().error + minThis;
+                merged[n++] = new AbstractMap.MapEntry<>(count, new Counter<>(e.getKey(), error));
+            }
+        }
+        merged = Arrays.copyOf(merged, n);
+        if (n > capacity) {
+            Sorter.timSort(merged, (x, y) -> Long.compare(y.getKey(), x.getKey()));
+        }
+        counters = new HeapAdaptablePriorityQueue<>();
+        index = new ProbeHashMap<>(Math.min(2 * capacity + 1, 1 << 20));
+        for (int i = 0; i < n && i < capacity; i++) {
+            index.put(merged[i].getValue().key, counters.insert(merged[i].getKey(), merged[i].getValue()));
+        }
+        total += other.total;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private static <T> T[] newArray(int length) {
+        return (T[]) new Entry<?, ?>[length];
+    }
+}
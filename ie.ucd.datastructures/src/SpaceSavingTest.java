@@ -0,0 +1,113 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingTest {
+
+	@Test
+	void testExactWhileUnderCapacity() {
+		SpaceSaving<String> tracker = new SpaceSaving<>(10);
+		for (String s : "a b a c a b d".split(" ")) {
+			tracker.add(s);
+		}
+		tracker.add("e", 5);
+		assertEquals(5, tracker.size());
+		assertEquals(12, tracker.total());
+		assertEquals(0, tracker.minCount());
+		assertEquals(3, tracker.estimate("a"));
+		assertEquals(0, tracker.error("a"));
+		assertEquals(0, tracker.estimate("z"));
+		java.util.List<Entry<String, Long>> top = tracker.top(3);
+		assertEquals("e", top.get(0).getKey());
+		assertEquals(5L, top.get(0).getValue());
+		assertEquals("a", top.get(1).getKey());
+		assertEquals("b", top.get(2).getKey());
+		assertEquals(5, tracker.top(100).size());
+	}
+
+	@Test
+	void testHeavyHittersFound() {
+		Random rnd = new Random(25);
+		int capacity = 100;
+		SpaceSaving<Integer> tracker = new SpaceSaving<>(capacity);
+		HashMap<Integer, Long> counts = new HashMap<>();
+		int n = 100000;
+		for (int i = 0; i < n; i++) {
+			// keys 0-9 take 5% each, the rest are spread over 100000 keys
+			int key = (rnd.nextBoolean() ? rnd.nextInt(10) : 10 + rnd.nextInt(100000));
+			counts.merge(key, 1L, Long::sum);
+			tracker.add(key);
+		}
+		assertEquals(capacity, tracker.size());
+		assertTrue(tracker.minCount() <= n / capacity);
+		for (int key : counts.keySet()) {
+			long estimate = tracker.estimate(key);
+			assertTrue(estimate >= counts.get(key));
+			assertTrue(estimate - tracker.error(key) <= counts.get(key));
+		}
+		java.util.List<Entry<Integer, Long>> top = tracker.top(10);
+		for (Entry<Integer, Long> e : top) {
+			assertTrue(e.getKey() < 10, "heavy hitter " + e.getKey());
+		}
+	}
+
+	@Test
+	void testMergedEstimatesAreUpperBounds() {
+		Random rnd = new Random(25);
+		int capacity = 50;
+		HashMap<Integer, Long> counts = new HashMap<>();
+		SpaceSaving<Integer> merged = new SpaceSaving<>(capacity);
+		for (int part = 0; part < 8; part++) {
+			SpaceSaving<Integer> tracker = new SpaceSaving<>(capacity);
+			for (int i = 0; i < 20000; i++) {
+				// each part favours different keys, so keys are evicted from some trackers and kept by others
+				int key = (rnd.nextInt(3) == 0 ? 10 * part + rnd.nextInt(10) : rnd.nextInt(2000));
+				counts.merge(key, 1L, Long::sum);
+				tracker.add(key);
+			}
+			merged.merge(tracker);
+		}
+		assertEquals(160000, merged.total());
+		assertEquals(capacity, merged.size());
+		for (int key : counts.keySet()) {
+			long estimate = merged.estimate(key);
+			assertTrue(estimate >= counts.get(key), "key " + key);
+			assertTrue(estimate - merged.error(key) <= counts.get(key), "key " + key);
+		}
+	}
+
+	@Test
+	void testMerge() {
+		SpaceSaving<String> a = new SpaceSaving<>(3);
+		SpaceSaving<String> b = new SpaceSaving<>(3);
+		a.add("x", 10);
+		a.add("y", 2);
+		b.add("x", 5);
+		b.add("z", 7);
+		a.merge(b);
+		assertEquals(24, a.total());
+		assertEquals(15, a.estimate("x"));
+		assertEquals("z", a.top(2).get(1).getKey());
+
+		// a holds {r:5, s:5, t:2} after evicting x; b's estimate of x must gain a's smallest count
+		SpaceSaving<String> c = new SpaceSaving<>(3);
+		c.add("x", 1);
+		c.add("r", 5);
+		c.add("s", 5);
+		c.add("t", 1);
+		SpaceSaving<String> d = new SpaceSaving<>(3);
+		d.add("x", 50);
+		d.add("p", 1);
+		d.add("q", 1);
+		d.merge(c);
+		assertTrue(d.estimate("x") >= 51);
+		assertEquals(3, d.size());
+		assertThrows(IllegalArgumentException.class, () -> new SpaceSaving<String>(0));
+		assertThrows(IllegalArgumentException.class, () -> a.add("x", -1));
+	}
+}
@@ -1,15 +1,34 @@
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 
+/**
+ * An implementation of a sorted map using a splay tree.
+ * <p>
+ * By default every access splays the node reached to the root, which turns
+ * each search into a restructuring of the tree. A map can instead be built
+ * with a policy that bounds the restructuring done by searches: a search only
+ * splays when the node it reaches lies deeper than a depth threshold, and then
+ * only with a given probability. Keys that are looked up often still drift
+ * towards the root, while searches for keys near the root leave the tree
+ * alone. The map can also semi-splay, which in the zig-zig case rotates only
+ * the parent and carries on from there; this roughly halves the depth of the
+ * accessed path with half the rotations, but does not bring the node all the
+ * way to the root. Insertions and removals always splay.
+ */
 public class SplayTreeMap<K, V> extends TreeMap<K, V> {
 
+    private final double splayProbability;   // chance that a deep search splays
+    private final int depthThreshold;        // searches reaching this depth or less never splay
+    private final boolean semiSplay;
+
     /**
      * Constructs an empty map using the natural ordering of keys.
      */
     public SplayTreeMap() {
-        super();
+        this(null);
     }
 
     /**
@@ -18,7 +37,32 @@ public class SplayTreeMap<K, V> extends TreeMap<K, V> {
      * @param comp comparator defining the order of keys in the map
      */
     public SplayTreeMap(Comparator<K> comp) {
-        super(comp);
+        this(comp, 1.0, 0, false);
+    }
+
+    /**
+     * Constructs an empty map whose searches splay only when they reach a node
+     * deeper than depthThreshold, and then only with probability
+     * splayProbability.
+     *
+     * @param comp             comparator defining the order of keys in the map (or null for the natural order)
+     * @param splayProbability the probability that a search reaching a deep node splays it
+     * @param depthThreshold   the greatest depth at which a search never splays
+     * @param semiSplay        whether to semi-splay rather than splay all the way to the root
+     * @throws IllegalArgumentException if splayProbability is not in [0, 1] or depthThreshold is negative
+     */
+    public SplayTreeMap(Comparator<K> comp, double splayProbability, int depthThreshold, boolean semiSplay)
+            throws IllegalArgumentException {
+        super(comp == null ? new DefaultComparator<>() : comp);
+        if (!(splayProbability >= 0.0 && splayProbability <= 1.0)) {
+            throw new IllegalArgumentException("Splay probability must be in [0, 1]");
+        }
+        if (depthThreshold < 0) {
+            throw new IllegalArgumentException("Depth threshold must be non-negative");
+        }
+        this.splayProbability = splayProbability;
+        this.depthThreshold = depthThreshold;
+        this.semiSplay = semiSplay;
     }
 
     /**
@@ -35,7 +79,11 @@ public class SplayTreeMap<K, V> extends TreeMap<K, V> {
         	//zig-zig case, move the parent upward and then move p upward
         	else if ((parent == left(grandParent)) == (p == (left(parent)))) {
         		rotate(parent); 
-        		rotate(p);
+        		if (semiSplay) {
+        			p = parent; //semi-splaying carries on from the parent
+        		} else {
+        			rotate(p);
+        		}
         	}
         	//zig-zag case, move p upward twice.
         	else {
@@ -45,16 +93,24 @@ public class SplayTreeMap<K, V> extends TreeMap<K, V> {
         }
     }
 
+    /**
+     * Decides whether a search that reached position p should splay it.
+     */
+    private boolean shouldSplay(Position<Entry<K, V>> p) {
+        if (depthThreshold > 0 && tree.depth(p) <= depthThreshold) {
+            return false;
+        }
+        return splayProbability >= 1.0 || ThreadLocalRandom.current().nextDouble() < splayProbability;
+    }
+
     /**
      * Overrides the TreeMap rebalancing hook that is called after a node access.
+     * The node is splayed only if the map's restructuring policy allows it.
      * @param p
      */
     //@Override
     protected void rebalanceAccess(Position<Entry<K, V>> p) {
-        if (isExternal(p)) {
-        	p = parent(p);
-        }
-        if (p != null) {
+        if (p != null && shouldSplay(p)) {
         	splay(p);
         }
     }
@@ -74,8 +130,8 @@ public class SplayTreeMap<K, V> extends TreeMap<K, V> {
      */
     //@Override
     protected void rebalanceDelete(Position<Entry<K, V>> p) {
-       if (!isRoot(p)) {
-    	   splay(parent(p));
+       if (p != null) { //p is the parent of the removed node
+    	   splay(p);
        }
     }
 
@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SplayTreeMapTest {
+
+	@Test
+	void testGetSplaysToRoot() {
+		SplayTreeMap<Integer, Integer> m = chain(new SplayTreeMap<>());
+		assertEquals(1, m.get(1));
+		assertEquals(1, m.root().getElement().getKey());
+	}
+
+	@Test
+	void testDepthThreshold() {
+		SplayTreeMap<Integer, Integer> m = chain(new SplayTreeMap<>(null, 1.0, 5, false));
+		// inserting 1..100 in order leaves a left path with key k at depth 100 - k
+		assertEquals(97, m.get(97));
+		assertEquals(100, m.root().getElement().getKey());
+		assertEquals(10, m.get(10));
+		assertEquals(10, m.root().getElement().getKey());
+	}
+
+	@Test
+	void testZeroProbabilityNeverSplaysOnGet() {
+		SplayTreeMap<Integer, Integer> m = chain(new SplayTreeMap<>(null, 0.0, 0, false));
+		for (int k = 1; k <= 100; k++) {
+			assertEquals(k, m.get(k));
+		}
+		assertEquals(100, m.root().getElement().getKey());
+		assertThrows(IllegalArgumentException.class, () -> new SplayTreeMap<Integer, Integer>(null, 1.5, 0, false));
+		assertThrows(IllegalArgumentException.class, () -> new SplayTreeMap<Integer, Integer>(null, 0.5, -1, false));
+	}
+
+	@Test
+	void testSemiSplayHalvesPath() {
+		SplayTreeMap<Integer, Integer> m = chain(new SplayTreeMap<>(null, 1.0, 0, true));
+		m.get(1);
+		int depth = m.tree.depth(m.treeMin(m.root()));
+		assertTrue(depth > 0 && depth <= 50, "depth " + depth);
+		assertTrue(m.tree.height(m.root()) <= 51);
+	}
+
+	@Test
+	void testAgainstTreeMap() {
+		check(new SplayTreeMap<>());
+		check(new SplayTreeMap<>(null, 0.25, 4, false));
+		check(new SplayTreeMap<>(null, 1.0, 0, true));
+		check(new SplayTreeMap<>(null, 0.5, 6, true));
+	}
+
+	private static void check(SplayTreeMap<Integer, Integer> m) {
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rnd = new Random(16);
+		for (int i = 0; i < 20000; i++) {
+			int k = rnd.nextInt(500);
+			switch (rnd.nextInt(4)) {
+				case 0:
+					assertEquals(expected.remove(k), m.remove(k));
+					break;
+				case 1:
+					assertEquals(expected.put(k, i), m.put(k, i));
+					break;
+				default:
+					assertEquals(expected.get(k), m.get(k));
+			}
+			assertEquals(expected.size(), m.size());
+		}
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			keys.add(e.getKey());
+		}
+		assertEquals(new ArrayList<>(expected.keySet()), keys);
+	}
+
+	/** Inserts the keys 1 to 100 in increasing order. */
+	private static SplayTreeMap<Integer, Integer> chain(SplayTreeMap<Integer, Integer> m) {
+		for (int k = 1; k <= 100; k++) {
+			m.put(k, k);
+		}
+		return m;
+	}
+}
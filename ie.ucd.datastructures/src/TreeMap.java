@@ -4,6 +4,10 @@ import java.util.function.Consumer;
 
 /**
  * An implementation of a sorted map using a binary search tree.
+ * <p>
+ * Every node also records the size of its subtree, which the tree keeps up to
+ * date on insertion, removal and rotation, so that rank, select and
+ * countRange run in time proportional to the height of the tree.
  */
 
 public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
@@ -19,6 +23,7 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 		// this extends the inherited LinkedBinaryTree.Node class
 		protected static class BSTNode<E> extends Node<E> {
 			int aux = 0;
+			int size = 1; // number of nodes in the subtree rooted here
 
 			BSTNode(E e, Node<E> parent, Node<E> leftChild, Node<E> rightChild) {
 				super(e, parent, leftChild, rightChild);
@@ -42,6 +47,54 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 			((BSTNode<Entry<K, V>>) p).setAux(value);
 		}
 
+		/** Returns the number of nodes in the subtree rooted at p (0 if p is null). */
+		public int subtreeSize(Position<Entry<K, V>> p) {
+			return (p == null ? 0 : ((BSTNode<Entry<K, V>>) p).size);
+		}
+
+		/** Recomputes the subtree size of node from those of its children. */
+		private void resize(Node<Entry<K, V>> node) {
+			((BSTNode<Entry<K, V>>) node).size = 1 + subtreeSize(node.getLeft()) + subtreeSize(node.getRight());
+		}
+
+		/** Adds delta to the subtree sizes of node and all of its ancestors. */
+		private void adjustSizes(Node<Entry<K, V>> node, int delta) {
+			for (; node != null; node = node.getParent()) {
+				((BSTNode<Entry<K, V>>) node).size += delta;
+			}
+		}
+
+		// The mutators below keep the subtree sizes up to date
+		@Override
+		public Position<Entry<K, V>> addLeft(Position<Entry<K, V>> p, Entry<K, V> e) throws IllegalArgumentException {
+			Position<Entry<K, V>> child = super.addLeft(p, e);
+			adjustSizes(validate(p), 1);
+			return child;
+		}
+
+		@Override
+		public Position<Entry<K, V>> addRight(Position<Entry<K, V>> p, Entry<K, V> e) throws IllegalArgumentException {
+			Position<Entry<K, V>> child = super.addRight(p, e);
+			adjustSizes(validate(p), 1);
+			return child;
+		}
+
+		@Override
+		public Entry<K, V> remove(Position<Entry<K, V>> p) throws IllegalArgumentException {
+			Node<Entry<K, V>> parent = validate(p).getParent();
+			Entry<K, V> removed = super.remove(p);
+			adjustSizes(parent, -1);
+			return removed;
+		}
+
+		@Override
+		public void createInorder(List<Entry<K, V>> l) {
+			super.createInorder(l);
+			for (Position<Entry<K, V>> p : postorder()) {
+				resize(validate(p));
+			}
+		}
+
 		// Override node factory function to produce a BSTNode (rather than a Node)
 		@Override
 		protected Node<Entry<K, V>> createNode(Entry<K, V> e, Node<Entry<K, V>> parent, Node<Entry<K, V>> left,
@@ -49,9 +102,11 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 			return new BSTNode<>(e, parent, left, right);
 		}
 
-		/** Relinks a parent node with its oriented child node. */
+		/** Relinks a parent node with its oriented child node (which may be null). */
 		private void relink(Node<Entry<K, V>> parent, Node<Entry<K, V>> child, boolean makeLeftChild) {
-			child.setParent(parent);
+			if (child != null) {
+				child.setParent(parent);
+			}
 
 			if (makeLeftChild) {
 				parent.setLeft(child);
@@ -79,6 +134,7 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 			Node<Entry<K,V>> nodeP = validate(p);  //node corresponding to the entry at position p
 			Node<Entry<K,V>> parent = nodeP.getParent(); // Assume that the parent of nodeP exists
 			Node<Entry<K,V>> grandparent = parent.getParent(); // Assume that the grandparent of nodeP exists
+			modCount++; // a rotation invalidates preorder and postorder traversals in progress
 			
 			//if the grandparent does not exist, nodeP becomes the root of the tree
 			if (grandparent == null) { 
@@ -98,6 +154,8 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 				relink(parent, nodeP.getLeft(), false); 
 				relink(nodeP, parent, true); 
 			}
+			resize(parent); // the old parent is now a child of nodeP
+			resize(nodeP);
 		}
 
 		/**
@@ -147,16 +205,17 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 		}
 	} // ----------- end of nested BalanceableBinaryTree class -----------
 
-	// We reuse the LinkedBinaryTree class. A limitation here is that we only use
-	// the key.
-	// protected LinkedBinaryTree<Entry<K, V>> tree = new LinkedBinaryTree<Entry<K,
-	// V>>();
+	// We reuse the LinkedBinaryTree class. Every node of the tree holds an entry;
+	// a missing child is simply null, so no sentinel leaves are allocated.
 	protected BalanceableBinaryTree<K, V> tree = new BalanceableBinaryTree<>();
 
+	// number of insertions and removals, used by iterators to fail fast
+	// (rotations keep the inorder sequence intact, so they are not counted)
+	private int modCount = 0;
+
 	/** Constructs an empty map using the natural ordering of keys. */
 	public TreeMap() {
 		super(); // the AbstractSortedMap constructor
-		tree.addRoot(null); // create a sentinel leaf as root
 	}
 
 	/**
@@ -166,7 +225,6 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 */
 	public TreeMap(Comparator<K> comp) {
 		super(comp); // the AbstractSortedMap constructor
-		tree.addRoot(null); // create a sentinel leaf as root
 	}
 
 	/**
@@ -176,7 +234,7 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 */
 	@Override
 	public int size() {
-		return (tree.size() - 1) / 2; // only internal nodes have entries
+		return tree.size(); // every node has an entry
 	}
 
 	protected Position<Entry<K, V>> restructure(Position<Entry<K, V>> x) {
@@ -187,7 +245,7 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 * Rebalances the tree after an insertion of specified position. This version of
 	 * the method does not do anything, but it can be overridden by subclasses.
 	 *
-	 * @param p the position which was recently inserted
+	 * @param p the position which was recently inserted (a leaf)
 	 */
 	protected void rebalanceInsert(Position<Entry<K, V>> p) {
 	}
@@ -197,7 +255,8 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 * This version of the method does not do anything, but it can be overridden by
 	 * subclasses.
 	 * 
-	 * @param p the position of the sibling of the removed leaf
+	 * @param p the former parent of the removed node (or null if the root was
+	 *          removed)
 	 */
 	protected void rebalanceDelete(Position<Entry<K, V>> p) {
 	}
@@ -206,15 +265,19 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 * Rebalances the tree after an access of specified position. This version of
 	 * the method does not do anything, but it can be overridden by a subclasses.
 	 * 
-	 * @param p the Position which was recently accessed (possibly a leaf)
+	 * @param p the Position which was recently accessed, which is the last
+	 *          position reached by the search if the key was not found
 	 */
 	protected void rebalanceAccess(Position<Entry<K, V>> p) {
 	}
 
-	/** Utility used when inserting a new entry at a leaf of the tree */
-	private void expandExternal(Position<Entry<K, V>> p, Entry<K, V> entry) {
-// TODO
-		return ;
+	/**
+	 * Rebalances the tree after it has been rebuilt by bulkLoad or merge. The
+	 * new tree has minimal height, but the aux fields of its nodes are all zero.
+	 * This version of the method does not do anything, but it can be overridden
+	 * by subclasses.
+	 */
+	protected void rebalanceBuild() {
 	}
 
 	// Some notational shorthands for brevity (yet not efficiency)
@@ -247,80 +310,79 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	}
 
 	protected boolean isInternal(Position<Entry<K, V>> p) {
-		return !isExternal(p) && !isRoot(p);
+		return !isExternal(p);
 	}
 
 	protected void set(Position<Entry<K, V>> p, Entry<K, V> e) {
-		// TODO
-		return;
+		tree.set(p, e);
 	}
 
 	protected Entry<K, V> remove(Position<Entry<K, V>> p) {
-		// TODO
-		return null;
+		return tree.remove(p);
 	}
 
 	/**
-	 * Returns the position in p's subtree having the given key (or else the
-	 * terminal leaf).
-	 * 
+	 * Returns the position in p's subtree having the given key (or else the last
+	 * position reached by the search, which would be the parent of a new node
+	 * with that key). Returns null only if the subtree is empty.
+	 *
 	 * @param key a target key
 	 * @param p   a position of the tree serving as root of a subtree
 	 * @return Position holding key, or last node reached during search
 	 */
 	private Position<Entry<K, V>> treeSearch(Position<Entry<K, V>> p, K key) {
-		//the key was not found, return p
-		if (isExternal(p)) {
-			return p; 
+		Position<Entry<K, V>> last = null;
+
+		//walk down the subtree until the key is found or there is no child to follow
+		while (p != null) {
+			last = p;
+			int comparator = compare(key, p.getElement());
+			if (comparator == 0)
+				return p;
+			else if (comparator < 0)
+				p = left(p);
+			else
+				p = right(p);
 		}
-		
-		int comparator = compare(key, p.getElement());
-		
-		//recursively search the left and right subtree until the key is found 
-		if (comparator == 0)
-			return p; 
-		else if (comparator < 0)
-			return treeSearch(left(p), key); 
-		else
-			return treeSearch(right(p), key); 
+		return last;
 	}
 
 	/**
 	 * Returns position with the minimal key in the subtree rooted at Position p.
-	 * 
+	 *
 	 * @param p a Position of the tree serving as root of a subtree
 	 * @return Position with minimal key in subtree
 	 */
 	protected Position<Entry<K, V>> treeMin(Position<Entry<K, V>> p) {
 		Position<Entry<K,V>> current = p;
 
-		//keep iterating through the internal position, until you find the smallest one
-		while (isInternal(current)) {
+		//keep following left children, until there is none
+		while (left(current) != null) {
 			current = left(current);
 		}
-		return parent(current); 
+		return current;
 	}
 
 	/**
 	 * Returns the position with the maximum key in the subtree rooted at p.
-	 * 
+	 *
 	 * @param p a Position of the tree serving as root of a subtree
 	 * @return Position with maximum key in subtree
 	 */
 	protected Position<Entry<K, V>> treeMax(Position<Entry<K, V>> p) {
 		Position<Entry<K,V>> current = p;
-		
-		//keep iterating through the internal position, until you find the largest one
-		while (isInternal(current)) {
+
+		//keep following right children, until there is none
+		while (right(current) != null) {
 			current = right(current);
 		}
-		return parent(current); 
+		return current;
 	}
 
 	/**
 	 * Returns the value associated with the specified key, or null if no such entry
 	 * exists.
-	 * 
+	 *
 	 * @param key the key whose associated value is to be returned
 	 * @return the associated value, or null if no such entry exists
 	 */
@@ -328,19 +390,23 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	public V get(K key) throws IllegalArgumentException {
 		checkKey(key); // ensure that the key is valid
 		Position<Entry<K,V>> position = treeSearch(root(), key); //find the position associated to the key
+		if (position == null) { //empty tree
+			return null;
+		}
+		Entry<K, V> entry = position.getElement();
 		rebalanceAccess(position); // used by balanced tree subclasses
-		
-		if (isExternal(position)) { //not found
-			return null; 
+
+		if (compare(key, entry) != 0) { //not found
+			return null;
 		}
-		return position.getElement().getValue(); 
+		return entry.getValue();
 	}
 
 	/**
 	 * Associates the given value with the given key. If an entry with the key was
 	 * already in the map, this replaced the previous value with the new one and
 	 * returns the old value. Otherwise, a new entry is added and null is returned.
-	 * 
+	 *
 	 * @param key   key with which the specified value is to be associated
 	 * @param value value to be associated with the specified key
 	 * @return the previous value associated with the key (or null, if no such
@@ -351,26 +417,33 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 		checkKey(key); // ensure that the key is valid
 		Entry<K,V> newEntry = new MapEntry<>(key, value); //create a new entry with the new value that will replace the old one
 		Position<Entry<K,V>> position = treeSearch(root(), key); //find the entry to be replaced
-		
-		//if given position is new, and there was no previous key to be replaced
-		if (isExternal(position)) { 
-			expandExternal(position, newEntry);
-			rebalanceInsert(position); // to be used by balanced tree subclasses
+
+		//if the tree is empty, the new entry becomes the root
+		if (position == null) {
+			modCount++;
+			rebalanceInsert(tree.addRoot(newEntry));
 			return null;
-		} 
+		}
+
+		int comparator = compare(key, position.getElement());
 		//if you need to replace a previous key
-		else { 
+		if (comparator == 0) {
 			V oldValue = position.getElement().getValue();
 			set(position, newEntry);
 			rebalanceAccess(position); // to be used by balanced tree subclasses
 			return oldValue;
 		}
+		//otherwise, there was no previous key, and position is the parent of the new entry
+		modCount++;
+		Position<Entry<K,V>> leaf = (comparator < 0 ? tree.addLeft(position, newEntry) : tree.addRight(position, newEntry));
+		rebalanceInsert(leaf); // to be used by balanced tree subclasses
+		return null;
 	}
 
 	/**
 	 * Removes the entry with the specified key, if present, and returns its
 	 * associated value. Otherwise does nothing and returns null.
-	 * 
+	 *
 	 * @param key the key whose entry is to be removed from the map
 	 * @return the previous value associated with the removed key, or null if no
 	 *         such entry exists
@@ -379,37 +452,127 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	public V remove(K key) throws IllegalArgumentException {
 		checkKey(key);// ensure that the key is valid
 		Position<Entry<K,V>> position = treeSearch(root(), key);
-		
+
 		//if the key was not found, return null
-		if (isExternal(position)) { 
+		if (position == null) {
+			return null;
+		}
+		if (compare(key, position.getElement()) != 0) {
 			rebalanceAccess(position); //to be used by balanced tree subclasses
 			return null;
-		} 
+		}
 		//otherwise, if the key is found..
-		else {
-			V oldValue = position.getElement().getValue();
-			
-			//firstly, check whether both children are internal
-			if (isInternal(left(position)) && isInternal(right(position))) { 
-				Position<Entry<K,V>> replacement = treeMax(left(position));
-				set(position, replacement.getElement());
-				position = replacement;
-			} 
-			
-			// Now the position is either an external node or has one child only
-			Position<Entry<K,V>> leaf = (isExternal(left(position)) ? left(position) : right(position));
-			Position<Entry<K,V>> sibling = sibling(leaf);
-			remove(leaf);
-			remove(position); 
-			rebalanceDelete(sibling); 
-			return oldValue;
+		V oldValue = position.getElement().getValue();
+
+		//firstly, check whether both children exist
+		if (left(position) != null && right(position) != null) {
+			Position<Entry<K,V>> replacement = treeMax(left(position));
+			set(position, replacement.getElement());
+			position = replacement;
 		}
+
+		// Now the position has one child at most, which takes its place
+		Position<Entry<K,V>> parent = parent(position);
+		modCount++;
+		remove(position);
+		rebalanceDelete(parent);
+		return oldValue;
+	}
+
+	/**
+	 * Fills the (empty) map with the given entries in O(n) time, building a tree
+	 * of minimal height directly instead of performing n insertions.
+	 *
+	 * @param sorted entries in strictly increasing key order
+	 * @throws IllegalStateException    if the map is not empty
+	 * @throws IllegalArgumentException if the keys are not strictly increasing
+	 */
+	public void bulkLoad(Iterable<? extends Entry<K, V>> sorted) throws IllegalStateException, IllegalArgumentException {
+		if (!isEmpty()) {
+			throw new IllegalStateException("bulkLoad requires an empty map");
+		}
+		ArrayList<Entry<K, V>> entries = new ArrayList<>();
+		for (Entry<K, V> e : sorted) {
+			appendInOrder(entries, e.getKey(), e.getValue());
+		}
+		rebuild(entries);
+	}
+
+	/**
+	 * Fills the (empty) map with the entries keys[i] -&gt; values[i] in O(n) time.
+	 *
+	 * @param keys   keys in strictly increasing order
+	 * @param values the values associated with the keys
+	 * @throws IllegalStateException    if the map is not empty
+	 * @throws IllegalArgumentException if the keys are not strictly increasing,
+	 *                                  or the arrays differ in length
+	 */
+	public void bulkLoad(K[] keys, V[] values) throws IllegalStateException, IllegalArgumentException {
+		if (!isEmpty()) {
+			throw new IllegalStateException("bulkLoad requires an empty map");
+		}
+		if (keys.length != values.length) {
+			throw new IllegalArgumentException("keys and values differ in length");
+		}
+		ArrayList<Entry<K, V>> entries = new ArrayList<>(keys.length);
+		for (int i = 0; i < keys.length; i++) {
+			appendInOrder(entries, keys[i], values[i]);
+		}
+		rebuild(entries);
+	}
+
+	/**
+	 * Adds all entries of another sorted map to this one in O(m + n) time, by
+	 * merging the two entry sequences and rebuilding a tree of minimal height.
+	 * Where both maps have a key, the value from the other map wins.
+	 *
+	 * @param other a map whose iteration order agrees with this map's comparator
+	 * @throws IllegalArgumentException if the other map's entries are not in
+	 *                                  increasing order for this map's comparator
+	 */
+	public void merge(SortedMap<K, V> other) throws IllegalArgumentException {
+		ArrayList<Entry<K, V>> merged = new ArrayList<>(size() + other.size());
+		Iterator<Entry<K, V>> mine = entrySet().iterator();
+		Iterator<Entry<K, V>> theirs = other.entrySet().iterator();
+		Entry<K, V> a = (mine.hasNext() ? mine.next() : null);
+		Entry<K, V> b = (theirs.hasNext() ? theirs.next() : null);
+		while (a != null || b != null) {
+			int c = (a == null ? 1 : b == null ? -1 : compare(a, b));
+			if (c < 0) {
+				merged.add(a);
+				a = (mine.hasNext() ? mine.next() : null);
+			} else {
+				appendInOrder(merged, b.getKey(), b.getValue());
+				b = (theirs.hasNext() ? theirs.next() : null);
+				if (c == 0) { // the other map's value replaces ours
+					a = (mine.hasNext() ? mine.next() : null);
+				}
+			}
+		}
+		rebuild(merged);
+	}
+
+	/** Appends a new entry to a list being built in key order, rejecting keys out of order. */
+	private void appendInOrder(ArrayList<Entry<K, V>> entries, K key, V value) throws IllegalArgumentException {
+		checkKey(key); // ensure that the key is valid
+		if (!entries.isEmpty() && compare(entries.get(entries.size() - 1), key) >= 0) {
+			throw new IllegalArgumentException("Keys are not in strictly increasing order");
+		}
+		entries.add(new MapEntry<>(key, value));
+	}
+
+	/** Replaces the tree by one of minimal height holding the given sorted entries. */
+	private void rebuild(ArrayList<Entry<K, V>> entries) {
+		tree = new BalanceableBinaryTree<>();
+		tree.createInorder(entries);
+		modCount++;
+		rebalanceBuild(); // used by balanced tree subclasses
 	}
 
 	// additional behaviors of the SortedMap interface
 	/**
 	 * Returns the entry having the least key (or null if map is empty).
-	 * 
+	 *
 	 * @return entry with least key (or null if map is empty)
 	 */
 	@Override
@@ -422,7 +585,7 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 
 	/**
 	 * Returns the entry having the greatest key (or null if map is empty).
-	 * 
+	 *
 	 * @return entry with greatest key (or null if map is empty)
 	 */
 	@Override
@@ -436,7 +599,7 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	/**
 	 * Returns the entry with least key greater than or equal to given key (or null
 	 * if no such key exists).
-	 * 
+	 *
 	 * @return entry with least key greater than or equal to given (or null if no
 	 *         such entry)
 	 * @throws IllegalArgumentException if the key is not compatible with the map
@@ -444,27 +607,13 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	@Override
 	public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
 		checkKey(key); // ensure that the key is valid
-		Position<Entry<K,V>> position = treeSearch(root(), key);
-		
-		//if an exact match was found, return the element
-		if (isInternal(position)) { 
-			return position.getElement(); 
-		}
-		
-		while (!isRoot(position)) {
-			if (position == right(parent(position)))
-				return parent(position).getElement(); // parent has next lesser key
-			else
-				position = parent(position);
-		}
-		
-		return null; //in this case, it was not possible to find a match for the given key
+		return element(ceiling(key, true));
 	}
 
 	/**
 	 * Returns the entry with greatest key less than or equal to given key (or null
 	 * if no such key exists).
-	 * 
+	 *
 	 * @return entry with greatest key less than or equal to given (or null if no
 	 *         such entry)
 	 * @throws IllegalArgumentException if the key is not compatible with the map
@@ -472,27 +621,13 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	@Override
 	public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
 		checkKey(key); // ensure that the key is valid
-		Position<Entry<K,V>> position = treeSearch(root(), key);
-		
-		//if an exact match was found, return the element
-		if (isInternal(position)) { 
-			return position.getElement(); 
-		}
-		
-		while (!isRoot(position)) {
-			if (position == left(parent(position)))
-				return parent(position).getElement(); 
-			else
-				position = parent(position);
-		}
-		
-		return null; //in this case, it was not possible to find a match for the given key
+		return element(floor(key, true));
 	}
 
 	/**
 	 * Returns the entry with greatest key strictly less than given key (or null if
 	 * no such key exists).
-	 * 
+	 *
 	 * @return entry with greatest key strictly less than given (or null if no such
 	 *         entry)
 	 * @throws IllegalArgumentException if the key is not compatible with the map
@@ -500,26 +635,13 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	@Override
 	public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
 		checkKey(key); // ensure that the key is valid
-		Position<Entry<K,V>> position = treeSearch(root(), key);
-		
-		if (isInternal(position) && isInternal(left(position))) {
-			return treeMax(left(position)).getElement(); //predecessor to p
-		}
-		
-		while (!isRoot(position)) {
-			if (position == right(parent(position)))
-				return parent(position).getElement(); // parent has next lesser key
-			else
-				position = parent(position);
-		}
-		
-		return null; // In this case, a match for a lesser key was not found
+		return element(floor(key, false));
 	}
 
 	/**
 	 * Returns the entry with least key strictly greater than given key (or null if
 	 * no such key exists).
-	 * 
+	 *
 	 * @return entry with least key strictly greater than given (or null if no such
 	 *         entry)
 	 * @throws IllegalArgumentException if the key is not compatible with the map
@@ -527,37 +649,137 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	@Override
 	public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
 		checkKey(key); // ensure that the key is valid
-		Position<Entry<K,V>> position = treeSearch(root(), key);
-		
-		if (isInternal(position) && isInternal(right(position))) {
-			return treeMin(right(position)).getElement(); //predecessor to p
-		}
-		
-		while (!isRoot(position)) {
-			if (position == left(parent(position)))
-				return parent(position).getElement(); // parent has next lesser key
-			else
-				position = parent(position);
+		return element(ceiling(key, false));
+	}
+
+	// order statistics, answered from the subtree sizes kept by the tree
+	/**
+	 * Returns the number of keys in the map that are strictly less than the
+	 * given key, in O(h) time for a tree of height h.
+	 *
+	 * @param key a key (which need not be in the map)
+	 * @return number of keys less than key
+	 * @throws IllegalArgumentException if the key is not compatible with the map
+	 */
+	public int rank(K key) throws IllegalArgumentException {
+		checkKey(key); // ensure that the key is valid
+		int rank = 0;
+		Position<Entry<K, V>> p = root();
+		while (p != null) {
+			if (compare(key, p.getElement()) <= 0) {
+				p = left(p);
+			} else { // p and its left subtree are below key
+				rank += tree.subtreeSize(left(p)) + 1;
+				p = right(p);
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the entry with the k-th smallest key, counting from 0, in O(h)
+	 * time for a tree of height h.
+	 *
+	 * @param k the rank of the entry, from 0 to size()-1
+	 * @return the entry with exactly k smaller keys in the map
+	 * @throws IndexOutOfBoundsException if k is negative or greater than size()-1
+	 */
+	public Entry<K, V> select(int k) throws IndexOutOfBoundsException {
+		if (k < 0 || k >= size()) {
+			throw new IndexOutOfBoundsException("Invalid rank: " + k);
+		}
+		Position<Entry<K, V>> p = root();
+		while (true) {
+			int leftSize = tree.subtreeSize(left(p));
+			if (k < leftSize) {
+				p = left(p);
+			} else if (k == leftSize) {
+				return p.getElement();
+			} else {
+				k -= leftSize + 1; // skip p and its left subtree
+				p = right(p);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of keys in the range from <code>fromKey</code> inclusive
+	 * to <code>toKey</code> exclusive, in O(h) time for a tree of height h.
+	 *
+	 * @return number of keys in [fromKey, toKey)
+	 * @throws IllegalArgumentException if <code>fromKey</code> or
+	 *                                  <code>toKey</code> is not compatible with
+	 *                                  the map
+	 */
+	public int countRange(K fromKey, K toKey) throws IllegalArgumentException {
+		checkKey(fromKey); // ensure that the keys are valid
+		checkKey(toKey);
+		if (compare(fromKey, toKey) >= 0) {
+			return 0;
 		}
-		
-		return null; // In this case, a match for a lesser key was not found
+		return rank(toKey) - rank(fromKey);
+	}
+
+	/** Returns the entry stored at p, or null if p is null. */
+	private static <E> E element(Position<E> p) {
+		return (p == null ? null : p.getElement());
+	}
+
+	/**
+	 * Returns the position with least key greater than (or equal to, if
+	 * inclusive) the given key, remembering the last left turn on the way down.
+	 */
+	private Position<Entry<K, V>> ceiling(K key, boolean inclusive) {
+		Position<Entry<K, V>> best = null;
+		Position<Entry<K, V>> p = root();
+		while (p != null) {
+			int comparator = compare(key, p.getElement());
+			if (comparator == 0 && inclusive) {
+				return p;
+			}
+			if (comparator < 0) {
+				best = p; // p is above key, look for a smaller candidate
+				p = left(p);
+			} else {
+				p = right(p);
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the position with greatest key less than (or equal to, if
+	 * inclusive) the given key, remembering the last right turn on the way down.
+	 */
+	private Position<Entry<K, V>> floor(K key, boolean inclusive) {
+		Position<Entry<K, V>> best = null;
+		Position<Entry<K, V>> p = root();
+		while (p != null) {
+			int comparator = compare(key, p.getElement());
+			if (comparator == 0 && inclusive) {
+				return p;
+			}
+			if (comparator > 0) {
+				best = p; // p is below key, look for a greater candidate
+				p = right(p);
+			} else {
+				p = left(p);
+			}
+		}
+		return best;
 	}
 
 	// Support for iteration
 	/**
-	 * Returns an iterable collection of all key-value entries of the map.
+	 * Returns an iterable collection of all key-value entries of the map. The
+	 * entries are produced on demand by walking inorder successor links, so
+	 * stopping after k entries costs O(log n + k) time rather than O(n).
 	 *
 	 * @return iterable collection of the map's entries
 	 */
 	@Override
 	public Iterable<Entry<K, V>> entrySet() {
-		ArrayList<Entry<K, V>> buffer = new ArrayList<>(size());
-		for (Position<Entry<K,V>> position : tree.inorder()) {
-			 if (isInternal(position)) {
-				 buffer.add(position.getElement());
-			 }
-		}
-		return buffer;
+		return () -> iteratorFrom(null, true, false);
 	}
 
 	public String toString() {
@@ -566,7 +788,8 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 
 	/**
 	 * Returns an iterable containing all entries with keys in the range from
-	 * <code>fromKey</code> inclusive to <code>toKey</code> exclusive.
+	 * <code>fromKey</code> inclusive to <code>toKey</code> exclusive. The entries
+	 * are produced on demand, in O(log n + k) time for the first k of them.
 	 * 
 	 * @return iterable with keys in desired range
 	 * @throws IllegalArgumentException if <code>fromKey</code> or
@@ -575,9 +798,77 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	 */
 	@Override
 	public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
-		return null; 
+		return subMap(fromKey, true, toKey, false).entrySet();
 	}
 
+	/**
+	 * Returns an iterator that locates the starting position in O(log n) time
+	 * and then walks successor (or predecessor) links, which takes O(1)
+	 * amortized time per entry.
+	 */
+	@Override
+	protected Iterator<Entry<K, V>> iteratorFrom(K key, boolean inclusive, boolean descending) {
+		Position<Entry<K, V>> first;
+		if (key == null) {
+			first = (isEmpty() ? null : descending ? treeMax(root()) : treeMin(root()));
+		} else {
+			checkKey(key); // ensure that the key is valid
+			first = (descending ? floor(key, inclusive) : ceiling(key, inclusive));
+		}
+		return new EntryIterator(first, descending);
+	}
+
+	/**
+	 * Returns the position that follows p in key order (or null if p holds the
+	 * greatest key).
+	 */
+	protected Position<Entry<K, V>> successor(Position<Entry<K, V>> p) {
+		return tree.inorderSuccessor(p);
+	}
+
+	/**
+	 * Returns the position that precedes p in key order (or null if p holds the
+	 * least key).
+	 */
+	protected Position<Entry<K, V>> predecessor(Position<Entry<K, V>> p) {
+		return tree.inorderPredecessor(p);
+	}
+
+	// ---------------- nested EntryIterator class ----------------
+	/**
+	 * Iterates over the entries from a starting position in increasing (or
+	 * decreasing) key order. The iterator fails fast if an entry is inserted or
+	 * removed while it is in use.
+	 */
+	private class EntryIterator implements Iterator<Entry<K, V>> {
+		private final int expectedModCount = modCount;
+		private final boolean descending;
+		private Position<Entry<K, V>> next;
+
+		EntryIterator(Position<Entry<K, V>> first, boolean descending) {
+			next = first;
+			this.descending = descending;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Entry<K, V> next() throws NoSuchElementException, ConcurrentModificationException {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next == null) {
+				throw new NoSuchElementException("No more entries");
+			}
+			Position<Entry<K, V>> p = next;
+			next = (descending ? predecessor(p) : successor(p));
+			return p.getElement();
+		}
+	} // ----------- end of nested EntryIterator class -----------
+
 	protected void rotate(Position<Entry<K, V>> p) {
 		tree.rotate(p);
 	}
@@ -591,8 +882,8 @@ public class TreeMap<K, V> extends AbstractSortedMap<K, V> {
 	/** This exists for debugging only */
 	private void dumpRecurse(Position<Entry<K, V>> p, int depth) {
 		String indent = (depth == 0 ? "" : String.format("%" + (2 * depth) + "s", ""));
-		if (isExternal(p))
-			System.out.println(indent + "leaf");
+		if (p == null)
+			System.out.println(indent + "null");
 		else {
 			System.out.println(indent + p.getElement());
 			dumpRecurse(left(p), depth + 1);
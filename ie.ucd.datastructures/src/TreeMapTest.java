@@ -0,0 +1,273 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TreeMapTest {
+
+	@Test
+	void testPutGetRemove() {
+		TreeMap<Integer, String> m = new TreeMap<>();
+		assertNull(m.get(1));
+		assertNull(m.remove(1));
+		assertNull(m.put(44, "a"));
+		assertNull(m.put(17, "b"));
+		assertNull(m.put(88, "c"));
+		assertEquals("b", m.put(17, "B"));
+		assertEquals(3, m.size());
+		assertEquals("B", m.get(17));
+		assertEquals("a", m.remove(44));
+		assertNull(m.get(44));
+		assertEquals(2, m.size());
+	}
+
+	@Test
+	void testNoSentinelNodes() {
+		TreeMap<Integer, Integer> m = new TreeMap<>();
+		for (int i = 0; i < 100; i++) {
+			m.put((i * 37) % 100, i);
+		}
+		int nodes = 0;
+		for (Position<Entry<Integer, Integer>> p : m.tree.positions()) {
+			assertTrue(p.getElement() != null);
+			nodes++;
+		}
+		assertEquals(100, nodes);
+		assertEquals(100, m.size());
+	}
+
+	@Test
+	void testSubMap() {
+		TreeMap<Integer, Integer> m = new TreeMap<>();
+		for (int i = 10; i <= 100; i += 10) {
+			m.put(i, i);
+		}
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : m.subMap(25, 70)) {
+			keys.add(e.getKey());
+		}
+		assertEquals(List.of(30, 40, 50, 60), keys);
+	}
+
+	@Test
+	void testSubMapBounds() {
+		TreeMap<Integer, Integer> m = new AVLTreeMap<>();
+		for (int i = 0; i < 1000; i++) {
+			m.put(i, i);
+		}
+		assertFalse(m.subMap(500, 500).iterator().hasNext());
+		assertFalse(m.subMap(600, 500).iterator().hasNext());
+		assertFalse(m.subMap(2000, 3000).iterator().hasNext());
+		int count = 0;
+		for (Entry<Integer, Integer> e : m.subMap(-5, 3000)) {
+			assertEquals(count++, e.getKey());
+		}
+		assertEquals(1000, count);
+		Iterator<Entry<Integer, Integer>> it = m.subMap(998, 1000).iterator();
+		assertEquals(998, it.next().getKey());
+		assertEquals(999, it.next().getKey());
+		assertThrows(NoSuchElementException.class, it::next);
+	}
+
+	@Test
+	void testIteratorFailsFast() {
+		TreeMap<Integer, Integer> m = new SplayTreeMap<>();
+		for (int i = 0; i < 100; i++) {
+			m.put(i, i);
+		}
+		// lookups restructure a splay tree but keep the iteration valid
+		Iterator<Integer> keys = m.keySet().iterator();
+		for (int i = 0; i < 50; i++) {
+			assertEquals(i, keys.next());
+			m.get(99 - i);
+			m.put(i, -i); // replacing a value is not a structural change
+		}
+		m.remove(75);
+		assertThrows(ConcurrentModificationException.class, keys::next);
+	}
+
+	@Test
+	void testAgainstTreeMap() {
+		checkAgainstTreeMap(new TreeMap<>());
+		checkAgainstTreeMap(new AVLTreeMap<>());
+		checkAgainstTreeMap(new SplayTreeMap<>());
+	}
+
+	@Test
+	void testOrderStatistics() {
+		checkOrderStatistics(new TreeMap<>());
+		checkOrderStatistics(new AVLTreeMap<>());
+		checkOrderStatistics(new SplayTreeMap<>());
+		checkOrderStatistics(new RedBlackTreeMap<>());
+		TreeMap<Integer, Integer> loaded = new AVLTreeMap<>();
+		loaded.bulkLoad(new Integer[] {0, 10, 20, 30, 40}, new Integer[] {0, 1, 2, 3, 4});
+		assertEquals(20, loaded.select(2).getKey());
+		assertEquals(3, loaded.rank(25));
+		assertEquals(2, loaded.countRange(5, 30));
+		assertEquals(0, loaded.countRange(30, 5));
+		assertThrows(IndexOutOfBoundsException.class, () -> loaded.select(5));
+		assertThrows(IndexOutOfBoundsException.class, () -> loaded.select(-1));
+	}
+
+	private static void checkOrderStatistics(TreeMap<Integer, Integer> m) {
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rnd = new Random(7);
+		for (int i = 0; i < 5000; i++) {
+			int k = rnd.nextInt(300);
+			if (rnd.nextInt(3) == 0) {
+				m.remove(k);
+				expected.remove(k);
+			} else {
+				m.put(k, i);
+				expected.put(k, i);
+			}
+			if (i % 50 == 0) {
+				List<Integer> keys = new ArrayList<>(expected.keySet());
+				for (int r = 0; r < keys.size(); r++) {
+					assertEquals(keys.get(r), m.select(r).getKey());
+				}
+				int probe = rnd.nextInt(320) - 10;
+				assertEquals(expected.headMap(probe).size(), m.rank(probe));
+				assertEquals(expected.subMap(probe, probe + 40).size(), m.countRange(probe, probe + 40));
+			}
+		}
+	}
+
+	@Test
+	void testAVLStaysBalanced() {
+		AVLTreeMap<Integer, Integer> m = new AVLTreeMap<>();
+		for (int i = 0; i < 4096; i++) {
+			m.put(i, i);
+		}
+		for (int i = 0; i < 4096; i += 3) {
+			m.remove(i);
+		}
+		checkBalanced(m, m.root());
+		assertTrue(m.height(m.root()) <= 1.45 * Math.log(m.size() + 2) / Math.log(2));
+	}
+
+	@Test
+	void testBulkLoad() {
+		for (int n : new int[] {0, 1, 2, 3, 7, 8, 100, 1023}) {
+			List<Entry<Integer, Integer>> sorted = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				sorted.add(new AbstractMap.MapEntry<>(2 * i, i));
+			}
+			AVLTreeMap<Integer, Integer> avl = new AVLTreeMap<>();
+			avl.bulkLoad(sorted);
+			checkBalanced(avl, avl.root());
+			assertEquals(n, avl.size());
+			// the bulk-loaded tree must remain valid under further updates
+			for (int i = 0; i < n; i++) {
+				avl.put(2 * i + 1, i);
+			}
+			checkBalanced(avl, avl.root());
+			for (TreeMap<Integer, Integer> m : List.of(new TreeMap<Integer, Integer>(), new SplayTreeMap<Integer, Integer>())) {
+				m.bulkLoad(sorted);
+				assertEquals(n, m.size());
+				for (int i = 0; i < n; i++) {
+					assertEquals(i, m.get(2 * i));
+					assertNull(m.get(2 * i + 1));
+				}
+			}
+		}
+	}
+
+	@Test
+	void testBulkLoadRejectsBadInput() {
+		TreeMap<Integer, Integer> m = new TreeMap<>();
+		assertThrows(IllegalArgumentException.class, () -> m.bulkLoad(new Integer[] {1, 1}, new Integer[] {1, 2}));
+		assertThrows(IllegalArgumentException.class, () -> m.bulkLoad(new Integer[] {1, 2}, new Integer[] {1}));
+		m.put(1, 1);
+		assertThrows(IllegalStateException.class, () -> m.bulkLoad(new ArrayList<>()));
+	}
+
+	@Test
+	void testMerge() {
+		AVLTreeMap<Integer, String> m = new AVLTreeMap<>();
+		TreeMap<Integer, String> other = new TreeMap<>();
+		java.util.TreeMap<Integer, String> expected = new java.util.TreeMap<>();
+		for (int i = 0; i < 300; i += 2) {
+			m.put(i, "a" + i);
+			expected.put(i, "a" + i);
+		}
+		for (int i = 0; i < 600; i += 3) {
+			other.put(i, "b" + i);
+			expected.put(i, "b" + i);
+		}
+		m.merge(other);
+		assertEquals(expected.size(), m.size());
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, String> e : m.entrySet()) {
+			assertEquals(expected.get(e.getKey()), e.getValue());
+			keys.add(e.getKey());
+		}
+		assertEquals(new ArrayList<>(expected.keySet()), keys);
+		int height = checkBalanced(m, m.root());
+		assertTrue(height <= 1 + Math.log(m.size()) / Math.log(2));
+	}
+
+	private static <V> int checkBalanced(AVLTreeMap<Integer, V> m, Position<Entry<Integer, V>> p) {
+		if (p == null) {
+			return 0;
+		}
+		int left = checkBalanced(m, m.left(p));
+		int right = checkBalanced(m, m.right(p));
+		assertTrue(Math.abs(left - right) <= 1);
+		assertEquals(1 + Math.max(left, right), m.height(p));
+		return 1 + Math.max(left, right);
+	}
+
+	private static void checkAgainstTreeMap(TreeMap<Integer, Integer> m) {
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rnd = new Random(3);
+		for (int i = 0; i < 20000; i++) {
+			int k = rnd.nextInt(500);
+			switch (rnd.nextInt(4)) {
+				case 0:
+					assertEquals(expected.remove(k), m.remove(k));
+					break;
+				case 1:
+					assertEquals(expected.get(k), m.get(k));
+					break;
+				default:
+					assertEquals(expected.put(k, i), m.put(k, i));
+			}
+			assertEquals(expected.size(), m.size());
+			int probe = rnd.nextInt(520) - 10;
+			assertEquals(expected.ceilingKey(probe), key(m.ceilingEntry(probe)));
+			assertEquals(expected.floorKey(probe), key(m.floorEntry(probe)));
+			assertEquals(expected.lowerKey(probe), key(m.lowerEntry(probe)));
+			assertEquals(expected.higherKey(probe), key(m.higherEntry(probe)));
+			if (i % 500 == 0) {
+				List<Integer> range = new ArrayList<>();
+				for (Entry<Integer, Integer> e : m.subMap(probe, probe + 50)) {
+					range.add(e.getKey());
+				}
+				assertEquals(new ArrayList<>(expected.subMap(probe, probe + 50).keySet()), range);
+			}
+		}
+		assertEquals(expected.firstKey(), key(m.firstEntry()));
+		assertEquals(expected.lastKey(), key(m.lastEntry()));
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : m.entrySet()) {
+			assertEquals(expected.get(e.getKey()), e.getValue());
+			keys.add(e.getKey());
+		}
+		assertEquals(new ArrayList<>(expected.keySet()), keys);
+	}
+
+	private static Integer key(Entry<Integer, Integer> e) {
+		return e == null ? null : e.getKey();
+	}
+}
@@ -1,27 +1,587 @@
-import java.util.Scanner;
-import java.io.*; 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Counts the frequency of words in text files or streams.
+ * <p>
+ * A word is a maximal run of the ASCII letters a-z and A-Z, counted in lower
+ * case; every other byte, including the bytes of non-ASCII UTF-8 characters,
+ * separates words. Files are memory-mapped and cut into chunks of about
+ * <code>chunkBytes</code> bytes, each extended to the end of the word it
+ * stops in, so no word straddles two chunks. Worker threads take chunks in
+ * turn and tokenize their bytes directly into a per-thread hash table keyed
+ * by the bytes of the word, which stores each distinct word once and creates
+ * no String; the tables are merged when all chunks are done. Strings are only
+ * created for the words that top reports, which keeps the k most frequent
+ * words in a HeapPriorityQueue bounded to k entries.
+ * <p>
+ * For streams with too many distinct words to keep, the counter can instead
+ * run in approximate mode, in memory fixed by the error bounds given at
+ * construction. Every thread then drains its hash table whenever it holds
+ * FLUSH_WORDS distinct words into a CountMinSketch, which answers get, and
+ * a SpaceSaving tracker, which answers top and is only offered the words the
+ * sketch estimates above its smallest count; the sketches and trackers of
+ * the threads are merged at the end. Counts are then upper bounds on the true
+ * counts: get errs by at most epsilon times the total with probability
+ * 1 - delta. The counts top reports exceed the true counts by at most the
+ * tracker's smallest count, and every word more frequent than that count is
+ * tracked; on one thread that count is at most epsilon times the total,
+ * and merging the trackers of several threads can raise it.
+ * <p>
+ * Counts accumulate across calls of count.
+ */
 public class WordCounter {
-	public static String word; 
-	public static Integer count; 
-	
-	public static void main(String [] args) throws IOException {
-		Scanner scan = new Scanner(System.in); 
-		//the pattern allows the scanner to ignore non-letters.
-		scan.useDelimiter("[^a-za-Z]"); 
-		ChainHashMap<String,Integer> c = new ChainHashMap<String,Integer>(); 
-		
-		while (scan.hasNext()) {
-			word = scan.next().trim().toLowerCase(); 
-			count = c.get(word); //get the previous count for this word
-			
-			//if this is the first instance of the word, initialise the count to 1
-			if (count == null) {
-				c.put(word, 1); 
-			}
-			else {
-				c.put(word, count++); 
-			}
-		}
-	}
+
+    /** The default size of the chunks in which files are counted. */
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 26;
+
+    /** The number of distinct words a thread collects before adding them to its sketch, in approximate mode. */
+    public static final int FLUSH_WORDS = 1 << 16;
+
+    private static final int WINDOW_BYTES = 1 << 16;
+
+    private final int threads;
+    private final int chunkBytes;
+    private final WordTable counts;
+
+    /**
+     * Creates a word counter using one thread per available processor.
+     */
+    public WordCounter() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Creates a word counter using the given number of threads and chunk size.
+     *
+     * @param threads    the number of threads counting chunks of files
+     * @param chunkBytes the number of bytes of a file handed to a thread at a time
+     * @throws IllegalArgumentException if threads or chunkBytes is not positive
+     */
+    public WordCounter(int threads, int chunkBytes) throws IllegalArgumentException {
+        if (threads < 1 || chunkBytes < 1) {
+            throw new IllegalArgumentException("Threads and chunk size must be positive");
+        }
+        this.threads = threads;
+        this.chunkBytes = chunkBytes;
+        counts = new WordTable(null);
+    }
+
+    /**
+     * Creates a word counter in approximate mode, whose memory is fixed by
+     * the error bounds rather than by the number of distinct words.
+     *
+     * @param threads    the number of threads counting chunks of files
+     * @param chunkBytes the number of bytes of a file handed to a thread at a time
+     * @param epsilon    the error of the counts relative to the total number of words, in (0, 1)
+     * @param delta      the probability that get errs by more than that, in (0, 1)
+     * @throws IllegalArgumentException if threads or chunkBytes is not positive, or epsilon or delta is not in (0, 1)
+     */
+    public WordCounter(int threads, int chunkBytes, double epsilon, double delta) throws IllegalArgumentException {
+        if (threads < 1 || chunkBytes < 1) {
+            throw new IllegalArgumentException("Threads and chunk size must be positive");
+        }
+        this.threads = threads;
+        this.chunkBytes = chunkBytes;
+        counts = new WordTable(new Sketch(new CountMinSketch(epsilon, delta),
+                new SpaceSaving<>((int) Math.min(1 << 24, Math.ceil(1 / epsilon)))));
+    }
+
+    /**
+     * Returns whether the counter is in approximate mode.
+     *
+     * @return true if the counts are estimates
+     */
+    public boolean isApproximate() {
+        return counts.sketch != null;
+    }
+
+    /**
+     * Returns the amount by which get may exceed the true count of a word,
+     * except with probability delta, in approximate mode.
+     *
+     * @return the error bound of get (0 if the counts are exact)
+     */
+    public long errorBound() {
+        return (counts.sketch != null ? counts.sketch.frequencies.errorBound() : 0);
+    }
+
+    /**
+     * Returns the number of distinct words counted. Approximate mode does
+     * not keep every word, and returns the number of words its heavy hitter
+     * tracker holds instead, which is at most about 1/epsilon.
+     *
+     * @return number of distinct words (in approximate mode, of tracked words)
+     */
+    public int size() {
+        return (counts.sketch != null ? counts.sketch.heavyHitters.size() : counts.n);
+    }
+
+    /**
+     * Returns the number of words counted, including repetitions.
+     *
+     * @return total number of words
+     */
+    public long total() {
+        return counts.total;
+    }
+
+    /**
+     * Returns the number of occurrences of a word, ignoring case; in
+     * approximate mode, an upper bound on it.
+     *
+     * @param word the word of interest
+     * @return the number of occurrences of the word (0 if it never occurred)
+     */
+    public long get(String word) {
+        word = word.toLowerCase(Locale.ROOT);        // words are folded byte by byte, whatever the locale
+        byte[] bytes = word.getBytes(StandardCharsets.US_ASCII);
+        if (counts.sketch != null) {
+            Sketch s = counts.sketch;
+            return Math.min(s.frequencies.estimateHash(WordTable.hash64(bytes, 0, bytes.length)),
+                    s.heavyHitters.estimate(word));
+        }
+        int j = counts.indexOf(bytes, 0, bytes.length, WordTable.hash(bytes, 0, bytes.length));
+        return (j >= 0 ? counts.counts[j] : 0);
+    }
+
+    /**
+     * Counts the words of the given files, in parallel.
+     *
+     * @param files the files to read
+     * @throws IOException if reading a file fails
+     */
+    public void count(Path... files) throws IOException {
+        ArrayList<Chunk> chunks = new ArrayList<>();
+        for (Path file : files) {
+            split(file, chunks);
+        }
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, chunks.size())));
+        try {
+            ArrayList<Future<WordTable>> workers = new ArrayList<>();
+            for (int t = 0; t < threads && t < chunks.size(); t++) {
+                workers.add(pool.submit(() -> {
+                    WordTable table = new WordTable(counts.sketch == null ? null : counts.sketch.emptyCopy());
+                    byte[] window = new byte[WINDOW_BYTES];
+                    for (int c = next.getAndIncrement(); c < chunks.size(); c = next.getAndIncrement()) {
+                        chunks.get(c).countInto(table, window);
+                    }
+                    return table;
+                }));
+            }
+            for (Future<WordTable> worker : workers) {
+                counts.addAll(worker.get());
+            }
+            counts.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while counting words", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Counts the words of a stream, in the calling thread.
+     *
+     * @param in the stream to read to its end
+     * @throws IOException if reading the stream fails
+     */
+    public void count(InputStream in) throws IOException {
+        byte[] window = new byte[WINDOW_BYTES];
+        for (int k = in.read(window); k >= 0; k = in.read(window)) {
+            counts.feed(window, k);
+        }
+        counts.endWord();
+        counts.flush();
+    }
+
+    /**
+     * Returns the k most frequent words with their counts, most frequent
+     * first; words of equal count are in alphabetical order. In approximate
+     * mode, at most as many words as the SpaceSaving tracker has counters
+     * are reported, and words of equal count are in no particular order.
+     *
+     * @param k the number of words to report
+     * @return up to k words and their counts
+     */
+    public java.util.List<Entry<String, Long>> top(int k) {
+        if (counts.sketch != null) {
+            return counts.sketch.heavyHitters.top(k);
+        }
+        WordTable table = counts;
+        // the minimum of the queue is the least frequent word, or the last alphabetically among equals
+        HeapPriorityQueue<Integer, Integer> best = new HeapPriorityQueue<>((x, y) -> (table.counts[x] != table.counts[y]
+                ? Long.compare(table.counts[x], table.counts[y]) : table.compareWords(y, x)));
+        for (int j = 0; j < table.lengths.length; j++) {
+            if (table.lengths[j] == 0 || k < 1) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.insert(j, j);
+            } else if (table.counts[j] > table.counts[best.min().getKey()]
+                    || table.counts[j] == table.counts[best.min().getKey()] && table.compareWords(j, best.min().getKey()) < 0) {
+                best.removeMin();
+                best.insert(j, j);
+            }
+        }
+        Entry<String, Long>[] answer = newArray(best.size());
+        for (int i = answer.length - 1; i >= 0; i--) {
+            int j = best.removeMin().getKey();
+            answer[i] = new AbstractMap.MapEntry<>(table.word(j), table.counts[j]);
+        }
+        return Arrays.asList(answer);
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private static <T> T[] newArray(int length) {
+        return (T[]) new Entry<?, ?>[length];
+    }
+
+    /**
+     * Appends the chunks of a file to the list, each ending at the end of a
+     * word or of the file.
+     */
+    private void split(Path file, ArrayList<Chunk> chunks) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer probe = ByteBuffer.allocate(4096);
+            for (long start = 0; start < size; ) {
+                long end = Math.min(start + chunkBytes, size);
+                while (end < size) {                  // move the end past the letters of a straddling word
+                    probe.clear();
+                    int k = channel.read(probe, end);
+                    int i = 0;
+                    while (i < k && WordTable.isLetter(probe.get(i))) {
+                        i++;
+                    }
+                    end += i;
+                    if (i < k) {
+                        break;
+                    }
+                }
+                if (end - start > Integer.MAX_VALUE) {
+                    throw new IOException(file + " holds a word longer than 2 GB");
+                }
+                chunks.add(new Chunk(file, start, (int) (end - start)));
+                start = end;
+            }
+        }
+    }
+
+    /**
+     * Counts the words of the given files, or of the standard input if no
+     * files are given, and prints the most frequent ones. Giving an epsilon
+     * selects approximate mode, with delta 0.01 unless given.
+     * Usage: java WordCounter [-k words] [-t threads] [-e epsilon [-d delta]] [file ...]
+     */
+    public static void main(String[] args) throws IOException {
+        int k = 10;
+        int threads = Runtime.getRuntime().availableProcessors();
+        double epsilon = 0;
+        double delta = 0.01;
+        ArrayList<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-k") && i + 1 < args.length) {
+                k = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-t") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-e") && i + 1 < args.length) {
+                epsilon = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("-d") && i + 1 < args.length) {
+                delta = Double.parseDouble(args[++i]);
+            } else {
+                files.add(Paths.get(args[i]));
+            }
+        }
+        WordCounter counter = (epsilon > 0 ? new WordCounter(threads, DEFAULT_CHUNK_BYTES, epsilon, delta)
+                : new WordCounter(threads, DEFAULT_CHUNK_BYTES));
+        long start = System.nanoTime();
+        if (files.isEmpty()) {
+            counter.count(System.in);
+        } else {
+            counter.count(files.toArray(new Path[0]));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        for (Entry<String, Long> e : counter.top(k)) {
+            System.out.println(e.getValue() + "\t" + e.getKey());
+        }
+        if (counter.isApproximate()) {
+            System.out.printf("%d words, counts within +%d, in %.2f s%n", counter.total(), counter.errorBound(), seconds);
+        } else {
+            System.out.printf("%d words, %d distinct, in %.2f s%n", counter.total(), counter.size(), seconds);
+        }
+    }
+
+    //---------------- nested Chunk class ----------------
+    /** A range of a file that begins and ends at a word boundary. */
+    private static class Chunk {
+        final Path file;
+        final long start;
+        final int length;
+
+        Chunk(Path file, long start, int length) {
+            this.file = file;
+            this.start = start;
+            this.length = length;
+        }
+
+        /** Maps the range and feeds it to the table, a window of bytes at a time. */
+        void countInto(WordTable table, byte[] window) throws IOException {
+            MappedByteBuffer bytes;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, length);   // stays valid after close
+            }
+            while (bytes.hasRemaining()) {
+                int k = Math.min(window.length, bytes.remaining());
+                bytes.get(window, 0, k);
+                table.feed(window, k);
+            }
+            table.endWord();
+        }
+    } //----------- end of nested Chunk class -----------
+
+    //---------------- nested WordTable class ----------------
+    /**
+     * A tokenizer and hash table of word counts. Words are stored once, in
+     * lower case, back to back in a byte arena; the table uses open addressing
+     * with linear probing over parallel arrays of arena offsets, lengths,
+     * hashes and counts. A length of 0 marks an empty slot. In approximate
+     * mode the table is drained into a sketch whenever it holds FLUSH_WORDS
+     * words, so its size stays bounded.
+     */
+    private static class WordTable {
+        private final Sketch sketch;         // null if the counts are exact
+        private byte[] arena = new byte[1 << 12];
+        private int used = 0;                // bytes of the arena in use
+        private int[] offsets = new int[16];
+        private int[] lengths = new int[16];
+        private int[] hashes = new int[16];
+        private long[] counts = new long[16];
+        private int mask = 15;
+        private int n = 0;                   // number of distinct words
+        private long total = 0;              // number of words
+
+        private byte[] word = new byte[64];  // the word being read, in lower case
+        private int wordLength = 0;
+        private int wordHash = 0;
+
+        WordTable(Sketch sketch) {
+            this.sketch = sketch;
+        }
+
+        static boolean isLetter(byte b) {
+            int c = (b | 0x20) & 0xFF;          // lower case, if b is a letter
+            return c >= 'a' && c <= 'z';
+        }
+
+        static int hash(byte[] bytes, int from, int length) {
+            int h = 0;
+            for (int i = from; i < from + length; i++) {
+                h = 31 * h + bytes[i];
+            }
+            return h;
+        }
+
+        /** A 64-bit FNV-1a hash, for the sketch, in which 32-bit collisions would be too frequent. */
+        static long hash64(byte[] bytes, int from, int length) {
+            long h = 0xCBF29CE484222325L;
+            for (int i = from; i < from + length; i++) {
+                h = (h ^ bytes[i]) * 0x100000001B3L;
+            }
+            return h;
+        }
+
+        /** Tokenizes the first k bytes of the window, continuing the word left open by the previous call. */
+        void feed(byte[] window, int k) {
+            for (int i = 0; i < k; i++) {
+                int c = (window[i] | 0x20) & 0xFF;
+                if (c >= 'a' && c <= 'z') {
+                    if (wordLength == word.length) {
+                        word = Arrays.copyOf(word, 2 * wordLength);
+                    }
+                    word[wordLength++] = (byte) c;
+                    wordHash = 31 * wordHash + c;
+                } else if (wordLength > 0) {
+                    endWord();
+                }
+            }
+        }
+
+        /** Counts the word being read, if any. */
+        void endWord() {
+            if (wordLength > 0) {
+                add(word, 0, wordLength, wordHash, 1);
+                wordLength = 0;
+                wordHash = 0;
+            }
+        }
+
+        /** Adds delta to the count of the word held in bytes[from, from+length). */
+        void add(byte[] bytes, int from, int length, int h, long delta) {
+            total += delta;
+            int j = indexOf(bytes, from, length, h);
+            if (j >= 0) {
+                counts[j] += delta;
+                return;
+            }
+            j = -(j + 1);
+            if (used + length > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(2 * arena.length, used + length));
+            }
+            System.arraycopy(bytes, from, arena, used, length);
+            offsets[j] = used;
+            lengths[j] = length;
+            hashes[j] = h;
+            counts[j] = delta;
+            used += length;
+            if (++n >= FLUSH_WORDS && sketch != null) {
+                flush();
+            } else if (n > (mask + 1) / 2) {     // keep load factor <= 0.5
+                rehash();
+            }
+        }
+
+        /** In approximate mode, moves the counts of the table into the sketch and empties the table. */
+        void flush() {
+            if (sketch == null || n == 0) {
+                return;
+            }
+            for (int j = 0; j < lengths.length; j++) {
+                if (lengths[j] != 0) {
+                    sketch.add(this, j);
+                    lengths[j] = 0;
+                }
+            }
+            n = 0;
+            used = 0;
+        }
+
+        /**
+         * Returns the slot holding the given word, or -(j+1) where j is the
+         * empty slot at which the search stopped.
+         */
+        int indexOf(byte[] bytes, int from, int length, int h) {
+            int j = slot(h);
+            while (lengths[j] != 0) {
+                if (hashes[j] == h && lengths[j] == length
+                        && Arrays.equals(arena, offsets[j], offsets[j] + length, bytes, from, from + length)) {
+                    return j;
+                }
+                j = (j + 1) & mask;
+            }
+            return -(j + 1);
+        }
+
+        /** Adds the counts of another table to this one. */
+        void addAll(WordTable other) {
+            long before = total;
+            if (sketch != null) {
+                other.flush();
+                sketch.merge(other.sketch);
+            } else {
+                for (int j = 0; j < other.lengths.length; j++) {
+                    if (other.lengths[j] != 0) {
+                        add(other.arena, other.offsets[j], other.lengths[j], other.hashes[j], other.counts[j]);
+                    }
+                }
+            }
+            total = before + other.total;
+        }
+
+        String word(int j) {
+            return new String(arena, offsets[j], lengths[j], StandardCharsets.US_ASCII);
+        }
+
+        int compareWords(int x, int y) {
+            return Arrays.compare(arena, offsets[x], offsets[x] + lengths[x], arena, offsets[y], offsets[y] + lengths[y]);
+        }
+
+        private int slot(int h) {
+            h *= 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        /** Doubles the table, keeping the words in the arena where they are. */
+        private void rehash() {
+            int[] oldOffsets = offsets, oldLengths = lengths, oldHashes = hashes;
+            long[] oldCounts = counts;
+            int cap = 2 * (mask + 1);
+            offsets = new int[cap];
+            lengths = new int[cap];
+            hashes = new int[cap];
+            counts = new long[cap];
+            mask = cap - 1;
+            for (int i = 0; i < oldLengths.length; i++) {
+                if (oldLengths[i] != 0) {
+                    int j = slot(oldHashes[i]);
+                    while (lengths[j] != 0) {
+                        j = (j + 1) & mask;
+                    }
+                    offsets[j] = oldOffsets[i];
+                    lengths[j] = oldLengths[i];
+                    hashes[j] = oldHashes[i];
+                    counts[j] = oldCounts[i];
+                }
+            }
+        }
+    } //----------- end of nested WordTable class -----------
+
+    //---------------- nested Sketch class ----------------
+    /** The approximate counts of a thread or of the whole counter. */
+    private static class Sketch {
+        final CountMinSketch frequencies;
+        final SpaceSaving<String> heavyHitters;
+
+        Sketch(CountMinSketch frequencies, SpaceSaving<String> heavyHitters) {
+            this.frequencies = frequencies;
+            this.heavyHitters = heavyHitters;
+        }
+
+        /** Returns an empty sketch of the same dimensions. */
+        Sketch emptyCopy() {
+            return new Sketch(new CountMinSketch(frequencies.width(), frequencies.depth()),
+                    new SpaceSaving<>(heavyHitters.capacity()));
+        }
+
+        /**
+         * Adds the count of the word in slot j of the table. The word is only
+         * offered to the tracker if the sketch estimates it above the smallest
+         * tracked count: otherwise its true count is at most that count, so
+         * the tracker's counts remain upper bounds, and most words of a long
+         * tail are skipped without creating their String.
+         */
+        void add(WordTable table, int j) {
+            long estimate = frequencies.addHash(WordTable.hash64(table.arena, table.offsets[j], table.lengths[j]), table.counts[j]);
+            if (estimate > heavyHitters.minCount()) {
+                heavyHitters.add(table.word(j), table.counts[j]);
+            }
+        }
+
+        void merge(Sketch other) {
+            frequencies.merge(other.frequencies);
+            heavyHitters.merge(other.heavyHitters);
+        }
+    } //----------- end of nested Sketch class -----------
 }
@@ -0,0 +1,188 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WordCounterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void testCountsMatchNaiveCount() throws IOException {
+		Random rnd = new Random(24);
+		String[] vocabulary = new String[500];
+		for (int i = 0; i < vocabulary.length; i++) {
+			StringBuilder sb = new StringBuilder();
+			for (int j = 1 + rnd.nextInt(i % 50 == 0 ? 200 : 12); j > 0; j--) {   // a few words longer than a chunk
+				sb.append((char) ('a' + rnd.nextInt(26)));
+			}
+			vocabulary[i] = sb.toString();
+		}
+		String[] separators = {" ", "\n", ", ", "--", "é", "42", "\t"};
+		HashMap<String, Long> expected = new HashMap<>();
+		Path[] files = new Path[3];
+		for (int f = 0; f < files.length; f++) {
+			StringBuilder text = new StringBuilder();
+			for (int i = 0; i < 20000; i++) {
+				String w = vocabulary[(int) Math.min(vocabulary.length - 1, Math.abs(rnd.nextGaussian()) * 60)];
+				expected.merge(w, 1L, Long::sum);
+				text.append(rnd.nextBoolean() ? w : w.toUpperCase()).append(separators[rnd.nextInt(separators.length)]);
+			}
+			files[f] = dir.resolve("corpus" + f);
+			Files.write(files[f], text.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		Files.write(dir.resolve("empty"), new byte[0]);
+
+		WordCounter counter = new WordCounter(4, 100);
+		counter.count(files[0], dir.resolve("empty"), files[1], files[2]);
+		assertEquals(expected.size(), counter.size());
+		assertEquals(60000, counter.total());
+		for (String w : expected.keySet()) {
+			assertEquals(expected.get(w), counter.get(w), w);
+		}
+		assertEquals(0, counter.get("nonexistent"));
+
+		ArrayList<String> ranked = new ArrayList<>(expected.keySet());
+		ranked.sort((x, y) -> (!expected.get(x).equals(expected.get(y)) ? Long.compare(expected.get(y), expected.get(x)) : x.compareTo(y)));
+		java.util.List<Entry<String, Long>> top = counter.top(25);
+		assertEquals(25, top.size());
+		for (int i = 0; i < top.size(); i++) {
+			assertEquals(ranked.get(i), top.get(i).getKey());
+			assertEquals(expected.get(ranked.get(i)), top.get(i).getValue());
+		}
+		assertEquals(expected.size(), counter.top(expected.size() + 10).size());
+	}
+
+	@Test
+	void testCountStream() throws IOException {
+		WordCounter counter = new WordCounter(1, 1);
+		counter.count(new ByteArrayInputStream("The cat, the HAT; the café -- and THE cat.".getBytes(StandardCharsets.UTF_8)));
+		assertEquals(4, counter.get("the"));
+		assertEquals(2, counter.get("Cat"));
+		assertEquals(1, counter.get("caf"));
+		assertEquals(9, counter.total());
+		java.util.List<Entry<String, Long>> top = counter.top(4);
+		assertEquals("the", top.get(0).getKey());
+		assertEquals("cat", top.get(1).getKey());
+		assertEquals("and", top.get(2).getKey());          // ties in alphabetical order
+		assertEquals("caf", top.get(3).getKey());
+		assertEquals(0, counter.top(0).size());
+		counter.count(new ByteArrayInputStream("cat cat cat".getBytes(StandardCharsets.UTF_8)));
+		assertEquals(5, counter.get("cat"));               // counts accumulate
+		assertEquals("cat", counter.top(1).get(0).getKey());
+	}
+
+	@Test
+	void testGetIgnoresDefaultLocale() throws IOException {
+		// in Turkish, "I" lowers to a dotless i, which is not the byte the counter folds it to
+		Locale saved = Locale.getDefault();
+		Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+		try {
+			WordCounter counter = new WordCounter(1, 100);
+			counter.count(new ByteArrayInputStream("INDEX index Index".getBytes(StandardCharsets.US_ASCII)));
+			assertEquals(3, counter.get("INDEX"));
+			assertEquals(3, counter.get("index"));
+			WordCounter approximate = new WordCounter(1, 100, 0.01, 0.01);
+			approximate.count(new ByteArrayInputStream("INDEX index Index".getBytes(StandardCharsets.US_ASCII)));
+			assertEquals(3, approximate.get("INDEX"));
+		} finally {
+			Locale.setDefault(saved);
+		}
+	}
+
+	@Test
+	void testApproximateMode() throws IOException {
+		// 200000 distinct words, so every thread's table is drained into its sketch several times
+		Random rnd = new Random(25);
+		HashMap<String, Long> expected = new HashMap<>();
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 400000; i++) {
+			String w = (i % 2 == 0 ? "hot" + (char) ('a' + rnd.nextInt(5)) : "cold" + Integer.toString(i, 26).replaceAll("[0-9]", "z"));
+			expected.merge(w, 1L, Long::sum);
+			text.append(w).append(' ');
+		}
+		Path file = dir.resolve("stream");
+		Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+
+		WordCounter counter = new WordCounter(3, 1 << 16, 0.001, 0.01);
+		counter.count(file);
+		assertTrue(counter.isApproximate());
+		assertEquals(400000, counter.total());
+		assertTrue(counter.size() > 0 && counter.size() <= 1000, "tracked words " + counter.size());
+		int exceeded = 0;
+		for (String w : expected.keySet()) {
+			long estimate = counter.get(w);
+			assertTrue(estimate >= expected.get(w), w);
+			if (estimate > expected.get(w) + counter.errorBound()) {
+				exceeded++;
+			}
+		}
+		assertTrue(exceeded <= expected.size() / 100, exceeded + " estimates beyond the error bound");
+		java.util.List<Entry<String, Long>> top = counter.top(5);
+		assertEquals(5, top.size());
+		for (Entry<String, Long> e : top) {
+			assertTrue(e.getKey().startsWith("hot"), e.getKey());
+			assertTrue(Math.abs(e.getValue() - expected.get(e.getKey())) <= 2 * 0.001 * 400000);
+		}
+	}
+
+	@Test
+	void testApproximateModeUpperBoundsAfterMerge() throws IOException {
+		// the counter keeps "common" from the first file; counting the second file, the new thread's
+		// tracker evicts it in favour of 70000 other words, and merging must not lose its 30 occurrences
+		StringBuilder first = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			first.append("common ");
+		}
+		StringBuilder second = new StringBuilder();
+		for (int i = 0; i < 30; i++) {
+			second.append("common ");
+		}
+		for (int i = 0; i < 70000; i++) {
+			second.append("rare").append(letters(i)).append(' ');
+		}
+		Path a = dir.resolve("first");
+		Path b = dir.resolve("second");
+		Files.write(a, first.toString().getBytes(StandardCharsets.US_ASCII));
+		Files.write(b, second.toString().getBytes(StandardCharsets.US_ASCII));
+
+		WordCounter counter = new WordCounter(1, 1 << 20, 0.01, 0.01);
+		counter.count(a);
+		counter.count(b);
+		assertEquals(71030, counter.total());
+		assertTrue(counter.get("common") >= 1030);
+		assertEquals("common", counter.top(1).get(0).getKey());
+		assertTrue(counter.top(1).get(0).getValue() >= 1030);
+	}
+
+	/** Spells i in base 26 with the letters a-z, so distinct numbers give distinct words. */
+	private static String letters(int i) {
+		StringBuilder sb = new StringBuilder();
+		do {
+			sb.append((char) ('a' + i % 26));
+			i /= 26;
+		} while (i > 0);
+		return sb.toString();
+	}
+
+	@Test
+	void testInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new WordCounter(0, 100));
+		assertThrows(IllegalArgumentException.class, () -> new WordCounter(1, 0));
+		assertThrows(IllegalArgumentException.class, () -> new WordCounter(1, 100, 0, 0.1));
+		assertThrows(IllegalArgumentException.class, () -> new WordCounter(1, 100, 0.1, 1));
+	}
+}